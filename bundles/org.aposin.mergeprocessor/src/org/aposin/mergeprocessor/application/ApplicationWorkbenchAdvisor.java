@@ -32,10 +32,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.aposin.mergeprocessor.configuration.Configuration;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
 import org.aposin.mergeprocessor.configuration.WorkbenchPreferencePage;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
 import org.aposin.mergeprocessor.utils.CommandLineArgsUtil;
 import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
 import org.aposin.mergeprocessor.utils.LogUtil;
-import org.aposin.mergeprocessor.utils.SftpUtil;
 import org.aposin.mergeprocessor.utils.ShutdownHook;
 import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.jface.preference.IPreferenceStore;
@@ -148,7 +148,7 @@ public class ApplicationWorkbenchAdvisor extends WorkbenchAdvisor {
 			preferenceStore.addPropertyChangeListener(ApplicationWorkbenchAdvisor::handlePropertyChange);
 			try {
 				Logger.getLogger("").addHandler(new LogFileHandler());
-			} catch (SecurityException | IOException e) {
+			} catch (SecurityException e) {
 				LogUtil.throwing(e);
 			}
 			Logger.getLogger("").setLevel(Configuration.getLogLevel());
@@ -250,7 +250,11 @@ public class ApplicationWorkbenchAdvisor extends WorkbenchAdvisor {
 	public boolean preShutdown() {
 		LogUtil.entering();
 		// close SFTP session
-		SftpUtil.getInstance().disconnect();
+		final MergeUnitQueueService queueService = E4CompatibilityUtil.getApplicationContext()
+				.get(MergeUnitQueueService.class);
+		if (queueService != null) {
+			queueService.close();
+		}
 		releaseAndCloseFileLock();
 		LOGGER.info("MergeProcessor is shutting down"); //$NON-NLS-1$
 		return LogUtil.exiting(true);
@@ -0,0 +1,412 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.application;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * {@link Handler} writing log records asynchronously into a file. Published
+ * records are put into a bounded buffer and written by a background thread in
+ * batches, so the logging threads never wait for the disk unless the buffer is
+ * full and the {@link OverflowPolicy} is {@link OverflowPolicy#BLOCK}.
+ * <p>
+ * The records are written into {@code <baseName>.log}, which is continued on
+ * the next start. The file is rotated to
+ * {@code <baseName>_yyyy-MM-dd_HH-mm-ss.log}, named by the time the file was
+ * started, if it exceeds the maximum size or the rotation interval has elapsed.
+ * The start time is kept in the hidden file {@code .<baseName>.start}, so the
+ * rotation interval also covers the time before a restart. The size is checked
+ * after each batch, so a file may exceed the maximum size by one batch. The
+ * tail of the formatter is only written when the file is rotated.
+ * <p>
+ * The writer thread is started when the first record is published, so
+ * subclasses can still configure the handler, e.g. the formatter, in their
+ * constructor. If the writer thread has terminated, published records are
+ * discarded.
+ * <p>
+ * The records are formatted on the writer thread. Therefore parameters of a
+ * record should not be changed after logging.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class AsyncFileHandler extends Handler {
+
+	/**
+	 * Policies defining what happens if a record is published while the buffer is
+	 * full.
+	 */
+	public enum OverflowPolicy {
+		/** The publishing thread waits until the buffer has space. */
+		BLOCK,
+		/** The published record is discarded. */
+		DISCARD_NEWEST,
+		/** The oldest record in the buffer is discarded. */
+		DISCARD_OLDEST
+	}
+
+	private static final int MAX_BATCH_SIZE = 1024;
+	private static final long POLL_TIMEOUT_MILLIS = 500;
+	private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+	private static final long CLOSE_TIMEOUT_MILLIS = 10000;
+	private static final DateTimeFormatter ARCHIVE_DATE_FORMATTER = DateTimeFormatter
+			.ofPattern("yyyy-MM-dd_HH-mm-ss").withZone(ZoneId.systemDefault()); //$NON-NLS-1$
+	private static final String FILE_EXTENSION = ".log"; //$NON-NLS-1$
+	private static final String START_FILE_EXTENSION = ".start"; //$NON-NLS-1$
+
+	private final Path folder;
+	private final String baseName;
+	private final long maxFileSize;
+	private final Duration rotationInterval;
+	private final OverflowPolicy overflowPolicy;
+	private final BlockingQueue<LogRecord> buffer;
+	private final Thread writerThread;
+
+	/** The number of records put into the buffer. */
+	private final AtomicLong enqueued = new AtomicLong();
+	/** The number of records taken out of the buffer, written or discarded. */
+	private final AtomicLong processed = new AtomicLong();
+	/** The number of discarded records not reported in the file yet. */
+	private final AtomicLong discarded = new AtomicLong();
+	private final Object processedLock = new Object();
+	private volatile boolean started;
+	private volatile boolean closed;
+
+	// Only accessed by the writer thread
+	private OutputStream out;
+	private Path file;
+	private Path startFile;
+	private long fileSize;
+	private Instant fileStart;
+
+	/**
+	 * @param folder           the folder where to write the log files
+	 * @param baseName         the name of the log file without extension
+	 * @param capacity         the maximum number of buffered records
+	 * @param overflowPolicy   the policy if the buffer is full
+	 * @param maxFileSize      the maximum size of a log file in bytes, or
+	 *                         {@code 0} for no size based rotation
+	 * @param rotationInterval the maximum time span of a log file, or
+	 *                         {@link Duration#ZERO} for no time based rotation
+	 */
+	public AsyncFileHandler(final Path folder, final String baseName, final int capacity,
+			final OverflowPolicy overflowPolicy, final long maxFileSize, final Duration rotationInterval) {
+		this.folder = Objects.requireNonNull(folder);
+		this.baseName = Objects.requireNonNull(baseName);
+		this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+		this.maxFileSize = maxFileSize;
+		this.rotationInterval = Objects.requireNonNull(rotationInterval);
+		buffer = new ArrayBlockingQueue<>(capacity);
+		setFormatter(new SimpleFormatter());
+		writerThread = new Thread(this::writeRecords, "Log File Writer"); //$NON-NLS-1$
+		writerThread.setDaemon(true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void publish(final LogRecord record) {
+		if (closed || !isLoggable(record)) {
+			return;
+		}
+		startWriterThread();
+		if (!writerThread.isAlive()) {
+			discarded.incrementAndGet();
+			return;
+		}
+		// The source is inferred from the stack of the logging thread
+		record.getSourceClassName();
+		switch (overflowPolicy) {
+		case BLOCK:
+			try {
+				while (!buffer.offer(record, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+					if (!writerThread.isAlive()) {
+						discarded.incrementAndGet();
+						return;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				discarded.incrementAndGet();
+				return;
+			}
+			break;
+		case DISCARD_NEWEST:
+			if (!buffer.offer(record)) {
+				discarded.incrementAndGet();
+				return;
+			}
+			break;
+		case DISCARD_OLDEST:
+			while (!buffer.offer(record)) {
+				if (buffer.poll() != null) {
+					discarded.incrementAndGet();
+					markProcessed(1);
+				}
+			}
+			break;
+		default:
+			throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy); //$NON-NLS-1$
+		}
+		enqueued.incrementAndGet();
+	}
+
+	/**
+	 * Starts the writer thread if not done yet.
+	 */
+	private void startWriterThread() {
+		if (!started) {
+			synchronized (writerThread) {
+				if (!started) {
+					writerThread.start();
+					started = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until all records published before are written to the file.
+	 *
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void flush() {
+		if (Thread.currentThread() == writerThread) {
+			return;
+		}
+		final long target = enqueued.get();
+		final long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MILLIS;
+		synchronized (processedLock) {
+			long remaining = FLUSH_TIMEOUT_MILLIS;
+			while (processed.get() < target && remaining > 0 && writerThread.isAlive()) {
+				try {
+					processedLock.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				remaining = deadline - System.currentTimeMillis();
+			}
+		}
+	}
+
+	/**
+	 * Writes all buffered records and closes the file. Records published
+	 * afterwards are ignored.
+	 *
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			writerThread.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The loop of the writer thread.
+	 */
+	private void writeRecords() {
+		final List<LogRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+		try {
+			while (!closed || !buffer.isEmpty()) {
+				final LogRecord first = buffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+				try {
+					writeBatch(batch);
+				} catch (RuntimeException e) {
+					// Keep the writer alive, otherwise all further records are lost
+					reportError(null, e, ErrorManager.GENERIC_FAILURE);
+				} finally {
+					markProcessed(batch.size());
+					batch.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			closeFile(false);
+			synchronized (processedLock) {
+				processedLock.notifyAll();
+			}
+		}
+	}
+
+	private void markProcessed(final int count) {
+		processed.addAndGet(count);
+		synchronized (processedLock) {
+			processedLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Formats the given records and writes them with one write operation.
+	 *
+	 * @param batch the records to write
+	 */
+	private void writeBatch(final List<LogRecord> batch) {
+		final Formatter formatter = getFormatter();
+		final StringBuilder sb = new StringBuilder(batch.size() * 128);
+		final long discardedCount = discarded.getAndSet(0);
+		if (discardedCount > 0) {
+			sb.append(String.format("%d log records discarded because of a full buffer.%n", discardedCount)); //$NON-NLS-1$
+		}
+		for (final LogRecord record : batch) {
+			try {
+				sb.append(formatter.format(record));
+			} catch (RuntimeException e) {
+				reportError(null, e, ErrorManager.FORMAT_FAILURE);
+			}
+		}
+		try {
+			rotateIfRequired();
+			write(sb.toString());
+			out.flush();
+		} catch (IOException e) {
+			reportError(null, e, ErrorManager.WRITE_FAILURE);
+			closeFile(false);
+		}
+	}
+
+	private void write(final String text) throws IOException {
+		final byte[] bytes = text.getBytes(getCharset());
+		out.write(bytes);
+		fileSize += bytes.length;
+	}
+
+	/**
+	 * Opens the log file if not done yet and rotates it if required.
+	 *
+	 * @throws IOException if the file could not be opened or rotated
+	 */
+	private void rotateIfRequired() throws IOException {
+		if (out == null) {
+			Files.createDirectories(folder);
+			file = folder.resolve(baseName + FILE_EXTENSION);
+			startFile = folder.resolve('.' + baseName + START_FILE_EXTENSION);
+			if (Files.exists(file)) {
+				fileSize = Files.size(file);
+				fileStart = readFileStart();
+			}
+			openFile();
+		}
+		if (isRotationRequired()) {
+			closeFile(true);
+			archiveFile();
+			openFile();
+		}
+	}
+
+	/**
+	 * @return the persisted start time of the existing log file, or its last
+	 *         modification time if no start time is available
+	 * @throws IOException if the file could not be read
+	 */
+	private Instant readFileStart() throws IOException {
+		if (Files.exists(startFile)) {
+			try {
+				final String start = Files.readString(startFile, StandardCharsets.UTF_8);
+				return Instant.ofEpochMilli(Long.parseLong(start.trim()));
+			} catch (NumberFormatException | IOException e) {
+				reportError(null, e, ErrorManager.GENERIC_FAILURE);
+			}
+		}
+		return Files.getLastModifiedTime(file).toInstant();
+	}
+
+	private boolean isRotationRequired() {
+		if (maxFileSize > 0 && fileSize >= maxFileSize) {
+			return true;
+		}
+		return !rotationInterval.isZero() && !Instant.now().isBefore(fileStart.plus(rotationInterval));
+	}
+
+	private void openFile() throws IOException {
+		final boolean newFile = Files.notExists(file);
+		out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		if (newFile) {
+			fileSize = 0;
+			fileStart = Instant.now();
+			Files.writeString(startFile, Long.toString(fileStart.toEpochMilli()), StandardCharsets.UTF_8);
+			write(getFormatter().getHead(this));
+		}
+	}
+
+	/**
+	 * Renames the current log file by the time it was started.
+	 *
+	 * @throws IOException if the file could not be renamed
+	 */
+	private void archiveFile() throws IOException {
+		final String archiveName = baseName + '_' + ARCHIVE_DATE_FORMATTER.format(fileStart);
+		Path archive = folder.resolve(archiveName + FILE_EXTENSION);
+		for (int i = 1; Files.exists(archive); i++) {
+			archive = folder.resolve(archiveName + '_' + i + FILE_EXTENSION);
+		}
+		Files.move(file, archive);
+	}
+
+	private void closeFile(final boolean writeTail) {
+		if (out != null) {
+			try {
+				if (writeTail) {
+					write(getFormatter().getTail(this));
+				}
+				out.close();
+			} catch (IOException e) {
+				reportError(null, e, ErrorManager.CLOSE_FAILURE);
+			}
+			out = null;
+		}
+	}
+
+	private Charset getCharset() {
+		final String encoding = getEncoding();
+		return encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+	}
+
+}
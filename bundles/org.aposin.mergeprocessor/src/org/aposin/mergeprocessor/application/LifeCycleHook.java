@@ -16,6 +16,9 @@
 package org.aposin.mergeprocessor.application;
 
 import java.net.URL;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
 
 import javax.inject.Inject;
 
@@ -23,16 +26,22 @@ import org.aposin.mergeprocessor.configuration.Configuration;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
 import org.aposin.mergeprocessor.configuration.PreferenceInitializer;
 import org.aposin.mergeprocessor.exception.MergeProcessorUtilException;
+import org.aposin.mergeprocessor.metrics.MergeMetrics;
+import org.aposin.mergeprocessor.metrics.MetricsSummaryWriter;
+import org.aposin.mergeprocessor.metrics.SftpMetrics;
 import org.aposin.mergeprocessor.model.ICredentialProvider;
 import org.aposin.mergeprocessor.model.IVersionProvider;
 import org.aposin.mergeprocessor.model.InstantUserAuthentication;
 import org.aposin.mergeprocessor.model.PomFileVersionProvider;
+import org.aposin.mergeprocessor.model.git.GitRepositoryManager;
 import org.aposin.mergeprocessor.model.svn.ISvnClient;
-import org.aposin.mergeprocessor.model.svn.SvnClientJavaHl;
+import org.aposin.mergeprocessor.model.svn.SvnClientJavaHlPool;
+import org.aposin.mergeprocessor.queue.IMergeUnitQueue;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueFileSystemProvider;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
 import org.aposin.mergeprocessor.renaming.H2DatabaseSetup;
 import org.aposin.mergeprocessor.renaming.IFileSystemProvider;
 import org.aposin.mergeprocessor.utils.LogUtil;
-import org.aposin.mergeprocessor.utils.SftpFileSystemProvider;
 import org.eclipse.core.databinding.validation.ValidationStatus;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
@@ -76,6 +85,8 @@ public class LifeCycleHook {
 
 	private static final String TRAY_ICON_PATH = "icons/v_collection_png/16x16/plain/graph_edge_directed.png";
 	private static final String TRAY_ICON = "trayIcon";
+	private static final String METRICS_SUMMARY_FILE = "metrics.txt"; //$NON-NLS-1$
+	private static final Duration METRICS_SUMMARY_INTERVAL = Duration.ofMinutes(5);
 
 	/**
 	 * Adds the configuration directly after context creation, because it is
@@ -105,9 +116,21 @@ public class LifeCycleHook {
 		 */
 		new PreferenceInitializer(context.get(IConfiguration.class)).initializeDefaultPreferences();
 		context.set(ICredentialProvider.class, ContextInjectionFactory.make(InstantUserAuthentication.class, context));
-		context.set(ISvnClient.class, ContextInjectionFactory.make(SvnClientJavaHl.class, context));
+		context.set(ISvnClient.class, ContextInjectionFactory.make(SvnClientJavaHlPool.class, context));
 		context.set(IVersionProvider.class, ContextInjectionFactory.make(PomFileVersionProvider.class, context));
-		context.set(IFileSystemProvider.class, ContextInjectionFactory.make(SftpFileSystemProvider.class, context));
+		final IConfiguration configuration = context.get(IConfiguration.class);
+		final IMergeUnitQueue queue = MergeUnitQueueService.createQueue(configuration.getSftpConfiguration());
+		context.set(IMergeUnitQueue.class, queue);
+		context.set(MergeUnitQueueService.class,
+				new MergeUnitQueueService(configuration, queue, () -> context.get(ISvnClient.class)));
+		context.set(IFileSystemProvider.class, new MergeUnitQueueFileSystemProvider(queue));
+		context.set(GitRepositoryManager.class, ContextInjectionFactory.make(GitRepositoryManager.class, context));
+		MergeMetrics.getInstance().registerMBean();
+		SftpMetrics.getInstance().registerMBean();
+		context.set(MetricsSummaryWriter.class,
+				new MetricsSummaryWriter(Paths.get(Configuration.getPathLogFileFolder(), METRICS_SUMMARY_FILE),
+						METRICS_SUMMARY_INTERVAL, Arrays.asList(MergeMetrics.getInstance()::getSummary,
+								SftpMetrics.getInstance()::getSummary)));
 
 		copyH2ToLocalIfRequired(context.get(IConfiguration.class), display);
 	}
@@ -229,14 +252,24 @@ public class LifeCycleHook {
 	/**
 	 * Executes shutdown tasks when the application gets closed.
 	 * 
-	 * @param event     the event on {@link UILifeCycle#APP_SHUTDOWN_STARTED}
-	 * @param svnClient the registered SVN client which has to be closed
+	 * @param event                the event on
+	 *                             {@link UILifeCycle#APP_SHUTDOWN_STARTED}
+	 * @param svnClient            the registered SVN client which has to be closed
+	 * @param repositoryManager    the registered GIT repository manager which has
+	 *                             to be closed
+	 * @param metricsSummaryWriter the registered writer of the metrics summary
+	 *                             which has to be closed
 	 */
 	@Optional
 	@Inject
 	public void appShutdownStarted(@UIEventTopic(UILifeCycle.APP_SHUTDOWN_STARTED) final Event event,
-			final ISvnClient svnClient) {
+			final ISvnClient svnClient, final GitRepositoryManager repositoryManager,
+			final MetricsSummaryWriter metricsSummaryWriter) {
 		svnClient.close();
+		repositoryManager.close();
+		metricsSummaryWriter.close();
+		MergeMetrics.getInstance().unregisterMBean();
+		SftpMetrics.getInstance().unregisterMBean();
 	}
 
 	private static void initializeImage(final String name, final String path) {
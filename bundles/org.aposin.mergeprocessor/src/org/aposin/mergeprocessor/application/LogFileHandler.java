@@ -15,72 +15,51 @@
  */
 package org.aposin.mergeprocessor.application;
 
-import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.Format;
-import java.util.Date;
-import java.util.logging.FileHandler;
-import java.util.logging.Level;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.LogRecord;
-import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
 import org.aposin.mergeprocessor.configuration.Configuration;
 
-import com.ibm.icu.text.SimpleDateFormat;
-
 /**
- * {@link FileHandler} logging to the log folder of the merge processor.
+ * {@link AsyncFileHandler} logging to the log folder of the merge processor.
  * 
  * @author Stefan Weiser
  *
  */
-public class LogFileHandler extends FileHandler {
+public class LogFileHandler extends AsyncFileHandler {
 
-	private static final Format DATE_FORMATER = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+	private static final int CAPACITY = 8192;
+	private static final DateTimeFormatter DATE_FORMATER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS") //$NON-NLS-1$
+			.withZone(ZoneId.systemDefault());
 
-	public LogFileHandler() throws IOException {
-		super(getPattern());
+	public LogFileHandler() {
+		super(Paths.get(Configuration.getPathLogFileFolder()), "mp", CAPACITY, Configuration.getLogOverflowPolicy(), //$NON-NLS-1$
+				Configuration.getLogFileMaxSize(), Configuration.getLogFileRotationInterval());
 		setFormatter(new LogFileFormatter());
 	}
 
-	private static String getPattern() {
-		final Date date = new Date();
-		final Format fileDateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-		final String pathLogFileFolder = Configuration.getPathLogFileFolder();
-		final Path logFileFolder = Paths.get(pathLogFileFolder);
-		if (Files.notExists(logFileFolder)) {
-			try {
-				Files.createDirectories(logFileFolder);
-			} catch (IOException e) {
-				Logger.getLogger(LogFileHandler.class.getName()).log(Level.SEVERE, "Could not create log file folder",
-						e);
-			}
-		}
-		return pathLogFileFolder + "mp_" + fileDateFormat.format(date) + ".log";
-	}
-
 	/**
-	 * Formatter for the {@link LogFileHandler}.
+	 * Formatter for the {@link LogFileHandler}. It is stateless, so it can format
+	 * records concurrently.
 	 * 
 	 * @author Stefan Weiser
 	 *
 	 */
 	private static final class LogFileFormatter extends SimpleFormatter {
 
-		private final Date dat = new Date();
-
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
-		public synchronized String format(LogRecord record) {
-			dat.setTime(record.getMillis());
-			final StringBuilder sb = new StringBuilder(DATE_FORMATER.format(dat));
+		public String format(LogRecord record) {
+			final StringBuilder sb = new StringBuilder(256);
+			DATE_FORMATER.formatTo(Instant.ofEpochMilli(record.getMillis()), sb);
 			sb.append(' ');
 			sb.append(record.getSourceClassName());
 			sb.append(' ');
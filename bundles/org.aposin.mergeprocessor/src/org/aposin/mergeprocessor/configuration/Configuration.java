@@ -22,6 +22,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Dictionary;
@@ -35,7 +36,8 @@ import java.util.stream.Collectors;
 import javax.inject.Inject;
 
 import org.aposin.mergeprocessor.application.Activator;
-import org.aposin.mergeprocessor.model.IMergeUnit;
+import org.aposin.mergeprocessor.application.AsyncFileHandler.OverflowPolicy;
+import org.aposin.mergeprocessor.model.git.GitCloneStrategy;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.view.Column;
 import org.eclipse.core.runtime.Platform;
@@ -111,8 +113,6 @@ public class Configuration implements IConfiguration {
 
 	private static final String LOCK_FILE = "mp_lock"; //$NON-NLS-1$
 
-	private static final String LOCAL_MERGE_FILE_FOLDER = "work"; //$NON-NLS-1$
-
 	private static final String LAST_ECLIPSE_WORKSPACE_PATH = "LAST_ECLIPSE_WORKSPACE_PATH";
 
 	private static final String LAST_REPOSITORY_PATH = "LAST_REPOSITORY_PATH";
@@ -192,6 +192,36 @@ public class Configuration implements IConfiguration {
 		return LogUtil.exiting(Level.parse(PREFERENCE_STORE.getString(WorkbenchPreferencePage.LOG_LEVEL)));
 	}
 
+	/**
+	 * @return the maximum size of a log file in bytes, {@code 0} if the size is
+	 *         unlimited
+	 */
+	public static long getLogFileMaxSize() {
+		return LogUtil.exiting(PREFERENCE_STORE.getInt(WorkbenchPreferencePage.LOG_FILE_MAX_SIZE) * 1024L * 1024L);
+	}
+
+	/**
+	 * @return the interval after which a log file is rotated, {@link Duration#ZERO}
+	 *         if the log file is not rotated by time
+	 */
+	public static Duration getLogFileRotationInterval() {
+		return LogUtil
+				.exiting(Duration.ofHours(PREFERENCE_STORE.getInt(WorkbenchPreferencePage.LOG_FILE_ROTATION_INTERVAL)));
+	}
+
+	/**
+	 * @return the policy if more log records are created than can be written
+	 */
+	public static OverflowPolicy getLogOverflowPolicy() {
+		final String value = PREFERENCE_STORE.getString(WorkbenchPreferencePage.LOG_OVERFLOW_POLICY);
+		try {
+			return LogUtil.exiting(OverflowPolicy.valueOf(value));
+		} catch (IllegalArgumentException e) {
+			LOGGER.warning(() -> String.format("Unknown log overflow policy '%s'.", value)); //$NON-NLS-1$
+			return LogUtil.exiting(OverflowPolicy.BLOCK);
+		}
+	}
+
 	/**
 	 * @return the working folder on the local drive to work on
 	 */
@@ -222,19 +252,20 @@ public class Configuration implements IConfiguration {
 	}
 
 	/**
-	 * @return the pathLocalMergeFileFolder
+	 * {@inheritDoc}
 	 */
-	public static String getPathLocalMergeFileFolder() {
-		return LogUtil.exiting(getWorkingFolder() + LOCAL_MERGE_FILE_FOLDER + File.separator);
+	@Override
+	public int getRefreshInterval() {
+		int refreshInterval = PREFERENCE_STORE.getInt(WorkbenchPreferencePage.REFRESH_INTERVAL);
+		return LogUtil.exiting((int) TimeUnit.MILLISECONDS.convert(refreshInterval, TimeUnit.SECONDS));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public int getRefreshInterval() {
-		int refreshInterval = PREFERENCE_STORE.getInt(WorkbenchPreferencePage.REFRESH_INTERVAL);
-		return LogUtil.exiting((int) TimeUnit.MILLISECONDS.convert(refreshInterval, TimeUnit.SECONDS));
+	public int getSvnClientPoolSize() {
+		return LogUtil.exiting(Math.max(1, PREFERENCE_STORE.getInt(WorkbenchPreferencePage.SVN_CLIENT_POOL_SIZE)));
 	}
 
 	/**
@@ -436,16 +467,6 @@ public class Configuration implements IConfiguration {
 		return LogUtil.exiting(retVal);
 	}
 
-	/**
-	 * Returns the local path of the file for the given {@link IMergeUnit}.
-	 * 
-	 * @param mergeUnit the {@link IMergeUnit}
-	 * @return the local path
-	 */
-	public static String getPathLocalMergeFile(final IMergeUnit mergeUnit) {
-		return getPathLocalMergeFileFolder() + mergeUnit.getFileName();
-	}
-
 	/**
 	 * {@inheritDoc}
 	 */
@@ -463,6 +484,20 @@ public class Configuration implements IConfiguration {
 				.exiting(preferenceStore.getBoolean(GitRepositoriesPreferencePage.GIT_REPOSITORIES_AUTO_REPO_CREATE));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitCloneStrategy getGitCloneStrategy() {
+		final String value = preferenceStore.getString(GitRepositoriesPreferencePage.GIT_REPOSITORIES_CLONE_STRATEGY);
+		try {
+			return LogUtil.exiting(GitCloneStrategy.valueOf(value));
+		} catch (IllegalArgumentException e) {
+			LOGGER.warning(() -> String.format("Unknown GIT clone strategy '%s'.", value)); //$NON-NLS-1$
+			return LogUtil.exiting(GitCloneStrategy.FULL);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
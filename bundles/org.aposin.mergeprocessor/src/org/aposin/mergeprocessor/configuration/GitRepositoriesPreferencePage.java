@@ -33,9 +33,11 @@ import java.util.logging.Logger;
 
 import org.apache.commons.io.FileUtils;
 import org.aposin.mergeprocessor.application.Activator;
+import org.aposin.mergeprocessor.model.git.GitCloneStrategy;
 import org.aposin.mergeprocessor.utils.MergeProcessorUtil;
 import org.aposin.mergeprocessor.view.GitRepositoryPreferencePageView;
 import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.preference.ComboFieldEditor;
 import org.eclipse.jface.preference.DirectoryFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
@@ -62,6 +64,7 @@ public class GitRepositoriesPreferencePage extends FieldEditorPreferencePage imp
 
 	public static final String GIT_REPOSITORIES_AUTO_REPO_CREATE = "GIT_REPOSITORIES_AUTO_REPO_CREATE"; //$NON-NLS-1$
 	public static final String GIT_REPOSITORIES_FOLDER = "GIT_REPOSITORIES_FOLDER"; //$NON-NLS-1$
+	public static final String GIT_REPOSITORIES_CLONE_STRATEGY = "GIT_REPOSITORIES_CLONE_STRATEGY"; //$NON-NLS-1$
 
 	private TableViewer tableViewer;
 	private IConfiguration configuration;
@@ -112,6 +115,14 @@ public class GitRepositoriesPreferencePage extends FieldEditorPreferencePage imp
 
 		};
 		addField(repositoryFolderEditor);
+
+		final String[][] cloneStrategyNamesAndValues = new String[][] {
+				{ Messages.GitRepositoriesPreferencePage_cloneStrategyFull, GitCloneStrategy.FULL.name() },
+				{ Messages.GitRepositoriesPreferencePage_cloneStrategySingleBranch,
+						GitCloneStrategy.SINGLE_BRANCH.name() } };
+		addField(new ComboFieldEditor(GIT_REPOSITORIES_CLONE_STRATEGY,
+				Messages.GitRepositoriesPreferencePage_cloneStrategy, cloneStrategyNamesAndValues,
+				getFieldEditorParent()));
 	}
 
 	/**
@@ -18,6 +18,8 @@ package org.aposin.mergeprocessor.configuration;
 import java.nio.file.Path;
 import java.util.List;
 
+import org.aposin.mergeprocessor.model.git.GitCloneStrategy;
+import org.aposin.mergeprocessor.model.svn.SvnClientJavaHlPool;
 import org.aposin.mergeprocessor.view.Column;
 import org.eclipse.swt.SWT;
 
@@ -98,6 +100,11 @@ public interface IConfiguration {
 	 */
 	boolean autoCreateGitRepository();
 
+	/**
+	 * @return the strategy how to clone a GIT repository used for the first time
+	 */
+	GitCloneStrategy getGitCloneStrategy();
+
 	/**
 	 * @return the database URL for merging renamed artifacts
 	 */
@@ -179,6 +186,13 @@ public interface IConfiguration {
 	 */
 	int getRefreshInterval();
 
+	/**
+	 * @return the maximum number of SVN clients used concurrently
+	 */
+	default int getSvnClientPoolSize() {
+		return SvnClientJavaHlPool.DEFAULT_MAX_SIZE;
+	}
+
 	/**
 	 * @param username the user name for the SVN credentials
 	 * @throws ConfigurationException
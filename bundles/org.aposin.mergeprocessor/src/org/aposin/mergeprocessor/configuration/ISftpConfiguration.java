@@ -58,6 +58,13 @@ public interface ISftpConfiguration {
 	 */
 	String getHost();
 
+	/**
+	 * @return the port of the sftp server, {@code 22} by default
+	 */
+	default int getPort() {
+		return 22;
+	}
+
 	/**
 	 * @return the user to login on the sftp server
 	 */
@@ -68,4 +75,21 @@ public interface ISftpConfiguration {
 	 */
 	String getPassword();
 
+	/**
+	 * @return the local folder where the root of the sftp server is mounted, or
+	 *         {@code null} if the merge files are accessed by sftp
+	 */
+	default String getLocalFolder() {
+		return null;
+	}
+
+	/**
+	 * @return {@code true} if a manifest containing all merge files is kept in
+	 *         each status folder, so the merge units can be read with one request
+	 *         per folder
+	 */
+	default boolean isManifestEnabled() {
+		return false;
+	}
+
 }
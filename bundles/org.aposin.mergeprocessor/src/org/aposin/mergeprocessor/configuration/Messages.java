@@ -23,6 +23,9 @@ public class Messages extends NLS {
 	public static String EclipseWorkspaceStartPeferencePage_applicationPath;
 	public static String EclipseWorkspaceStartPeferencePage_description;
 	public static String EclipseWorkspaceStartPeferencePage_parameters;
+	public static String GitRepositoriesPreferencePage_cloneStrategy;
+	public static String GitRepositoriesPreferencePage_cloneStrategyFull;
+	public static String GitRepositoriesPreferencePage_cloneStrategySingleBranch;
 	public static String GitRepositoriesPreferencePage_description;
 	public static String GitRepositoriesPreferencePage_title;
 	public static String RenamingPreferencePage_buttonValidateConnection;
@@ -36,9 +39,17 @@ public class Messages extends NLS {
 	public static String WorkbenchPreferencePage_Description;
 	public static String WorkbenchPreferencePage_SVN_Description;
 	public static String WorkbenchPreferencePage_GIT_Description;
+	public static String WorkbenchPreferencePage_LogFileMaxSize;
+	public static String WorkbenchPreferencePage_LogFileRotationInterval;
 	public static String WorkbenchPreferencePage_LogLevel;
+	public static String WorkbenchPreferencePage_LogOverflowPolicy;
+	public static String WorkbenchPreferencePage_LogOverflowPolicy_Block;
+	public static String WorkbenchPreferencePage_LogOverflowPolicy_DiscardNewest;
+	public static String WorkbenchPreferencePage_LogOverflowPolicy_DiscardOldest;
 	public static String WorkbenchPreferencePage_RefreshInterval;
 	public static String WorkbenchPreferencePage_SftpHost;
+	public static String WorkbenchPreferencePage_SftpLocalFolder;
+	public static String WorkbenchPreferencePage_SftpManifest;
 	public static String WorkbenchPreferencePage_SftpMergeFolder;
 	public static String WorkbenchPreferencePage_SftpPassword;
 	public static String WorkbenchPreferencePage_SftpUsername;
@@ -46,6 +57,7 @@ public class Messages extends NLS {
 	public static String WorkbenchPreferencePage_SortDirection_Down;
 	public static String WorkbenchPreferencePage_SortDirection_Up;
 	public static String WorkbenchPreferencePage_SortedColumn;
+	public static String WorkbenchPreferencePage_SvnClientPoolSize;
 	public static String WorkbenchPreferencePage_UserId;
 	public static String WorkbenchPreferencePage_Validate_InvalidUserId;
 	public static String WorkbenchPreferencePage_Validate_RefreshIntervalMustBeAtLeast5s;
@@ -44,6 +44,9 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.aposin.mergeprocessor.application.Activator;
+import org.aposin.mergeprocessor.application.AsyncFileHandler.OverflowPolicy;
+import org.aposin.mergeprocessor.model.git.GitCloneStrategy;
+import org.aposin.mergeprocessor.model.svn.SvnClientJavaHlPool;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.view.Column;
 import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
@@ -110,15 +113,21 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 		final Properties properties = new Properties();
 		properties.put(WorkbenchPreferencePage.USER_ID, System.getProperty("user.name").toLowerCase()); //$NON-NLS-1$
 		properties.put(WorkbenchPreferencePage.REFRESH_INTERVAL, 60);
+		properties.put(WorkbenchPreferencePage.SVN_CLIENT_POOL_SIZE, SvnClientJavaHlPool.DEFAULT_MAX_SIZE);
 		properties.put(WorkbenchPreferencePage.LOG_LEVEL, Level.INFO.getName());
+		properties.put(WorkbenchPreferencePage.LOG_FILE_MAX_SIZE, 10);
+		properties.put(WorkbenchPreferencePage.LOG_FILE_ROTATION_INTERVAL, 24);
+		properties.put(WorkbenchPreferencePage.LOG_OVERFLOW_POLICY, OverflowPolicy.BLOCK.name());
 		properties.put(WorkbenchPreferencePage.WINDOW_LOCATION, "50,50"); //$NON-NLS-1$
 		properties.put(WorkbenchPreferencePage.WINDOW_SIZE, "688,320"); //$NON-NLS-1$
 		properties.put(WorkbenchPreferencePage.OPTION_AUTOMATIC, false);
 		properties.put(WorkbenchPreferencePage.OPTION_DISPLAY_DONE, false);
 		properties.put(WorkbenchPreferencePage.OPTION_DISPLAY_IGNORED, false);
+		properties.put(WorkbenchPreferencePage.SFTP_MANIFEST, false);
 		properties.put(WorkbenchPreferencePage.SORT_COLUMN, Column.COLUMN_DATE.ordinal());
 		properties.put(WorkbenchPreferencePage.SORT_DIRECTION, SWT.UP);
 		properties.put(GitRepositoriesPreferencePage.GIT_REPOSITORIES_AUTO_REPO_CREATE, true);
+		properties.put(GitRepositoriesPreferencePage.GIT_REPOSITORIES_CLONE_STRATEGY, GitCloneStrategy.FULL.name());
 		findEclipsePath().ifPresent(
 				path -> properties.put(EclipseWorkspaceStartPeferencePage.ECLIPSE_APPLICATION_PATH, path.toString()));
 		properties.put(EclipseWorkspaceStartPeferencePage.ECLIPSE_APPLICATION_PARAMETERS,
@@ -135,9 +144,13 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 	 */
 	private static void validateAndConvertPropertyValues(final Properties properties) {
 		validateAndConvertIntegerProperty(properties, WorkbenchPreferencePage.REFRESH_INTERVAL);
+		validateAndConvertIntegerProperty(properties, WorkbenchPreferencePage.SVN_CLIENT_POOL_SIZE);
+		validateAndConvertIntegerProperty(properties, WorkbenchPreferencePage.LOG_FILE_MAX_SIZE);
+		validateAndConvertIntegerProperty(properties, WorkbenchPreferencePage.LOG_FILE_ROTATION_INTERVAL);
 		validateAndConvertBooleanProperty(properties, WorkbenchPreferencePage.OPTION_AUTOMATIC);
 		validateAndConvertBooleanProperty(properties, WorkbenchPreferencePage.OPTION_DISPLAY_DONE);
 		validateAndConvertBooleanProperty(properties, WorkbenchPreferencePage.OPTION_DISPLAY_IGNORED);
+		validateAndConvertBooleanProperty(properties, WorkbenchPreferencePage.SFTP_MANIFEST);
 		validateAndConvertIntegerProperty(properties, WorkbenchPreferencePage.SORT_COLUMN);
 		validateAndConvertIntegerProperty(properties, WorkbenchPreferencePage.SORT_DIRECTION);
 		validateAndConvertBooleanProperty(properties, GitRepositoriesPreferencePage.GIT_REPOSITORIES_AUTO_REPO_CREATE);
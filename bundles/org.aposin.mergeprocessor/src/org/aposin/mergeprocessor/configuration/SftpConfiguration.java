@@ -116,4 +116,20 @@ final class SftpConfiguration implements ISftpConfiguration {
 	public String getPassword() {
 		return LogUtil.exiting(preferenceStore.getString(WorkbenchPreferencePage.SFTP_PASSWORD));
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getLocalFolder() {
+		return LogUtil.exiting(preferenceStore.getString(WorkbenchPreferencePage.SFTP_LOCAL_FOLDER));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isManifestEnabled() {
+		return LogUtil.exiting(preferenceStore.getBoolean(WorkbenchPreferencePage.SFTP_MANIFEST));
+	}
 }
\ No newline at end of file
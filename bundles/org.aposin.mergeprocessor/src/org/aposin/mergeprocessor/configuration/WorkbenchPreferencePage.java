@@ -26,12 +26,15 @@ import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.aposin.mergeprocessor.application.Activator;
+import org.aposin.mergeprocessor.application.AsyncFileHandler.OverflowPolicy;
 import org.aposin.mergeprocessor.view.Column;
 import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.ComboFieldEditor;
 import org.eclipse.jface.preference.DirectoryFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.ui.IWorkbench;
@@ -60,11 +63,31 @@ public class WorkbenchPreferencePage extends FieldEditorPreferencePage implement
 	 */
 	public static final String REFRESH_INTERVAL = "REFRESH_INTERVAL"; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of SVN clients used concurrently
+	 */
+	public static final String SVN_CLIENT_POOL_SIZE = "SVN_CLIENT_POOL_SIZE"; //$NON-NLS-1$
+
 	/**
 	 * Log level for the MergeProcessor
 	 */
 	public static final String LOG_LEVEL = "LOG_LEVEL"; //$NON-NLS-1$
 
+	/**
+	 * Maximum size of a log file in MB before it is rotated
+	 */
+	public static final String LOG_FILE_MAX_SIZE = "LOG_FILE_MAX_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * Interval in hours after which a log file is rotated
+	 */
+	public static final String LOG_FILE_ROTATION_INTERVAL = "LOG_FILE_ROTATION_INTERVAL"; //$NON-NLS-1$
+
+	/**
+	 * Policy if more log records are created than can be written
+	 */
+	public static final String LOG_OVERFLOW_POLICY = "LOG_OVERFLOW_POLICY"; //$NON-NLS-1$
+
 	/**
 	 * location of the MergeProcessor window
 	 */
@@ -126,6 +149,17 @@ public class WorkbenchPreferencePage extends FieldEditorPreferencePage implement
 	 */
 	public static final String SFTP_HOST = "SFTP_HOST"; //$NON-NLS-1$
 
+	/**
+	 * local folder where the root of the sftp server is mounted, accessed instead
+	 * of the sftp server if not empty
+	 */
+	public static final String SFTP_LOCAL_FOLDER = "SFTP_LOCAL_FOLDER"; //$NON-NLS-1$
+
+	/**
+	 * keep a manifest of the merge files in each status folder on the sftp server
+	 */
+	public static final String SFTP_MANIFEST = "SFTP_MANIFEST"; //$NON-NLS-1$
+
 	/** Property listing files containing the version of the software product */
 	public static final String VERSION_INFO_FILES = "VERSION_INFO_FILES"; //$NON-NLS-1$
 
@@ -164,6 +198,10 @@ public class WorkbenchPreferencePage extends FieldEditorPreferencePage implement
 		addField(createWorkingFolderFieldEditor());
 		addField(createUserFieldEditor());
 		addField(createRefreshIntervalFieldEditor());
+		final IntegerFieldEditor svnClientPoolSize = new IntegerFieldEditor(SVN_CLIENT_POOL_SIZE,
+				Messages.WorkbenchPreferencePage_SvnClientPoolSize, getFieldEditorParent());
+		svnClientPoolSize.setValidRange(1, 16);
+		addField(svnClientPoolSize);
 
 		String[][] entryNamesAndValues = getLogLevels().stream()
 				.map(level -> new String[] { level.getName(), level.getName() }).toArray(String[][]::new);
@@ -171,6 +209,23 @@ public class WorkbenchPreferencePage extends FieldEditorPreferencePage implement
 				Messages.WorkbenchPreferencePage_LogLevel, entryNamesAndValues, getFieldEditorParent());
 		addField(comboFieldEditorLogLevel);
 
+		final IntegerFieldEditor logFileMaxSize = new IntegerFieldEditor(LOG_FILE_MAX_SIZE,
+				Messages.WorkbenchPreferencePage_LogFileMaxSize, getFieldEditorParent());
+		logFileMaxSize.setValidRange(0, 1024);
+		addField(logFileMaxSize);
+		final IntegerFieldEditor logFileRotationInterval = new IntegerFieldEditor(LOG_FILE_ROTATION_INTERVAL,
+				Messages.WorkbenchPreferencePage_LogFileRotationInterval, getFieldEditorParent());
+		logFileRotationInterval.setValidRange(0, 24 * 31);
+		addField(logFileRotationInterval);
+		final String[][] entryOverflowPoliciesNamesAndValues = new String[][] {
+				{ Messages.WorkbenchPreferencePage_LogOverflowPolicy_Block, OverflowPolicy.BLOCK.name() },
+				{ Messages.WorkbenchPreferencePage_LogOverflowPolicy_DiscardNewest,
+						OverflowPolicy.DISCARD_NEWEST.name() },
+				{ Messages.WorkbenchPreferencePage_LogOverflowPolicy_DiscardOldest,
+						OverflowPolicy.DISCARD_OLDEST.name() } };
+		addField(new ComboFieldEditor(LOG_OVERFLOW_POLICY, Messages.WorkbenchPreferencePage_LogOverflowPolicy,
+				entryOverflowPoliciesNamesAndValues, getFieldEditorParent()));
+
 		addField(createWindowLocationFieldEditor());
 		addField(createWindowSizeFieldEditor());
 
@@ -210,6 +265,12 @@ public class WorkbenchPreferencePage extends FieldEditorPreferencePage implement
 				Messages.WorkbenchPreferencePage_SftpMergeFolder, //
 				getFieldEditorParent(), //
 				Messages.WorkbenchPreferencePage_Validate_SftpMergeFolderMustntBeEmpty));
+		final DirectoryFieldEditor sftpLocalFolder = new DirectoryFieldEditor(SFTP_LOCAL_FOLDER,
+				Messages.WorkbenchPreferencePage_SftpLocalFolder, getFieldEditorParent());
+		sftpLocalFolder.setEmptyStringAllowed(true);
+		addField(sftpLocalFolder);
+		addField(new BooleanFieldEditor(SFTP_MANIFEST, Messages.WorkbenchPreferencePage_SftpManifest,
+				BooleanFieldEditor.SEPARATE_LABEL, getFieldEditorParent()));
 
 	}
 
@@ -19,16 +19,20 @@
 package org.aposin.mergeprocessor.exception;
 
 /**
+ * Thrown if the merge unit queue, e.g. the folders on the SFTP server, could
+ * not be accessed.
+ * 
+ * @author Stefan Weiser
  *
  */
-public class SftpUtilException extends Exception {
+public class MergeUnitQueueException extends Exception {
 
 	private static final long serialVersionUID = 1L;
 
 	/**
 	 * @param message
 	 */
-	public SftpUtilException(String message) {
+	public MergeUnitQueueException(String message) {
 		super(message);
 	}
 
@@ -36,14 +40,14 @@ public class SftpUtilException extends Exception {
 	 * @param message
 	 * @param cause
 	 */
-	public SftpUtilException(String message, Throwable cause) {
+	public MergeUnitQueueException(String message, Throwable cause) {
 		super(message, cause);
 	}
 
 	/**
 	 * @param cause
 	 */
-	public SftpUtilException(Throwable cause) {
+	public MergeUnitQueueException(Throwable cause) {
 		super(cause);
 	}
 }
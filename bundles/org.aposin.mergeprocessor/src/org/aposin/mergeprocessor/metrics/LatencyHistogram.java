@@ -0,0 +1,160 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non negative values, e.g. latencies in nanoseconds, in the
+ * style of an HDR histogram. The values are counted in buckets growing
+ * logarithmically, where each power of two is split into 32 linear sub
+ * buckets. So the relative error of a percentile is at most 1/32, independent
+ * of the magnitude of the value. Recording is lock free and allocation free,
+ * so it can be called on hot paths by concurrent threads.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records the given value. Negative values are recorded as {@code 0}.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(final long value) {
+		final long v = Math.max(0, value);
+		counts.incrementAndGet(getBucketIndex(v));
+		count.increment();
+		sum.add(v);
+		min.accumulateAndGet(v, Math::min);
+		max.accumulateAndGet(v, Math::max);
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the sum of all recorded values
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return the mean of all recorded values, {@code 0} if no value is recorded
+	 */
+	public double getMean() {
+		final long n = getCount();
+		return n == 0 ? 0 : (double) getSum() / n;
+	}
+
+	/**
+	 * @return the smallest recorded value, {@code 0} if no value is recorded
+	 */
+	public long getMin() {
+		final long value = min.get();
+		return value == Long.MAX_VALUE ? 0 : value;
+	}
+
+	/**
+	 * @return the largest recorded value, {@code 0} if no value is recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the value, which is greater or equal than the given percentage of
+	 * all recorded values. The value is the upper bound of the bucket containing
+	 * the percentile, but never greater than the largest recorded value.
+	 *
+	 * @param percentile the percentile between {@code 0} and {@code 100}
+	 * @return the value at the percentile, {@code 0} if no value is recorded
+	 */
+	public long getValueAtPercentile(final double percentile) {
+		final long n = getCount();
+		if (n == 0) {
+			return 0;
+		}
+		final double p = Math.min(100, Math.max(0, percentile));
+		final long rank = Math.max(1, (long) Math.ceil(p / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.max(getMin(), Math.min(getMax(), getBucketUpperBound(i)));
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Removes all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		min.set(Long.MAX_VALUE);
+		max.set(0);
+	}
+
+	/**
+	 * @param value the non negative value
+	 * @return the index of the bucket counting the value
+	 */
+	static int getBucketIndex(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @param index the index of the bucket
+	 * @return the largest value counted in the bucket
+	 */
+	static long getBucketUpperBound(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int shift = index / SUB_BUCKETS - 1;
+		final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aposin.mergeprocessor.model.VersionControlSystem;
+
+/**
+ * Records the durations of the merge phases per version control system and
+ * repository. The durations are counted in {@link LatencyHistogram}s and
+ * exposed via JMX as {@link MergeMetricsMXBean}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class MergeMetrics implements MergeMetricsMXBean {
+
+	private static final String OBJECT_NAME = "org.aposin.mergeprocessor:type=MergeMetrics"; //$NON-NLS-1$
+	private static final MergeMetrics INSTANCE = new MergeMetrics();
+
+	private final Map<PhaseKey, PhaseEntry> phases = new ConcurrentHashMap<>();
+	private final AtomicInteger phaseOrder = new AtomicInteger();
+	private volatile Instant since = Instant.now();
+
+	/**
+	 * Creates new merge metrics. Use {@link #getInstance()} to record the phases
+	 * of the application.
+	 */
+	MergeMetrics() {
+		// Package private for tests
+	}
+
+	/**
+	 * @return the merge metrics of the application
+	 */
+	public static MergeMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Starts measuring a merge phase. The duration is recorded when the returned
+	 * timer is closed, so it is usually closed in a finally block.
+	 *
+	 * @param vcs        the version control system of the merged unit
+	 * @param repository the repository of the merged unit
+	 * @param phase      the name of the phase
+	 * @return the running timer
+	 */
+	public PhaseTimer startPhase(final VersionControlSystem vcs, final String repository, final String phase) {
+		return new PhaseTimer(getHistogram(vcs, repository, phase));
+	}
+
+	/**
+	 * Records the duration of a merge phase.
+	 *
+	 * @param vcs        the version control system of the merged unit
+	 * @param repository the repository of the merged unit
+	 * @param phase      the name of the phase
+	 * @param nanos      the duration in nanoseconds
+	 */
+	public void record(final VersionControlSystem vcs, final String repository, final String phase,
+			final long nanos) {
+		getHistogram(vcs, repository, phase).record(nanos);
+	}
+
+	private LatencyHistogram getHistogram(final VersionControlSystem vcs, final String repository,
+			final String phase) {
+		return phases.computeIfAbsent(new PhaseKey(vcs, repository, phase),
+				key -> new PhaseEntry(phaseOrder.getAndIncrement())).histogram;
+	}
+
+	/**
+	 * Returns the statistics of all phases recorded since the last reset.
+	 *
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<PhaseStatistics> getPhaseStatistics() {
+		final List<Map.Entry<PhaseKey, PhaseEntry>> entries = new ArrayList<>(phases.entrySet());
+		entries.sort(Comparator.comparing((Map.Entry<PhaseKey, PhaseEntry> entry) -> entry.getKey().vcs)
+				.thenComparing(entry -> entry.getKey().repository)
+				.thenComparingInt(entry -> entry.getValue().order));
+		final List<PhaseStatistics> statistics = new ArrayList<>(entries.size());
+		for (final Map.Entry<PhaseKey, PhaseEntry> entry : entries) {
+			if (entry.getValue().histogram.getCount() == 0) {
+				// Reset and not recorded since
+				continue;
+			}
+			final PhaseKey key = entry.getKey();
+			statistics.add(new PhaseStatistics(key.vcs.name(), key.repository, key.phase, entry.getValue().histogram));
+		}
+		return statistics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getSummary() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Merge phase durations [ms] since %s%n", since)); //$NON-NLS-1$
+		sb.append(String.format("%-4s %-40s %-28s %8s %10s %10s %10s %10s %10s%n", "VCS", "Repository", "Phase", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				"Count", "Mean", "P50", "P90", "P99", "Max")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		for (final PhaseStatistics statistics : getPhaseStatistics()) {
+			sb.append(String.format("%-4s %-40s %-28s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", //$NON-NLS-1$
+					statistics.getVersionControlSystem(), statistics.getRepository(), statistics.getPhase(),
+					statistics.getCount(), statistics.getMean(), statistics.getMedian(),
+					statistics.getPercentile90(), statistics.getPercentile99(), statistics.getMax()));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Resets the histograms in place, so timers running during the reset still
+	 * record their durations.
+	 *
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset() {
+		for (final PhaseEntry entry : phases.values()) {
+			entry.histogram.reset();
+		}
+		since = Instant.now();
+	}
+
+	/**
+	 * Registers the merge metrics at the platform MBean server.
+	 */
+	public void registerMBean() {
+		MetricsMBeans.register(this, OBJECT_NAME);
+	}
+
+	/**
+	 * Unregisters the merge metrics from the platform MBean server.
+	 */
+	public void unregisterMBean() {
+		MetricsMBeans.unregister(OBJECT_NAME);
+	}
+
+	/**
+	 * Measures the duration of a running merge phase.
+	 *
+	 * @author Stefan Weiser
+	 *
+	 */
+	public static final class PhaseTimer implements AutoCloseable {
+
+		private final LatencyHistogram histogram;
+		private final long start = System.nanoTime();
+		private boolean closed;
+
+		private PhaseTimer(final LatencyHistogram histogram) {
+			this.histogram = histogram;
+		}
+
+		/**
+		 * Records the duration since the timer has been started. Only the first call
+		 * is recorded.
+		 */
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				histogram.record(System.nanoTime() - start);
+			}
+		}
+
+	}
+
+	/**
+	 * The histogram of a phase and the order in which the phase was recorded
+	 * first.
+	 */
+	private static final class PhaseEntry {
+
+		private final int order;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private PhaseEntry(final int order) {
+			this.order = order;
+		}
+
+	}
+
+	/**
+	 * The tags identifying a phase.
+	 */
+	private static final class PhaseKey {
+
+		private final VersionControlSystem vcs;
+		private final String repository;
+		private final String phase;
+
+		private PhaseKey(final VersionControlSystem vcs, final String repository, final String phase) {
+			this.vcs = Objects.requireNonNull(vcs);
+			this.repository = String.valueOf(repository);
+			this.phase = Objects.requireNonNull(phase);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(vcs, repository, phase);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PhaseKey)) {
+				return false;
+			}
+			final PhaseKey other = (PhaseKey) obj;
+			return vcs == other.vcs && repository.equals(other.repository) && phase.equals(other.phase);
+		}
+
+	}
+
+}
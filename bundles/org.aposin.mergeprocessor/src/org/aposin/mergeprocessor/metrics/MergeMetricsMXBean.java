@@ -0,0 +1,43 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link MergeMetrics}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public interface MergeMetricsMXBean {
+
+	/**
+	 * @return the statistics of all recorded merge phases
+	 */
+	List<PhaseStatistics> getPhaseStatistics();
+
+	/**
+	 * @return a human readable summary of all recorded merge phases
+	 */
+	String getSummary();
+
+	/**
+	 * Removes all recorded durations.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registers metrics at the platform MBean server.
+ *
+ * @author Stefan Weiser
+ *
+ */
+final class MetricsMBeans {
+
+	private static final Logger LOGGER = Logger.getLogger(MetricsMBeans.class.getName());
+
+	private MetricsMBeans() {
+		// Utility class
+	}
+
+	/**
+	 * Registers the given MBean, if no MBean is registered with the given name.
+	 *
+	 * @param mbean      the MBean to register
+	 * @param objectName the name of the MBean
+	 */
+	static void register(final Object mbean, final String objectName) {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			final ObjectName name = new ObjectName(objectName);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(mbean, name);
+			}
+		} catch (JMException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not register MBean '%s'.", objectName), e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Unregisters the MBean with the given name.
+	 *
+	 * @param objectName the name of the MBean
+	 */
+	static void unregister(final String objectName) {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			final ObjectName name = new ObjectName(objectName);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		} catch (JMException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not unregister MBean '%s'.", objectName), e); //$NON-NLS-1$
+		}
+	}
+
+}
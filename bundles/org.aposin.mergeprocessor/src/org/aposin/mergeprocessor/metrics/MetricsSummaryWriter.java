@@ -0,0 +1,93 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the summaries of metrics periodically into a file. The file is
+ * replaced on each write, so it always shows the latest summaries.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class MetricsSummaryWriter implements AutoCloseable {
+
+	private static final Logger LOGGER = Logger.getLogger(MetricsSummaryWriter.class.getName());
+
+	private final Path file;
+	private final List<Supplier<String>> summaries;
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * @param file      the file where to write the summaries
+	 * @param interval  the interval in which the file is written
+	 * @param summaries the suppliers of the summaries to write
+	 */
+	public MetricsSummaryWriter(final Path file, final Duration interval, final List<Supplier<String>> summaries) {
+		this.file = Objects.requireNonNull(file);
+		this.summaries = new ArrayList<>(summaries);
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "Metrics Summary Writer"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long millis = interval.toMillis();
+		executor.scheduleWithFixedDelay(this::write, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Writes the summaries into the file.
+	 */
+	public void write() {
+		final StringBuilder sb = new StringBuilder();
+		for (final Supplier<String> summary : summaries) {
+			sb.append(summary.get()).append(System.lineSeparator());
+		}
+		try {
+			Files.createDirectories(file.toAbsolutePath().getParent());
+			final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+			Files.write(tempFile, sb.toString().getBytes(StandardCharsets.UTF_8));
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not write metrics summary '%s'.", file), e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Stops the periodic writes and writes the summaries a last time.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		write();
+	}
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of the durations recorded for one merge phase of one
+ * repository. The durations are given in milliseconds.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class PhaseStatistics {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final String versionControlSystem;
+	private final String repository;
+	private final String phase;
+	private final long count;
+	private final double mean;
+	private final double median;
+	private final double percentile90;
+	private final double percentile99;
+	private final double max;
+
+	/**
+	 * @param versionControlSystem the version control system
+	 * @param repository           the repository
+	 * @param phase                the phase
+	 * @param histogram            the histogram of the durations in nanoseconds
+	 */
+	PhaseStatistics(final String versionControlSystem, final String repository, final String phase,
+			final LatencyHistogram histogram) {
+		this.versionControlSystem = versionControlSystem;
+		this.repository = repository;
+		this.phase = phase;
+		count = histogram.getCount();
+		mean = histogram.getMean() / NANOS_PER_MILLI;
+		median = histogram.getValueAtPercentile(50) / NANOS_PER_MILLI;
+		percentile90 = histogram.getValueAtPercentile(90) / NANOS_PER_MILLI;
+		percentile99 = histogram.getValueAtPercentile(99) / NANOS_PER_MILLI;
+		max = histogram.getMax() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the version control system, e.g. {@code SVN} or {@code GIT}
+	 */
+	public String getVersionControlSystem() {
+		return versionControlSystem;
+	}
+
+	/**
+	 * @return the repository
+	 */
+	public String getRepository() {
+		return repository;
+	}
+
+	/**
+	 * @return the name of the phase
+	 */
+	public String getPhase() {
+		return phase;
+	}
+
+	/**
+	 * @return the number of executions
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the mean duration
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return the median duration
+	 */
+	public double getMedian() {
+		return median;
+	}
+
+	/**
+	 * @return the duration greater or equal than 90% of the executions
+	 */
+	public double getPercentile90() {
+		return percentile90;
+	}
+
+	/**
+	 * @return the duration greater or equal than 99% of the executions
+	 */
+	public double getPercentile99() {
+		return percentile99;
+	}
+
+	/**
+	 * @return the maximum duration
+	 */
+	public double getMax() {
+		return max;
+	}
+
+}
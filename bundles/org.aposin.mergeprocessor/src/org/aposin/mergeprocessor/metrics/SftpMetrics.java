@@ -0,0 +1,367 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latencies, errors and transferred bytes of the operations on the
+ * SFTP server and the number of reconnects. The data is exposed via JMX as
+ * {@link SftpMetricsMXBean}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class SftpMetrics implements SftpMetricsMXBean {
+
+	private static final String OBJECT_NAME = "org.aposin.mergeprocessor:type=SftpMetrics"; //$NON-NLS-1$
+	private static final SftpMetrics INSTANCE = new SftpMetrics();
+
+	private final Map<SftpOperation, OperationMetrics> operations = new EnumMap<>(SftpOperation.class);
+	/** The latencies of all operations except {@link SftpOperation#CONNECT} */
+	private final LatencyHistogram requests = new LatencyHistogram();
+	private final LongAdder reconnects = new LongAdder();
+	private volatile Instant since = Instant.now();
+
+	/**
+	 * Creates new SFTP metrics. Use {@link #getInstance()} to record the
+	 * operations of the application.
+	 */
+	SftpMetrics() {
+		for (final SftpOperation operation : SftpOperation.values()) {
+			operations.put(operation, new OperationMetrics());
+		}
+	}
+
+	/**
+	 * @return the SFTP metrics of the application
+	 */
+	public static SftpMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Executes and measures the given operation.
+	 *
+	 * @param operation the measured operation
+	 * @param call      the call executing the operation
+	 * @return the result of the call
+	 * @throws E if the call fails
+	 */
+	public <T, E extends Exception> T call(final SftpOperation operation, final SftpCall<T, E> call) throws E {
+		final long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			final T result = call.call();
+			failed = false;
+			return result;
+		} finally {
+			record(operation, System.nanoTime() - start, 0, failed);
+		}
+	}
+
+	/**
+	 * Executes and measures the given operation.
+	 *
+	 * @param operation the measured operation
+	 * @param bytes     the number of bytes transferred by the operation
+	 * @param runnable  the runnable executing the operation
+	 * @throws E if the runnable fails
+	 */
+	public <E extends Exception> void run(final SftpOperation operation, final long bytes,
+			final SftpRunnable<E> runnable) throws E {
+		final long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			runnable.run();
+			failed = false;
+		} finally {
+			record(operation, System.nanoTime() - start, failed ? 0 : bytes, failed);
+		}
+	}
+
+	/**
+	 * Executes and measures the given operation, which does not transfer any
+	 * content.
+	 *
+	 * @param operation the measured operation
+	 * @param runnable  the runnable executing the operation
+	 * @throws E if the runnable fails
+	 */
+	public <E extends Exception> void run(final SftpOperation operation, final SftpRunnable<E> runnable) throws E {
+		run(operation, 0, runnable);
+	}
+
+	/**
+	 * Opens a download and measures it. The latency and the read bytes are
+	 * recorded as {@link SftpOperation#GET} when the returned stream is closed.
+	 *
+	 * @param call the call opening the stream
+	 * @return the measured stream
+	 * @throws E if the stream could not be opened
+	 */
+	public <E extends Exception> InputStream download(final SftpCall<InputStream, E> call) throws E {
+		final long start = System.nanoTime();
+		final InputStream in;
+		try {
+			in = call.call();
+		} catch (Exception e) {
+			record(SftpOperation.GET, System.nanoTime() - start, 0, true);
+			throw e;
+		}
+		return new MeteredInputStream(in, start);
+	}
+
+	/**
+	 * Records an execution of an operation.
+	 *
+	 * @param operation the operation
+	 * @param nanos     the latency in nanoseconds
+	 * @param bytes     the number of transferred bytes
+	 * @param failed    {@code true} if the operation failed
+	 */
+	public void record(final SftpOperation operation, final long nanos, final long bytes, final boolean failed) {
+		final OperationMetrics metrics = operations.get(operation);
+		metrics.latencies.record(nanos);
+		metrics.bytes.add(bytes);
+		if (failed) {
+			metrics.errors.increment();
+		}
+		if (operation != SftpOperation.CONNECT) {
+			requests.record(nanos);
+		}
+	}
+
+	/**
+	 * Records that a connection is established again after the previous
+	 * connection was lost.
+	 */
+	public void recordReconnect() {
+		reconnects.increment();
+	}
+
+	/**
+	 * @return the number of executed operations except connects
+	 */
+	public long getRequestCount() {
+		return requests.getCount();
+	}
+
+	/**
+	 * @return the number of failed operations
+	 */
+	public long getErrorCount() {
+		return operations.values().stream().mapToLong(metrics -> metrics.errors.sum()).sum();
+	}
+
+	/**
+	 * @return the number of transferred bytes
+	 */
+	public long getByteCount() {
+		return operations.values().stream().mapToLong(metrics -> metrics.bytes.sum()).sum();
+	}
+
+	/**
+	 * @param percentile the percentile between {@code 0} and {@code 100}
+	 * @return the latency of all operations except connects at the given
+	 *         percentile in nanoseconds
+	 */
+	public long getRequestLatencyAtPercentile(final double percentile) {
+		return requests.getValueAtPercentile(percentile);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getReconnects() {
+		return reconnects.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SftpOperationStatistics> getOperationStatistics() {
+		final List<SftpOperationStatistics> statistics = new ArrayList<>(operations.size());
+		operations.forEach((operation, metrics) -> statistics.add(new SftpOperationStatistics(operation.name(),
+				metrics.errors.sum(), metrics.bytes.sum(), metrics.latencies)));
+		return statistics;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getSummary() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(String.format("SFTP operation latencies [ms] since %s, %d reconnects%n", since, getReconnects())); //$NON-NLS-1$
+		sb.append(String.format("%-8s %8s %8s %12s %10s %10s %10s %10s %10s%n", "Op", "Count", "Errors", "Bytes", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				"Mean", "P50", "P90", "P99", "Max")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+		for (final SftpOperationStatistics statistics : getOperationStatistics()) {
+			sb.append(String.format("%-8s %8d %8d %12d %10.1f %10.1f %10.1f %10.1f %10.1f%n", //$NON-NLS-1$
+					statistics.getOperation(), statistics.getCount(), statistics.getErrors(),
+					statistics.getBytes(), statistics.getMean(), statistics.getMedian(),
+					statistics.getPercentile90(), statistics.getPercentile99(), statistics.getMax()));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset() {
+		for (final OperationMetrics metrics : operations.values()) {
+			metrics.latencies.reset();
+			metrics.errors.reset();
+			metrics.bytes.reset();
+		}
+		requests.reset();
+		reconnects.reset();
+		since = Instant.now();
+	}
+
+	/**
+	 * Registers the SFTP metrics at the platform MBean server.
+	 */
+	public void registerMBean() {
+		MetricsMBeans.register(this, OBJECT_NAME);
+	}
+
+	/**
+	 * Unregisters the SFTP metrics from the platform MBean server.
+	 */
+	public void unregisterMBean() {
+		MetricsMBeans.unregister(OBJECT_NAME);
+	}
+
+	/**
+	 * A call of an SFTP operation returning a result.
+	 *
+	 * @param <T> the type of the result
+	 * @param <E> the type of the exception thrown by the call
+	 */
+	@FunctionalInterface
+	public interface SftpCall<T, E extends Exception> {
+
+		/**
+		 * @return the result of the operation
+		 * @throws E if the operation fails
+		 */
+		T call() throws E;
+
+	}
+
+	/**
+	 * A call of an SFTP operation without result.
+	 *
+	 * @param <E> the type of the exception thrown by the call
+	 */
+	@FunctionalInterface
+	public interface SftpRunnable<E extends Exception> {
+
+		/**
+		 * @throws E if the operation fails
+		 */
+		void run() throws E;
+
+	}
+
+	/**
+	 * The metrics of one operation.
+	 */
+	private static final class OperationMetrics {
+
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+
+	}
+
+	/**
+	 * Counts the read bytes and records the download when closed.
+	 */
+	private final class MeteredInputStream extends FilterInputStream {
+
+		private final long start;
+		private long bytes;
+		private boolean failed;
+		private boolean closed;
+
+		private MeteredInputStream(final InputStream in, final long start) {
+			super(in);
+			this.start = start;
+		}
+
+		@Override
+		public int read() throws IOException {
+			try {
+				final int b = super.read();
+				if (b >= 0) {
+					bytes++;
+				}
+				return b;
+			} catch (IOException e) {
+				failed = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			try {
+				final int count = super.read(b, off, len);
+				if (count > 0) {
+					bytes += count;
+				}
+				return count;
+			} catch (IOException e) {
+				failed = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			final long skipped = super.skip(n);
+			bytes += skipped;
+			return skipped;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				if (!closed) {
+					closed = true;
+					record(SftpOperation.GET, System.nanoTime() - start, bytes, failed);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link SftpMetrics}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public interface SftpMetricsMXBean {
+
+	/**
+	 * @return the statistics of all SFTP operations
+	 */
+	List<SftpOperationStatistics> getOperationStatistics();
+
+	/**
+	 * @return the number of connections established again after the previous
+	 *         connection was lost
+	 */
+	long getReconnects();
+
+	/**
+	 * @return a human readable summary of all SFTP operations
+	 */
+	String getSummary();
+
+	/**
+	 * Removes all recorded metrics.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of the metrics recorded for one SFTP operation. The
+ * latencies are given in milliseconds.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class SftpOperationStatistics {
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final String operation;
+	private final long count;
+	private final long errors;
+	private final long bytes;
+	private final double mean;
+	private final double median;
+	private final double percentile90;
+	private final double percentile99;
+	private final double max;
+
+	/**
+	 * @param operation the operation
+	 * @param errors    the number of failed executions
+	 * @param bytes     the number of transferred bytes
+	 * @param histogram the histogram of the latencies in nanoseconds
+	 */
+	SftpOperationStatistics(final String operation, final long errors, final long bytes,
+			final LatencyHistogram histogram) {
+		this.operation = operation;
+		this.errors = errors;
+		this.bytes = bytes;
+		count = histogram.getCount();
+		mean = histogram.getMean() / NANOS_PER_MILLI;
+		median = histogram.getValueAtPercentile(50) / NANOS_PER_MILLI;
+		percentile90 = histogram.getValueAtPercentile(90) / NANOS_PER_MILLI;
+		percentile99 = histogram.getValueAtPercentile(99) / NANOS_PER_MILLI;
+		max = histogram.getMax() / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * @return the name of the operation, e.g. {@code LS} or {@code GET}
+	 */
+	public String getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return the number of executions
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the number of failed executions
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return the number of transferred bytes
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the mean latency
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return the median latency
+	 */
+	public double getMedian() {
+		return median;
+	}
+
+	/**
+	 * @return the latency greater or equal than 90% of the executions
+	 */
+	public double getPercentile90() {
+		return percentile90;
+	}
+
+	/**
+	 * @return the latency greater or equal than 99% of the executions
+	 */
+	public double getPercentile99() {
+		return percentile99;
+	}
+
+	/**
+	 * @return the maximum latency
+	 */
+	public double getMax() {
+		return max;
+	}
+
+}
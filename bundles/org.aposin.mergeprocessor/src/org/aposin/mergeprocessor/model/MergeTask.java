@@ -21,6 +21,8 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -32,17 +34,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.aposin.mergeprocessor.application.Activator;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
-import org.aposin.mergeprocessor.exception.SftpUtilException;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
 import org.aposin.mergeprocessor.exception.SvnUtilException;
 import org.aposin.mergeprocessor.model.svn.ISvnClient;
 import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
 import org.aposin.mergeprocessor.model.svn.SVNMergeUnit;
+import org.aposin.mergeprocessor.model.svn.SvnStatusSnapshot;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
 import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.utils.MergeProcessorUtil;
 import org.aposin.mergeprocessor.utils.RuntimeUtil;
 import org.aposin.mergeprocessor.utils.RuntimeUtil.CmdUtilException;
-import org.aposin.mergeprocessor.utils.SftpUtil;
 import org.aposin.mergeprocessor.utils.SvnUtil;
 import org.aposin.mergeprocessor.view.DirectorySelectionDialog;
 import org.aposin.mergeprocessor.view.Messages;
@@ -72,6 +75,7 @@ public class MergeTask {
 	private static final Logger LOGGER = Logger.getLogger(MergeTask.class.getName());
 
 	private final IMergeUnit mergeUnit;
+	private final Collection<? extends IMergeUnit> pendingMergeUnits;
 	private final IConfiguration configuration;
 	private final Dashboard shellProvider; // TODO should be IShellProvider
 	private final ISvnClient svnClient;
@@ -82,7 +86,21 @@ public class MergeTask {
 	 * @param shellProvider provider providing the parent shell
 	 */
 	public MergeTask(final IMergeUnit mergeUnit, final IConfiguration configuration, final Dashboard shellProvider) {
+		this(mergeUnit, Collections.emptyList(), configuration, shellProvider);
+	}
+
+	/**
+	 * @param mergeUnit         the merge unit to execute
+	 * @param pendingMergeUnits the merge units which may be merged in the same
+	 *                          batch, e.g. GIT merge units for the same target
+	 *                          branch
+	 * @param configuration     the configuration
+	 * @param shellProvider     provider providing the parent shell
+	 */
+	public MergeTask(final IMergeUnit mergeUnit, final Collection<? extends IMergeUnit> pendingMergeUnits,
+			final IConfiguration configuration, final Dashboard shellProvider) {
 		this.mergeUnit = Objects.requireNonNull(mergeUnit);
+		this.pendingMergeUnits = Objects.requireNonNull(pendingMergeUnits);
 		this.configuration = Objects.requireNonNull(configuration);
 		this.shellProvider = Objects.requireNonNull(shellProvider);
 		this.svnClient = E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class);
@@ -135,7 +153,8 @@ public class MergeTask {
 		Dashboard.setShellProgressMonitorDialog(pmd);
 		pmd.run(true, true, monitor -> {
 			try {
-				boolean cancelled = MergeProcessorUtil.merge(pmd, monitor, configuration, mergeUnit);
+				boolean cancelled = MergeProcessorUtil.merge(pmd, monitor, configuration, mergeUnit,
+						pendingMergeUnits);
 				if (cancelled) {
 					mergeUnit.setStatus(MergeUnitStatus.CANCELLED);
 					MergeProcessorUtil.canceled(mergeUnit);
@@ -222,12 +241,14 @@ public class MergeTask {
 									repositoryPath);
 							monitor.beginTask("Checking repository", 1);
 							monitor.subTask("");
-							if (svnClient.hasConflicts(dialog.getSelectedPath())) {
-								monitor.beginTask(
-										"Conflicts identified. Commiting not possible till they are resolved.", 0);
-								display.syncExec(mergeDialog::setStatusError);
-							} else {
-								monitor.beginTask("Finished", 0);
+							try (final SvnStatusSnapshot snapshot = svnClient.getStatusSnapshot(repositoryPath)) {
+								if (snapshot.hasConflicts(repositoryPath)) {
+									monitor.beginTask(
+											"Conflicts identified. Commiting not possible till they are resolved.", 0);
+									display.syncExec(mergeDialog::setStatusError);
+								} else {
+									monitor.beginTask("Finished", 0);
+								}
 							}
 							display.syncExec(() -> mergeDialog.setWarnings(warnings));
 							retry = false;
@@ -294,8 +315,8 @@ public class MergeTask {
 		if (StringUtils.isEmpty(message)) {
 			throw new IllegalArgumentException("The commit message must not be empty.");
 		}
-		try {
-			if (svnClient.hasConflicts(repositoryPath)) {
+		try (final SvnStatusSnapshot snapshot = svnClient.getStatusSnapshot(repositoryPath)) {
+			if (snapshot.hasConflicts(repositoryPath)) {
 				shellProvider.getShell().getDisplay().syncExec(() -> {
 					MessageBox messageBox = new MessageBox(shellProvider.getShell().getDisplay().getActiveShell(),
 							SWT.ICON_ERROR | SWT.OK);
@@ -394,8 +415,8 @@ public class MergeTask {
 	 */
 	private WorkspaceMergeDialog createWorkspaceMergeDialog(final Path repositoryPath) {
 		final WorkspaceMergeDialog dialog = new WorkspaceMergeDialog(shellProvider.getShell());
-		try {
-			dialog.setConfirmCommit(svnClient.hasModifications(repositoryPath));
+		try (final SvnStatusSnapshot snapshot = svnClient.getStatusSnapshot(repositoryPath)) {
+			dialog.setConfirmCommit(snapshot.hasModifications(repositoryPath));
 		} catch (SvnClientException e1) {
 			LogUtil.throwing(e1);
 		}
@@ -416,8 +437,9 @@ public class MergeTask {
 			if (MessageDialog.openConfirm(dialog.getShell(), "Commit has to be done manually.",
 					"Do you really want to close the merge? The commit will have to be done manually.")) {
 				try {
-					SftpUtil.getInstance().moveMergeUnitFromRemoteToManual(mergeUnit);
-				} catch (SftpUtilException exception) {
+					E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+							.moveMergeUnitFromRemoteToManual(mergeUnit);
+				} catch (MergeUnitQueueException exception) {
 					LOGGER.log(Level.SEVERE, "Could not move merge unit to manual.", exception); //$NON-NLS-1$
 				}
 				dialog.closeDialog();
@@ -427,8 +449,9 @@ public class MergeTask {
 		dialog.getCommitButton().addListener(SWT.Selection, e -> {
 			if (commit(repositoryPath, commitMessage, dialog)) {
 				try {
-					SftpUtil.getInstance().moveMergeUnitFromRemoteToDone(mergeUnit);
-				} catch (SftpUtilException exception) {
+					E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+							.moveMergeUnitFromRemoteToDone(mergeUnit);
+				} catch (MergeUnitQueueException exception) {
 					LOGGER.log(Level.SEVERE, "Could not move merge unit to done.", exception); //$NON-NLS-1$
 				}
 				dialog.closeDialog();
@@ -18,11 +18,9 @@
  */
 package org.aposin.mergeprocessor.model.git;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -31,40 +29,43 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.aposin.mergeprocessor.application.ApplicationUtil;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
-import org.aposin.mergeprocessor.exception.SftpUtilException;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.metrics.MergeMetrics;
+import org.aposin.mergeprocessor.metrics.MergeMetrics.PhaseTimer;
+import org.aposin.mergeprocessor.model.IMergeUnit;
 import org.aposin.mergeprocessor.model.MergeUnitException;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.model.VersionControlSystem;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
+import org.aposin.mergeprocessor.utils.BranchUrl;
 import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.utils.MergeProcessorUtil;
-import org.aposin.mergeprocessor.utils.SftpUtil;
 import org.aposin.mergeprocessor.view.MessageDialogScrollable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jgit.api.CheckoutCommand;
 import org.eclipse.jgit.api.CherryPickResult;
+import org.eclipse.jgit.api.CherryPickResult.CherryPickStatus;
 import org.eclipse.jgit.api.CreateBranchCommand.SetupUpstreamMode;
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.ListBranchCommand.ListMode;
-import org.eclipse.jgit.api.PullResult;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.api.MergeResult;
 import org.eclipse.jgit.api.ResetCommand.ResetType;
 import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.errors.IncorrectObjectTypeException;
-import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.NoWorkTreeException;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.transport.PushResult;
 import org.eclipse.jgit.transport.RemoteRefUpdate;
@@ -121,32 +122,14 @@ public class GitMergeUtil {
 	 *         branches could not be listed
 	 */
 	public static List<String> listRemoteBranches(IConfiguration configuration, GITMergeUnit mergeUnit) {
-		final String pathSvnkitFolder = configuration.getGitRepositoryFolder();
-		final String repository = mergeUnit.getRepository();
-		final String localRepository;
-		if (repository.lastIndexOf('/') > -1) {
-			localRepository = pathSvnkitFolder + File.separator
-					+ repository.substring(repository.lastIndexOf('/') + 1, repository.length() - 4);
-		} else {
-			localRepository = pathSvnkitFolder + File.separator + repository;
-		}
-		final File file = Paths.get(localRepository).toFile();
-		if (file.exists()) {
-			try (final Git git = Git.open(file)) {
-				final List<Ref> result = git.branchList().setListMode(ListMode.REMOTE).call();
-				final List<String> branchList = result.stream().map(ref -> ref.getName().replace("refs/", ""))
-						.collect(Collectors.toList());
-				Collections.reverse(branchList);
-				return branchList;
-			} catch (IOException | GitAPIException e) {
-				LOGGER.log(Level.SEVERE, "Cannot list remove branches of the git repository.", e); //$NON-NLS-1$
-			}
-		} else {
-			if (LOGGER.isLoggable(Level.INFO)) {
-				LOGGER.info(String.format("Local git repository '%s' not cloned.", file));
-			}
-		}
-		return Collections.emptyList();
+		return getRepositoryManager().getRemoteBranches(mergeUnit.getRepository());
+	}
+
+	/**
+	 * @return the {@link GitRepositoryManager} of the application
+	 */
+	private static GitRepositoryManager getRepositoryManager() {
+		return E4CompatibilityUtil.getApplicationContext().get(GitRepositoryManager.class);
 	}
 
 	/**
@@ -161,16 +144,40 @@ public class GitMergeUtil {
 	 */
 	public static boolean merge(ProgressMonitorDialog pmd, IProgressMonitor monitor, IConfiguration configuration,
 			GITMergeUnit mergeUnit) {
-		LogUtil.entering(pmd, monitor, configuration, mergeUnit);
+		return merge(pmd, monitor, configuration, mergeUnit, Collections.emptyList());
+	}
+
+	/**
+	 * Merges the given {@link GITMergeUnit} together with all pending
+	 * {@link GITMergeUnit GITMergeUnits} for the same repository and target branch,
+	 * which are sorted after the given merge unit. The merge units are cherry picked
+	 * one after the other and pushed once. The batch stops at the first merge unit
+	 * which cannot be cherry picked without conflicts. This merge unit and all
+	 * following ones stay in TODO. Only conflicts of the given merge unit are
+	 * resolved by the user.
+	 * 
+	 * @param pmd               the progress monitor dialog
+	 * @param monitor           the progress monitor
+	 * @param configuration     the configuration
+	 * @param mergeUnit         the {@link GITMergeUnit}
+	 * @param pendingMergeUnits the merge units to check for merging in the same
+	 *                          batch
+	 * @return {@code true} if the merge was canceled
+	 */
+	public static boolean merge(ProgressMonitorDialog pmd, IProgressMonitor monitor, IConfiguration configuration,
+			GITMergeUnit mergeUnit, Collection<? extends IMergeUnit> pendingMergeUnits) {
+		LogUtil.entering(pmd, monitor, configuration, mergeUnit, pendingMergeUnits);
+		final List<GITMergeUnit> batch = getBatch(mergeUnit, pendingMergeUnits);
 		boolean retry = true;
 		boolean canceled = false;
 		while (retry) {
 			retry = false;
-			monitor.beginTask(Messages.GitMergeUtil_mergeGitMergeUnit, 10);
-			try (final GitMergeUnitProcessor processor = new GitMergeUnitProcessor(mergeUnit, configuration)) {
+			monitor.beginTask(Messages.GitMergeUtil_mergeGitMergeUnit, 7 + 3 * batch.size());
+			try (final GitMergeUnitProcessor processor = new GitMergeUnitProcessor(batch,
+					getRepositoryManager(), true)) {
 				try {
 					processor.run(pmd, monitor);
-				} catch (MergeUnitException | SftpUtilException e) {
+				} catch (MergeUnitException | MergeUnitQueueException e) {
 					switch (handleByUser(e)) {
 					case RETRY:
 						retry = true;
@@ -195,6 +202,59 @@ public class GitMergeUtil {
 		return LogUtil.exiting(canceled);
 	}
 
+	/**
+	 * Merges the given batch of {@link GITMergeUnit GITMergeUnits} without any user
+	 * interaction. The merge units are cherry picked one after the other and
+	 * pushed once, as done by
+	 * {@link #merge(ProgressMonitorDialog, IProgressMonitor, IConfiguration, GITMergeUnit, Collection)}.
+	 * The batch stops at the first following merge unit which cannot be cherry
+	 * picked without conflicts. Conflicts of the first merge unit fail the merge.
+	 * The merged units are not moved, this is up to the caller. Package private for
+	 * the tests and the throughput benchmark.
+	 * 
+	 * @param repositoryManager the manager providing the local repository
+	 * @param batch             the merge units to merge, all for the same
+	 *                          repository and target branch
+	 * @param monitor           the progress monitor
+	 * @return the merged and pushed merge units, the others stay in TODO
+	 * @throws MergeUnitException if the merge failed or was canceled
+	 */
+	static List<GITMergeUnit> mergeHeadless(final GitRepositoryManager repositoryManager,
+			final List<GITMergeUnit> batch, final IProgressMonitor monitor) throws MergeUnitException {
+		try (final GitMergeUnitProcessor processor = new GitMergeUnitProcessor(batch, repositoryManager, false)) {
+			processor.mergeAndPush(monitor);
+			return new ArrayList<>(processor.mergedUnits);
+		} catch (MergeCancelException e) {
+			throw new MergeUnitException("The merge was canceled.", e); //$NON-NLS-1$
+		} catch (IOException e) {
+			throw new MergeUnitException("Could not release the repository.", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Returns the merge units to merge in one batch with the given merge unit,
+	 * sorted by {@link GITMergeUnit#compareTo(IMergeUnit)}.
+	 * 
+	 * @param mergeUnit         the merge unit to merge
+	 * @param pendingMergeUnits the merge units to check
+	 * @return the merge units of the batch, starting with the given merge unit
+	 */
+	static List<GITMergeUnit> getBatch(final GITMergeUnit mergeUnit,
+			final Collection<? extends IMergeUnit> pendingMergeUnits) {
+		final List<GITMergeUnit> batch = new ArrayList<>();
+		batch.add(mergeUnit);
+		for (final IMergeUnit pendingMergeUnit : pendingMergeUnits) {
+			if (pendingMergeUnit instanceof GITMergeUnit && pendingMergeUnit.getStatus() == MergeUnitStatus.TODO
+					&& mergeUnit.compareTo(pendingMergeUnit) < 0
+					&& Objects.equals(mergeUnit.getRepository(), pendingMergeUnit.getRepository())
+					&& Objects.equals(mergeUnit.getBranchTarget(), pendingMergeUnit.getBranchTarget())) {
+				batch.add((GITMergeUnit) pendingMergeUnit);
+			}
+		}
+		Collections.sort(batch);
+		return batch;
+	}
+
 	/**
 	 * Opens a dialog asking the user what to do.
 	 * 
@@ -269,21 +329,37 @@ public class GitMergeUtil {
 
 		private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"); //$NON-NLS-1$
 
-		private final GITMergeUnit mergeUnit;
-		private final IConfiguration configuration;
+		private final List<GITMergeUnit> mergeUnits;
+		private final List<GITMergeUnit> mergedUnits = new ArrayList<>();
+		private final GitRepositoryManager repositoryManager;
+		/** {@code true} if the user resolves conflicts of the first merge unit */
+		private final boolean isInteractive;
+
+		/** The merge unit currently processed */
+		private GITMergeUnit mergeUnit;
+		private boolean isBatchStopped;
 
 		private Path repoPath;
 		private Git repo;
+		private Lock repoLock;
 		private MergeUnitException exception;
 		private IProgressMonitor monitor;
 		private String commitMessage;
 
 		/**
-		 * @param mergeUnit the merge unit to process
+		 * @param mergeUnits        the merge units to process, all for the same
+		 *                          repository and target branch
+		 * @param repositoryManager the manager providing the local repository
+		 * @param isInteractive     {@code true} if the user resolves conflicts of the
+		 *                          first merge unit, {@code false} if conflicts fail
+		 *                          the merge
 		 */
-		private GitMergeUnitProcessor(final GITMergeUnit mergeUnit, final IConfiguration configuration) {
-			this.mergeUnit = mergeUnit;
-			this.configuration = configuration;
+		private GitMergeUnitProcessor(final List<GITMergeUnit> mergeUnits,
+				final GitRepositoryManager repositoryManager, final boolean isInteractive) {
+			this.mergeUnits = mergeUnits;
+			this.mergeUnit = mergeUnits.get(0);
+			this.repositoryManager = repositoryManager;
+			this.isInteractive = isInteractive;
 		}
 
 		/**
@@ -291,9 +367,9 @@ public class GitMergeUtil {
 		 */
 		private void revert() {
 			try {
-				repo.fetch().call();
+				repositoryManager.fetch(mergeUnit.getRepository());
 				repo.reset().setMode(ResetType.HARD).setRef(mergeUnit.getBranchTarget()).call();
-			} catch (GitAPIException e) {
+			} catch (GitAPIException | IOException e) {
 				LOGGER.log(Level.SEVERE, String.format("Could no revert repository '%s'.", repoPath), e); //$NON-NLS-1$
 			}
 		}
@@ -304,53 +380,111 @@ public class GitMergeUtil {
 		 * @param pmd     the monitor dialog
 		 * @param monitor the process monitor
 		 * @throws MergeUnitException
-		 * @throws SftpUtilException
+		 * @throws MergeUnitQueueException
 		 * @throws MergeCancelException
 		 */
 		private void run(final ProgressMonitorDialog pmd, final IProgressMonitor monitor)
-				throws MergeUnitException, SftpUtilException, MergeCancelException {
-			this.monitor = monitor;
-			run(Messages.GitMergeUtil_createRepositoryDirectory, this::createLocalRepositoryIfNotExisting);
-			run(Messages.GitMergeUtil_clone, this::cloneRepositoryIfNotExisting);
-
-			run(Messages.GitMergeUtil_pull, this::pull);
-			run(Messages.GitMergeUtil_evaluteCommitMessage, this::evaluteCommitMessage);
-			run(Messages.GitMergeUtil_checkoutBranch, this::checkout);
-			run(Messages.GitMergeUtil_checkStatus, this::checkStatus);
-			run(Messages.GitMergeUtil_cherryPick, this::cherryPick);
-			run(Messages.GitMergeUtil_commit, this::commit);
+				throws MergeUnitException, MergeUnitQueueException, MergeCancelException {
+			cherryPickAndCommit(monitor);
 
 			// When pushed, no way of return
 			pmd.setCancelable(false);
-			run(Messages.GitMergeUtil_push, this::push);
+			run("push", Messages.GitMergeUtil_push, this::push); //$NON-NLS-1$
 
 			monitor.subTask(Messages.GitMergeUtil_moveMergeUnit);
-			SftpUtil.getInstance().moveMergeUnitFromRemoteToDone(mergeUnit);
+			final PhaseTimer timer = startPhase("moveMergeUnit"); //$NON-NLS-1$
+			try {
+				E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+						.moveMergeUnitsFromRemoteToDone(mergedUnits);
+			} finally {
+				timer.close();
+			}
 			monitor.worked(1);
 		}
 
+		/**
+		 * Runs the processor without moving the merged units.
+		 * 
+		 * @param monitor the process monitor
+		 * @throws MergeUnitException
+		 * @throws MergeCancelException
+		 */
+		private void mergeAndPush(final IProgressMonitor monitor) throws MergeUnitException, MergeCancelException {
+			cherryPickAndCommit(monitor);
+			run("push", Messages.GitMergeUtil_push, this::push); //$NON-NLS-1$
+		}
+
+		/**
+		 * Prepares the local repository and cherry picks and commits the merge units
+		 * one after the other, until the batch is stopped.
+		 * 
+		 * @param monitor the process monitor
+		 * @throws MergeUnitException
+		 * @throws MergeCancelException
+		 */
+		private void cherryPickAndCommit(final IProgressMonitor monitor)
+				throws MergeUnitException, MergeCancelException {
+			this.monitor = monitor;
+			mergeUnit = mergeUnits.get(0);
+			mergedUnits.clear();
+			isBatchStopped = false;
+			run("createRepositoryDirectory", Messages.GitMergeUtil_createRepositoryDirectory, //$NON-NLS-1$
+					this::createLocalRepositoryIfNotExisting);
+			run("clone", Messages.GitMergeUtil_clone, this::cloneRepositoryIfNotExisting); //$NON-NLS-1$
+
+			run("fetch", Messages.GitMergeUtil_fetch, this::fetch); //$NON-NLS-1$
+			run("checkout", Messages.GitMergeUtil_checkoutBranch, this::checkout); //$NON-NLS-1$
+			run("checkStatus", Messages.GitMergeUtil_checkStatus, this::checkStatus); //$NON-NLS-1$
+			for (final GITMergeUnit unit : mergeUnits) {
+				mergeUnit = unit;
+				run("evaluateCommitMessage", Messages.GitMergeUtil_evaluteCommitMessage, //$NON-NLS-1$
+						this::evaluteCommitMessage);
+				if (mergedUnits.isEmpty()) {
+					run("cherryPick", Messages.GitMergeUtil_cherryPick, this::cherryPick); //$NON-NLS-1$
+				} else {
+					run("cherryPick", Messages.GitMergeUtil_cherryPick, //$NON-NLS-1$
+							this::cherryPickWithoutConflicts);
+					if (isBatchStopped) {
+						break;
+					}
+				}
+				run("commit", Messages.GitMergeUtil_commit, this::commit); //$NON-NLS-1$
+				mergedUnits.add(unit);
+			}
+		}
+
 		/**
 		 * {@inheritDoc}
 		 */
 		@Override
 		public void close() throws IOException {
 			repoPath = null;
-			repo.close();
+			// The repository is kept open by the repository manager
 			repo = null;
+			if (repoLock != null) {
+				repoLock.unlock();
+				repoLock = null;
+			}
 			exception = null;
 			this.monitor = null;
 		}
 
 		/**
+		 * @param phase    the name of the phase to measure
 		 * @param taskName the task name to set into the monitor
 		 * @param runnable the runnable to execute
 		 * @throws MergeUnitException   thrown when {@link #exception} is available
 		 * @throws MergeCancelException thrown when canceled by the user
 		 */
-		private void run(final String taskName, final Runnable runnable)
+		private void run(final String phase, final String taskName, final Runnable runnable)
 				throws MergeUnitException, MergeCancelException {
 			monitor.subTask(taskName);
-			runnable.run();
+			final PhaseTimer timer = startPhase(phase);
+			try {
+				runnable.run();
+			} finally {
+				timer.close();
+			}
 			if (exception != null) {
 				throw exception;
 			}
@@ -360,31 +494,34 @@ public class GitMergeUtil {
 			monitor.worked(1);
 		}
 
+		/**
+		 * Starts measuring a merge phase for the current merge unit.
+		 * 
+		 * @param phase the name of the phase
+		 * @return the running timer
+		 */
+		private PhaseTimer startPhase(final String phase) {
+			return MergeMetrics.getInstance().startPhase(VersionControlSystem.GIT, mergeUnit.getRepository(), phase);
+		}
+
 		/**
 		 * Creates a local repository for the given merge unit, if it does not exist.
 		 */
 		private void createLocalRepositoryIfNotExisting() {
-			final String repository = mergeUnit.getRepository();
-			final Matcher matcher = Pattern.compile("\\/[^\\/]*\\.git$").matcher(mergeUnit.getRepository()); //$NON-NLS-1$
-			if (matcher.find()) {
-				final String result = matcher.group();
-				if (matcher.find()) {
-					exception = new MergeUnitException(String.format("Unknown repository format: '%s'", repository)); //$NON-NLS-1$
-				} else {
-					final String pathSvnkitFolder = configuration.getGitRepositoryFolder();
-					repoPath = Paths.get(pathSvnkitFolder, result.substring(1, result.length() - 4));
-					if (!repoPath.toFile().exists()) {
-						try {
-							Files.createDirectories(repoPath);
-							LOGGER.info(() -> String.format("Directory '%s' created.", repoPath)); //$NON-NLS-1$
-						} catch (IOException e) {
-							exception = new MergeUnitException(
-									String.format("Directory '%s' could not be created.", repoPath), e); //$NON-NLS-1$
-						}
-					}
+			try {
+				repoPath = repositoryManager.getLocalPath(mergeUnit.getRepository());
+			} catch (IllegalArgumentException e) {
+				exception = new MergeUnitException(e.getMessage(), e);
+				return;
+			}
+			if (!repoPath.toFile().exists()) {
+				try {
+					Files.createDirectories(repoPath);
+					LOGGER.info(() -> String.format("Directory '%s' created.", repoPath)); //$NON-NLS-1$
+				} catch (IOException e) {
+					exception = new MergeUnitException(String.format("Directory '%s' could not be created.", repoPath), //$NON-NLS-1$
+							e);
 				}
-			} else {
-				exception = new MergeUnitException(String.format("Unknown repository format: '%s'", repository)); //$NON-NLS-1$
 			}
 		}
 
@@ -394,31 +531,40 @@ public class GitMergeUtil {
 		private void cloneRepositoryIfNotExisting() {
 			final String repository = Objects.requireNonNull(mergeUnit).getRepository();
 			try {
-				repo = Git.open(repoPath.toFile());
+				repo = repositoryManager.getGit(repository);
 			} catch (IOException e) {
 				// Does not exist -> Clone it
+				final String localBranch = getLocalTargetBranch();
+				if (localBranch == null) {
+					return;
+				}
 				try {
-					repo = Git.cloneRepository().setURI(repository).setDirectory(repoPath.toFile()).call();
+					repo = repositoryManager.cloneRepository(repository, localBranch);
 					LOGGER.info(String.format("Cloned repository '%s' to '%s'.", repository, repoPath)); //$NON-NLS-1$
-				} catch (GitAPIException e1) {
+				} catch (GitAPIException | IOException e1) {
 					exception = new MergeUnitException(String.format("Could not clone the repository '%s'", repository), //$NON-NLS-1$
 							e1);
+					return;
 				}
 			}
+			try {
+				// No background fetch while merging
+				repoLock = repositoryManager.getLock(repository);
+				repoLock.lock();
+			} catch (IOException e) {
+				exception = new MergeUnitException(String.format("Could not open the repository '%s'", repository), e); //$NON-NLS-1$
+			}
 		}
 
 		/**
-		 * {@code git pull}
+		 * {@code git fetch}
 		 */
-		private void pull() {
+		private void fetch() {
 			try {
-				final PullResult call = repo.pull().call();
-				if (!call.isSuccessful()) {
-					exception = new MergeUnitException(
-							String.format("Could not pull from remote repository '%s'", repo)); //$NON-NLS-1$
-				}
-			} catch (GitAPIException e) {
-				exception = new MergeUnitException(String.format("Could not push the local repository '%s'.", repo), e); //$NON-NLS-1$
+				repositoryManager.fetch(mergeUnit.getRepository());
+			} catch (GitAPIException | IOException e) {
+				exception = new MergeUnitException(String.format("Could not fetch from remote repository '%s'", repo), //$NON-NLS-1$
+						e);
 			}
 		}
 
@@ -431,31 +577,29 @@ public class GitMergeUtil {
 				return;
 			}
 			try {
-				final List<Ref> branchListResult = repo.branchList().call();
-				final boolean localBranchExists = branchListResult.stream()
-						.anyMatch(ref -> ref.getName().endsWith(localBranch));
-				CheckoutCommand branchCmd = repo.checkout().setName(localBranch);
-				if (!localBranchExists) {
-					branchCmd = branchCmd.setCreateBranch(true).setUpstreamMode(SetupUpstreamMode.SET_UPSTREAM)
-							.setStartPoint(mergeUnit.getBranchSource());
+				// Fetches the source branch on demand, e.g. for a single branch clone
+				final RevCommit commit = repositoryManager.getCommit(mergeUnit.getRepository(),
+						mergeUnit.getRevisionInfo(), localBranch);
+				if (commit == null) {
+					exception = new MergeUnitException(
+							String.format("The commit '%s' does not exist.", mergeUnit.getRevisionInfo())); //$NON-NLS-1$
+					return;
 				}
-				branchCmd.call();
-
-				final ObjectId id = ObjectId.fromString(mergeUnit.getRevisionInfo());
-				commitMessage = repo.log().add(id).call().iterator().next().getFullMessage();
+				commitMessage = commit.getFullMessage();
 				/*
 				 * Remove merge processor commit information, if the commmit is done by merge
 				 * processor e.g. MP [29c64cf540d8f3ea116c3683eade862c3d996dfb] V1.1 -> master:
 				 * (2018-03-06 12:17:22)
 				 */
 				commitMessage = commitMessage.replaceAll("MP \\[[A-Za-z0-9]*\\] .* -> .*: \\(.*\\) ", ""); //$NON-NLS-1$ //$NON-NLS-2$
-			} catch (GitAPIException | MissingObjectException | IncorrectObjectTypeException e) {
-				exception = new MergeUnitException(String.format("Could not checkout branch '%s'", localBranch), e); //$NON-NLS-1$
+			} catch (GitAPIException | IOException e) {
+				exception = new MergeUnitException(
+						String.format("Could not read the commit '%s'", mergeUnit.getRevisionInfo()), e); //$NON-NLS-1$
 			}
 		}
 
 		/**
-		 * {@code git checkout}
+		 * {@code git checkout} {@code git merge --ff-only}
 		 */
 		private void checkout() {
 			final String localBranch = getLocalTargetBranch();
@@ -463,16 +607,28 @@ public class GitMergeUtil {
 				return;
 			}
 			try {
-				final List<Ref> branchListResult = repo.branchList().call();
-				final boolean localBranchExists = branchListResult.stream()
-						.anyMatch(ref -> ref.getName().endsWith(localBranch));
+				if (repo.getRepository().resolve(mergeUnit.getBranchTarget()) == null) {
+					// Not fetched yet, e.g. for a single branch clone
+					repositoryManager.fetchBranch(mergeUnit.getRepository(), localBranch);
+				}
+				final boolean localBranchExists = repo.getRepository()
+						.findRef(Constants.R_HEADS + localBranch) != null;
 				CheckoutCommand branchCmd = repo.checkout().setName(localBranch);
 				if (!localBranchExists) {
 					branchCmd = branchCmd.setCreateBranch(true).setUpstreamMode(SetupUpstreamMode.SET_UPSTREAM)
 							.setStartPoint(mergeUnit.getBranchTarget());
 				}
 				branchCmd.call();
-			} catch (GitAPIException e) {
+
+				// The remote branch is already fetched, so only a fast forward is required
+				final ObjectId remoteId = repo.getRepository().resolve(mergeUnit.getBranchTarget());
+				final MergeResult result = repo.merge().include(remoteId).setFastForward(FastForwardMode.FF_ONLY)
+						.call();
+				if (!result.getMergeStatus().isSuccessful()) {
+					exception = new MergeUnitException(String.format("Could not fast forward branch '%s' to '%s'", //$NON-NLS-1$
+							localBranch, mergeUnit.getBranchTarget()));
+				}
+			} catch (GitAPIException | RevisionSyntaxException | IOException e) {
 				exception = new MergeUnitException(String.format("Could not checkout branch '%s'", localBranch), e); //$NON-NLS-1$
 			}
 		}
@@ -526,7 +682,12 @@ public class GitMergeUtil {
 				switch (result.getStatus()) {
 				case CONFLICTING:
 					final Collection<String> conflicts = repo.status().call().getConflicting();
-					resolveConflicts(conflicts);
+					if (isInteractive) {
+						resolveConflicts(conflicts);
+					} else {
+						exception = new MergeUnitException(String.format("Conflicts on cherry picking '%s': %s", //$NON-NLS-1$
+								mergeUnit.getRevisionInfo(), conflicts));
+					}
 					break;
 				case FAILED:
 					exception = new MergeUnitException(String.format("Could not cherry pick the given commit '%s'", //$NON-NLS-1$
@@ -540,6 +701,26 @@ public class GitMergeUtil {
 			}
 		}
 
+		/**
+		 * {@code git cherryPick} for a following merge unit of the batch. If the
+		 * cherry pick does not succeed without conflicts, the changes are reverted and
+		 * the batch is stopped.
+		 */
+		private void cherryPickWithoutConflicts() {
+			final ObjectId id = ObjectId.fromString(mergeUnit.getRevisionInfo());
+			try {
+				final CherryPickResult result = repo.cherryPick().include(id).setNoCommit(true).call();
+				if (result.getStatus() != CherryPickStatus.OK) {
+					LOGGER.info(() -> String.format("Stopping batch merge at '%s' with cherry pick status %s.", //$NON-NLS-1$
+							mergeUnit.getRevisionInfo(), result.getStatus()));
+					repo.reset().setMode(ResetType.HARD).call();
+					isBatchStopped = true;
+				}
+			} catch (GitAPIException e) {
+				exception = new MergeUnitException(String.format("Could not cherry pick from the given id %s.", id), e); //$NON-NLS-1$
+			}
+		}
+
 		/**
 		 * Resolve the conflicts.
 		 * 
@@ -685,13 +866,11 @@ public class GitMergeUtil {
 		 * @return the name of the branch without additional local or remote information
 		 */
 		private String getLocalBranch(final String branchName) {
-			final Matcher matcher = Pattern.compile("\\/[^\\/]*$").matcher(branchName); //$NON-NLS-1$
-			if (matcher.find()) {
-				return matcher.group(0).substring(1);
-			} else {
+			final String localBranch = BranchUrl.getLastSegment(branchName);
+			if (localBranch == null) {
 				exception = new MergeUnitException(String.format("Unknown target branch format '%s'", branchName)); //$NON-NLS-1$
-				return null;
 			}
+			return localBranch;
 		}
 
 	}
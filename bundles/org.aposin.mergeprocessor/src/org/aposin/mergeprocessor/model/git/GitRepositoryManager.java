@@ -0,0 +1,499 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.git;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.eclipse.jgit.api.CloneCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+
+/**
+ * Keeps the local GIT repositories open, so the merge of a {@link GITMergeUnit}
+ * does not need to open the repository and to pull the remote changes each
+ * time. The remote branches of all opened repositories are fetched in the
+ * background and the branch lists are served from the refs cached after the
+ * last fetch.
+ * <p>
+ * Each repository has a lock which has to be held while working with it, e.g.
+ * during a merge. The background fetch skips repositories which are currently
+ * locked, so the remote refs do not change while a merge is in progress.
+ * <p>
+ * Repositories are cloned as defined by the {@link GitCloneStrategy} of the
+ * configuration. Branches and commits which are not available locally are
+ * fetched on demand.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class GitRepositoryManager implements AutoCloseable {
+
+	private static final Logger LOGGER = Logger.getLogger(GitRepositoryManager.class.getName());
+
+	/** The default interval between two background fetches. */
+	public static final Duration DEFAULT_FETCH_INTERVAL = Duration.ofMinutes(5);
+
+	private static final Pattern REPOSITORY_NAME_PATTERN = Pattern.compile("\\/([^\\/]+?)(?:\\.git)?\\/?$"); //$NON-NLS-1$
+
+	private static final String CONFIG_FETCH_KEY = "fetch"; //$NON-NLS-1$
+
+	/** Fetches all branches of the remote repository. */
+	private static final RefSpec ALL_BRANCHES_REF_SPEC = new RefSpec(
+			"+" + Constants.R_HEADS + "*:" + Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/*"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	private final IConfiguration configuration;
+	private final Map<String, CachedRepository> repositories = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * @param configuration the configuration providing the repository folder
+	 */
+	@Inject
+	public GitRepositoryManager(final IConfiguration configuration) {
+		this(configuration, DEFAULT_FETCH_INTERVAL);
+	}
+
+	/**
+	 * @param configuration the configuration providing the repository folder
+	 * @param fetchInterval the interval between two background fetches or
+	 *                      {@code null} if no background fetch should happen
+	 */
+	public GitRepositoryManager(final IConfiguration configuration, final Duration fetchInterval) {
+		this.configuration = Objects.requireNonNull(configuration);
+		if (fetchInterval == null) {
+			executor = null;
+		} else {
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				final Thread thread = new Thread(runnable, "GIT Background Fetch"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+			final long millis = fetchInterval.toMillis();
+			executor.scheduleWithFixedDelay(this::fetchAllInBackground, millis, millis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Returns the local path of the given remote repository.
+	 *
+	 * @param repository the URL of the remote repository, with or without the
+	 *                   suffix {@code .git}
+	 * @return the local path
+	 * @throws IllegalArgumentException if the URL of the repository is not
+	 *                                  supported
+	 */
+	public Path getLocalPath(final String repository) {
+		final Matcher matcher = REPOSITORY_NAME_PATTERN.matcher(repository);
+		if (!matcher.find()) {
+			throw new IllegalArgumentException(String.format("Unknown repository format: '%s'", repository)); //$NON-NLS-1$
+		}
+		return Paths.get(configuration.getGitRepositoryFolder(), matcher.group(1));
+	}
+
+	/**
+	 * Returns the open local repository for the given remote repository. The
+	 * returned instance is shared and must not be closed by the caller.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @return the local repository
+	 * @throws IOException if the repository is not cloned locally or cannot be
+	 *                     opened
+	 */
+	public Git getGit(final String repository) throws IOException {
+		return getCachedRepository(repository).git;
+	}
+
+	/**
+	 * Clones the given remote repository into its local path as defined by the
+	 * {@link GitCloneStrategy} of the configuration and registers it.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @param branch     the branch to check out, e.g. {@code master}
+	 * @return the local repository
+	 * @throws GitAPIException if the clone fails
+	 * @throws IOException     if the configuration of the clone cannot be saved
+	 */
+	public Git cloneRepository(final String repository, final String branch) throws GitAPIException, IOException {
+		final GitCloneStrategy strategy = configuration.getGitCloneStrategy();
+		final CloneCommand command = Git.cloneRepository().setURI(repository)
+				.setDirectory(getLocalPath(repository).toFile()).setBranch(Constants.R_HEADS + branch);
+		if (strategy == GitCloneStrategy.SINGLE_BRANCH) {
+			command.setCloneAllBranches(false).setBranchesToClone(Collections.singleton(Constants.R_HEADS + branch));
+		}
+		final Git git = command.call();
+		try {
+			if (strategy == GitCloneStrategy.SINGLE_BRANCH) {
+				// Also later fetches should only get the cloned branch
+				setFetchRefSpecs(git, Collections.singletonList(getBranchRefSpec(branch).toString()));
+			}
+		} catch (IOException e) {
+			git.close();
+			throw e;
+		}
+		register(repository, git);
+		LOGGER.info(() -> String.format("Cloned repository '%s' with strategy %s.", repository, strategy)); //$NON-NLS-1$
+		return git;
+	}
+
+	/**
+	 * Registers a repository which was newly cloned. The manager takes the
+	 * ownership of the given instance.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @param git        the local repository
+	 */
+	public void register(final String repository, final Git git) {
+		final CachedRepository previous = repositories.put(getKey(repository), new CachedRepository(git));
+		if (previous != null && previous.git != git) {
+			previous.git.close();
+		}
+	}
+
+	/**
+	 * Returns the lock of the given repository, which has to be held while the
+	 * working tree or the local branches are modified.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @return the lock
+	 * @throws IOException if the repository is not cloned locally or cannot be
+	 *                     opened
+	 */
+	public ReentrantLock getLock(final String repository) throws IOException {
+		return getCachedRepository(repository).lock;
+	}
+
+	/**
+	 * Fetches the given repository and updates the cached remote branches.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @throws IOException     if the repository is not cloned locally or cannot
+	 *                         be opened
+	 * @throws GitAPIException if the fetch fails
+	 */
+	public void fetch(final String repository) throws IOException, GitAPIException {
+		final CachedRepository cached = getCachedRepository(repository);
+		cached.lock.lock();
+		try {
+			cached.fetch();
+		} finally {
+			cached.lock.unlock();
+		}
+	}
+
+	/**
+	 * Fetches the given branch. If the branch is not fetched by the repository
+	 * yet, e.g. because it was cloned with {@link GitCloneStrategy#SINGLE_BRANCH},
+	 * the branch is tracked from now on.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @param branch     the name of the branch, e.g. {@code master}
+	 * @throws IOException     if the repository is not cloned locally or cannot
+	 *                         be opened
+	 * @throws GitAPIException if the fetch fails, e.g. if the branch does not
+	 *                         exist
+	 */
+	public void fetchBranch(final String repository, final String branch) throws IOException, GitAPIException {
+		final CachedRepository cached = getCachedRepository(repository);
+		cached.lock.lock();
+		try {
+			cached.fetchBranch(branch);
+		} finally {
+			cached.lock.unlock();
+		}
+	}
+
+	/**
+	 * Lists the remote branches of the given repository as cached after the last
+	 * fetch. If the repository is not cloned locally, an empty list is returned.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @return the remote branches, e.g. {@code remotes/origin/master}
+	 */
+	public List<String> getRemoteBranches(final String repository) {
+		final Path localPath;
+		try {
+			localPath = getLocalPath(repository);
+		} catch (IllegalArgumentException e) {
+			LOGGER.log(Level.WARNING, "Cannot list remote branches of the git repository.", e); //$NON-NLS-1$
+			return Collections.emptyList();
+		}
+		if (!repositories.containsKey(getKey(repository)) && !localPath.toFile().exists()) {
+			LOGGER.info(() -> String.format("Local git repository '%s' not cloned.", localPath)); //$NON-NLS-1$
+			return Collections.emptyList();
+		}
+		try {
+			return getCachedRepository(repository).getRemoteBranches();
+		} catch (IOException e) {
+			LOGGER.log(Level.SEVERE, "Cannot list remote branches of the git repository.", e); //$NON-NLS-1$
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Looks up the commit with the given id in the local object database.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @param commitId   the id of the commit
+	 * @return the commit or {@code null} if it does not exist locally
+	 * @throws IOException if the repository cannot be opened or read
+	 */
+	public RevCommit getCommit(final String repository, final String commitId) throws IOException {
+		final CachedRepository cached = getCachedRepository(repository);
+		try (final RevWalk walk = new RevWalk(cached.git.getRepository())) {
+			return walk.parseCommit(ObjectId.fromString(commitId));
+		} catch (MissingObjectException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up the commit with the given id. If it does not exist locally, the
+	 * given branch is fetched and if this does not help, all branches of the
+	 * remote repository are fetched once.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @param commitId   the id of the commit
+	 * @param branch     the branch which should contain the commit, e.g.
+	 *                   {@code master}
+	 * @return the commit or {@code null} if it does not exist on the remote
+	 *         repository either
+	 * @throws IOException     if the repository cannot be opened or read
+	 * @throws GitAPIException if fetching all branches fails
+	 */
+	public RevCommit getCommit(final String repository, final String commitId, final String branch)
+			throws IOException, GitAPIException {
+		RevCommit commit = getCommit(repository, commitId);
+		if (commit == null) {
+			LOGGER.info(() -> String.format("Commit '%s' not available locally. Fetching branch '%s'.", commitId, //$NON-NLS-1$
+					branch));
+			try {
+				fetchBranch(repository, branch);
+			} catch (GitAPIException e) {
+				LOGGER.log(Level.WARNING, String.format("Could not fetch branch '%s'.", branch), e); //$NON-NLS-1$
+			}
+			commit = getCommit(repository, commitId);
+		}
+		if (commit == null) {
+			LOGGER.info(() -> String.format("Commit '%s' not available locally. Fetching all branches.", commitId)); //$NON-NLS-1$
+			final CachedRepository cached = getCachedRepository(repository);
+			cached.lock.lock();
+			try {
+				cached.fetch(ALL_BRANCHES_REF_SPEC);
+			} finally {
+				cached.lock.unlock();
+			}
+			commit = getCommit(repository, commitId);
+		}
+		return commit;
+	}
+
+	/**
+	 * Closes all open repositories and stops the background fetch.
+	 */
+	@Override
+	public void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+		repositories.values().forEach(cached -> cached.git.close());
+		repositories.clear();
+	}
+
+	/**
+	 * Returns the cached repository, opening it if not done yet. If the repository
+	 * folder of the configuration has changed, the repository is opened again.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @return the cached repository
+	 * @throws IOException if the repository cannot be opened
+	 */
+	private CachedRepository getCachedRepository(final String repository) throws IOException {
+		final Path localPath = getLocalPath(repository).toAbsolutePath();
+		final String key = getKey(repository);
+		final CachedRepository cached = repositories.get(key);
+		if (cached != null && cached.git.getRepository().getWorkTree().toPath().toAbsolutePath().equals(localPath)) {
+			return cached;
+		}
+		synchronized (repositories) {
+			final CachedRepository current = repositories.get(key);
+			if (current != null && current != cached) {
+				return current;
+			}
+			final CachedRepository opened = new CachedRepository(Git.open(localPath.toFile()));
+			final CachedRepository previous = repositories.put(key, opened);
+			if (previous != null) {
+				previous.git.close();
+			}
+			return opened;
+		}
+	}
+
+	/**
+	 * Returns the key of the given repository in the cache, so the URLs with and
+	 * without the suffix {@code .git} share the same local repository.
+	 *
+	 * @param repository the URL of the remote repository
+	 * @return the URL without a trailing slash and without the suffix {@code .git}
+	 */
+	private static String getKey(final String repository) {
+		return StringUtils.removeEnd(StringUtils.removeEnd(repository, "/"), ".git"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @param branch the name of the branch, e.g. {@code master}
+	 * @return the ref spec fetching the given branch into its remote branch
+	 */
+	private static RefSpec getBranchRefSpec(final String branch) {
+		return new RefSpec("+" + Constants.R_HEADS + branch + ':' + Constants.R_REMOTES //$NON-NLS-1$
+				+ Constants.DEFAULT_REMOTE_NAME + '/' + branch);
+	}
+
+	/**
+	 * Replaces the fetch ref specs of the remote repository.
+	 *
+	 * @param git      the local repository
+	 * @param refSpecs the new ref specs
+	 * @throws IOException if the configuration cannot be saved
+	 */
+	private static void setFetchRefSpecs(final Git git, final List<String> refSpecs) throws IOException {
+		final StoredConfig config = git.getRepository().getConfig();
+		config.setStringList(ConfigConstants.CONFIG_REMOTE_SECTION, Constants.DEFAULT_REMOTE_NAME, CONFIG_FETCH_KEY,
+				refSpecs);
+		config.save();
+	}
+
+	/**
+	 * Fetches all repositories which are currently not in use.
+	 */
+	private void fetchAllInBackground() {
+		for (final Map.Entry<String, CachedRepository> entry : repositories.entrySet()) {
+			final CachedRepository cached = entry.getValue();
+			if (cached.lock.tryLock()) {
+				try {
+					cached.fetch();
+				} catch (GitAPIException | IOException | RuntimeException e) {
+					LOGGER.log(Level.WARNING, String.format("Background fetch of '%s' failed.", entry.getKey()), e); //$NON-NLS-1$
+				} finally {
+					cached.lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * An open repository with its cached remote branches.
+	 */
+	private static class CachedRepository {
+
+		private final Git git;
+		private final ReentrantLock lock = new ReentrantLock();
+		private volatile List<String> remoteBranches;
+
+		/**
+		 * @param git the open repository
+		 */
+		private CachedRepository(final Git git) {
+			this.git = git;
+		}
+
+		/**
+		 * Fetches the remote changes and updates the cached remote branches.
+		 */
+		private void fetch() throws GitAPIException, IOException {
+			git.fetch().setRemoveDeletedRefs(true).call();
+			remoteBranches = readRemoteBranches();
+		}
+
+		/**
+		 * Fetches the remote changes for the given ref spec only and updates the
+		 * cached remote branches.
+		 */
+		private void fetch(final RefSpec refSpec) throws GitAPIException, IOException {
+			git.fetch().setRefSpecs(refSpec).call();
+			remoteBranches = readRemoteBranches();
+		}
+
+		/**
+		 * Fetches the given branch and adds it to the fetched branches, if it is not
+		 * fetched yet.
+		 */
+		private void fetchBranch(final String branch) throws GitAPIException, IOException {
+			final RefSpec refSpec = getBranchRefSpec(branch);
+			fetch(refSpec);
+			final List<String> refSpecs = new ArrayList<>(Arrays.asList(git.getRepository().getConfig().getStringList(
+					ConfigConstants.CONFIG_REMOTE_SECTION, Constants.DEFAULT_REMOTE_NAME, CONFIG_FETCH_KEY)));
+			if (refSpecs.stream().map(RefSpec::new).noneMatch(spec -> spec.matchSource(refSpec.getSource()))) {
+				refSpecs.add(refSpec.toString());
+				setFetchRefSpecs(git, refSpecs);
+			}
+		}
+
+		/**
+		 * @return the remote branches as cached after the last fetch
+		 */
+		private List<String> getRemoteBranches() throws IOException {
+			List<String> branches = remoteBranches;
+			if (branches == null) {
+				branches = readRemoteBranches();
+				remoteBranches = branches;
+			}
+			return branches;
+		}
+
+		private List<String> readRemoteBranches() throws IOException {
+			final List<String> branches = new ArrayList<>();
+			for (final Ref ref : git.getRepository().getRefDatabase().getRefsByPrefix(Constants.R_REMOTES)) {
+				branches.add(ref.getName().substring(Constants.R_REFS.length()));
+			}
+			Collections.sort(branches);
+			Collections.reverse(branches);
+			return Collections.unmodifiableList(branches);
+		}
+
+	}
+
+}
@@ -28,12 +28,12 @@ public class Messages extends NLS {
 	public static String GitMergeUtil_commit;
 	public static String GitMergeUtil_createRepositoryDirectory;
 	public static String GitMergeUtil_evaluteCommitMessage;
+	public static String GitMergeUtil_fetch;
 	public static String GitMergeUtil_mergeErrorDetailMessage;
 	public static String GitMergeUtil_mergeErrorMessage;
 	public static String GitMergeUtil_mergeErrorTitle;
 	public static String GitMergeUtil_mergeGitMergeUnit;
 	public static String GitMergeUtil_moveMergeUnit;
-	public static String GitMergeUtil_pull;
 	public static String GitMergeUtil_push;
 	public static String GitMergeUtil_retry;
 	public static String GitMergeUtil_revertAndRetry;
@@ -56,6 +56,18 @@ public interface ISvnClient extends AutoCloseable {
 
 	boolean hasModifications(Path path) throws SvnClientException;
 
+	/**
+	 * Crawls the status of the given path once and returns a snapshot answering
+	 * modification and conflict queries for the path and all its subpaths. The
+	 * snapshot gets invalid as soon as this client changes any covered path and
+	 * should be closed when it is not required any more.
+	 * 
+	 * @param path the local path to crawl
+	 * @return the status snapshot
+	 * @throws SvnClientException
+	 */
+	SvnStatusSnapshot getStatusSnapshot(Path path) throws SvnClientException;
+
 	/**
 	 * Returns the current revision number for the given SVN URL.
 	 * 
@@ -187,6 +199,19 @@ public interface ISvnClient extends AutoCloseable {
 	 */
 	void update(Path path) throws SvnClientException;
 
+	/**
+	 * Updates the given paths to the HEAD revision. Implementations may update all
+	 * paths with a single call.
+	 * 
+	 * @param paths the paths to update
+	 * @throws SvnClientException
+	 */
+	default void update(List<Path> paths) throws SvnClientException {
+		for (final Path path : paths) {
+			update(path);
+		}
+	}
+
 	URL getSvnUrl(Path path) throws SvnClientException;
 
 	URL getRepositoryUrl(Path path) throws SvnClientException;
@@ -24,6 +24,7 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -34,6 +35,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
 import org.aposin.mergeprocessor.model.IMergeUnit;
 import org.aposin.mergeprocessor.model.IVersionProvider;
@@ -81,6 +83,18 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 	private Version sourceVersion = null;
 	private Version targetVersion = null;
 
+	/*
+	 * Sort keys, derived once from the immutable fields, so sorting does neither
+	 * parse URLs nor create strings. The strings are interned.
+	 */
+	private final String sortKeyHost;
+	private final String sortKeyRepository;
+	private final long sortKeyDateEpochSecond;
+	private final int sortKeyDateNano;
+	private final String revisionInfo;
+	private final String branchSource;
+	private String branchTarget;
+
 	private static final String BRANCH_NAME_UNKNOWN = "UNKNOWN"; //$NON-NLS-1$
 	private static final String COMMIT_MESSAGE_MERGE_CURRENT = "MP [%1$d:%2$d] %3$s -> %4$s\n"; //$NON-NLS-1$
 	protected static final String COMMIT_MESSAGE_MERGE_PREVIOUS = "r%1$s: [%2$s] (%3$tY-%3$tm-%3$td %3$tH:%3$tM:%3$tS) %4$s\n"; //$NON-NLS-1$
@@ -125,11 +139,18 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 		this.configuration = configuration;
 		this.svnClient = svnClient;
 		changedPaths = null;
+
+		sortKeyHost = host == null ? null : host.intern();
+		sortKeyRepository = repositoryName == null ? null : repositoryName.intern();
+		sortKeyDateEpochSecond = date == null ? 0 : date.toEpochSecond(ZoneOffset.UTC);
+		sortKeyDateNano = date == null ? 0 : date.getNano();
+		revisionInfo = Long.toString(revisionStart) + ':' + Long.toString(revisionEnd);
+		branchSource = SvnUtil.getBranchName(urlSource);
+		branchTarget = SvnUtil.getBranchName(urlTarget);
 	}
 
 	private List<SvnDiff> getChangedPathsFromSVN() {
 		try {
-			final ISvnClient svnClient = E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class);
 			return svnClient.diff(new URL(getUrlSource()), getRevisionStart(), getRevisionEnd());
 		} catch (MalformedURLException | SvnClientException e) {
 			LogUtil.getLogger().log(Level.SEVERE, "Could not evaluate the changes for the given merge unit from SVN. ",
@@ -332,6 +353,9 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 	 */
 	@Override
 	public int compareTo(IMergeUnit o) {
+		if (o instanceof SVNMergeUnit) {
+			return compareTo((SVNMergeUnit) o);
+		}
 		// if we couldn't parse the revision ranges compare the dates
 		final int dateCompare = getDate().compareTo(o.getDate());
 		if (dateCompare != 0) {
@@ -348,7 +372,7 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 			return hostCompare;
 		}
 
-		final int revisionCompare = getRevisionInfo().compareTo(o.getRevisionInfo());
+		final int revisionCompare = compareRevisions(o.getRevisionInfo());
 		if (revisionCompare != 0) {
 			return revisionCompare;
 		}
@@ -388,6 +412,78 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 		return 0;
 	}
 
+	/**
+	 * Orders {@link SVNMergeUnit SVNMergeUnits} in the same way as
+	 * {@link #compareTo(IMergeUnit)}, but only on the precomputed sort keys. The
+	 * revisions are compared numerically.
+	 * 
+	 * @param o the merge unit to compare with
+	 * @return the comparison result
+	 */
+	private int compareTo(SVNMergeUnit o) {
+		int result = Long.compare(sortKeyDateEpochSecond, o.sortKeyDateEpochSecond);
+		if (result == 0) {
+			result = Integer.compare(sortKeyDateNano, o.sortKeyDateNano);
+		}
+		if (result == 0) {
+			result = compareInterned(sortKeyRepository, o.sortKeyRepository);
+		}
+		if (result == 0) {
+			result = compareInterned(sortKeyHost, o.sortKeyHost);
+		}
+		if (result == 0) {
+			result = Long.compare(revisionStart, o.revisionStart);
+		}
+		if (result == 0) {
+			result = Long.compare(revisionEnd, o.revisionEnd);
+		}
+		if (result == 0) {
+			result = compareInterned(branchTarget, o.branchTarget);
+		}
+		if (result == 0) {
+			result = urlSource.compareTo(o.urlSource);
+		}
+		if (result == 0) {
+			result = urlTarget.compareTo(o.urlTarget);
+		}
+		return result;
+	}
+
+	/**
+	 * Compares interned strings, which are equal if they are the same instance.
+	 * 
+	 * @param s1 the first string
+	 * @param s2 the second string
+	 * @return the comparison result
+	 */
+	private static int compareInterned(String s1, String s2) {
+		return s1 == s2 ? 0 : StringUtils.compare(s1, s2); // NOSONAR interned strings
+	}
+
+	/**
+	 * Compares the revisions of this merge unit numerically with the given
+	 * revision info like {@code 9:12}, in the same way as
+	 * {@link #compareTo(SVNMergeUnit)}. Revision infos which are no SVN revision
+	 * ranges, e.g. GIT commit ids, are ordered after the SVN revisions.
+	 * 
+	 * @param otherRevisionInfo the revision info of the other merge unit
+	 * @return the comparison result
+	 */
+	private int compareRevisions(String otherRevisionInfo) {
+		final int separator = otherRevisionInfo == null ? -1 : otherRevisionInfo.indexOf(':');
+		if (separator > 0) {
+			try {
+				final long otherRevisionStart = Long.parseLong(otherRevisionInfo.substring(0, separator));
+				final long otherRevisionEnd = Long.parseLong(otherRevisionInfo.substring(separator + 1));
+				final int result = Long.compare(revisionStart, otherRevisionStart);
+				return result == 0 ? Long.compare(revisionEnd, otherRevisionEnd) : result;
+			} catch (NumberFormatException e) {
+				// No SVN revision range
+			}
+		}
+		return -1;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -450,7 +546,7 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 	 */
 	@Override
 	public String getBranchSource() {
-		return SvnUtil.getBranchName(getUrlSource());
+		return branchSource;
 	}
 
 	/**
@@ -458,7 +554,7 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 	 */
 	@Override
 	public String getBranchTarget() {
-		return SvnUtil.getBranchName(getUrlTarget());
+		return branchTarget;
 	}
 
 	public Version getSourceVersion() {
@@ -469,6 +565,20 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 		return sourceVersion;
 	}
 
+	/**
+	 * Sets the source and target version of this merge unit, which are otherwise
+	 * evaluated by the {@link IVersionProvider} of the application context, e.g.
+	 * for merging without a workbench. Package private for the tests and the
+	 * throughput benchmark.
+	 * 
+	 * @param sourceVersion the source version
+	 * @param targetVersion the target version
+	 */
+	void setVersions(final Version sourceVersion, final Version targetVersion) {
+		this.sourceVersion = sourceVersion;
+		this.targetVersion = targetVersion;
+	}
+
 	public Version getTargetVersion() {
 		if (targetVersion == null) {
 			targetVersion = E4CompatibilityUtil.getApplicationContext().get(IVersionProvider.class)
@@ -494,6 +604,8 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 			} else {
 				urlTarget = urlTarget.replace(oldBranchTarget, branchTarget);
 			}
+			this.branchTarget = SvnUtil.getBranchName(urlTarget);
+			targetVersion = null;
 		}
 	}
 
@@ -502,7 +614,7 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 	 */
 	@Override
 	public String getRevisionInfo() {
-		return Long.toString(revisionStart) + ':' + Long.toString(revisionEnd);
+		return revisionInfo;
 	}
 
 	/**
@@ -517,8 +629,8 @@ public final class SVNMergeUnit implements IMergeUnit, PropertyChangeListener {
 		LogUtil.entering();
 
 		StringBuilder sb = new StringBuilder();
-		String branchNameSource = SvnUtil.getBranchName(getUrlSource());
-		String branchNameTarget = SvnUtil.getBranchName(getUrlTarget());
+		String branchNameSource = getBranchSource();
+		String branchNameTarget = getBranchTarget();
 		if (branchNameSource == null) {
 			LOGGER.severe(() -> String.format("branchNameSource of mergeUnit is null. mergeUnit=%s", this)); //$NON-NLS-1$
 			branchNameSource = BRANCH_NAME_UNKNOWN;
@@ -51,6 +51,7 @@ public final class SVNMergeUnit2 implements IMergeUnit {
 	private static final Pattern PATTERN_REVISION_END = Pattern.compile("REVISION_END=(\\d)*");
 	private static final Pattern PATTERN_URL_BRANCH_SOURCE = Pattern.compile("URL_BRANCH_SOURCE=[^\\r\\n]*");
 	private static final Pattern PATTERN_URL_BRANCH_TARGET = Pattern.compile("URL_BRANCH_TARGET=[^\\r\\n]*");
+	private static final Pattern PATTERN_WORKING_COPY_FILE = Pattern.compile("WORKING_COPY_FILE=([^\\r\\n]*)");
 
 	private static final String REVISION_START = "REVISION_START=";
 	private static final String REVISION_END = "REVISION_END=";
@@ -411,11 +412,10 @@ public final class SVNMergeUnit2 implements IMergeUnit {
 	}
 
 	private List<String> getWorkingCopyEntries() {
-		final Pattern pattern = Pattern.compile("WORKING_COPY_FILE=[^\\r\\n]*");
-		final Matcher matcher = pattern.matcher(content);
+		final Matcher matcher = PATTERN_WORKING_COPY_FILE.matcher(content);
 		final List<String> workingCopyFiles = new ArrayList<>();
 		while (matcher.find()) {
-			workingCopyFiles.add(matcher.group().replace("WORKING_COPY_FILE=", ""));
+			workingCopyFiles.add(matcher.group(1));
 		}
 		return workingCopyFiles;
 	}
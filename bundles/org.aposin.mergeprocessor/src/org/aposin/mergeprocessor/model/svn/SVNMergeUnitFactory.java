@@ -41,6 +41,7 @@ import org.apache.commons.io.IOUtils;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
 import org.aposin.mergeprocessor.model.MergeUnitException;
 import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.utils.BranchUrl;
 import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
 import org.aposin.mergeprocessor.utils.LogUtil;
 
@@ -130,7 +131,27 @@ public final class SVNMergeUnitFactory {
 	 */
 	public static SVNMergeUnit createMergeUnitFromPlainMergeFile(final IConfiguration configuration,
 			String pathMergeScript, String fileName, InputStream is) throws MergeUnitException {
-		LogUtil.entering(configuration, pathMergeScript, fileName, is);
+		return createMergeUnitFromPlainMergeFile(configuration,
+				E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class), pathMergeScript, fileName, is);
+	}
+
+	/**
+	 * Parse the merge script file for the given path and initialize an instance of
+	 * this class, which uses the given SVN client instead of the one of the
+	 * application context.
+	 * 
+	 * @param configuration   the configuration
+	 * @param svnClient       the SVN client used by the merge unit
+	 * @param pathMergeScript the path of the merge script
+	 * @param fileName        the file name of the merge script
+	 * @param is              the content of the merge script
+	 * @return the created {@link SVNMergeUnit}
+	 * @throws MergeUnitException if the merge script could not be parsed
+	 */
+	public static SVNMergeUnit createMergeUnitFromPlainMergeFile(final IConfiguration configuration,
+			final ISvnClient svnClient, String pathMergeScript, String fileName, InputStream is)
+			throws MergeUnitException {
+		LogUtil.entering(configuration, svnClient, pathMergeScript, fileName, is);
 
 		int revisionWorkingCopy = -1;
 		final SVNMergeUnitFileData fileData;
@@ -149,7 +170,7 @@ public final class SVNMergeUnitFactory {
 				localDate, status, fileData.revisionStart, fileData.revisionEnd, fileData.urlBranchSource,
 				fileData.urlBranchTarget, pathMergeScript, revisionWorkingCopy, neededWorkingCopyFiles.listA,
 				neededWorkingCopyFiles.listB, getTargetFilesToDelete(fileData), getTargetFilesToAdd(fileData),
-				configuration, E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class));
+				configuration, svnClient);
 
 		// sanity check
 		if (!mergeUnit.isValid()) {
@@ -165,9 +186,9 @@ public final class SVNMergeUnitFactory {
 		for (final String changedFile : fileData.changedFiles) {
 			if (changedFile.charAt(0) == 'D') {
 				if (changedFile.indexOf('>') >= 0) {
-					result.add(changedFile.substring(4).split(">")[1].replaceFirst("branches/[^/]+|trunk", ""));
+					result.add(BranchUrl.removeBranchSegment(changedFile.substring(4).split(">")[1]));
 				} else {
-					result.add(changedFile.substring(4).replaceFirst("branches/[^/]+|trunk", ""));
+					result.add(BranchUrl.removeBranchSegment(changedFile.substring(4)));
 				}
 
 			}
@@ -180,9 +201,9 @@ public final class SVNMergeUnitFactory {
 		for (final String changedFile : fileData.changedFiles) {
 			if (changedFile.charAt(0) == 'A') {
 				if (changedFile.indexOf('>') >= 0) {
-					result.add(changedFile.substring(4).split(">")[1].replaceFirst("branches/[^/]+|trunk", ""));
+					result.add(BranchUrl.removeBranchSegment(changedFile.substring(4).split(">")[1]));
 				} else {
-					result.add(changedFile.substring(4).replaceFirst("branches/[^/]+|trunk", ""));
+					result.add(BranchUrl.removeBranchSegment(changedFile.substring(4)));
 				}
 
 			}
@@ -370,7 +391,7 @@ public final class SVNMergeUnitFactory {
 		for (String changedFile : changedFiles) {
 			final File element;
 			if (changedFile.indexOf('>') == -1) {
-				element = new File(changedFile.replaceFirst(".{4}(branches/[^/]+|trunk)", "")); //$NON-NLS-1$ //$NON-NLS-2$
+				element = new File(BranchUrl.removeBranchSegment(changedFile, 4));
 				// ignore the first 4 chars at the beginning of the value,
 				// because they are just svn info and not part of the path
 			} else {
@@ -378,7 +399,7 @@ public final class SVNMergeUnitFactory {
 				final String[] split = changedFile.split(">"); //$NON-NLS-1$
 				if (split.length == 2) {
 					final String target = split[1].trim();
-					element = new File(target.replaceFirst("branches/[^/]+|trunk", "")); //$NON-NLS-1$ //$NON-NLS-2$
+					element = new File(BranchUrl.removeBranchSegment(target));
 					// ignore the first 4 chars at the beginning of the value,
 					// because they are just svn info and not part of the path
 				} else {
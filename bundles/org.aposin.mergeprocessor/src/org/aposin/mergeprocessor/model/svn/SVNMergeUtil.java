@@ -18,26 +18,30 @@
  */
 package org.aposin.mergeprocessor.model.svn;
 
-import java.io.File;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.aposin.mergeprocessor.application.ApplicationUtil;
 import org.aposin.mergeprocessor.configuration.Configuration;
-import org.aposin.mergeprocessor.exception.SftpUtilException;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
 import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.metrics.MergeMetrics;
+import org.aposin.mergeprocessor.metrics.MergeMetrics.PhaseTimer;
 import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.model.VersionControlSystem;
 import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
 import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.utils.MergeProcessorUtil;
 import org.aposin.mergeprocessor.utils.Messages;
-import org.aposin.mergeprocessor.utils.SftpUtil;
 import org.aposin.mergeprocessor.utils.SvnUtil;
 import org.aposin.mergeprocessor.view.MessageDialogScrollable;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -84,24 +88,15 @@ public class SVNMergeUtil {
 
 		String taskName = String.format(Messages.MergeProcessorUtil_Process_TaskName, mergeUnit.getRepository(),
 				mergeUnit.getRevisionInfo(), mergeUnit.getBranchSource(), mergeUnit.getBranchTarget());
-		monitor.beginTask(taskName, 9);
+		monitor.beginTask(taskName, 7);
 
 		boolean cancel = false;
 		final ISvnClient client = E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class);
 
-		if (!cancel) {
-			monitor.subTask("copyRemoteToLocal"); //$NON-NLS-1$
-			cancel = copyRemoteToLocal(mergeUnit);
-			monitor.worked(1);
-			if (monitor.isCanceled()) {
-				LOGGER.fine("User cancelled after 'copyRemoteToLocal'."); //$NON-NLS-1$
-				cancel = true;
-			}
-		}
-
 		if (!cancel) {
 			monitor.subTask("buildMinimalWorkingCopy"); //$NON-NLS-1$
-			cancel = buildMinimalSVNWorkingCopy((SVNMergeUnit) mergeUnit, client);
+			cancel = runPhase(mergeUnit, "buildMinimalWorkingCopy", //$NON-NLS-1$
+					() -> buildMinimalSVNWorkingCopy((SVNMergeUnit) mergeUnit, client));
 			monitor.worked(1);
 			if (monitor.isCanceled()) {
 				LOGGER.fine("User cancelled after 'buildMinimalWorkingCopy'."); //$NON-NLS-1$
@@ -111,7 +106,8 @@ public class SVNMergeUtil {
 
 		if (!cancel) {
 			monitor.subTask("mergeChangesIntoWorkingCopy"); //$NON-NLS-1$
-			cancel = mergeChangesIntoWorkingCopy(mergeUnit, client);
+			cancel = runPhase(mergeUnit, "mergeChangesIntoWorkingCopy", //$NON-NLS-1$
+					() -> mergeChangesIntoWorkingCopy(mergeUnit, client));
 			monitor.worked(1);
 			if (monitor.isCanceled()) {
 				LOGGER.fine("User cancelled after 'mergeChangesIntoWorkingCopy'."); //$NON-NLS-1$
@@ -121,7 +117,8 @@ public class SVNMergeUtil {
 
 		if (!cancel) {
 			monitor.subTask("checkIsCommittable"); //$NON-NLS-1$
-			cancel = checkIsCommittable(mergeUnit, client);
+			cancel = runPhase(mergeUnit, "checkIsCommittable", //$NON-NLS-1$
+					() -> checkIsCommittable(mergeUnit, client));
 			monitor.worked(1);
 			if (monitor.isCanceled()) {
 				LOGGER.fine("User cancelled after 'checkIsCommittable'."); //$NON-NLS-1$
@@ -135,58 +132,72 @@ public class SVNMergeUtil {
 			// can't cancel after commit
 			pmd.setCancelable(false);
 
-			cancel = commitChanges(mergeUnit, client);
+			cancel = runPhase(mergeUnit, "commitChanges", () -> commitChanges(mergeUnit, client)); //$NON-NLS-1$
 			monitor.worked(1);
 		}
 
 		if (!cancel) {
-			monitor.subTask("copyLocalToDone"); //$NON-NLS-1$
-			cancel = copyLocalToDone(mergeUnit);
+			monitor.subTask("moveRemoteToDone"); //$NON-NLS-1$
+			cancel = runPhase(mergeUnit, "moveRemoteToDone", () -> moveRemoteToDone(mergeUnit)); //$NON-NLS-1$
 			monitor.worked(1);
 		}
 
 		if (cancel) {
 			mergeUnit.setStatus(MergeUnitStatus.CANCELLED);
 		}
-
-		// delete the local merge file, even if cancelled.
-		monitor.subTask("deleteLocal"); //$NON-NLS-1$
-		deleteLocal(mergeUnit);
-		monitor.worked(1);
 		return LogUtil.exiting(cancel);
 	}
 
-	private static boolean copyRemoteToLocal(SVNMergeUnit mergeUnit) {
-		LogUtil.entering(mergeUnit);
-
-		boolean cancel = false;
-		while (!cancel) {
-			try {
-				SftpUtil.getInstance().copyMergeUnitToWork(mergeUnit);
-			} catch (SftpUtilException e) {
-				LOGGER.log(Level.WARNING, "Caught exception while copying to work.", e); //$NON-NLS-1$
-
-				String message = Messages.MergeProcessorUtil_CopyRemoteToLocal_Error_Message;
-				String messageScrollable = String.format(
-						Messages.MergeProcessorUtil_CopyRemoteToLocal_Error_MessageScrollable,
-						Configuration.getPathLocalMergeFile(mergeUnit), e.getMessage());
-				if (MergeProcessorUtil.bugUserToFixProblem(message, messageScrollable)) {
-					// user wants to retry
-					LOGGER.fine(String.format("User wants to retry copying the mergeUnit=%s to working directory.", //$NON-NLS-1$
-							mergeUnit));
-					continue;
-				} else {
-					// user didn't say 'retry' so we cancel the whole merge...
-					LOGGER.fine(String.format(
-							"User cancelled processing mergeUnit=%s when copying merge file to working directory.", //$NON-NLS-1$
-							mergeUnit));
-					cancel = true;
-				}
+	/**
+	 * Merges the given {@link SVNMergeUnit} into the given working copy and commits
+	 * it without any user interaction. In contrast to
+	 * {@link #merge(ProgressMonitorDialog, IProgressMonitor, SVNMergeUnit)} the
+	 * minimal working copy is not built, so the given working copy must be a
+	 * checkout of the target branch, e.g. an empty one. The merged unit is not
+	 * moved, this is up to the caller. Package private for the tests and the
+	 * throughput benchmark.
+	 * 
+	 * @param mergeUnit   the merge unit to merge
+	 * @param client      the SVN client to use
+	 * @param workingCopy the working copy of the target branch
+	 * @param monitor     the progress monitor
+	 * @throws SvnUtilException if the merge failed or caused conflicts
+	 */
+	static void mergeHeadless(final SVNMergeUnit mergeUnit, final ISvnClient client, final Path workingCopy,
+			final IProgressMonitor monitor) throws SvnUtilException {
+		new SvnMergeTask(monitor, LOGGER::fine, mergeUnit, workingCopy, true, client).merge();
+		final PhaseTimer timer = MergeMetrics.getInstance().startPhase(VersionControlSystem.SVN,
+				mergeUnit.getRepository(), "commitChanges"); //$NON-NLS-1$
+		try {
+			final List<String> conflicts = client.getConflicts(workingCopy);
+			if (!conflicts.isEmpty()) {
+				throw LogUtil.throwing(new SvnUtilException(
+						String.format("Can't commit changes: Workspace has conflicts. conflicts=%s", conflicts))); //$NON-NLS-1$
 			}
-			break;
+			client.commit(workingCopy, mergeUnit.getMessage());
+		} catch (SvnClientException e) {
+			throw LogUtil.throwing(new SvnUtilException(e));
+		} finally {
+			timer.close();
 		}
+	}
 
-		return LogUtil.exiting(cancel);
+	/**
+	 * Runs and measures a merge phase for the given merge unit.
+	 * 
+	 * @param mergeUnit the merge unit
+	 * @param phase     the name of the phase
+	 * @param step      the step to execute
+	 * @return the result of the step, {@code true} if the merge was canceled
+	 */
+	private static boolean runPhase(final SVNMergeUnit mergeUnit, final String phase, final BooleanSupplier step) {
+		final PhaseTimer timer = MergeMetrics.getInstance().startPhase(VersionControlSystem.SVN,
+				mergeUnit.getRepository(), phase);
+		try {
+			return step.getAsBoolean();
+		} finally {
+			timer.close();
+		}
 	}
 
 	private static boolean buildMinimalSVNWorkingCopy(SVNMergeUnit mergeUnit, ISvnClient client) {
@@ -470,27 +481,42 @@ public class SVNMergeUtil {
 		return LogUtil.exiting(cancel);
 	}
 
-	public static boolean copyLocalToDone(SVNMergeUnit mergeUnit) {
+	/**
+	 * Moves the merge file of the merged merge unit into the done folder on the
+	 * server, see {@link MergeUnitQueueService#moveMergedMergeUnitsToDone}. The
+	 * merge file is not transferred to the client, as the merge unit is already
+	 * parsed.
+	 * 
+	 * @param mergeUnit the merged merge unit
+	 * @return {@code true} if the user cancelled after the merge file could not
+	 *         be moved
+	 */
+	public static boolean moveRemoteToDone(SVNMergeUnit mergeUnit) {
 		LogUtil.entering(mergeUnit);
 
 		boolean cancel = false;
 		while (!cancel) {
+			MergeUnitQueueException failure;
 			try {
-				SftpUtil.getInstance().copyMergeUnitFromWorkToDoneAndDeleteInTodo(mergeUnit);
-				mergeUnit.setStatus(MergeUnitStatus.DONE);
+				failure = E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+						.moveMergedMergeUnitsToDone(Collections.singletonList(mergeUnit)).get(mergeUnit);
+			} catch (MergeUnitQueueException e) {
+				failure = e;
+			}
+			if (failure == null) {
 				break;
-			} catch (SftpUtilException e) {
-				String logMessage = String.format("Caught exception while copying from work to done. mergeUnit=[%s]", //$NON-NLS-1$
+			} else {
+				String logMessage = String.format("Caught exception while moving to done. mergeUnit=[%s]", //$NON-NLS-1$
 						mergeUnit);
-				LOGGER.log(Level.WARNING, logMessage, e);
+				LOGGER.log(Level.WARNING, logMessage, failure);
 
-				String message = NLS.bind(Messages.MergeProcessorUtil_CopyLocalToDone_Error_Message, Choices.CANCEL,
+				String message = NLS.bind(Messages.MergeProcessorUtil_MoveRemoteToDone_Error_Message, Choices.CANCEL,
 						MergeUnitStatus.TODO);
-				String messageScrollable = NLS.bind(Messages.MergeProcessorUtil_CopyLocalToDone_Error_Details,
-						e.getMessage());
+				String messageScrollable = NLS.bind(Messages.MergeProcessorUtil_MoveRemoteToDone_Error_Details,
+						failure.getMessage());
 				if (MergeProcessorUtil.bugUserToFixProblem(message, messageScrollable)) {
 					// user wants to retry
-					LOGGER.fine(String.format("User wants to retry copying the merge file to the server. mergeUnit=%s.", //$NON-NLS-1$
+					LOGGER.fine(String.format("User wants to retry moving the merge file to done. mergeUnit=%s.", //$NON-NLS-1$
 							mergeUnit));
 					continue;
 				} else {
@@ -505,31 +531,6 @@ public class SVNMergeUtil {
 		return LogUtil.exiting(cancel);
 	}
 
-	private static void deleteLocal(SVNMergeUnit mergeUnit) {
-		LogUtil.entering(mergeUnit);
-
-		File file = new File(Configuration.getPathLocalMergeFile(mergeUnit));
-		LOGGER.fine(() -> String.format("Deleting local merge file=%s.", file.getAbsolutePath())); //$NON-NLS-1$
-		boolean success = !file.exists();
-		while (!success) {
-			success = file.delete();
-			if (!success) {
-				String messageScrollable = NLS.bind(Messages.MergeProcessorUtil_DeleteLocal_Error_Message,
-						file.getAbsolutePath());
-				if (MergeProcessorUtil.bugUserToFixProblem(Messages.MergeProcessorUtil_DeleteLocal_Error_Title,
-						messageScrollable)) {
-					LOGGER.fine(() -> String.format("User wants to retry deleting local merge file. mergeUnit=%s.", //$NON-NLS-1$
-							mergeUnit));
-				} else {
-					LOGGER.fine(
-							() -> String.format("User cancelled deleting local merge file. mergeUnit=%s.", mergeUnit)); //$NON-NLS-1$
-					success = true;
-				}
-			}
-		}
-		LogUtil.exiting();
-	}
-
 	/**
 	 * Enum indicating the user choice when doing merge.
 	 */
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
@@ -72,7 +73,9 @@ import org.tigris.subversion.svnclientadapter.utils.Depth;
 public class SvnClientJavaHl extends AbstractSvnClient {
 
 	private final ISVNClientAdapter client;
-	private final List<CommandLineListener> listeners = new ArrayList<>();
+	private final IConfiguration configuration;
+	private final SvnStatusSnapshotRegistry snapshots;
+	private final List<CommandLineListener> listeners = new CopyOnWriteArrayList<>();
 
 	private boolean isClosed = false;
 
@@ -84,11 +87,43 @@ public class SvnClientJavaHl extends AbstractSvnClient {
 	 */
 	@Inject
 	public SvnClientJavaHl(ICredentialProvider provider, IConfiguration configuration) throws SvnClientException {
+		this(provider, configuration, new SvnStatusSnapshotRegistry());
+	}
+
+	/**
+	 * @param provider      to authenticate when required
+	 * @param configuration the configuration to get and set the username and
+	 *                      password
+	 * @param snapshots     the registry of snapshots to invalidate on changes
+	 * @throws SvnClientException
+	 */
+	SvnClientJavaHl(ICredentialProvider provider, IConfiguration configuration, SvnStatusSnapshotRegistry snapshots)
+			throws SvnClientException {
+		this.snapshots = Objects.requireNonNull(snapshots);
 		try {
 			if (!SVNClientAdapterFactory.isSVNClientAvailable(JhlClientAdapterFactory.JAVAHL_CLIENT)) {
 				JhlClientAdapterFactory.setup();
 			}
 			client = SVNClientAdapterFactory.createSVNClient(JhlClientAdapterFactory.JAVAHL_CLIENT);
+			this.configuration = configuration;
+			refreshCredentials();
+			client.addPasswordCallback(new SVNPromptUserPassword(provider, configuration, client));
+			client.addNotifyListener(new SnapshotInvalidationListener(snapshots));
+		} catch (SVNClientException e) {
+			throw new SvnClientException(e);
+		}
+	}
+
+	/**
+	 * Sets the username and password stored in the {@link IConfiguration} to the
+	 * underlying client adapter. This is required if the credentials were changed
+	 * by another client, e.g. another client of {@link SvnClientJavaHlPool}
+	 * prompted the user.
+	 * 
+	 * @throws SvnClientException
+	 */
+	void refreshCredentials() throws SvnClientException {
+		try {
 			final String username = configuration.getSvnUsername();
 			if (username != null) {
 				client.setUsername(username);
@@ -97,8 +132,7 @@ public class SvnClientJavaHl extends AbstractSvnClient {
 			if (password != null) {
 				client.setPassword(password);
 			}
-			client.addPasswordCallback(new SVNPromptUserPassword(provider, configuration, client));
-		} catch (SVNClientException | ConfigurationException e) {
+		} catch (ConfigurationException e) {
 			throw new SvnClientException(e);
 		}
 	}
@@ -364,6 +398,17 @@ public class SvnClientJavaHl extends AbstractSvnClient {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void update(List<Path> paths) throws SvnClientException {
+		// update(File[], ...) does not work as expected, so update each path on its own
+		for (final Path path : paths) {
+			update(path);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -397,10 +442,37 @@ public class SvnClientJavaHl extends AbstractSvnClient {
 	public boolean hasModifications(Path path) throws SvnClientException {
 		try {
 			final ISVNStatus[] status = client.getStatus(path.toFile(), true, false, false);
-			return Arrays.stream(status).parallel().filter(SvnClientJavaHl::isModified).findAny().isPresent();
+			return Arrays.stream(status).anyMatch(SvnClientJavaHl::isModified);
+		} catch (SVNClientException e) {
+			throw new SvnClientException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SvnStatusSnapshot getStatusSnapshot(Path path) throws SvnClientException {
+		final SvnStatusSnapshot snapshot = new SvnStatusSnapshot(path);
+		// Register before crawling, so changes during the crawl invalidate the snapshot
+		snapshots.register(snapshot);
+		try {
+			final ISVNStatus[] statusArray = client.getStatus(path.toFile(), true, true, false);
+			for (final ISVNStatus status : statusArray) {
+				final Path statusPath = status.getFile().toPath();
+				if (isModified(status)) {
+					snapshot.addModification(statusPath);
+				}
+				if (status.hasTreeConflict() || status.getConflictWorking() != null
+						|| status.getTextStatus() == SVNStatusKind.CONFLICTED) {
+					snapshot.addConflict(statusPath, getConflictPath(status), status.hasTreeConflict());
+				}
+			}
 		} catch (SVNClientException e) {
+			snapshots.invalidate(path);
 			throw new SvnClientException(e);
 		}
+		return snapshot;
 	}
 
 	/**
@@ -453,6 +525,7 @@ public class SvnClientJavaHl extends AbstractSvnClient {
 	@Override
 	public void close() {
 		if (!isClosed) {
+			snapshots.invalidateAll();
 			client.dispose();
 			isClosed = true;
 		}
@@ -582,4 +655,34 @@ public class SvnClientJavaHl extends AbstractSvnClient {
 
 	}
 
+	/**
+	 * This implementation of {@link ISVNNotifyListener} invalidates all
+	 * {@link SvnStatusSnapshot}s affected by a notified path.
+	 * 
+	 * @author Stefan Weiser
+	 *
+	 */
+	private static class SnapshotInvalidationListener extends SVNNotifyListener {
+
+		private final SvnStatusSnapshotRegistry snapshots;
+
+		/**
+		 * @param snapshots the registry of the snapshots to invalidate
+		 */
+		private SnapshotInvalidationListener(final SvnStatusSnapshotRegistry snapshots) {
+			this.snapshots = snapshots;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void onNotify(File path, SVNNodeKind kind) {
+			if (path != null) {
+				snapshots.invalidate(path.toPath());
+			}
+		}
+
+	}
+
 }
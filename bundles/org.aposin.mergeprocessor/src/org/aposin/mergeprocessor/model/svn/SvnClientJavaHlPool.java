@@ -0,0 +1,598 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.inject.Inject;
+
+import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.aposin.mergeprocessor.model.ICredentialProvider;
+
+/**
+ * Implementation of {@link ISvnClient} leasing dedicated {@link SvnClientJavaHl}
+ * instances for each operation. The underlying JavaHL client adapters are not
+ * safe for concurrent use, so each adapter is only used by one thread at a
+ * time.
+ * <p>
+ * A thread registering a command line listener via
+ * {@link #addCommandLineListener(Consumer)} gets a client pinned until all of
+ * its listeners are removed again or the thread has terminated. So the
+ * listeners only receive the commands executed by the registering thread.
+ * Pinned clients do not count against the maximum size of the pool, but at
+ * most the maximum size of clients are pinned at the same time. All other
+ * operations lease an idle client for the duration of the call and fail if no
+ * client gets idle within the lease timeout.
+ * <p>
+ * The credentials are shared via the {@link IConfiguration}, so a successful
+ * authentication of one client is applied to all other clients on their next
+ * lease.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class SvnClientJavaHlPool extends AbstractSvnClient {
+
+	private static final Logger LOGGER = Logger.getLogger(SvnClientJavaHlPool.class.getName());
+
+	/** The default maximum number of JavaHL clients. */
+	public static final int DEFAULT_MAX_SIZE = 4;
+	/** The default time to wait for an idle client. */
+	public static final long DEFAULT_LEASE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private final ClientFactory factory;
+	private final int maxSize;
+	private final long leaseTimeoutMillis;
+
+	private final BlockingDeque<ISvnClient> idleClients = new LinkedBlockingDeque<>();
+	private final List<ISvnClient> allClients = new ArrayList<>();
+	/** The number of clients counting against the maximum size, i.e. not pinned. */
+	private final AtomicInteger createdClients = new AtomicInteger();
+	private final Map<Thread, PinnedClient> pinnedClients = new ConcurrentHashMap<>();
+	private final SvnStatusSnapshotRegistry snapshots = new SvnStatusSnapshotRegistry();
+
+	private volatile boolean isClosed = false;
+
+	/**
+	 * @param provider      to authenticate when required
+	 * @param configuration the configuration to get and set the username and
+	 *                      password, and providing the maximum number of
+	 *                      clients
+	 */
+	@Inject
+	public SvnClientJavaHlPool(ICredentialProvider provider, IConfiguration configuration) {
+		this(provider, configuration, configuration.getSvnClientPoolSize());
+	}
+
+	/**
+	 * @param provider      to authenticate when required
+	 * @param configuration the configuration to get and set the username and
+	 *                      password
+	 * @param maxSize       the maximum number of JavaHL clients to create
+	 */
+	public SvnClientJavaHlPool(ICredentialProvider provider, IConfiguration configuration, int maxSize) {
+		this(new JavaHlClientFactory(provider, configuration), maxSize, DEFAULT_LEASE_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * @param factory            the factory creating the clients
+	 * @param maxSize            the maximum number of clients to create, besides
+	 *                           the pinned ones, and the maximum number of
+	 *                           pinned clients
+	 * @param leaseTimeoutMillis the time to wait for an idle client
+	 */
+	SvnClientJavaHlPool(ClientFactory factory, int maxSize, long leaseTimeoutMillis) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("The maximum size of the pool must be at least 1.");
+		}
+		this.factory = Objects.requireNonNull(factory);
+		this.maxSize = maxSize;
+		this.leaseTimeoutMillis = leaseTimeoutMillis;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String cat(URL url) throws SvnClientException {
+		return execute(client -> client.cat(url));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SvnDiff> diff(URL url, long fromRevision, long toRevision) throws SvnClientException {
+		return execute(client -> client.diff(url, fromRevision, toRevision));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasModifications(Path path) throws SvnClientException {
+		return execute(client -> client.hasModifications(path));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The snapshot is invalidated on changes by any client of the pool.
+	 */
+	@Override
+	public SvnStatusSnapshot getStatusSnapshot(Path path) throws SvnClientException {
+		return execute(client -> client.getStatusSnapshot(path));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long showRevision(URL url) throws SvnClientException {
+		return execute(client -> client.showRevision(url));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SvnLog> log(URL url, long fromRevision, long toRevision, String author) throws SvnClientException {
+		return execute(client -> client.log(url, fromRevision, toRevision, author));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> listDirectories(URL url) throws SvnClientException {
+		return execute(client -> client.listDirectories(url));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long[] updateEmpty(List<Path> paths) throws SvnClientException {
+		return execute(client -> client.updateEmpty(paths));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void checkoutEmpty(Path path, URL url) throws SvnClientException {
+		execute(client -> {
+			client.checkoutEmpty(path, url);
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void merge(Path path, URL url, long revision, boolean recursivly, boolean recordOnly)
+			throws SvnClientException {
+		execute(client -> {
+			client.merge(path, url, revision, recursivly, recordOnly);
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void commit(Path path, String message) throws SvnClientException {
+		execute(client -> {
+			client.commit(path, message);
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> getConflicts(Path path) throws SvnClientException {
+		return execute(client -> client.getConflicts(path));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void update(Path path) throws SvnClientException {
+		execute(client -> {
+			client.update(path);
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void update(List<Path> paths) throws SvnClientException {
+		execute(client -> {
+			client.update(paths);
+			return null;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public URL getSvnUrl(Path path) throws SvnClientException {
+		return execute(client -> client.getSvnUrl(path));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public URL getRepositoryUrl(Path path) throws SvnClientException {
+		return execute(client -> client.getRepositoryUrl(path));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The listener is only notified about commands executed by the current thread.
+	 * If no client can be pinned to the current thread, the listener is not
+	 * registered and a warning is logged.
+	 */
+	@Override
+	public void addCommandLineListener(Consumer<String> consumer) {
+		final Thread thread = Thread.currentThread();
+		PinnedClient pinned = pinnedClients.get(thread);
+		if (pinned == null) {
+			// Synchronized, so the number of pinned clients is checked reliably
+			synchronized (pinnedClients) {
+				try {
+					pinned = new PinnedClient(pin());
+				} catch (SvnClientException e) {
+					LOGGER.log(Level.WARNING,
+							"Could not pin an SVN client, the commands of this thread are not reported.", e); //$NON-NLS-1$
+					return;
+				}
+				pinnedClients.put(thread, pinned);
+			}
+		}
+		pinned.consumers.add(consumer);
+		pinned.client.addCommandLineListener(consumer);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeCommandLineListener(Consumer<String> consumer) {
+		final Thread thread = Thread.currentThread();
+		final PinnedClient pinned = pinnedClients.get(thread);
+		if (pinned != null && pinned.consumers.remove(consumer)) {
+			pinned.client.removeCommandLineListener(consumer);
+			if (pinned.consumers.isEmpty()) {
+				pinnedClients.remove(thread);
+				unpin(pinned.client);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		if (!isClosed) {
+			isClosed = true;
+			synchronized (allClients) {
+				allClients.forEach(ISvnClient::close);
+				allClients.clear();
+			}
+			idleClients.clear();
+			pinnedClients.clear();
+		}
+	}
+
+	/**
+	 * @return the number of JavaHL clients created by this pool, without the
+	 *         pinned clients
+	 */
+	public int getSize() {
+		return createdClients.get();
+	}
+
+	/**
+	 * @return the number of threads with a pinned client
+	 */
+	int getPinnedCount() {
+		return pinnedClients.size();
+	}
+
+	/**
+	 * Executes the given operation with a client of this pool. If the current
+	 * thread has a pinned client, the pinned client is used, otherwise a client is
+	 * leased for the duration of the operation.
+	 *
+	 * @param operation the operation to execute
+	 * @return the result of the operation
+	 * @throws SvnClientException
+	 */
+	private <T> T execute(final SvnOperation<T> operation) throws SvnClientException {
+		final PinnedClient pinned = pinnedClients.get(Thread.currentThread());
+		if (pinned != null) {
+			return operation.execute(pinned.client);
+		}
+		final ISvnClient client = lease();
+		try {
+			return operation.execute(client);
+		} finally {
+			release(client);
+		}
+	}
+
+	/**
+	 * Leases an idle client. If no idle client is available and the maximum size
+	 * is not reached, a new client is created. Otherwise the call waits until a
+	 * client gets released.
+	 *
+	 * @return the leased client
+	 * @throws SvnClientException if no client got idle within the lease timeout
+	 */
+	private ISvnClient lease() throws SvnClientException {
+		checkNotClosed();
+		releaseDeadPins();
+		ISvnClient client = idleClients.pollFirst();
+		if (client == null) {
+			client = createClientIfPossible();
+		}
+		if (client == null) {
+			try {
+				client = idleClients.pollFirst(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SvnClientException("Interrupted while waiting for an idle SVN client.", e);
+			}
+			if (client == null) {
+				throw new SvnClientException(
+						String.format("No idle SVN client within %s ms, all %s clients are in use.", leaseTimeoutMillis,
+								maxSize));
+			}
+		}
+		checkNotClosed();
+		factory.prepare(client);
+		return client;
+	}
+
+	/**
+	 * Takes a client out of the pool to pin it to the current thread. An idle
+	 * client is taken if available, otherwise an additional client is created.
+	 * The pinned client does not count against the maximum size of the pool.
+	 *
+	 * @return the client to pin
+	 * @throws SvnClientException if the maximum number of pinned clients is
+	 *                            reached
+	 */
+	private ISvnClient pin() throws SvnClientException {
+		checkNotClosed();
+		releaseDeadPins();
+		if (pinnedClients.size() >= maxSize) {
+			throw new SvnClientException(
+					String.format("All %s SVN clients for command line listeners are pinned.", maxSize));
+		}
+		ISvnClient client = idleClients.pollFirst();
+		if (client == null) {
+			client = factory.create(snapshots);
+			synchronized (allClients) {
+				allClients.add(client);
+			}
+		} else {
+			createdClients.decrementAndGet();
+		}
+		factory.prepare(client);
+		return client;
+	}
+
+	/**
+	 * Returns a client no longer pinned to the pool, if the maximum size is not
+	 * reached, otherwise the client is closed.
+	 *
+	 * @param client the client no longer pinned
+	 */
+	private void unpin(final ISvnClient client) {
+		int count;
+		do {
+			count = createdClients.get();
+			if (count >= maxSize || isClosed) {
+				synchronized (allClients) {
+					allClients.remove(client);
+				}
+				client.close();
+				return;
+			}
+		} while (!createdClients.compareAndSet(count, count + 1));
+		release(client);
+	}
+
+	/**
+	 * Releases the clients pinned to threads, which have terminated without
+	 * removing their listeners.
+	 */
+	private void releaseDeadPins() {
+		for (final Thread thread : pinnedClients.keySet()) {
+			if (!thread.isAlive()) {
+				final PinnedClient pinned = pinnedClients.remove(thread);
+				if (pinned != null) {
+					pinned.consumers.forEach(pinned.client::removeCommandLineListener);
+					unpin(pinned.client);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new client if the maximum size of the pool is not reached yet.
+	 *
+	 * @return the new client or {@code null} if the maximum size is reached
+	 * @throws SvnClientException
+	 */
+	private ISvnClient createClientIfPossible() throws SvnClientException {
+		int count;
+		do {
+			count = createdClients.get();
+			if (count >= maxSize) {
+				return null;
+			}
+		} while (!createdClients.compareAndSet(count, count + 1));
+		try {
+			final ISvnClient client = factory.create(snapshots);
+			synchronized (allClients) {
+				allClients.add(client);
+			}
+			return client;
+		} catch (SvnClientException e) {
+			createdClients.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the given client to the idle clients. Clients released after closing
+	 * the pool are closed directly.
+	 *
+	 * @param client the client to release
+	 */
+	private void release(final ISvnClient client) {
+		if (isClosed) {
+			client.close();
+		} else {
+			idleClients.offerFirst(client);
+		}
+	}
+
+	/**
+	 * Throws a {@link SvnClientException} if the pool is already closed.
+	 *
+	 * @throws SvnClientException
+	 */
+	private void checkNotClosed() throws SvnClientException {
+		if (isClosed) {
+			throw new SvnClientException("The SVN client pool is already closed.");
+		}
+	}
+
+	/**
+	 * An operation executed on a leased client.
+	 *
+	 * @param <T> the type of the result
+	 */
+	@FunctionalInterface
+	private interface SvnOperation<T> {
+
+		T execute(ISvnClient client) throws SvnClientException;
+
+	}
+
+	/**
+	 * Creates the clients of the pool.
+	 */
+	interface ClientFactory {
+
+		/**
+		 * @param snapshots the registry of snapshots to invalidate on changes
+		 * @return the new client
+		 * @throws SvnClientException
+		 */
+		ISvnClient create(SvnStatusSnapshotRegistry snapshots) throws SvnClientException;
+
+		/**
+		 * Prepares the given client before it is leased, e.g. applies the
+		 * credentials changed by another client.
+		 *
+		 * @param client the client to lease
+		 * @throws SvnClientException
+		 */
+		default void prepare(ISvnClient client) throws SvnClientException {
+			// Nothing to prepare by default
+		}
+
+	}
+
+	/**
+	 * Creates {@link SvnClientJavaHl} instances sharing the credentials of the
+	 * {@link IConfiguration}.
+	 */
+	private static class JavaHlClientFactory implements ClientFactory {
+
+		private final ICredentialProvider provider;
+		private final IConfiguration configuration;
+
+		/**
+		 * @param provider      to authenticate when required
+		 * @param configuration the configuration to get and set the username and
+		 *                      password
+		 */
+		private JavaHlClientFactory(final ICredentialProvider provider, final IConfiguration configuration) {
+			this.provider = Objects.requireNonNull(provider);
+			this.configuration = Objects.requireNonNull(configuration);
+		}
+
+		@Override
+		public ISvnClient create(final SvnStatusSnapshotRegistry snapshots) throws SvnClientException {
+			return new SvnClientJavaHl(provider, configuration, snapshots);
+		}
+
+		@Override
+		public void prepare(final ISvnClient client) throws SvnClientException {
+			((SvnClientJavaHl) client).refreshCredentials();
+		}
+
+	}
+
+	/**
+	 * A client pinned to a thread as long as command line listeners are
+	 * registered by the thread.
+	 */
+	private static class PinnedClient {
+
+		private final ISvnClient client;
+		private final List<Consumer<String>> consumers = new ArrayList<>();
+
+		/**
+		 * @param client the pinned client
+		 */
+		private PinnedClient(final ISvnClient client) {
+			this.client = client;
+		}
+
+	}
+
+}
@@ -0,0 +1,364 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff.SvnDiffAction;
+import org.aposin.mergeprocessor.utils.LogUtil;
+
+/**
+ * Plans the SVN merges for a merge unit, i.e. which paths have to be merged and
+ * which parent paths have to be recorded afterwards. All lookups are done on
+ * hashed sets, so planning is linear in the number of changed paths times their
+ * depth. The planner does not execute any SVN command, so it can be used by any
+ * merge engine.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class SvnMergePlanner {
+
+	private SvnMergePlanner() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the paths, which have to be merged, for the given diff.
+	 *
+	 * @param diff      the diff of the revision to merge
+	 * @param converter converts a diff entry to its path relative to the source
+	 *                  branch
+	 * @return the paths to merge
+	 * @throws SvnUtilException if an unknown diff action occurs
+	 */
+	public static PathsToMerge getPathsToMerge(final List<SvnDiff> diff, final Function<SvnDiff, Path> converter)
+			throws SvnUtilException {
+		final Set<Path> deletedPaths = new HashSet<>();
+		for (final SvnDiff entry : diff) {
+			if (entry.getAction() == SvnDiffAction.DELETED) {
+				deletedPaths.add(converter.apply(entry));
+			}
+		}
+
+		final Set<Path> contentChanges = new LinkedHashSet<>();
+		final List<Path> propertyChanges = new ArrayList<>();
+		for (final SvnDiff entry : diff) {
+			final Path path = converter.apply(entry);
+			switch (entry.getAction()) {
+			case ADDED:
+			case REPLACED:
+				contentChanges.add(path.getParent());
+				break;
+			case DELETED:
+				if (!hasAncestorIn(path, deletedPaths)) {
+					contentChanges.add(path.getParent());
+				}
+				break;
+			case MODIFIED:
+				contentChanges.add(path);
+				break;
+			case PROPERTY_CHANGED:
+				propertyChanges.add(path);
+				break;
+			default:
+				throw LogUtil.throwing(new SvnUtilException("Unknown SvnDiffAction: " + entry.getAction()));
+			}
+		}
+
+		// Filter paths if a parent is also a path to merge
+		final List<Path> filteredContentChanges = new ArrayList<>();
+		for (final Path path : contentChanges) {
+			if (!hasAncestorIn(path, contentChanges)) {
+				filteredContentChanges.add(path);
+			}
+		}
+		return new PathsToMerge(filteredContentChanges, propertyChanges);
+	}
+
+	/**
+	 * Calculates the record-only merges required for the given done merges. The
+	 * parents of the merged paths are recorded as long as their names match on
+	 * source and target side. The source parents, which are also parents of the
+	 * target, are recorded on themselves. Parents which are merged anyway are not
+	 * recorded.
+	 *
+	 * @param doneMerges     the merged paths
+	 * @param contentChanges the paths merged with content
+	 * @return the record merges to do
+	 */
+	public static List<FromToPathTuple> getRecordMerges(final Collection<FromToPathTuple> doneMerges,
+			final Collection<Path> contentChanges) {
+		final Set<Path> mergedPaths = contentChanges instanceof Set ? (Set<Path>) contentChanges
+				: new HashSet<>(contentChanges);
+		final Set<FromToPathTuple> result = new LinkedHashSet<>();
+		for (final FromToPathTuple doneMerge : doneMerges) {
+			Path from = doneMerge.from.getParent();
+			Path to = doneMerge.to.getParent();
+			while (from != null && to != null) {
+				if (Objects.equals(from.getFileName().toString(), to.getFileName().toString())) {
+					addRecordMerge(result, mergedPaths, new FromToPathTuple(from, to));
+					from = from.getParent();
+					to = to.getParent();
+				} else {
+					break;
+				}
+			}
+
+			while (from != null) {
+				if (doneMerge.to.startsWith(from)) {
+					addRecordMerge(result, mergedPaths, new FromToPathTuple(from, from));
+				}
+				from = from.getParent();
+			}
+		}
+		return new ArrayList<>(result);
+	}
+
+	private static void addRecordMerge(final Set<FromToPathTuple> result, final Set<Path> mergedPaths,
+			final FromToPathTuple tuple) {
+		if (!mergedPaths.contains(tuple.from)) {
+			result.add(tuple);
+		}
+	}
+
+	/**
+	 * Groups the given merges by their common source and target root. A root can
+	 * be merged instead of its children, if the source and target paths of all
+	 * changed paths below the root only differ in the root itself, i.e. nothing
+	 * below the root is renamed, and if every changed path below the root either
+	 * is one of the given merges or has an existing target. Otherwise changes
+	 * whose target is missing would be merged through the root.
+	 *
+	 * @param merges        the merges to group
+	 * @param pathsToMerge  all changed paths of the merge unit
+	 * @param renameMapping the rename mapping including the parents
+	 * @param targetExists  checks if a target path exists in the working copy
+	 * @return the merges to execute
+	 */
+	public static List<FromToPathTuple> getGroupedMerges(final List<FromToPathTuple> merges,
+			final PathsToMerge pathsToMerge, final Map<Path, Path> renameMapping, final Predicate<Path> targetExists) {
+		// Count all changed paths below a source root
+		final Map<Path, Integer> changesBelowRoot = new HashMap<>();
+		// Count all changed paths below a source root matching to the target root
+		final Map<FromToPathTuple, Integer> matchingChangesBelowRoot = new HashMap<>();
+		final Set<Path> mergeSources = merges.stream().map(FromToPathTuple::getFrom).collect(Collectors.toSet());
+		final List<Path> changedPaths = new ArrayList<>(pathsToMerge.contentChanges);
+		changedPaths.addAll(pathsToMerge.propertyChanges);
+		for (final Path changedPath : changedPaths) {
+			for (Path from = changedPath.getParent(); from != null; from = from.getParent()) {
+				changesBelowRoot.merge(from, 1, Integer::sum);
+			}
+			final Path targetPath = renameMapping.get(changedPath);
+			if (targetPath != null && (mergeSources.contains(changedPath) || targetExists.test(targetPath))) {
+				for (final FromToPathTuple root : getCommonRoots(changedPath, targetPath)) {
+					matchingChangesBelowRoot.merge(root, 1, Integer::sum);
+				}
+			}
+		}
+
+		// Use the highest root for each merge, where all changes below are matching
+		final Set<FromToPathTuple> result = new LinkedHashSet<>();
+		for (final FromToPathTuple merge : merges) {
+			FromToPathTuple highestRoot = merge;
+			for (final FromToPathTuple root : getCommonRoots(merge.from, merge.to)) {
+				if (Objects.equals(matchingChangesBelowRoot.get(root), changesBelowRoot.get(root.from))
+						&& targetExists.test(root.to)) {
+					highestRoot = root;
+				} else {
+					break;
+				}
+			}
+			result.add(highestRoot);
+		}
+		return new ArrayList<>(result);
+	}
+
+	/**
+	 * Returns all common parents of the given source and target paths, where the
+	 * relative path from the parent to the given path is the same for source and
+	 * target. The list is sorted from the nearest to the highest parent.
+	 *
+	 * @param from the source path
+	 * @param to   the target path
+	 * @return the common roots
+	 */
+	private static List<FromToPathTuple> getCommonRoots(final Path from, final Path to) {
+		final List<FromToPathTuple> roots = new ArrayList<>();
+		Path fromChild = from;
+		Path toChild = to;
+		Path fromParent = from.getParent();
+		Path toParent = to.getParent();
+		while (fromParent != null && toParent != null
+				&& Objects.equals(fromChild.getFileName(), toChild.getFileName())) {
+			roots.add(new FromToPathTuple(fromParent, toParent));
+			fromChild = fromParent;
+			toChild = toParent;
+			fromParent = fromParent.getParent();
+			toParent = toParent.getParent();
+		}
+		return roots;
+	}
+
+	/**
+	 * Checks if any parent of the given path is contained in the given set.
+	 *
+	 * @param path  the path to check
+	 * @param paths the set of paths
+	 * @return {@code true} if a parent is contained
+	 */
+	private static boolean hasAncestorIn(final Path path, final Set<Path> paths) {
+		for (Path parent = path.getParent(); parent != null; parent = parent.getParent()) {
+			if (paths.contains(parent)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Container object for the paths to merge.
+	 *
+	 * @author Stefan Weiser
+	 *
+	 */
+	public static class PathsToMerge {
+
+		private final List<Path> contentChanges;
+		private final List<Path> propertyChanges;
+
+		/**
+		 * @param contentChanges
+		 * @param propertyChanges
+		 */
+		private PathsToMerge(List<Path> contentChanges, List<Path> propertyChanges) {
+			this.contentChanges = Collections.unmodifiableList(contentChanges);
+			this.propertyChanges = Collections.unmodifiableList(propertyChanges);
+		}
+
+		/**
+		 * @return the paths, where the content has to be merged
+		 */
+		public List<Path> getContentChanges() {
+			return contentChanges;
+		}
+
+		/**
+		 * @return the paths, where only properties have to be merged
+		 */
+		public List<Path> getPropertyChanges() {
+			return propertyChanges;
+		}
+
+	}
+
+	/**
+	 * Container object showing the from-to merge paths.
+	 *
+	 * @author Stefan Weiser
+	 *
+	 */
+	public static class FromToPathTuple {
+
+		private final Path from;
+		private final Path to;
+
+		/**
+		 * @param from
+		 * @param to
+		 */
+		public FromToPathTuple(Path from, Path to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * @return the source path
+		 */
+		public Path getFrom() {
+			return from;
+		}
+
+		/**
+		 * @return the target path
+		 */
+		public Path getTo() {
+			return to;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((from == null) ? 0 : from.hashCode());
+			result = prime * result + ((to == null) ? 0 : to.hashCode());
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			FromToPathTuple other = (FromToPathTuple) obj;
+			if (from == null) {
+				if (other.from != null)
+					return false;
+			} else if (!from.equals(other.from))
+				return false;
+			if (to == null) {
+				if (other.to != null)
+					return false;
+			} else if (!to.equals(other.to))
+				return false;
+			return true;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return from + " -> " + to;
+		}
+
+	}
+
+}
@@ -28,19 +28,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.LineIterator;
 import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.metrics.MergeMetrics;
+import org.aposin.mergeprocessor.metrics.MergeMetrics.PhaseTimer;
+import org.aposin.mergeprocessor.model.VersionControlSystem;
 import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
-import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff;
 import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff.SvnDiffAction;
-import org.aposin.mergeprocessor.utils.ByteArrayUtil;
+import org.aposin.mergeprocessor.model.svn.SvnMergePlanner.FromToPathTuple;
+import org.aposin.mergeprocessor.model.svn.SvnMergePlanner.PathsToMerge;
 import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
+import org.aposin.mergeprocessor.utils.FileUtils;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -60,6 +64,7 @@ public final class SvnMergeTask {
 	private final SVNMergeUnit mergeUnit;
 	private final Path repository;
 	private final ISvnClient svnClient;
+	private final boolean batched;
 
 	private final List<String> warnings = new ArrayList<>();
 
@@ -72,6 +77,36 @@ public final class SvnMergeTask {
 	 */
 	public SvnMergeTask(IProgressMonitor monitor, Consumer<String> commandConsumer, SVNMergeUnit mergeUnit,
 			final Path repository) {
+		this(monitor, commandConsumer, mergeUnit, repository, false);
+	}
+
+	/**
+	 * @param monitor         the progress monitor to show the progress
+	 * @param commandConsumer this consumer is used to trace any executed commands
+	 * @param mergeUnit       the merge unit to merge
+	 * @param repository      the repository where to merge into
+	 * @param batched         {@code true} if updates and merges should be grouped
+	 *                        and the modifications should be checked with a
+	 *                        single status crawl, {@code false} if each path
+	 *                        should be updated, merged and checked separately
+	 */
+	public SvnMergeTask(IProgressMonitor monitor, Consumer<String> commandConsumer, SVNMergeUnit mergeUnit,
+			final Path repository, final boolean batched) {
+		this(monitor, commandConsumer, mergeUnit, repository, batched,
+				E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class));
+	}
+
+	/**
+	 * @param monitor         the progress monitor to show the progress
+	 * @param commandConsumer this consumer is used to trace any executed commands
+	 * @param mergeUnit       the merge unit to merge
+	 * @param repository      the repository where to merge into
+	 * @param batched         {@code true} if updates and merges should be grouped
+	 * @param svnClient       the SVN client to use
+	 */
+	SvnMergeTask(IProgressMonitor monitor, Consumer<String> commandConsumer, SVNMergeUnit mergeUnit,
+			final Path repository, final boolean batched, final ISvnClient svnClient) {
+		this.batched = batched;
 		this.monitor = monitor == null ? new NullProgressMonitor() : monitor;
 		this.commandConsumer = commandConsumer;
 		this.mergeUnit = Objects.requireNonNull(mergeUnit);
@@ -80,7 +115,7 @@ public final class SvnMergeTask {
 		} else {
 			throw new IllegalArgumentException(String.format("The given path '%s' must exist.", repository));
 		}
-		svnClient = E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class);
+		this.svnClient = Objects.requireNonNull(svnClient);
 	}
 
 	/**
@@ -92,75 +127,59 @@ public final class SvnMergeTask {
 		warnings.clear();
 		svnClient.addCommandLineListener(commandConsumer);
 		try {
-			monitor.beginTask("Check Repository URL (1/6)", 1);
-			try {
-				checkRepository();
-				checkTargetBranch();
-			} catch (SvnClientException | MalformedURLException | URISyntaxException e) {
-				throw LogUtil.throwing(new SvnUtilException(e));
-			}
-			monitor.worked(1);
-
-			monitor.beginTask("Identify files to merge (2/6)", 1);
-			final PathsToMerge pathsToMerge = getPathsToMerge();
-			monitor.worked(1);
-
-			final List<FromToPathTuple> recordMerges = new ArrayList<>();
-			monitor.beginTask("Merge file (3/6)", pathsToMerge.contentChanges.size());
-			for (final Path pathToMerge : pathsToMerge.contentChanges) {
-				final Path targetPath = mergeUnit.getRenameMappingWithParents().get(pathToMerge);
-				monitor.subTask(pathToMerge.toString());
-				if (repository.resolve(targetPath).toFile().exists()) {
-					// File Hierarchy may have changed, if not existing
-					final String sourceURL = mergeUnit.getUrlSource() + '/' + pathToMerge.toString().replace('\\', '/');
-					svnClient.update(repository.resolve(targetPath));
-					svnClient.merge(repository.resolve(targetPath), new URL(sourceURL), mergeUnit.getRevisionEnd());
-					if (!svnClient.hasModifications(repository.resolve(targetPath))) {
-						warnings.add("Merge did not change anything on " + targetPath);
-						continue;
-					}
-				} else {
-					warnings.add("Path not found: " + targetPath);
-					continue;
+			runPhase("checkRepository", () -> { //$NON-NLS-1$
+				monitor.beginTask("Check Repository URL (1/6)", 1);
+				try {
+					checkRepository();
+					checkTargetBranch();
+				} catch (SvnClientException | MalformedURLException | URISyntaxException e) {
+					throw LogUtil.throwing(new SvnUtilException(e));
 				}
 				monitor.worked(1);
+				return null;
+			});
 
-				recordMerges.add(new FromToPathTuple(pathToMerge, targetPath));
-			}
+			final PathsToMerge pathsToMerge = runPhase("identifyFiles", () -> { //$NON-NLS-1$
+				monitor.beginTask("Identify files to merge (2/6)", 1);
+				final PathsToMerge paths = getPathsToMerge();
+				monitor.worked(1);
+				return paths;
+			});
+
+			final List<FromToPathTuple> recordMerges = runPhase("mergeFiles", //$NON-NLS-1$
+					() -> batched ? mergeContentChangesBatched(pathsToMerge) : mergeContentChanges(pathsToMerge));
 
 			// Do the property merges
-			monitor.beginTask("Merge properties (4/6)", pathsToMerge.propertyChanges.size());
-			for (final Path pathToMerge : pathsToMerge.propertyChanges) {
-				monitor.subTask(pathToMerge.toString());
-				final Path targetPath = mergeUnit.getRenameMapping().get(pathToMerge);
-				final String sourceURL = mergeUnit.getUrlSource() + '/' + pathToMerge.toString().replace('\\', '/');
-				final Path localTargetPath = repository.resolve(targetPath);
-				if (Files.exists(localTargetPath)) {
-					svnClient.update(localTargetPath);
-					svnClient.merge(localTargetPath, new URL(sourceURL), mergeUnit.getRevisionEnd(), false);
-				} else {
-					warnings.add(String.format(
-							"Record merge on '%s' not possible. Path does not exist. Record merge skipped on path.",
-							localTargetPath));
-				}
-				monitor.worked(1);
-			}
+			runPhase("mergeProperties", () -> { //$NON-NLS-1$
+				mergePropertyChanges(pathsToMerge);
+				return null;
+			});
 
 			// Do the records after update
-			List<FromToPathTuple> recordMergesToDo = calculateRecordMerges(recordMerges);
-			recordMergesToDo = recordMergesToDo.stream()
-					.filter(tuple -> !pathsToMerge.contentChanges.contains(tuple.from)).collect(Collectors.toList());
-			monitor.beginTask("Merge record (5/6)", recordMergesToDo.size());
-			for (final FromToPathTuple tuple : recordMergesToDo) {
-				monitor.subTask(tuple.to.toString());
-				update(tuple);
-				mergeRecord(tuple);
-				monitor.worked(1);
-			}
+			runPhase("mergeRecords", () -> { //$NON-NLS-1$
+				final List<FromToPathTuple> recordMergesToDo = SvnMergePlanner.getRecordMerges(recordMerges,
+						pathsToMerge.getContentChanges());
+				monitor.beginTask("Merge record (5/6)", recordMergesToDo.size());
+				if (batched) {
+					updateEmpty(recordMergesToDo);
+				}
+				for (final FromToPathTuple tuple : recordMergesToDo) {
+					monitor.subTask(tuple.getTo().toString());
+					if (!batched) {
+						update(tuple);
+					}
+					mergeRecord(tuple);
+					monitor.worked(1);
+				}
+				return null;
+			});
 
-			monitor.beginTask("Fix package definitions for new java classes (6/6)", 1);
-			renamePackageInNewJavaClasses();
-			monitor.worked(1);
+			runPhase("fixPackages", () -> { //$NON-NLS-1$
+				monitor.beginTask("Fix package definitions for new java classes (6/6)", 1);
+				renamePackageInNewJavaClasses();
+				monitor.worked(1);
+				return null;
+			});
 
 			final List<String> distinctMissingPaths = warnings.stream().distinct().collect(Collectors.toList());
 			warnings.clear();
@@ -173,40 +192,171 @@ public final class SvnMergeTask {
 	}
 
 	/**
-	 * Calculate the required paths for the record merge.
+	 * Merges the property changes path by path.
 	 * 
-	 * @param doneMerges the merges paths
-	 * @return the record paths to merge
+	 * @param pathsToMerge the paths to merge
+	 * @throws SvnClientException
+	 * @throws MalformedURLException
 	 */
-	private static List<FromToPathTuple> calculateRecordMerges(List<FromToPathTuple> doneMerges) {
-		final List<FromToPathTuple> result = new ArrayList<>();
-		for (final FromToPathTuple doneMerge : doneMerges) {
-			Path from = doneMerge.from.getParent();
-			Path to = doneMerge.to.getParent();
-			while (from != null && to != null) {
-				if (Objects.equals(from.getFileName().toString(), to.getFileName().toString())) {
-					final FromToPathTuple tuple = new FromToPathTuple(from, to);
-					if (!result.contains(tuple)) {
-						result.add(tuple);
-					}
-					from = from.getParent();
-					to = to.getParent();
-				} else {
-					break;
+	private void mergePropertyChanges(final PathsToMerge pathsToMerge)
+			throws SvnClientException, MalformedURLException {
+		monitor.beginTask("Merge properties (4/6)", pathsToMerge.getPropertyChanges().size());
+		for (final Path pathToMerge : pathsToMerge.getPropertyChanges()) {
+			monitor.subTask(pathToMerge.toString());
+			final Path targetPath = mergeUnit.getRenameMapping().get(pathToMerge);
+			final String sourceURL = mergeUnit.getUrlSource() + '/' + pathToMerge.toString().replace('\\', '/');
+			final Path localTargetPath = repository.resolve(targetPath);
+			if (Files.exists(localTargetPath)) {
+				if (!batched) {
+					svnClient.update(localTargetPath);
 				}
+				svnClient.merge(localTargetPath, new URL(sourceURL), mergeUnit.getRevisionEnd(), false);
+			} else {
+				warnings.add(String.format(
+						"Record merge on '%s' not possible. Path does not exist. Record merge skipped on path.",
+						localTargetPath));
 			}
+			monitor.worked(1);
+		}
+	}
 
-			while (from != null) {
-				if (doneMerge.to.startsWith(from)) {
-					final FromToPathTuple tuple = new FromToPathTuple(from, from);
-					if (!result.contains(tuple)) {
-						result.add(tuple);
-					}
+	/**
+	 * Runs and measures a merge phase for the merge unit.
+	 * 
+	 * @param phase the name of the phase
+	 * @param step  the step to execute
+	 * @return the result of the step
+	 * @throws SvnUtilException
+	 * @throws SvnClientException
+	 * @throws MalformedURLException
+	 */
+	private <T> T runPhase(final String phase, final MergeStep<T> step)
+			throws SvnUtilException, SvnClientException, MalformedURLException {
+		final PhaseTimer timer = MergeMetrics.getInstance().startPhase(VersionControlSystem.SVN,
+				mergeUnit.getRepository(), phase);
+		try {
+			return step.execute();
+		} finally {
+			timer.close();
+		}
+	}
+
+	/**
+	 * Merges the content changes path by path. Each path is updated, merged and
+	 * checked for modifications separately.
+	 * 
+	 * @param pathsToMerge the paths to merge
+	 * @return the merged paths, which have to be recorded
+	 * @throws SvnClientException
+	 * @throws MalformedURLException
+	 */
+	private List<FromToPathTuple> mergeContentChanges(final PathsToMerge pathsToMerge)
+			throws SvnClientException, MalformedURLException {
+		final List<FromToPathTuple> recordMerges = new ArrayList<>();
+		monitor.beginTask("Merge file (3/6)", pathsToMerge.getContentChanges().size());
+		for (final Path pathToMerge : pathsToMerge.getContentChanges()) {
+			final Path targetPath = mergeUnit.getRenameMappingWithParents().get(pathToMerge);
+			monitor.subTask(pathToMerge.toString());
+			if (repository.resolve(targetPath).toFile().exists()) {
+				// File Hierarchy may have changed, if not existing
+				final String sourceURL = mergeUnit.getUrlSource() + '/' + pathToMerge.toString().replace('\\', '/');
+				svnClient.update(repository.resolve(targetPath));
+				svnClient.merge(repository.resolve(targetPath), new URL(sourceURL), mergeUnit.getRevisionEnd());
+				if (!svnClient.hasModifications(repository.resolve(targetPath))) {
+					warnings.add("Merge did not change anything on " + targetPath);
+					continue;
 				}
-				from = from.getParent();
+			} else {
+				warnings.add("Path not found: " + targetPath);
+				continue;
 			}
+			monitor.worked(1);
+
+			recordMerges.add(new FromToPathTuple(pathToMerge, targetPath));
+		}
+		return recordMerges;
+	}
+
+	/**
+	 * Merges the content changes in a batch. All target paths are updated with a
+	 * single call, merges sharing a common source and target root are executed
+	 * as one merge on the root and the modifications are identified by a single
+	 * status crawl after all merges are done.
+	 * 
+	 * @param pathsToMerge the paths to merge
+	 * @return the merged paths, which have to be recorded
+	 * @throws SvnClientException
+	 * @throws MalformedURLException
+	 */
+	private List<FromToPathTuple> mergeContentChangesBatched(final PathsToMerge pathsToMerge)
+			throws SvnClientException, MalformedURLException {
+		final Map<Path, Path> renameMapping = mergeUnit.getRenameMappingWithParents();
+		final List<FromToPathTuple> existingMerges = new ArrayList<>();
+		for (final Path pathToMerge : pathsToMerge.getContentChanges()) {
+			final Path targetPath = renameMapping.get(pathToMerge);
+			if (repository.resolve(targetPath).toFile().exists()) {
+				existingMerges.add(new FromToPathTuple(pathToMerge, targetPath));
+			} else {
+				// File Hierarchy may have changed, if not existing
+				warnings.add("Path not found: " + targetPath);
+			}
+		}
+
+		final List<Path> pathsToUpdate = new ArrayList<>();
+		existingMerges.forEach(tuple -> pathsToUpdate.add(repository.resolve(tuple.getTo())));
+		for (final Path pathToMerge : pathsToMerge.getPropertyChanges()) {
+			final Path localTargetPath = repository.resolve(mergeUnit.getRenameMapping().get(pathToMerge));
+			if (Files.exists(localTargetPath)) {
+				pathsToUpdate.add(localTargetPath);
+			}
+		}
+		monitor.subTask("Update");
+		svnClient.update(pathsToUpdate);
+
+		final List<FromToPathTuple> groupedMerges = SvnMergePlanner.getGroupedMerges(existingMerges, pathsToMerge,
+				renameMapping, path -> repository.resolve(path).toFile().exists());
+		monitor.beginTask("Merge file (3/6)", groupedMerges.size() + 1);
+		for (final FromToPathTuple tuple : groupedMerges) {
+			monitor.subTask(tuple.getFrom().toString());
+			final String sourceURL = mergeUnit.getUrlSource() + '/' + tuple.getFrom().toString().replace('\\', '/');
+			svnClient.merge(repository.resolve(tuple.getTo()), new URL(sourceURL), mergeUnit.getRevisionEnd());
+			monitor.worked(1);
+		}
+
+		monitor.subTask("Check modifications");
+		final List<FromToPathTuple> recordMerges = new ArrayList<>();
+		try (final SvnStatusSnapshot snapshot = svnClient.getStatusSnapshot(repository)) {
+			for (final FromToPathTuple tuple : existingMerges) {
+				if (snapshot.hasModifications(repository.resolve(tuple.getTo()))) {
+					recordMerges.add(tuple);
+				} else {
+					warnings.add("Merge did not change anything on " + tuple.getTo());
+				}
+			}
+		}
+		monitor.worked(1);
+		return recordMerges;
+	}
+
+	/**
+	 * Updates the target paths of the given tuples with a single call.
+	 * 
+	 * @param tuples the tuples to update
+	 * @throws SvnClientException
+	 */
+	private void updateEmpty(final List<FromToPathTuple> tuples) throws SvnClientException {
+		final List<Path> pathsToUpdate = new ArrayList<>();
+		for (final FromToPathTuple tuple : tuples) {
+			final Path pathToUpdate = repository.resolve(tuple.getTo());
+			if (pathToUpdate.toFile().exists()) {
+				pathsToUpdate.add(pathToUpdate);
+			} else {
+				warnings.add("Path not found: " + pathToUpdate);
+			}
+		}
+		if (!pathsToUpdate.isEmpty()) {
+			svnClient.updateEmpty(pathsToUpdate);
 		}
-		return result;
 	}
 
 	/**
@@ -224,7 +374,7 @@ public final class SvnMergeTask {
 	 * @throws SvnClientException
 	 */
 	private void update(final FromToPathTuple tuple) throws SvnClientException {
-		final Path pathToUpdate = repository.resolve(tuple.to);
+		final Path pathToUpdate = repository.resolve(tuple.getTo());
 		if (pathToUpdate.toFile().exists()) {
 			svnClient.updateEmpty(pathToUpdate);
 		} else {
@@ -243,8 +393,8 @@ public final class SvnMergeTask {
 	 */
 	private void mergeRecord(final FromToPathTuple tuple)
 			throws SvnUtilException, MalformedURLException, SvnClientException {
-		final Path absolutePath = repository.resolve(tuple.to);
-		final String source = mergeUnit.getUrlSource() + '/' + tuple.from.toString().replace('\\', '/');
+		final Path absolutePath = repository.resolve(tuple.getTo());
+		final String source = mergeUnit.getUrlSource() + '/' + tuple.getFrom().toString().replace('\\', '/');
 		if (absolutePath.toFile().exists()) {
 			svnClient.merge(absolutePath, new URL(source), mergeUnit.getRevisionEnd(), false, true);
 		} else {
@@ -303,26 +453,26 @@ public final class SvnMergeTask {
 				.map(diff -> mergeUnit.convertSvnDiffToPath(diff)) // Convert to Path
 				.collect(Collectors.toList());
 
-		for (final Path oldPath : addedAndRenamedJavaPath) {
+		// The project directories are cached, as many files share the same parents
+		final Map<Path, Optional<Path>> projectDirectories = new ConcurrentHashMap<>();
+		addedAndRenamedJavaPath.parallelStream().forEach(oldPath -> {
 			final Path newPath = renameMapping.get(oldPath);
 			final Path javaFile = repository.resolve(newPath);
 
 			final Optional<String> oldPackageName = getPackageNameFromClassContent(javaFile);
-			final Optional<String> newPackageName = getPackageNameFromRelativToProjectFile(javaFile);
+			final Optional<String> newPackageName = getPackageNameFromRelativToProjectFile(javaFile,
+					projectDirectories);
 			if (oldPackageName.isPresent() && newPackageName.isPresent()) {
 				try {
-					final byte[] fileInBytes = FileUtils.readFileToByteArray(javaFile.toFile());
 					final byte[] bytesToReplace = ("package " + oldPackageName.get()).getBytes();
 					final byte[] bytesReplacing = ("package " + newPackageName.get()).getBytes();
-
-					final byte[] newFileInBytes = ByteArrayUtil.replace(fileInBytes, bytesToReplace, bytesReplacing);
-					FileUtils.writeByteArrayToFile(javaFile.toFile(), newFileInBytes);
+					FileUtils.replaceFirst(javaFile, bytesToReplace, bytesReplacing);
 				} catch (IOException e) {
 					LOGGER.log(Level.SEVERE, "Could not replace the package definition in the Java file: " + javaFile,
 							e);
 				}
 			}
-		}
+		});
 	}
 
 	/**
@@ -332,8 +482,8 @@ public final class SvnMergeTask {
 	 * @return the package name if it could be parsed from the content
 	 */
 	private static Optional<String> getPackageNameFromClassContent(final Path javaClassPath) {
-		try {
-			final LineIterator lineIterator = FileUtils.lineIterator(javaClassPath.toFile());
+		// The iterator must be closed, otherwise the file cannot be replaced on Windows
+		try (final LineIterator lineIterator = org.apache.commons.io.FileUtils.lineIterator(javaClassPath.toFile())) {
 			while (lineIterator.hasNext()) {
 				final String line = lineIterator.next();
 				if (line.startsWith("package ")) {
@@ -353,18 +503,20 @@ public final class SvnMergeTask {
 	 * '.project' is expected to exist, so the path starting from this file
 	 * represents the package name.
 	 * 
-	 * @param path the path of the class
+	 * @param path               the path of the class
+	 * @param projectDirectories cache of the already evaluated project directories
+	 *                           for a directory
 	 * @return the package name if it could be evaluated from the path
 	 */
-	private static Optional<String> getPackageNameFromRelativToProjectFile(final Path path) {
-		Path p = path;
-		// p.getParent() because we expect an existing src folder
-		while (p.getParent() != null) {
-			if (p.getParent().resolve(".project").toFile().exists()) {
-				return Optional.of(p.relativize(path).getParent().toString().replace('\\', '.').replace('/', '.'));
-			} else {
-				p = p.getParent();
-
+	private static Optional<String> getPackageNameFromRelativToProjectFile(final Path path,
+			final Map<Path, Optional<Path>> projectDirectories) {
+		final Optional<Path> projectDirectory = getProjectDirectory(path.getParent(), projectDirectories);
+		if (projectDirectory.isPresent()) {
+			// The first child of the project directory is expected to be the src folder
+			final Path relativePath = projectDirectory.get().relativize(path);
+			if (relativePath.getNameCount() > 2) {
+				return Optional.of(relativePath.subpath(1, relativePath.getNameCount() - 1).toString()
+						.replace('\\', '.').replace('/', '.'));
 			}
 		}
 		LOGGER.warning(String
@@ -372,6 +524,37 @@ public final class SvnMergeTask {
 		return Optional.empty();
 	}
 
+	/**
+	 * Returns the nearest directory containing the file '.project' for the given
+	 * directory. All evaluated directories are cached in the given map.
+	 * 
+	 * @param directory          the directory where to start
+	 * @param projectDirectories cache of the already evaluated project directories
+	 *                           for a directory
+	 * @return the project directory if existing
+	 */
+	private static Optional<Path> getProjectDirectory(final Path directory,
+			final Map<Path, Optional<Path>> projectDirectories) {
+		final List<Path> visitedDirectories = new ArrayList<>();
+		Optional<Path> result = Optional.empty();
+		for (Path dir = directory; dir != null; dir = dir.getParent()) {
+			final Optional<Path> cached = projectDirectories.get(dir);
+			if (cached != null) {
+				result = cached;
+				break;
+			}
+			visitedDirectories.add(dir);
+			if (dir.resolve(".project").toFile().exists()) {
+				result = Optional.of(dir);
+				break;
+			}
+		}
+		for (final Path visitedDirectory : visitedDirectories) {
+			projectDirectories.put(visitedDirectory, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Returns a list of paths, which have to be merged.
 	 * 
@@ -384,136 +567,24 @@ public final class SvnMergeTask {
 	 * @throws URISyntaxException
 	 */
 	private PathsToMerge getPathsToMerge() throws SvnUtilException {
-		final List<Path> contentChanges = new ArrayList<>();
-		final List<Path> propertyChanges = new ArrayList<>();
-		final List<SvnDiff> diff = mergeUnit.getSvnDiff();
-		for (final SvnDiff entry : diff) {
-			final Path parentPath;
-			switch (entry.getAction()) {
-			case ADDED:
-			case REPLACED:
-				parentPath = mergeUnit.convertSvnDiffToPath(entry).getParent();
-				if (!contentChanges.contains(parentPath)) {
-					contentChanges.add(parentPath);
-				}
-				break;
-			case DELETED:
-				boolean isParentAlsoDeleted = false;
-				for (final SvnDiff entry1 : diff) {
-					if (!entry.getUrl().toString().equals(entry1.getUrl().toString())
-							&& entry.getUrl().toString().contains(entry1.getUrl().toString())
-							&& entry1.getAction() == SvnDiffAction.DELETED) {
-						isParentAlsoDeleted = true;
-						break;
-					}
-				}
-				if (isParentAlsoDeleted) {
-					break;
-				} else {
-					parentPath = mergeUnit.convertSvnDiffToPath(entry).getParent();
-					if (!contentChanges.contains(parentPath)) {
-						contentChanges.add(parentPath);
-					}
-				}
-				break;
-			case MODIFIED:
-				contentChanges.add(mergeUnit.convertSvnDiffToPath(entry));
-				break;
-			case PROPERTY_CHANGED:
-				propertyChanges.add(mergeUnit.convertSvnDiffToPath(entry));
-				break;
-			default:
-				throw LogUtil.throwing(new SvnUtilException("Unknown SvnDiffAction: " + entry.getAction()));
-			}
-
-		}
-
-		// Filter paths if a parent is also a path to merge
-		final List<Path> contentChanges2 = contentChanges.stream().filter(path -> {
-			Path potentialParent = path.getParent();
-			while (potentialParent != null) {
-				if (contentChanges.contains(potentialParent)) {
-					return false;
-				}
-				potentialParent = potentialParent.getParent();
-			}
-			return true;
-		}).collect(Collectors.toList());
-		return new PathsToMerge(contentChanges2, propertyChanges);
-	}
-
-	private static class PathsToMerge {
-
-		private final List<Path> contentChanges;
-		private final List<Path> propertyChanges;
-
-		/**
-		 * @param contentChanges
-		 * @param propertyChanges
-		 */
-		private PathsToMerge(List<Path> contentChanges, List<Path> propertyChanges) {
-			this.contentChanges = Collections.unmodifiableList(contentChanges);
-			this.propertyChanges = Collections.unmodifiableList(propertyChanges);
-		}
-
+		return SvnMergePlanner.getPathsToMerge(mergeUnit.getSvnDiff(), mergeUnit::convertSvnDiffToPath);
 	}
 
 	/**
-	 * Container object showing the from-to merge paths.
-	 * 
-	 * @author Stefan Weiser
+	 * A step of the merge, measured as a phase.
 	 *
+	 * @param <T> the type of the result
 	 */
-	private static class FromToPathTuple {
-
-		private final Path from;
-		private final Path to;
+	@FunctionalInterface
+	private interface MergeStep<T> {
 
 		/**
-		 * @param from
-		 * @param to
+		 * @return the result of the step
+		 * @throws SvnUtilException
+		 * @throws SvnClientException
+		 * @throws MalformedURLException
 		 */
-		private FromToPathTuple(Path from, Path to) {
-			this.from = from;
-			this.to = to;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + ((from == null) ? 0 : from.hashCode());
-			result = prime * result + ((to == null) ? 0 : to.hashCode());
-			return result;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 */
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (getClass() != obj.getClass())
-				return false;
-			FromToPathTuple other = (FromToPathTuple) obj;
-			if (from == null) {
-				if (other.from != null)
-					return false;
-			} else if (!from.equals(other.from))
-				return false;
-			if (to == null) {
-				if (other.to != null)
-					return false;
-			} else if (!to.equals(other.to))
-				return false;
-			return true;
-		}
+		T execute() throws SvnUtilException, SvnClientException, MalformedURLException;
 
 	}
 
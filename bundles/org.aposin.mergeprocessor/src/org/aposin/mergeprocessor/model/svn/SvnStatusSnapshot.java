@@ -0,0 +1,227 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Snapshot of the SVN status of a working copy path, created by a single status
+ * crawl. Modification and conflict queries for any subpath of the root are
+ * answered from the snapshot without crawling the working copy again.
+ * <p>
+ * The snapshot gets invalidated by the {@link ISvnClient} which created it, as
+ * soon as the client notifies changes on paths covered by the snapshot. Changes
+ * done outside of the client are not recognized, so a snapshot should only be
+ * used for a sequence of client operations and not be cached for a longer time.
+ * Queries on an invalidated snapshot throw an {@link IllegalStateException}.
+ * Closing the snapshot removes it from the registry of the client.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class SvnStatusSnapshot implements AutoCloseable {
+
+	private final Path root;
+	private final Set<Path> modifiedPathsWithParents = new HashSet<>();
+	private final Set<Path> conflictedPathsWithParents = new HashSet<>();
+	private final Set<Path> treeConflictedPathsWithParents = new HashSet<>();
+	private final Map<Path, String> conflicts = new LinkedHashMap<>();
+
+	private volatile boolean isValid = true;
+	private volatile SvnStatusSnapshotRegistry registry;
+
+	/**
+	 * @param root the root path of the status crawl
+	 */
+	SvnStatusSnapshot(final Path root) {
+		this.root = Objects.requireNonNull(root).toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Adds a modified path to the snapshot.
+	 *
+	 * @param path the absolute path of the modified entry
+	 */
+	void addModification(final Path path) {
+		addWithParents(modifiedPathsWithParents, path);
+	}
+
+	/**
+	 * Adds a conflicted path to the snapshot.
+	 *
+	 * @param path           the absolute path of the conflicted entry
+	 * @param conflictPath   the path describing the conflict
+	 * @param isTreeConflict {@code true} if the conflict is a tree conflict
+	 */
+	void addConflict(final Path path, final String conflictPath, final boolean isTreeConflict) {
+		final Path normalizedPath = normalize(path);
+		conflicts.put(normalizedPath, conflictPath);
+		addWithParents(conflictedPathsWithParents, normalizedPath);
+		if (isTreeConflict) {
+			addWithParents(treeConflictedPathsWithParents, normalizedPath);
+		}
+	}
+
+	/**
+	 * Adds the given path and all its parents up to the root to the given set.
+	 *
+	 * @param set  the set to add the paths
+	 * @param path the path to add
+	 */
+	private void addWithParents(final Set<Path> set, final Path path) {
+		Path p = normalize(path);
+		while (p != null && p.startsWith(root) && set.add(p)) {
+			p = p.getParent();
+		}
+	}
+
+	/**
+	 * @return the root path of the snapshot
+	 */
+	public Path getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return {@code true} if no changes were done by the client on the paths
+	 *         covered by the snapshot since it has been created
+	 */
+	public boolean isValid() {
+		return isValid;
+	}
+
+	/**
+	 * Marks the snapshot as outdated.
+	 */
+	void invalidate() {
+		isValid = false;
+	}
+
+	/**
+	 * Sets the registry where the snapshot is registered.
+	 * 
+	 * @param registry the registry
+	 */
+	void setRegistry(final SvnStatusSnapshotRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Invalidates the snapshot and removes it from the registry.
+	 */
+	@Override
+	public void close() {
+		invalidate();
+		final SvnStatusSnapshotRegistry currentRegistry = registry;
+		if (currentRegistry != null) {
+			currentRegistry.remove(this);
+			registry = null;
+		}
+	}
+
+	/**
+	 * Checks if the given path is covered by this snapshot.
+	 *
+	 * @param path the path to check
+	 * @return {@code true} if the path is the root or a subpath of the root
+	 */
+	public boolean covers(final Path path) {
+		return normalize(path).startsWith(root);
+	}
+
+	/**
+	 * Checks if the given path or any of its children have modifications.
+	 *
+	 * @param path the path to check, which must be covered by the snapshot
+	 * @return {@code true} if modifications exist
+	 * @throws IllegalStateException if the snapshot is not valid any more
+	 */
+	public boolean hasModifications(final Path path) {
+		return modifiedPathsWithParents.contains(checkCovered(path));
+	}
+
+	/**
+	 * Checks if the given path or any of its children have conflicts.
+	 *
+	 * @param path the path to check, which must be covered by the snapshot
+	 * @return {@code true} if conflicts exist
+	 * @throws IllegalStateException if the snapshot is not valid any more
+	 */
+	public boolean hasConflicts(final Path path) {
+		return conflictedPathsWithParents.contains(checkCovered(path));
+	}
+
+	/**
+	 * Checks if the given path or any of its children have tree conflicts.
+	 *
+	 * @param path the path to check, which must be covered by the snapshot
+	 * @return {@code true} if tree conflicts exist
+	 * @throws IllegalStateException if the snapshot is not valid any more
+	 */
+	public boolean hasTreeConflicts(final Path path) {
+		return treeConflictedPathsWithParents.contains(checkCovered(path));
+	}
+
+	/**
+	 * Returns the list of existing conflicts for the given path, in the same
+	 * format as {@link ISvnClient#getConflicts(Path)}.
+	 *
+	 * @param path the path to check, which must be covered by the snapshot
+	 * @return the list of existing conflicts
+	 * @throws IllegalStateException if the snapshot is not valid any more
+	 */
+	public List<String> getConflicts(final Path path) {
+		final Path normalizedPath = checkCovered(path);
+		if (!conflictedPathsWithParents.contains(normalizedPath)) {
+			return Collections.emptyList();
+		}
+		return conflicts.entrySet().stream() //
+				.filter(entry -> entry.getKey().startsWith(normalizedPath)) // only conflicts below the path
+				.map(Map.Entry::getValue) //
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Normalizes the given path and checks if it is covered by the valid snapshot.
+	 *
+	 * @param path the path to check
+	 * @return the normalized path
+	 */
+	private Path checkCovered(final Path path) {
+		if (!isValid) {
+			throw new IllegalStateException(String.format("The snapshot of '%s' is not valid any more.", root));
+		}
+		final Path normalizedPath = normalize(path);
+		if (!normalizedPath.startsWith(root)) {
+			throw new IllegalArgumentException(
+					String.format("The path '%s' is not covered by the snapshot of '%s'.", path, root));
+		}
+		return normalizedPath;
+	}
+
+	private static Path normalize(final Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of all valid {@link SvnStatusSnapshot}s created by one or more SVN
+ * clients. The registry invalidates the snapshots when the clients notify
+ * changes on paths.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+class SvnStatusSnapshotRegistry {
+
+	private final List<SvnStatusSnapshot> snapshots = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Registers the given snapshot, so it gets invalidated on changes.
+	 * 
+	 * @param snapshot the snapshot to register
+	 */
+	void register(final SvnStatusSnapshot snapshot) {
+		snapshot.setRegistry(this);
+		snapshots.add(snapshot);
+	}
+
+	/**
+	 * Removes the given snapshot from the registry without invalidating it.
+	 * 
+	 * @param snapshot the snapshot to remove
+	 */
+	void remove(final SvnStatusSnapshot snapshot) {
+		snapshots.remove(snapshot);
+	}
+
+	/**
+	 * @return the number of registered snapshots
+	 */
+	int size() {
+		return snapshots.size();
+	}
+
+	/**
+	 * Invalidates all snapshots covering the given path or being covered by the
+	 * given path.
+	 * 
+	 * @param path the changed path
+	 */
+	void invalidate(final Path path) {
+		final Path normalizedPath = path.toAbsolutePath().normalize();
+		for (final SvnStatusSnapshot snapshot : snapshots) {
+			if (snapshot.covers(normalizedPath) || snapshot.getRoot().startsWith(normalizedPath)) {
+				snapshot.invalidate();
+				snapshots.remove(snapshot);
+			}
+		}
+	}
+
+	/**
+	 * Invalidates all registered snapshots.
+	 */
+	void invalidateAll() {
+		snapshots.forEach(SvnStatusSnapshot::invalidate);
+		snapshots.clear();
+	}
+
+}
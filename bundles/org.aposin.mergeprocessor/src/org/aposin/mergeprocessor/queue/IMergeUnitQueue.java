@@ -0,0 +1,211 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+
+/**
+ * The storage of the merge files, i.e. the status folders containing the files
+ * of the merge units. Paths use {@code /} as separator and are absolute, e.g.
+ * {@code /merges/user/todo/repo_r1234.svnmerge}. Folders end with a
+ * {@code /}, as provided by the
+ * {@link org.aposin.mergeprocessor.configuration.ISftpConfiguration}.
+ * Implementations are thread safe.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public interface IMergeUnitQueue extends AutoCloseable {
+
+	/**
+	 * Lists the files in the given folder. A missing folder is created.
+	 * 
+	 * @param folder the folder to list
+	 * @return the names of the files in the folder, without sub folders
+	 * @throws MergeUnitQueueException if the folder could not be listed
+	 */
+	List<String> list(String folder) throws MergeUnitQueueException;
+
+	/**
+	 * Lists the files in the given folder with their sizes and modification
+	 * times. A missing folder is created. The default implementation lists the
+	 * names only, the sizes and modification times are
+	 * {@link MergeUnitQueueFile#UNKNOWN unknown}.
+	 * 
+	 * @param folder the folder to list
+	 * @return the files in the folder, without sub folders
+	 * @throws MergeUnitQueueException if the folder could not be listed
+	 */
+	default List<MergeUnitQueueFile> listFiles(final String folder) throws MergeUnitQueueException {
+		final List<MergeUnitQueueFile> files = new ArrayList<>();
+		for (final String fileName : list(folder)) {
+			files.add(new MergeUnitQueueFile(fileName, MergeUnitQueueFile.UNKNOWN, MergeUnitQueueFile.UNKNOWN));
+		}
+		return files;
+	}
+
+	/**
+	 * Reads the whole content of the given file.
+	 * 
+	 * @param path the path of the file
+	 * @return the content of the file
+	 * @throws MergeUnitQueueException if the file could not be read
+	 */
+	byte[] read(String path) throws MergeUnitQueueException;
+
+	/**
+	 * Reads the whole contents of the given files. Implementations may read the
+	 * files concurrently.
+	 * 
+	 * @param paths the paths of the files
+	 * @return the contents by the paths, in the order of the given paths
+	 * @throws MergeUnitQueueException if any of the files could not be read
+	 */
+	default Map<String, byte[]> readAll(final Collection<String> paths) throws MergeUnitQueueException {
+		final Map<String, byte[]> contents = new LinkedHashMap<>();
+		for (final String path : paths) {
+			contents.put(path, read(path));
+		}
+		return contents;
+	}
+
+	/**
+	 * Moves the given file. The target folder has to exist. An existing target
+	 * file is not replaced, the move fails instead, as a rename on the SFTP server
+	 * does.
+	 * 
+	 * @param source the path of the file to move
+	 * @param target the new path of the file
+	 * @throws MergeUnitQueueException if the file could not be moved, e.g. because
+	 *                                 the target already exists
+	 */
+	void move(String source, String target) throws MergeUnitQueueException;
+
+	/**
+	 * Moves the given files. The target folders have to exist and existing target
+	 * files are not replaced, see {@link #move(String, String)}. Implementations
+	 * may execute the moves concurrently, so the order of the moves is not
+	 * defined. A failing move does not stop the other moves.
+	 * 
+	 * @param moves the target paths by the source paths
+	 * @return the failures by the source paths of the files not moved, empty if
+	 *         all files have been moved
+	 * @throws MergeUnitQueueException if the queue could not be accessed at all
+	 */
+	default Map<String, MergeUnitQueueException> moveAll(final Map<String, String> moves)
+			throws MergeUnitQueueException {
+		final Map<String, MergeUnitQueueException> failures = new LinkedHashMap<>();
+		for (final Entry<String, String> move : moves.entrySet()) {
+			try {
+				move(move.getKey(), move.getValue());
+			} catch (MergeUnitQueueException e) {
+				failures.put(move.getKey(), e);
+			}
+		}
+		return failures;
+	}
+
+	/**
+	 * Copies the given file. An existing target file is overwritten. The default
+	 * implementation reads the file and writes its content, so it is not
+	 * transferred through the local file system.
+	 * 
+	 * @param source the path of the file to copy
+	 * @param target the path of the copy
+	 * @throws MergeUnitQueueException if the file could not be copied
+	 */
+	default void copy(final String source, final String target) throws MergeUnitQueueException {
+		write(target, read(source));
+	}
+
+	/**
+	 * Writes the given content into a file. An existing file is overwritten.
+	 * 
+	 * @param path    the path of the file
+	 * @param content the content to write
+	 * @throws MergeUnitQueueException if the file could not be written
+	 */
+	void write(String path, byte[] content) throws MergeUnitQueueException;
+
+	/**
+	 * Appends the given content to a file. A missing file is created.
+	 * 
+	 * @param path    the path of the file
+	 * @param content the content to append
+	 * @throws MergeUnitQueueException if the content could not be appended
+	 */
+	void append(String path, byte[] content) throws MergeUnitQueueException;
+
+	/**
+	 * Deletes the given file.
+	 * 
+	 * @param path the path of the file
+	 * @throws MergeUnitQueueException if the file could not be deleted
+	 */
+	void delete(String path) throws MergeUnitQueueException;
+
+	/**
+	 * Creates the given folder, if it does not exist yet.
+	 * 
+	 * @param folder the folder to create
+	 * @throws MergeUnitQueueException if the folder could not be created
+	 */
+	void createFolder(String folder) throws MergeUnitQueueException;
+
+	/**
+	 * Returns a token, which changes whenever a file is added to or removed from
+	 * the given folder, e.g. the modification time of the folder. Determining the
+	 * token is much cheaper than listing the folder, so it can be polled to detect
+	 * changes. The default implementation returns {@code null}, i.e. changes
+	 * cannot be detected and the folder has to be listed.
+	 *
+	 * @param folder the folder
+	 * @return the token of the current state of the folder or {@code null} if not
+	 *         supported
+	 * @throws MergeUnitQueueException if the token could not be determined
+	 */
+	default String getChangeToken(final String folder) throws MergeUnitQueueException {
+		return null;
+	}
+
+	/**
+	 * Returns the local path of the given path, if the queue is on the local file
+	 * system, e.g. to watch the folders for changes.
+	 * 
+	 * @param path the path in the queue
+	 * @return the local path or {@code null}, if the queue is not on the local file
+	 *         system
+	 */
+	default Path getLocalPath(final String path) {
+		return null;
+	}
+
+	/**
+	 * Releases all resources, e.g. the connection to the server. The queue may be
+	 * used again afterwards and reconnects if required.
+	 */
+	@Override
+	void close();
+
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+
+/**
+ * {@link IMergeUnitQueue} keeping all files in memory, e.g. for tests and
+ * benchmarks. Like on an SFTP server, a file can only be written or moved
+ * into an existing folder. The modification times are a counter of the writes,
+ * kept when a file is moved.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class InMemoryMergeUnitQueue implements IMergeUnitQueue {
+
+	private final NavigableMap<String, byte[]> files = new ConcurrentSkipListMap<>();
+	private final Set<String> folders = ConcurrentHashMap.newKeySet();
+	private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+	private final Map<String, Long> modificationTimes = new ConcurrentHashMap<>();
+	private final AtomicLong modifications = new AtomicLong();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> list(final String folder) throws MergeUnitQueueException {
+		return listFiles(folder).stream().map(MergeUnitQueueFile::getName).collect(Collectors.toList());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized List<MergeUnitQueueFile> listFiles(final String folder) throws MergeUnitQueueException {
+		final String prefix = toFolder(folder);
+		folders.add(prefix);
+		final List<MergeUnitQueueFile> result = new ArrayList<>();
+		for (final Entry<String, byte[]> file : files.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+				.entrySet()) {
+			final String fileName = file.getKey().substring(prefix.length());
+			if (fileName.indexOf('/') < 0) {
+				result.add(new MergeUnitQueueFile(fileName, file.getValue().length,
+						modificationTimes.get(file.getKey())));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] read(final String path) throws MergeUnitQueueException {
+		final byte[] content = files.get(path);
+		if (content == null) {
+			throw new MergeUnitQueueException(String.format("Couldn't read file=[%s].", path)); //$NON-NLS-1$
+		}
+		return content.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void move(final String source, final String target) throws MergeUnitQueueException {
+		checkFolderExists(target);
+		if (files.containsKey(target)) {
+			throw new MergeUnitQueueException(
+					String.format("Couldn't move source=[%s] to existing target=[%s].", source, target)); //$NON-NLS-1$
+		}
+		final byte[] content = files.remove(source);
+		if (content == null) {
+			throw new MergeUnitQueueException(
+					String.format("Couldn't move source=[%s] to target=[%s].", source, target)); //$NON-NLS-1$
+		}
+		files.put(target, content);
+		modificationTimes.put(target, modificationTimes.remove(source));
+		incrementVersion(source);
+		incrementVersion(target);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void write(final String path, final byte[] content) throws MergeUnitQueueException {
+		checkFolderExists(path);
+		files.put(path, content.clone());
+		modificationTimes.put(path, modifications.incrementAndGet());
+		incrementVersion(path);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void append(final String path, final byte[] content) throws MergeUnitQueueException {
+		checkFolderExists(path);
+		final byte[] existing = files.get(path);
+		if (existing == null) {
+			files.put(path, content.clone());
+			incrementVersion(path);
+		} else {
+			final byte[] appended = Arrays.copyOf(existing, existing.length + content.length);
+			System.arraycopy(content, 0, appended, existing.length, content.length);
+			files.put(path, appended);
+		}
+		modificationTimes.put(path, modifications.incrementAndGet());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void delete(final String path) throws MergeUnitQueueException {
+		if (files.remove(path) == null) {
+			throw new MergeUnitQueueException(String.format("Couldn't delete file=[%s].", path)); //$NON-NLS-1$
+		}
+		modificationTimes.remove(path);
+		incrementVersion(path);
+	}
+
+	/**
+	 * Creates the folder and all its parent folders.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createFolder(final String folder) throws MergeUnitQueueException {
+		final String path = toFolder(folder);
+		for (int i = path.indexOf('/', 1); i >= 0; i = path.indexOf('/', i + 1)) {
+			folders.add(path.substring(0, i + 1));
+		}
+	}
+
+	/**
+	 * Returns the number of changes of the folder.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getChangeToken(final String folder) throws MergeUnitQueueException {
+		final AtomicLong version = versions.get(toFolder(folder));
+		return version == null ? "0" : version.toString(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Nothing to release, the files are kept.
+	 */
+	@Override
+	public void close() {
+		// Nothing to release
+	}
+
+	/**
+	 * @return the sorted paths of all files of the queue
+	 */
+	public List<String> getPaths() {
+		return new ArrayList<>(files.keySet());
+	}
+
+	private void checkFolderExists(final String path) throws MergeUnitQueueException {
+		final String folder = path.substring(0, path.lastIndexOf('/') + 1);
+		if (!folder.equals("/") && !folders.contains(folder)) { //$NON-NLS-1$
+			throw new MergeUnitQueueException(String.format("Folder=[%s] does not exist.", folder)); //$NON-NLS-1$
+		}
+	}
+
+	private void incrementVersion(final String path) {
+		final String folder = path.substring(0, path.lastIndexOf('/') + 1);
+		versions.computeIfAbsent(folder, key -> new AtomicLong()).incrementAndGet();
+	}
+
+	private static String toFolder(final String folder) {
+		return folder.endsWith("/") ? folder : folder + '/'; //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,316 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.utils.LogUtil;
+
+/**
+ * {@link IMergeUnitQueue} on the local file system, e.g. on a share where the
+ * root of the SFTP server is mounted. The paths of the queue are resolved
+ * against the root folder, so the same folders as on the SFTP server can be
+ * used.
+ * <p>
+ * Files are written into a hidden temporary file first, which is renamed
+ * atomically afterwards, so readers never see a partially written merge file.
+ * Hidden files are therefore not listed.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class LocalMergeUnitQueue implements IMergeUnitQueue {
+
+	private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+	private final Path root;
+
+	/**
+	 * @param root the local folder corresponding to the root {@code /} of the
+	 *             queue
+	 */
+	public LocalMergeUnitQueue(final Path root) {
+		this.root = Objects.requireNonNull(root);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getLocalPath(final String path) {
+		return root.resolve(StringUtils.removeStart(path, "/")); //$NON-NLS-1$
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> list(final String folder) throws MergeUnitQueueException {
+		return listFiles(folder).stream().map(MergeUnitQueueFile::getName).collect(Collectors.toList());
+	}
+
+	/**
+	 * The modification times are in milliseconds since the epoch.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<MergeUnitQueueFile> listFiles(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		final Path localFolder = getLocalPath(folder);
+		try {
+			Files.createDirectories(localFolder);
+			final List<Path> paths;
+			try (final Stream<Path> files = Files.list(localFolder)) {
+				paths = files.filter(file -> !file.getFileName().toString().startsWith(".")).sorted() //$NON-NLS-1$
+						.collect(Collectors.toList());
+			}
+			final List<MergeUnitQueueFile> result = new ArrayList<>();
+			for (final Path file : paths) {
+				final BasicFileAttributes attributes = readAttributes(file);
+				if (attributes != null && attributes.isRegularFile()) {
+					result.add(new MergeUnitQueueFile(file.getFileName().toString(), attributes.size(),
+							attributes.lastModifiedTime().toMillis()));
+				}
+			}
+			return LogUtil.exiting(result);
+		} catch (IOException e) {
+			String message = String.format("Couldn't list folder=[%s].", localFolder); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+	}
+
+	/**
+	 * @return the attributes of the file or {@code null} if the file has been
+	 *         removed since listing its folder
+	 */
+	private static BasicFileAttributes readAttributes(final Path file) throws IOException {
+		try {
+			return Files.readAttributes(file, BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] read(final String path) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		final Path localPath = getLocalPath(path);
+		try {
+			return LogUtil.exiting(Files.readAllBytes(localPath));
+		} catch (IOException e) {
+			String message = String.format("Couldn't read file=[%s].", localPath); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void move(final String source, final String target) throws MergeUnitQueueException {
+		LogUtil.entering(source, target);
+		final Path localSource = getLocalPath(source);
+		final Path localTarget = getLocalPath(target);
+		try {
+			Files.move(localSource, localTarget);
+		} catch (IOException e) {
+			String message = String.format("Couldn't move source=[%s] to target=[%s].", localSource, localTarget); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void copy(final String source, final String target) throws MergeUnitQueueException {
+		LogUtil.entering(source, target);
+		final Path localSource = getLocalPath(source);
+		final Path localTarget = getLocalPath(target);
+		try {
+			Files.copy(localSource, localTarget, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			String message = String.format("Couldn't copy source=[%s] to target=[%s].", localSource, localTarget); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * The content is written into a hidden temporary file in the same folder,
+	 * which replaces the file atomically afterwards. On POSIX file systems the
+	 * temporary file gets the permissions of the replaced file, or of the folder
+	 * without execute permissions for new files, as it is created only readable
+	 * by the owner.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void write(final String path, final byte[] content) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		final Path localPath = getLocalPath(path);
+		Path tempPath = null;
+		try {
+			tempPath = Files.createTempFile(localPath.getParent(), '.' + localPath.getFileName().toString(),
+					TEMP_FILE_EXTENSION);
+			setPermissions(tempPath, localPath);
+			Files.write(tempPath, content);
+			try {
+				Files.move(tempPath, localPath, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempPath, localPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			if (tempPath != null) {
+				try {
+					Files.deleteIfExists(tempPath);
+				} catch (IOException e1) {
+					e.addSuppressed(e1);
+				}
+			}
+			String message = String.format("Couldn't write file=[%s].", localPath); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Sets the permissions of the given temporary file for replacing the given
+	 * file, if the file system supports POSIX permissions.
+	 * 
+	 * @param tempPath  the temporary file
+	 * @param localPath the file replaced by the temporary file
+	 * @throws IOException
+	 */
+	private static void setPermissions(final Path tempPath, final Path localPath) throws IOException {
+		if (Files.getFileAttributeView(tempPath, PosixFileAttributeView.class) == null) {
+			return;
+		}
+		final Set<PosixFilePermission> permissions;
+		if (Files.exists(localPath)) {
+			permissions = Files.getPosixFilePermissions(localPath);
+		} else {
+			permissions = EnumSet.noneOf(PosixFilePermission.class);
+			permissions.addAll(Files.getPosixFilePermissions(localPath.getParent()));
+			permissions.removeAll(EnumSet.of(PosixFilePermission.OWNER_EXECUTE, PosixFilePermission.GROUP_EXECUTE,
+					PosixFilePermission.OTHERS_EXECUTE));
+		}
+		Files.setPosixFilePermissions(tempPath, permissions);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void append(final String path, final byte[] content) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		final Path localPath = getLocalPath(path);
+		try {
+			Files.write(localPath, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			String message = String.format("Couldn't append to file=[%s].", localPath); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void delete(final String path) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		final Path localPath = getLocalPath(path);
+		try {
+			Files.delete(localPath);
+		} catch (IOException e) {
+			String message = String.format("Couldn't delete file=[%s].", localPath); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createFolder(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		final Path localFolder = getLocalPath(folder);
+		try {
+			Files.createDirectories(localFolder);
+		} catch (IOException e) {
+			String message = String.format("Couldn't create folder=[%s].", localFolder); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Returns the modification time of the folder. Changes of the local folder
+	 * are pushed by a {@link java.nio.file.WatchService}, see
+	 * {@link MergeUnitQueueWatcher}, so the token is only a fallback, e.g. for
+	 * network shares not supporting notifications.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getChangeToken(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		final Path localFolder = getLocalPath(folder);
+		if (Files.notExists(localFolder)) {
+			return LogUtil.exiting(""); //$NON-NLS-1$
+		}
+		try {
+			return LogUtil.exiting(Files.getLastModifiedTime(localFolder).toString());
+		} catch (IOException e) {
+			String message = String.format("Couldn't read modification time of folder=[%s].", localFolder); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+	}
+
+	/**
+	 * Nothing to release for the local file system.
+	 */
+	@Override
+	public void close() {
+		// Nothing to release
+	}
+
+}
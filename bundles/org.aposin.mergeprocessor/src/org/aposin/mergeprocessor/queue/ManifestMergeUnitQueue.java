@@ -0,0 +1,512 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.utils.LogUtil;
+
+/**
+ * {@link IMergeUnitQueue} keeping a {@link MergeUnitQueueManifest manifest} in
+ * each status folder of another queue. Listing a folder also reads its
+ * manifest, so the following reads of the merge files while parsing the merge
+ * units are served without further requests. Each file is served only once
+ * from the manifest, further reads, e.g. when a merge unit is opened or merged,
+ * fetch the file itself.
+ * <p>
+ * The manifest is only a cache, the listing of the folder stays authoritative.
+ * A record is only served if the size and the modification time of the listed
+ * file equal the recorded ones, otherwise the file is read from the queue, e.g.
+ * if it has been replaced by a client without manifest. Files missing in the
+ * manifest are appended after they have been read, with the modification time
+ * of the listing. Moving a file appends it to the manifest of the target
+ * folder, if its content and modification time are known. Written files are
+ * appended after they have been listed and read, as the modification time of
+ * the written file is not known. The manifest is compacted if it contains many
+ * records of files not in the folder anymore or an invalid record.
+ * <p>
+ * Only one client at a time appends to or compacts a manifest. The client holds
+ * the lock file {@code .mergeunits.manifest.lock}, created by moving a
+ * temporary file, which fails if the lock file exists. If the lock is held by
+ * another client, the update is skipped and the files are appended again after
+ * their next read. A lock older than one minute, e.g. left by a crashed client, is broken. Clients breaking the same lock at once may still
+ * write concurrently, the checksums and the comparison with the listing then
+ * turn an interleaved record into a cache miss. Failures on the manifest are
+ * only logged, they never fail an operation.
+ * <p>
+ * Hidden files, i.e. names starting with {@code .}, are not listed.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class ManifestMergeUnitQueue implements IMergeUnitQueue {
+
+	private static final Logger LOGGER = Logger.getLogger(ManifestMergeUnitQueue.class.getName());
+	/** Records of removed files tolerated before compacting, beside one per file. */
+	private static final int MAX_OBSOLETE_RECORDS = 64;
+	/** The age in milliseconds after which the lock of a manifest is broken. */
+	static final long LOCK_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+	static final String LOCK_EXTENSION = ".lock"; //$NON-NLS-1$
+	private static final String TEMP_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+	private final IMergeUnitQueue queue;
+	/** The contents read from the manifests, served once. */
+	private final Map<String, byte[]> unreadContents = new HashMap<>();
+	/** The latest known contents, appended to the manifest of a move target. */
+	private final Map<String, byte[]> knownContents = new HashMap<>();
+	/** The modification times of the listed files. */
+	private final Map<String, Long> lastModifiedTimes = new HashMap<>();
+	/** The listed files missing in the manifest of their folder. */
+	private final Set<String> unrecordedPaths = new HashSet<>();
+
+	/**
+	 * @param queue the queue containing the merge files and manifests
+	 */
+	public ManifestMergeUnitQueue(final IMergeUnitQueue queue) {
+		this.queue = Objects.requireNonNull(queue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> list(final String folder) throws MergeUnitQueueException {
+		return listFiles(folder).stream().map(MergeUnitQueueFile::getName).collect(Collectors.toList());
+	}
+
+	/**
+	 * Lists the files of the folder and reads its manifest.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized List<MergeUnitQueueFile> listFiles(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		final List<MergeUnitQueueFile> files = new ArrayList<>();
+		for (final MergeUnitQueueFile file : queue.listFiles(folder)) {
+			if (!isHidden(file.getName())) {
+				files.add(file);
+			}
+		}
+		final String prefix = toFolder(folder);
+		unreadContents.keySet().removeIf(path -> path.startsWith(prefix));
+		knownContents.keySet().removeIf(path -> path.startsWith(prefix));
+		lastModifiedTimes.keySet().removeIf(path -> path.startsWith(prefix));
+		unrecordedPaths.removeIf(path -> path.startsWith(prefix));
+		if (files.isEmpty()) {
+			return LogUtil.exiting(files);
+		}
+
+		final MergeUnitQueueManifest manifest = readManifest(prefix);
+		final ByteArrayOutputStream recordedFiles = new ByteArrayOutputStream();
+		int recordCount = 0;
+		for (final MergeUnitQueueFile file : files) {
+			final String path = prefix + file.getName();
+			lastModifiedTimes.put(path, file.getLastModified());
+			final byte[] content = manifest.getContents().get(file.getName());
+			if (content != null && isRecorded(manifest, file)) {
+				unreadContents.put(path, content);
+				knownContents.put(path, content);
+				recordedFiles
+						.writeBytes(MergeUnitQueueManifest.encode(file.getName(), file.getLastModified(), content));
+				recordCount++;
+			} else {
+				unrecordedPaths.add(path);
+			}
+		}
+		final int recordedFileCount = recordCount;
+		LOGGER.fine(() -> String.format("Manifest of %s contains %s of %s files.", folder, recordedFileCount, //$NON-NLS-1$
+				files.size()));
+		if (manifest.isCorrupt() || manifest.getRecordCount() > files.size() + MAX_OBSOLETE_RECORDS) {
+			compactManifest(prefix, recordedFiles.toByteArray());
+		}
+		return LogUtil.exiting(files);
+	}
+
+	/**
+	 * @return {@code true} if the record of the file in the manifest matches the
+	 *         size and modification time of the listed file
+	 */
+	private static boolean isRecorded(final MergeUnitQueueManifest manifest, final MergeUnitQueueFile file) {
+		return file.getLastModified() != MergeUnitQueueFile.UNKNOWN
+				&& file.getLastModified() == manifest.getLastModified(file.getName())
+				&& file.getSize() == manifest.getContents().get(file.getName()).length;
+	}
+
+	private MergeUnitQueueManifest readManifest(final String folder) {
+		try {
+			return new MergeUnitQueueManifest(queue.read(folder + MergeUnitQueueManifest.FILE_NAME));
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.FINE, String.format("No manifest in %s.", folder), e); //$NON-NLS-1$
+			return new MergeUnitQueueManifest(new byte[0]);
+		}
+	}
+
+	/**
+	 * Replaces the manifest of the given folder by one containing only the given
+	 * records.
+	 */
+	private void compactManifest(final String folder, final byte[] records) {
+		LOGGER.fine(() -> String.format("Compacting manifest of %s.", folder)); //$NON-NLS-1$
+		final String path = folder + MergeUnitQueueManifest.FILE_NAME;
+		if (!lockManifest(path)) {
+			return;
+		}
+		final String tempPath = path + TEMP_EXTENSION;
+		try {
+			queue.write(tempPath, records);
+			try {
+				queue.move(tempPath, path);
+			} catch (MergeUnitQueueException e) {
+				// Moves do not replace existing files, see IMergeUnitQueue#move
+				queue.delete(path);
+				queue.move(tempPath, path);
+			}
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not compact manifest of %s.", folder), e); //$NON-NLS-1$
+		} finally {
+			unlockManifest(path);
+		}
+	}
+
+	/**
+	 * Serves the content from the manifest, if the file was listed and not read
+	 * since.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized byte[] read(final String path) throws MergeUnitQueueException {
+		final byte[] unreadContent = unreadContents.remove(path);
+		if (unreadContent != null) {
+			return unreadContent.clone();
+		}
+		final byte[] content = queue.read(path);
+		if (unrecordedPaths.remove(path)) {
+			appendToManifest(path, content);
+		}
+		if (!isHidden(getFileName(path))) {
+			knownContents.put(path, content);
+		}
+		return content;
+	}
+
+	/**
+	 * Serves the contents of the files listed and not read since from the
+	 * manifests and reads the other files with one batch. The records of the read
+	 * files missing in the manifests are appended with one request per folder.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Map<String, byte[]> readAll(final Collection<String> paths) throws MergeUnitQueueException {
+		final List<String> pathsToRead = new ArrayList<>();
+		for (final String path : paths) {
+			if (!unreadContents.containsKey(path)) {
+				pathsToRead.add(path);
+			}
+		}
+		final Map<String, byte[]> readContents = pathsToRead.isEmpty() ? Map.of() : queue.readAll(pathsToRead);
+		final Map<String, byte[]> contents = new LinkedHashMap<>();
+		final Map<String, ByteArrayOutputStream> records = new LinkedHashMap<>();
+		for (final String path : paths) {
+			final byte[] unreadContent = unreadContents.remove(path);
+			if (unreadContent != null) {
+				contents.put(path, unreadContent.clone());
+				continue;
+			}
+			final byte[] content = readContents.get(path);
+			contents.put(path, content);
+			if (unrecordedPaths.remove(path)) {
+				addRecord(records, path, content);
+			}
+			if (!isHidden(getFileName(path))) {
+				knownContents.put(path, content);
+			}
+		}
+		records.forEach((manifestPath, out) -> appendRecords(manifestPath, out.toByteArray()));
+		return contents;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void move(final String source, final String target) throws MergeUnitQueueException {
+		queue.move(source, target);
+		final byte[] content = updateMoved(source, target);
+		if (content != null) {
+			appendToManifest(target, content);
+		}
+	}
+
+	/**
+	 * The records of the moved files are appended with one request per target
+	 * folder.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Map<String, MergeUnitQueueException> moveAll(final Map<String, String> moves)
+			throws MergeUnitQueueException {
+		final Map<String, MergeUnitQueueException> failures = queue.moveAll(moves);
+		final Map<String, ByteArrayOutputStream> records = new LinkedHashMap<>();
+		for (final Entry<String, String> move : moves.entrySet()) {
+			if (!failures.containsKey(move.getKey())) {
+				final String target = move.getValue();
+				final byte[] content = updateMoved(move.getKey(), target);
+				if (content != null) {
+					addRecord(records, target, content);
+				}
+			}
+		}
+		records.forEach((manifestPath, out) -> appendRecords(manifestPath, out.toByteArray()));
+		return failures;
+	}
+
+	/**
+	 * Updates the cached contents after a file has been moved. A move keeps the
+	 * modification time of the file.
+	 * 
+	 * @return the content of the moved file to append to the manifest of the
+	 *         target folder or {@code null} if the content or the modification
+	 *         time is unknown
+	 */
+	private byte[] updateMoved(final String source, final String target) {
+		unreadContents.remove(source);
+		unrecordedPaths.remove(source);
+		final byte[] content = knownContents.remove(source);
+		final Long lastModified = lastModifiedTimes.remove(source);
+		if (content == null || isHidden(getFileName(target))) {
+			return null;
+		}
+		knownContents.put(target, content);
+		if (lastModified == null) {
+			return null;
+		}
+		lastModifiedTimes.put(target, lastModified);
+		return content;
+	}
+
+	/**
+	 * Writing does not update the manifest, as the modification time of the
+	 * written file is not known. The file is appended after it has been listed
+	 * and read.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void write(final String path, final byte[] content) throws MergeUnitQueueException {
+		queue.write(path, content);
+		unreadContents.remove(path);
+		lastModifiedTimes.remove(path);
+		if (!isHidden(getFileName(path))) {
+			knownContents.put(path, content.clone());
+		}
+	}
+
+	/**
+	 * Appending does not update the manifest, as the content of the file is not
+	 * known.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void append(final String path, final byte[] content) throws MergeUnitQueueException {
+		queue.append(path, content);
+		unreadContents.remove(path);
+		knownContents.remove(path);
+		lastModifiedTimes.remove(path);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void delete(final String path) throws MergeUnitQueueException {
+		queue.delete(path);
+		unreadContents.remove(path);
+		knownContents.remove(path);
+		lastModifiedTimes.remove(path);
+		unrecordedPaths.remove(path);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createFolder(final String folder) throws MergeUnitQueueException {
+		queue.createFolder(folder);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getChangeToken(final String folder) throws MergeUnitQueueException {
+		return queue.getChangeToken(folder);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getLocalPath(final String path) {
+		return queue.getLocalPath(path);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void close() {
+		unreadContents.clear();
+		knownContents.clear();
+		lastModifiedTimes.clear();
+		unrecordedPaths.clear();
+		queue.close();
+	}
+
+	private void appendToManifest(final String path, final byte[] content) {
+		final Map<String, ByteArrayOutputStream> records = new LinkedHashMap<>();
+		addRecord(records, path, content);
+		records.forEach((manifestPath, out) -> appendRecords(manifestPath, out.toByteArray()));
+	}
+
+	/**
+	 * Adds the record of the given file to the records by the manifest paths, if
+	 * the modification time of the file is known.
+	 */
+	private void addRecord(final Map<String, ByteArrayOutputStream> records, final String path,
+			final byte[] content) {
+		final long lastModified = lastModifiedTimes.getOrDefault(path, MergeUnitQueueFile.UNKNOWN);
+		if (lastModified != MergeUnitQueueFile.UNKNOWN) {
+			records.computeIfAbsent(getManifestPath(path), key -> new ByteArrayOutputStream())
+					.writeBytes(MergeUnitQueueManifest.encode(getFileName(path), lastModified, content));
+		}
+	}
+
+	private void appendRecords(final String manifestPath, final byte[] records) {
+		if (!lockManifest(manifestPath)) {
+			return;
+		}
+		try {
+			queue.append(manifestPath, records);
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not append to the manifest %s.", manifestPath), e); //$NON-NLS-1$
+		} finally {
+			unlockManifest(manifestPath);
+		}
+	}
+
+	/**
+	 * Takes the lock of the given manifest by moving a temporary file to the lock
+	 * file. An expired lock is broken.
+	 * 
+	 * @return {@code true} if the lock has been taken, {@code false} if the
+	 *         manifest must not be updated
+	 */
+	private boolean lockManifest(final String manifestPath) {
+		final String lockPath = manifestPath + LOCK_EXTENSION;
+		final String tempPath = lockPath + '.' + UUID.randomUUID() + TEMP_EXTENSION;
+		try {
+			queue.write(tempPath, Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8));
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not lock the manifest %s.", manifestPath), e); //$NON-NLS-1$
+			return false;
+		}
+		try {
+			queue.move(tempPath, lockPath);
+			return true;
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.FINE, String.format("The manifest %s is locked.", manifestPath), e); //$NON-NLS-1$
+		}
+		try {
+			if (isLockExpired(lockPath)) {
+				LOGGER.warning(() -> String.format("Breaking the expired lock of the manifest %s.", manifestPath)); //$NON-NLS-1$
+				queue.delete(lockPath);
+				queue.move(tempPath, lockPath);
+				return true;
+			}
+			LOGGER.fine(() -> String.format("Skipping the update of the locked manifest %s.", manifestPath)); //$NON-NLS-1$
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.FINE, String.format("Could not break the lock of the manifest %s.", manifestPath), e); //$NON-NLS-1$
+		}
+		deleteQuietly(tempPath);
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if the lock is older than {@link #LOCK_TIMEOUT} or
+	 *         invalid
+	 */
+	private boolean isLockExpired(final String lockPath) throws MergeUnitQueueException {
+		final String lockTime = new String(queue.read(lockPath), StandardCharsets.UTF_8);
+		try {
+			return System.currentTimeMillis() - Long.parseLong(lockTime.trim()) > LOCK_TIMEOUT;
+		} catch (NumberFormatException e) {
+			LOGGER.log(Level.FINE, String.format("Invalid lock %s.", lockPath), e); //$NON-NLS-1$
+			return true;
+		}
+	}
+
+	private void unlockManifest(final String manifestPath) {
+		deleteQuietly(manifestPath + LOCK_EXTENSION);
+	}
+
+	private void deleteQuietly(final String path) {
+		try {
+			queue.delete(path);
+		} catch (MergeUnitQueueException e) {
+			LOGGER.log(Level.WARNING, String.format("Could not delete %s.", path), e); //$NON-NLS-1$
+		}
+	}
+
+	private static String getManifestPath(final String path) {
+		return path.substring(0, path.lastIndexOf('/') + 1) + MergeUnitQueueManifest.FILE_NAME;
+	}
+
+	private static String getFileName(final String path) {
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+
+	private static boolean isHidden(final String fileName) {
+		return fileName.startsWith("."); //$NON-NLS-1$
+	}
+
+	private static String toFolder(final String folder) {
+		return folder.endsWith("/") ? folder : folder + '/'; //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+/**
+ * A file in a folder of an {@link IMergeUnitQueue} with its size and
+ * modification time, as listed by {@link IMergeUnitQueue#listFiles(String)}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class MergeUnitQueueFile {
+
+	/** The size or modification time of a file, if not known. */
+	public static final long UNKNOWN = -1;
+
+	private final String name;
+	private final long size;
+	private final long lastModified;
+
+	/**
+	 * @param name         the name of the file
+	 * @param size         the size of the file in bytes or {@link #UNKNOWN}
+	 * @param lastModified the modification time of the file or {@link #UNKNOWN}
+	 */
+	public MergeUnitQueueFile(final String name, final long size, final long lastModified) {
+		this.name = name;
+		this.size = size;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * @return the name of the file
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the size of the file in bytes or {@link #UNKNOWN}
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the modification time of the file, e.g. in milliseconds since the
+	 * epoch. The resolution depends on the queue, so the value should only be
+	 * compared with other values of the same queue.
+	 * 
+	 * @return the modification time of the file or {@link #UNKNOWN}
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s (size=%s, lastModified=%s)", name, size, lastModified); //$NON-NLS-1$
+	}
+
+}
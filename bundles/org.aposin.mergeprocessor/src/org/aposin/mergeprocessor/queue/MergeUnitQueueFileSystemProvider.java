@@ -13,25 +13,31 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-/**
- * 
- */
-package org.aposin.mergeprocessor.utils;
+package org.aposin.mergeprocessor.queue;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
-import org.aposin.mergeprocessor.exception.SftpUtilException;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
 import org.aposin.mergeprocessor.renaming.IFileSystemProvider;
-
-import com.jcraft.jsch.SftpException;
+import org.aposin.mergeprocessor.utils.LogUtil;
 
 /**
- * This implementation uses {@link SftpUtil}.
+ * This implementation writes into an {@link IMergeUnitQueue}.
  * 
  * @author Stefan Weiser
  *
  */
-public class SftpFileSystemProvider implements IFileSystemProvider {
+public class MergeUnitQueueFileSystemProvider implements IFileSystemProvider {
+
+	private final IMergeUnitQueue queue;
+
+	/**
+	 * @param queue the queue where to write the files
+	 */
+	public MergeUnitQueueFileSystemProvider(final IMergeUnitQueue queue) {
+		this.queue = queue;
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -39,9 +45,9 @@ public class SftpFileSystemProvider implements IFileSystemProvider {
 	@Override
 	public void write(String filePath, String content) throws IOException {
 		try {
-			SftpUtil.getInstance().writeToRemotePath(content, filePath);
-			LogUtil.getLogger().info(() -> String.format("Write to remote path %s.", filePath));
-		} catch (SftpException | SftpUtilException e) {
+			queue.write(filePath, content.getBytes(StandardCharsets.UTF_8));
+			LogUtil.getLogger().info(() -> String.format("Write to remote path %s.", filePath)); //$NON-NLS-1$
+		} catch (MergeUnitQueueException e) {
 			throw LogUtil.throwing(new IOException(e));
 		}
 	}
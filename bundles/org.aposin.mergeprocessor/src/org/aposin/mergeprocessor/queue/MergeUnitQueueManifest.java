@@ -0,0 +1,163 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The manifest of a status folder, containing the merge files of the folder in
+ * one file, so all merge units can be read with one request. The manifest is
+ * append only, each record contains the name, the modification time and the
+ * content of one merge file:
+ * 
+ * <pre>
+ * &lt;crc32 of content in hex&gt; &lt;length of content&gt; &lt;modification time&gt; &lt;file name&gt;\n
+ * &lt;content&gt;\n
+ * </pre>
+ * 
+ * The length and the modification time are compared with the listing of the
+ * folder, to detect files replaced without updating the manifest. A later record of the same file name replaces the earlier ones. Parsing stops
+ * at the first invalid record, e.g. written partially or interleaved by
+ * concurrent writers, and the manifest is marked as corrupt.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+final class MergeUnitQueueManifest {
+
+	/** The name of the manifest file in each status folder. */
+	static final String FILE_NAME = ".mergeunits.manifest"; //$NON-NLS-1$
+
+	private final Map<String, byte[]> contents = new LinkedHashMap<>();
+	private final Map<String, Long> lastModifiedTimes = new HashMap<>();
+	private int recordCount = 0;
+	private boolean isCorrupt = false;
+
+	/**
+	 * Parses the given manifest.
+	 * 
+	 * @param data the content of the manifest file
+	 */
+	MergeUnitQueueManifest(final byte[] data) {
+		int position = 0;
+		while (position < data.length) {
+			position = parseRecord(data, position);
+			if (position < 0) {
+				isCorrupt = true;
+				break;
+			}
+			recordCount++;
+		}
+	}
+
+	/**
+	 * @return the position after the record or {@code -1} if the record is invalid
+	 */
+	private int parseRecord(final byte[] data, final int position) {
+		int headerEnd = position;
+		while (headerEnd < data.length && data[headerEnd] != '\n') {
+			headerEnd++;
+		}
+		if (headerEnd >= data.length) {
+			return -1;
+		}
+		final String[] header = new String(data, position, headerEnd - position, StandardCharsets.UTF_8).split(" ", //$NON-NLS-1$
+				4);
+		if (header.length != 4 || header[3].isEmpty()) {
+			return -1;
+		}
+		final long checksum;
+		final int length;
+		final long lastModified;
+		try {
+			checksum = Long.parseLong(header[0], 16);
+			length = Integer.parseInt(header[1]);
+			lastModified = Long.parseLong(header[2]);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+		final int contentStart = headerEnd + 1;
+		final long contentEnd = (long) contentStart + length;
+		if (length < 0 || contentEnd >= data.length || data[(int) contentEnd] != '\n') {
+			return -1;
+		}
+		final byte[] content = Arrays.copyOfRange(data, contentStart, (int) contentEnd);
+		if (checksum(content) != checksum) {
+			return -1;
+		}
+		contents.put(header[3], content);
+		lastModifiedTimes.put(header[3], lastModified);
+		return (int) contentEnd + 1;
+	}
+
+	/**
+	 * @return the contents of the merge files by their file names
+	 */
+	Map<String, byte[]> getContents() {
+		return Collections.unmodifiableMap(contents);
+	}
+
+	/**
+	 * @param fileName the name of the merge file
+	 * @return the modification time of the merge file when it was recorded or
+	 *         {@link MergeUnitQueueFile#UNKNOWN} if not recorded
+	 */
+	long getLastModified(final String fileName) {
+		return lastModifiedTimes.getOrDefault(fileName, MergeUnitQueueFile.UNKNOWN);
+	}
+
+	/**
+	 * @return the number of valid records, including replaced ones
+	 */
+	int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * @return {@code true} if the manifest contains an invalid record
+	 */
+	boolean isCorrupt() {
+		return isCorrupt;
+	}
+
+	/**
+	 * @param fileName     the name of the merge file
+	 * @param lastModified the modification time of the merge file
+	 * @param content      the content of the merge file
+	 * @return the record to append to the manifest
+	 */
+	static byte[] encode(final String fileName, final long lastModified, final byte[] content) {
+		final byte[] header = (String.format("%08x %d %d %s", checksum(content), content.length, lastModified, //$NON-NLS-1$
+				fileName) + '\n').getBytes(StandardCharsets.UTF_8);
+		final byte[] record = Arrays.copyOf(header, header.length + content.length + 1);
+		System.arraycopy(content, 0, record, header.length, content.length);
+		record[record.length - 1] = '\n';
+		return record;
+	}
+
+	private static long checksum(final byte[] content) {
+		final CRC32 crc = new CRC32();
+		crc.update(content);
+		return crc.getValue();
+	}
+
+}
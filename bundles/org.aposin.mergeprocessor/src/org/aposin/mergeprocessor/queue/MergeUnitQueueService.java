@@ -0,0 +1,462 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.configuration.Configuration;
+import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.model.IMergeUnit;
+import org.aposin.mergeprocessor.model.MergeUnitException;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.model.git.GITMergeUnitFactory;
+import org.aposin.mergeprocessor.model.svn.ISvnClient;
+import org.aposin.mergeprocessor.model.svn.SVNMergeUnitFactory;
+import org.aposin.mergeprocessor.utils.LogUtil;
+
+/**
+ * Provides the merge units of the status folders of an {@link IMergeUnitQueue}
+ * and moves them between the status folders. The application registers the
+ * instance in the application context.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class MergeUnitQueueService {
+
+	private static final Logger LOGGER = Logger.getLogger(MergeUnitQueueService.class.getName());
+
+	private final IConfiguration configuration;
+	private final IMergeUnitQueue queue;
+	private final Supplier<ISvnClient> svnClientSupplier;
+
+	/**
+	 * @param configuration     the configuration
+	 * @param queue             the queue containing the merge files
+	 * @param svnClientSupplier provides the SVN client for parsed SVN merge units
+	 */
+	public MergeUnitQueueService(final IConfiguration configuration, final IMergeUnitQueue queue,
+			final Supplier<ISvnClient> svnClientSupplier) {
+		this.configuration = configuration;
+		this.queue = queue;
+		this.svnClientSupplier = svnClientSupplier;
+	}
+
+	/**
+	 * Creates the queue for the given configuration. If a local folder is
+	 * configured, the merge files are accessed on the local file system,
+	 * otherwise on the SFTP server. If enabled, the queue keeps a manifest in each
+	 * status folder.
+	 * 
+	 * @param sftpConfiguration the configuration of the SFTP server
+	 * @return the queue
+	 */
+	public static IMergeUnitQueue createQueue(final ISftpConfiguration sftpConfiguration) {
+		final String localFolder = sftpConfiguration.getLocalFolder();
+		final IMergeUnitQueue queue;
+		if (StringUtils.isNotEmpty(localFolder)) {
+			LOGGER.info(() -> String.format("Accessing the merge files in the local folder %s.", localFolder)); //$NON-NLS-1$
+			queue = new LocalMergeUnitQueue(Paths.get(localFolder));
+		} else {
+			queue = new SftpMergeUnitQueue(sftpConfiguration, Configuration::getPathSftpWorkingFolder);
+		}
+		if (sftpConfiguration.isManifestEnabled()) {
+			LOGGER.info("Keeping a manifest in each status folder."); //$NON-NLS-1$
+			return new ManifestMergeUnitQueue(queue);
+		}
+		return queue;
+	}
+
+	/**
+	 * @return the queue containing the merge files
+	 */
+	public IMergeUnitQueue getQueue() {
+		return queue;
+	}
+
+	/**
+	 * Deletes the given merge file.
+	 * 
+	 * @param path the path of the merge file
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized void deleteRemoteMergeUnit(String path) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		queue.delete(path);
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Moves the merge files of the given merged merge units from the todo or
+	 * canceled folder into the done folder with one batch, see
+	 * {@link #moveMergeUnits(Collection, MergeUnitStatus)}, without transferring
+	 * them to the client. Merge files which could not be moved, e.g. because an
+	 * outdated merge file of the same name exists in the done folder, are copied
+	 * and deleted instead, replacing the existing merge file.
+	 * 
+	 * @param mergeUnits the merged merge units
+	 * @return the failures by the merge units neither moved nor copied, empty if
+	 *         all merge units are in the done folder
+	 * @throws MergeUnitQueueException if the done folder could not be created
+	 */
+	public synchronized Map<IMergeUnit, MergeUnitQueueException> moveMergedMergeUnitsToDone(
+			Collection<? extends IMergeUnit> mergeUnits) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnits);
+		final String folder = getFolder(MergeUnitStatus.DONE);
+		final Map<IMergeUnit, MergeUnitQueueException> failures = new LinkedHashMap<>();
+		for (final Entry<IMergeUnit, MergeUnitQueueException> failure : moveMergeUnits(mergeUnits,
+				MergeUnitStatus.DONE).entrySet()) {
+			final IMergeUnit mergeUnit = failure.getKey();
+			final String source = mergeUnit.getRemotePath();
+			final String target = folder + mergeUnit.getFileName();
+			LOGGER.fine(() -> String.format("Couldn't move %s, copying it instead.", source)); //$NON-NLS-1$
+			try {
+				queue.copy(source, target);
+				queue.delete(source);
+				mergeUnit.setRemotePath(target);
+				mergeUnit.setStatus(MergeUnitStatus.DONE);
+			} catch (MergeUnitQueueException e) {
+				e.addSuppressed(failure.getValue());
+				failures.put(mergeUnit, e);
+			}
+		}
+		return LogUtil.exiting(failures);
+	}
+
+	/**
+	 * @param mergeUnit the merge unit to move into the ignored folder
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized void moveMergeUnitFromRemoteToIgnore(IMergeUnit mergeUnit) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit);
+		String target = configuration.getSftpConfiguration().getIgnoredFolder() + mergeUnit.getFileName();
+		moveMergeUnit(mergeUnit, target);
+		mergeUnit.setStatus(MergeUnitStatus.IGNORED);
+		LogUtil.exiting();
+	}
+
+	/**
+	 * @param mergeUnit the merge unit to move into the canceled folder
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized void moveMergeUnitFromRemoteToCanceled(IMergeUnit mergeUnit) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit);
+		String target = configuration.getSftpConfiguration().getCanceledFolder() + mergeUnit.getFileName();
+		moveMergeUnit(mergeUnit, target);
+		mergeUnit.setStatus(MergeUnitStatus.CANCELLED);
+		LogUtil.exiting();
+	}
+
+	/**
+	 * @param mergeUnit the merge unit to move into the done folder
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized void moveMergeUnitFromRemoteToDone(IMergeUnit mergeUnit) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit);
+		String target = configuration.getSftpConfiguration().getDoneFolder() + mergeUnit.getFileName();
+		moveMergeUnit(mergeUnit, target);
+		mergeUnit.setStatus(MergeUnitStatus.DONE);
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Moves all given merge units to the done folder.
+	 * 
+	 * @param mergeUnits the merge units to move
+	 * @throws MergeUnitQueueException if a merge unit could not be moved, all
+	 *                                 other merge units are moved
+	 * @see #moveMergeUnits(Collection, MergeUnitStatus)
+	 */
+	public synchronized void moveMergeUnitsFromRemoteToDone(Collection<? extends IMergeUnit> mergeUnits)
+			throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnits);
+		final Map<IMergeUnit, MergeUnitQueueException> failures = moveMergeUnits(mergeUnits, MergeUnitStatus.DONE);
+		if (!failures.isEmpty()) {
+			final MergeUnitQueueException exception = new MergeUnitQueueException(
+					String.format("Couldn't move %s of %s merge units to done.", failures.size(), mergeUnits.size()), //$NON-NLS-1$
+					failures.values().iterator().next());
+			failures.values().stream().skip(1).forEach(exception::addSuppressed);
+			throw LogUtil.throwing(exception);
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Moves all given merge units into the folder of the given status and sets the
+	 * status of the moved merge units. The target folder is created once for all
+	 * merge units and the files are moved by {@link IMergeUnitQueue#moveAll(Map)},
+	 * so the moves may be executed concurrently. A failing merge unit does not
+	 * stop the others.
+	 * 
+	 * @param mergeUnits the merge units to move
+	 * @param status     the new status of the merge units
+	 * @return the failures by the merge units not moved, empty if all merge units
+	 *         have been moved
+	 * @throws MergeUnitQueueException if the target folder could not be created,
+	 *                                 no merge unit has been moved then
+	 */
+	public synchronized Map<IMergeUnit, MergeUnitQueueException> moveMergeUnits(
+			Collection<? extends IMergeUnit> mergeUnits, MergeUnitStatus status) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnits, status);
+		final String folder = getFolder(status);
+		final Map<String, String> moves = new LinkedHashMap<>();
+		final Map<String, IMergeUnit> mergeUnitsBySource = new LinkedHashMap<>();
+		for (final IMergeUnit mergeUnit : mergeUnits) {
+			final String source = mergeUnit.getRemotePath();
+			final String target = folder + mergeUnit.getFileName();
+			if (!source.equals(target) && mergeUnitsBySource.putIfAbsent(source, mergeUnit) == null) {
+				moves.put(source, target);
+			}
+		}
+		if (!moves.isEmpty()) {
+			LOGGER.fine(() -> String.format("Moving %s merge units to %s.", moves.size(), folder)); //$NON-NLS-1$
+			queue.createFolder(folder);
+		}
+		final Map<String, MergeUnitQueueException> failedSources = moves.isEmpty() ? Collections.emptyMap()
+				: queue.moveAll(moves);
+
+		final Map<IMergeUnit, MergeUnitQueueException> failures = new LinkedHashMap<>();
+		for (final IMergeUnit mergeUnit : mergeUnits) {
+			final String source = mergeUnit.getRemotePath();
+			final MergeUnitQueueException failure = failedSources.get(source);
+			if (failure == null) {
+				if (moves.containsKey(source)) {
+					mergeUnit.setRemotePath(moves.get(source));
+				}
+				mergeUnit.setStatus(status);
+			} else {
+				LOGGER.log(Level.WARNING, String.format("Could not move mergeUnit=%s.", mergeUnit), failure); //$NON-NLS-1$
+				failures.put(mergeUnit, failure);
+			}
+		}
+		return LogUtil.exiting(failures);
+	}
+
+	/**
+	 * @param status the status of merge units
+	 * @return the folder containing the merge units of the given status
+	 */
+	private String getFolder(MergeUnitStatus status) {
+		final ISftpConfiguration sftpConfiguration = configuration.getSftpConfiguration();
+		switch (status) {
+		case TODO:
+			return sftpConfiguration.getTodoFolder();
+		case CANCELLED:
+			return sftpConfiguration.getCanceledFolder();
+		case DONE:
+			return sftpConfiguration.getDoneFolder();
+		case IGNORED:
+			return sftpConfiguration.getIgnoredFolder();
+		case MANUAL:
+			return sftpConfiguration.getManualFolder();
+		default:
+			throw new IllegalArgumentException(String.format("Unknown status %s.", status)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @param mergeUnit the merge unit to move into the manual folder
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized void moveMergeUnitFromRemoteToManual(IMergeUnit mergeUnit) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit);
+		String target = configuration.getSftpConfiguration().getManualFolder() + mergeUnit.getFileName();
+		moveMergeUnit(mergeUnit, target);
+		mergeUnit.setStatus(MergeUnitStatus.MANUAL);
+		LogUtil.exiting();
+	}
+
+	/**
+	 * @param mergeUnit the merge unit to move into the todo folder
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized void moveMergeUnitFromRemoteToTodo(IMergeUnit mergeUnit) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit);
+		String target = configuration.getSftpConfiguration().getTodoFolder() + mergeUnit.getFileName();
+		moveMergeUnit(mergeUnit, target);
+		mergeUnit.setStatus(MergeUnitStatus.TODO);
+		LogUtil.exiting();
+	}
+
+	private void moveMergeUnit(IMergeUnit mergeUnit, String target) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit, target);
+		String source = mergeUnit.getRemotePath();
+
+		if (source.equals(target)) {
+			LOGGER.fine(
+					() -> String.format("Source=%s and target=%s are the same. Nothing to do here...", source, target)); //$NON-NLS-1$
+		} else {
+			LOGGER.fine(() -> String.format("Moving mergeUnit=%s from %s to %s.", mergeUnit, source, target)); //$NON-NLS-1$
+			queue.createFolder(StringUtils.removeEnd(target, mergeUnit.getFileName()));
+			queue.move(source, target);
+			mergeUnit.setRemotePath(target);
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * @return the parsed todo files
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized List<IMergeUnit> getMergeUnitsTodo() throws MergeUnitQueueException {
+		LogUtil.entering();
+		return LogUtil.exiting(getMergeUnitsFromFolder(configuration.getSftpConfiguration().getTodoFolder()));
+	}
+
+	/**
+	 * @return the parsed done files
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized List<IMergeUnit> getMergeUnitsDone() throws MergeUnitQueueException {
+		LogUtil.entering();
+		return LogUtil.exiting(getMergeUnitsFromFolder(configuration.getSftpConfiguration().getDoneFolder()));
+	}
+
+	/**
+	 * @return the parsed ignored files
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized List<IMergeUnit> getMergeUnitsIgnored() throws MergeUnitQueueException {
+		LogUtil.entering();
+		return LogUtil.exiting(getMergeUnitsFromFolder(configuration.getSftpConfiguration().getIgnoredFolder()));
+	}
+
+	/**
+	 * @return the parsed canceled files
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized List<IMergeUnit> getMergeUnitsCanceled() throws MergeUnitQueueException {
+		LogUtil.entering();
+		return LogUtil.exiting(getMergeUnitsFromFolder(configuration.getSftpConfiguration().getCanceledFolder()));
+	}
+
+	/**
+	 * @return the parsed manual files
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized List<IMergeUnit> getMergeUnitsManual() throws MergeUnitQueueException {
+		LogUtil.entering();
+		return LogUtil.exiting(getMergeUnitsFromFolder(configuration.getSftpConfiguration().getManualFolder()));
+	}
+
+	/**
+	 * @param folder the folder of the queue, e.g. the todo folder
+	 * @return the parsed files of the given folder
+	 * @throws MergeUnitQueueException
+	 */
+	public synchronized List<IMergeUnit> getMergeUnits(String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		return LogUtil.exiting(getMergeUnitsFromFolder(folder));
+	}
+
+	private List<IMergeUnit> getMergeUnitsFromFolder(String pathFolder) throws MergeUnitQueueException {
+		LogUtil.entering(pathFolder);
+		final List<String> fileNames = queue.list(pathFolder);
+		if (LOGGER.isLoggable(Level.FINEST)) {
+			LOGGER.finest(String.format("files.size=%s.", fileNames.size())); //$NON-NLS-1$
+		}
+		final List<String> paths = new ArrayList<>(fileNames.size());
+		for (final String fileName : fileNames) {
+			final String path = pathFolder + fileName;
+			if (isMergeFile(fileName)) {
+				paths.add(path);
+			} else {
+				LOGGER.info(() -> String.format("Skipping file fileName=%s, path=%s", fileName, path)); //$NON-NLS-1$
+			}
+		}
+		// Read all merge files with one batch, so the round trips to the server overlap
+		final Map<String, byte[]> contents = queue.readAll(paths);
+		final List<IMergeUnit> mergeunits = new ArrayList<>(paths.size());
+		try {
+			for (final Entry<String, byte[]> content : contents.entrySet()) {
+				mergeunits.add(handleMergeFile(content.getKey(), content.getValue()));
+			}
+		} catch (MergeUnitException e) {
+			throw LogUtil.throwing(new MergeUnitQueueException("Caught Exception while parsing files from sftp server.", e)); //$NON-NLS-1$
+		}
+		return LogUtil.exiting(mergeunits);
+	}
+
+	private static boolean isMergeFile(String fileName) {
+		return isSvnMergeFile(fileName) || fileName.endsWith(Configuration.GIT_EXTENSION_FILE);
+	}
+
+	private static boolean isSvnMergeFile(String fileName) {
+		return fileName.endsWith(Configuration.EXTENSION_PLAINMERGE_FILE)
+				|| fileName.endsWith(Configuration.SVN_EXTENSION_FILE)
+				|| fileName.endsWith(Configuration.SVN_PACKAGE_MERGE_EXTENSION_FILE);
+	}
+
+	/**
+	 * @param path    the path of the merge file
+	 * @param content the content of the merge file
+	 * @return the parsed merge unit
+	 */
+	private IMergeUnit handleMergeFile(String path, byte[] content)
+			throws MergeUnitException, MergeUnitQueueException {
+		final String fileName = path.substring(path.lastIndexOf('/') + 1);
+		try (InputStream is = new ByteArrayInputStream(content)) {
+			if (isSvnMergeFile(fileName)) {
+				LOGGER.fine(() -> String.format("Parsing SVN merge file %s.", path)); //$NON-NLS-1$
+				return SVNMergeUnitFactory.createMergeUnitFromPlainMergeFile(configuration, svnClientSupplier.get(),
+						path, fileName, is);
+			} else {
+				LOGGER.fine(() -> String.format("Parsing GIT merge file %s.", path)); //$NON-NLS-1$
+				return GITMergeUnitFactory.create(configuration, Paths.get(path), is);
+			}
+		} catch (IOException e) {
+			String message = String.format("Caught exception while parsing merge unit from path=[%s].", path); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+	}
+
+	/**
+	 * Releases the resources of the queue, e.g. the connection to the server.
+	 */
+	public void close() {
+		queue.close();
+	}
+
+	/**
+	 * Returns the script of the merge unit as a {@link String}.
+	 * 
+	 * @param mergeUnit the merge unit
+	 * @return the script as a {@link String}
+	 * @throws MergeUnitQueueException
+	 */
+	public String getContent(IMergeUnit mergeUnit) throws MergeUnitQueueException {
+		LogUtil.entering(mergeUnit);
+		return LogUtil.exiting(new String(queue.read(mergeUnit.getRemotePath()), StandardCharsets.UTF_8));
+	}
+
+}
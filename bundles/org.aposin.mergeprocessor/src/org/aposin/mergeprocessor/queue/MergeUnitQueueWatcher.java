@@ -0,0 +1,307 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+
+/**
+ * Detects changes of the folders of an {@link IMergeUnitQueue}, so the merge
+ * units only have to be listed again if something has changed. For queues on
+ * the local file system, see {@link IMergeUnitQueue#getLocalPath(String)}, the
+ * changes are pushed by a {@link WatchService}. Hidden files, e.g. the
+ * manifest of a {@link ManifestMergeUnitQueue}, are ignored. For other queues,
+ * e.g. on an SFTP server, the
+ * {@link IMergeUnitQueue#getChangeToken(String) change tokens} of the folders
+ * are polled, which is much cheaper than listing and downloading the files.
+ * Folders without change token are reported as changed on every poll.
+ * <p>
+ * Changes are debounced: the listener is notified on the background thread
+ * after no further change has been detected for the debounce time, but at the
+ * latest after {@value #MAX_DEBOUNCE_FACTOR} times the debounce time. So moving
+ * many merge units at once results in only one notification.
+ * <p>
+ * The folders are registered and polled the first time on the background
+ * thread, so creating the watcher does not block, e.g. the UI thread, with
+ * round trips to the server.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class MergeUnitQueueWatcher implements AutoCloseable {
+
+	private static final Logger LOGGER = Logger.getLogger(MergeUnitQueueWatcher.class.getName());
+	private static final int MAX_DEBOUNCE_FACTOR = 5;
+	private static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+	private final IMergeUnitQueue queue;
+	private final Set<String> folders;
+	private final LongSupplier pollIntervalSupplier;
+	private final long debounceMillis;
+	private final Consumer<Set<String>> listener;
+	private final Thread watcherThread;
+	private final Object sleepLock = new Object();
+	private volatile boolean closed;
+	/** Created by the watcher thread, closed by the watcher thread or on close */
+	private volatile WatchService watchService;
+
+	// Only accessed by the watcher thread
+	private final Map<WatchKey, String> watchedFolders = new HashMap<>();
+	private final Set<String> polledFolders = new LinkedHashSet<>();
+	private final Map<String, String> changeTokens = new HashMap<>();
+
+	/**
+	 * Starts watching the given folders in the background.
+	 * 
+	 * @param queue                the queue to watch
+	 * @param folders              the folders to watch
+	 * @param pollIntervalSupplier provides the interval in milliseconds to poll
+	 *                             the change tokens of the folders
+	 * @param debounceMillis       the time in milliseconds without further change
+	 *                             until the listener is notified
+	 * @param listener             notified with the changed folders
+	 */
+	public MergeUnitQueueWatcher(final IMergeUnitQueue queue, final Collection<String> folders,
+			final LongSupplier pollIntervalSupplier, final long debounceMillis, final Consumer<Set<String>> listener) {
+		this.queue = Objects.requireNonNull(queue);
+		this.pollIntervalSupplier = Objects.requireNonNull(pollIntervalSupplier);
+		this.debounceMillis = debounceMillis;
+		this.listener = Objects.requireNonNull(listener);
+		this.folders = new LinkedHashSet<>(folders);
+		watcherThread = new Thread(this::watch, "Merge Unit Queue Watcher"); //$NON-NLS-1$
+		watcherThread.setDaemon(true);
+		watcherThread.start();
+	}
+
+	/**
+	 * Registers the given folder at the {@link WatchService}, if the queue is on
+	 * the local file system.
+	 * 
+	 * @param folder the folder to register
+	 * @return {@code true} if the folder is registered, {@code false} if the
+	 *         folder has to be polled
+	 */
+	private boolean register(final String folder) {
+		final Path localFolder = queue.getLocalPath(folder);
+		if (localFolder == null) {
+			return false;
+		}
+		try {
+			if (watchService == null) {
+				watchService = localFolder.getFileSystem().newWatchService();
+			}
+			queue.createFolder(folder);
+			final WatchKey key = localFolder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+			watchedFolders.put(key, folder);
+			return true;
+		} catch (IOException | MergeUnitQueueException | UnsupportedOperationException e) {
+			LOGGER.log(Level.INFO, String.format("Could not watch folder=%s, polling instead.", folder), e); //$NON-NLS-1$
+			return false;
+		}
+	}
+
+	/**
+	 * Polls the change token of the given folder.
+	 * 
+	 * @param folder the folder to poll
+	 * @return {@code true} if the folder has changed since the last poll
+	 */
+	private boolean updateChangeToken(final String folder) {
+		try {
+			final String token = queue.getChangeToken(folder);
+			final boolean isKnown = changeTokens.containsKey(folder);
+			final String previousToken = changeTokens.put(folder, token);
+			return isKnown && (token == null || !token.equals(previousToken));
+		} catch (MergeUnitQueueException e) {
+			// Keep the previous token, the next refresh will report the problem
+			LOGGER.log(Level.FINE, String.format("Could not poll folder=%s.", folder), e); //$NON-NLS-1$
+			return false;
+		}
+	}
+
+	/**
+	 * The loop of the watcher thread. Registers the folders and polls the initial
+	 * change tokens first.
+	 */
+	private void watch() {
+		final Set<String> changedFolders = new TreeSet<>();
+		long firstChange = 0;
+		long lastChange = 0;
+		try {
+			for (final String folder : folders) {
+				if (!closed && !register(folder)) {
+					polledFolders.add(folder);
+					updateChangeToken(folder);
+				}
+			}
+			long lastPoll = System.currentTimeMillis();
+			while (!closed) {
+				final long pollInterval = Math.max(debounceMillis, pollIntervalSupplier.getAsLong());
+				long deadline = lastPoll + (changedFolders.isEmpty() ? pollInterval : debounceMillis);
+				if (!changedFolders.isEmpty()) {
+					deadline = Math.min(deadline,
+							Math.min(lastChange + debounceMillis, firstChange + MAX_DEBOUNCE_FACTOR * debounceMillis));
+				}
+				final List<String> changes = new ArrayList<>();
+				waitForEvents(Math.max(1, deadline - System.currentTimeMillis()), changes);
+
+				final long now = System.currentTimeMillis();
+				if (now - lastPoll >= (changedFolders.isEmpty() ? pollInterval : debounceMillis)) {
+					for (final String folder : polledFolders) {
+						if (updateChangeToken(folder)) {
+							changes.add(folder);
+						}
+					}
+					lastPoll = now;
+				}
+
+				if (!changes.isEmpty()) {
+					if (changedFolders.isEmpty()) {
+						firstChange = now;
+					}
+					lastChange = now;
+					changedFolders.addAll(changes);
+				}
+				if (!changedFolders.isEmpty() && (now - lastChange >= debounceMillis
+						|| now - firstChange >= MAX_DEBOUNCE_FACTOR * debounceMillis)) {
+					notifyListener(new TreeSet<>(changedFolders));
+					changedFolders.clear();
+				}
+			}
+		} catch (InterruptedException e) {
+			if (!closed) {
+				Thread.currentThread().interrupt();
+			}
+		} catch (ClosedWatchServiceException e) {
+			// Closed while waiting
+		} finally {
+			closeWatchService();
+		}
+	}
+
+	private void closeWatchService() {
+		final WatchService service = watchService;
+		if (service != null) {
+			try {
+				service.close();
+			} catch (IOException e) {
+				LOGGER.log(Level.FINE, "Could not close watch service.", e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Waits for events of the {@link WatchService} or sleeps, if no folder is
+	 * watched.
+	 * 
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @param changes the list where to add the changed folders
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private void waitForEvents(final long timeout, final List<String> changes) throws InterruptedException {
+		if (watchedFolders.isEmpty()) {
+			synchronized (sleepLock) {
+				if (!closed) {
+					sleepLock.wait(timeout);
+				}
+			}
+			return;
+		}
+		WatchKey key = watchService.poll(timeout, TimeUnit.MILLISECONDS);
+		while (key != null) {
+			final String folder = watchedFolders.get(key);
+			if (key.pollEvents().stream().anyMatch(MergeUnitQueueWatcher::isRelevant)) {
+				changes.add(folder);
+			}
+			if (!key.reset()) {
+				// The folder has been deleted, poll it until it is created again
+				LOGGER.fine(() -> String.format("Folder=%s is no longer watched.", folder)); //$NON-NLS-1$
+				watchedFolders.remove(key);
+				changes.add(folder);
+				polledFolders.add(folder);
+				changeTokens.remove(folder);
+				updateChangeToken(folder);
+			}
+			key = watchService.poll();
+		}
+	}
+
+	/**
+	 * @param event the event of the {@link WatchService}
+	 * @return {@code false} if the event only concerns a hidden file, otherwise
+	 *         {@code true}, also for overflows
+	 */
+	private static boolean isRelevant(final WatchEvent<?> event) {
+		final Object context = event.context();
+		return !(context instanceof Path) || !((Path) context).getFileName().toString().startsWith("."); //$NON-NLS-1$
+	}
+
+	private void notifyListener(final Set<String> changedFolders) {
+		if (closed) {
+			return;
+		}
+		LOGGER.fine(() -> String.format("Changed folders %s.", changedFolders)); //$NON-NLS-1$
+		try {
+			listener.accept(Collections.unmodifiableSet(changedFolders));
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Listener failed on changed folders.", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Stops watching. The listener is not notified anymore afterwards. The
+	 * watcher thread is not interrupted, as it may be in a round trip to the
+	 * server, e.g. polling a change token over a shared SFTP connection. Instead
+	 * waiting for changes is stopped and a running poll is awaited.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		synchronized (sleepLock) {
+			sleepLock.notifyAll();
+		}
+		closeWatchService();
+		try {
+			watcherThread.join(CLOSE_TIMEOUT_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,618 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.metrics.SftpMetrics;
+import org.aposin.mergeprocessor.metrics.SftpOperation;
+import org.aposin.mergeprocessor.utils.LogUtil;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.ChannelSftp.LsEntry;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.UIKeyboardInteractive;
+import com.jcraft.jsch.UserInfo;
+
+/**
+ * {@link IMergeUnitQueue} on an SFTP server. All operations share one SFTP
+ * channel, which is connected on the first access and reconnected if the
+ * connection was lost. Batch operations like {@link #readAll(Collection)} and
+ * {@link #moveAll(Map)} open up to {@value #MAX_CHANNELS} channels on the same
+ * session and execute the requests on all channels concurrently by the threads
+ * of a small executor owned by the queue, so the round trips overlap. The
+ * operations are recorded in the {@link SftpMetrics}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class SftpMergeUnitQueue implements IMergeUnitQueue {
+
+	private static final Logger LOGGER = Logger.getLogger(SftpMergeUnitQueue.class.getName());
+	/** The maximum number of channels executing requests of a batch. */
+	private static final int MAX_CHANNELS = 8;
+	/** The minimum number of requests of a batch per channel. */
+	private static final int MIN_REQUESTS_PER_CHANNEL = 4;
+
+	private final ISftpConfiguration configuration;
+	private final Supplier<String> workingFolderSupplier;
+	private final SftpMetrics metrics = SftpMetrics.getInstance();
+	private Session session = null;
+	private ChannelSftp sftpChannel = null;
+	/** Further channels on the session for batch operations. */
+	private final List<ChannelSftp> batchChannels = new ArrayList<>();
+	/** Executes the batch operations on the further channels. */
+	private ExecutorService batchExecutor = null;
+
+	/**
+	 * @param configuration         the configuration of the SFTP server
+	 * @param workingFolderSupplier provides the local folder containing the known
+	 *                              hosts, ending with a separator
+	 */
+	public SftpMergeUnitQueue(final ISftpConfiguration configuration, final Supplier<String> workingFolderSupplier) {
+		this.configuration = configuration;
+		this.workingFolderSupplier = workingFolderSupplier;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> list(final String folder) throws MergeUnitQueueException {
+		return listFiles(folder).stream().map(MergeUnitQueueFile::getName).collect(Collectors.toList());
+	}
+
+	/**
+	 * The modification times are in milliseconds since the epoch, with the
+	 * resolution of seconds provided by SFTP.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized List<MergeUnitQueueFile> listFiles(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		connectIfNotConnected();
+
+		final List<MergeUnitQueueFile> result = new ArrayList<>();
+		final Vector<LsEntry> files;
+		try {
+			LOGGER.fine(() -> String.format("List files from remote=%s.", folder)); //$NON-NLS-1$
+			files = metrics.call(SftpOperation.LS, () -> sftpChannel.ls(folder));
+		} catch (SftpException e) {
+			if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+				// Directory does not exist, let's create it
+				LOGGER.log(Level.INFO, "File does not exist.", e); //$NON-NLS-1$
+				try {
+					createFolderWithParents(StringUtils.removeEnd(folder, "/")); //$NON-NLS-1$
+				} catch (SftpException e1) {
+					LOGGER.log(Level.SEVERE, "Could not create directory.", e1); //$NON-NLS-1$
+				}
+			}
+			return LogUtil.exiting(result);
+		}
+
+		for (final LsEntry file : files) {
+			// filter directory entries '.' and '..' and sub folders
+			final SftpATTRS attributes = file.getAttrs();
+			if (!attributes.isDir()) {
+				result.add(new MergeUnitQueueFile(file.getFilename(), attributes.getSize(),
+						TimeUnit.SECONDS.toMillis(Integer.toUnsignedLong(attributes.getMTime()))));
+			}
+		}
+		return LogUtil.exiting(result);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized byte[] read(final String path) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		connectIfNotConnected();
+		try {
+			return LogUtil.exiting(read(sftpChannel, path));
+		} catch (MergeUnitQueueException e) {
+			throw LogUtil.throwing(e);
+		}
+	}
+
+	/**
+	 * The files are read concurrently on multiple channels. Reading stops at the
+	 * first file, which could not be read.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Map<String, byte[]> readAll(final Collection<String> paths) throws MergeUnitQueueException {
+		LogUtil.entering(paths.size());
+		connectIfNotConnected();
+		final Queue<String> pendingPaths = new ConcurrentLinkedQueue<>(paths);
+		final Map<String, byte[]> readContents = new ConcurrentHashMap<>();
+		final Queue<MergeUnitQueueException> failures = new ConcurrentLinkedQueue<>();
+		runOnChannels(paths.size(), channel -> {
+			String path;
+			while (failures.isEmpty() && (path = pendingPaths.poll()) != null) {
+				try {
+					readContents.put(path, read(channel, path));
+				} catch (MergeUnitQueueException e) {
+					failures.add(e);
+				}
+			}
+		});
+		final MergeUnitQueueException failure = failures.poll();
+		if (failure != null) {
+			failures.forEach(failure::addSuppressed);
+			throw LogUtil.throwing(failure);
+		}
+		// Return the contents in the order of the paths
+		final Map<String, byte[]> contents = new LinkedHashMap<>();
+		for (final String path : paths) {
+			contents.put(path, readContents.get(path));
+		}
+		return LogUtil.exiting(contents);
+	}
+
+	private byte[] read(final ChannelSftp channel, final String path) throws MergeUnitQueueException {
+		try (final InputStream is = metrics.download(() -> channel.get(path))) {
+			return IOUtils.toByteArray(is);
+		} catch (IOException | SftpException e) {
+			String message = String.format("Couldn't read remote=[%s].", path); //$NON-NLS-1$
+			throw new MergeUnitQueueException(message, e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void move(final String source, final String target) throws MergeUnitQueueException {
+		LogUtil.entering(source, target);
+		connectIfNotConnected();
+		try {
+			metrics.run(SftpOperation.RENAME, () -> sftpChannel.rename(source, target));
+		} catch (SftpException e) {
+			String message = String.format("Couldn't move source=[%s] to target=[%s].", source, target); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * The files are moved concurrently on multiple channels.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized Map<String, MergeUnitQueueException> moveAll(final Map<String, String> moves)
+			throws MergeUnitQueueException {
+		LogUtil.entering(moves.size());
+		connectIfNotConnected();
+		final Queue<Entry<String, String>> pendingMoves = new ConcurrentLinkedQueue<>(moves.entrySet());
+		final Map<String, MergeUnitQueueException> failures = new ConcurrentHashMap<>();
+		runOnChannels(moves.size(), channel -> {
+			Entry<String, String> move;
+			while ((move = pendingMoves.poll()) != null) {
+				final String source = move.getKey();
+				final String target = move.getValue();
+				try {
+					metrics.run(SftpOperation.RENAME, () -> channel.rename(source, target));
+				} catch (SftpException e) {
+					String message = String.format("Couldn't move source=[%s] to target=[%s].", source, target); //$NON-NLS-1$
+					failures.put(source, new MergeUnitQueueException(message, e));
+				}
+			}
+		});
+		// Report the failures in the order of the moves
+		final Map<String, MergeUnitQueueException> orderedFailures = new LinkedHashMap<>();
+		for (final String source : moves.keySet()) {
+			final MergeUnitQueueException failure = failures.get(source);
+			if (failure != null) {
+				orderedFailures.put(source, failure);
+			}
+		}
+		return LogUtil.exiting(orderedFailures);
+	}
+
+	/**
+	 * Executes the given task concurrently on multiple channels, depending on the
+	 * number of requests. Each task takes the requests from a shared queue until
+	 * it is empty.
+	 * 
+	 * @param requests the number of requests to execute
+	 * @param task     the task executing the requests on the given channel
+	 */
+	private void runOnChannels(final int requests, final Consumer<ChannelSftp> task) {
+		final int channelCount = Math.min(MAX_CHANNELS, Math.max(1, requests / MIN_REQUESTS_PER_CHANNEL));
+		batchChannels.removeIf(channel -> !channel.isConnected());
+		while (batchChannels.size() < channelCount - 1) {
+			try {
+				final ChannelSftp channel = (ChannelSftp) session.openChannel("sftp"); //$NON-NLS-1$
+				channel.connect();
+				batchChannels.add(channel);
+			} catch (JSchException e) {
+				// e.g. the server limits the channels per session, continue with the open ones
+				LOGGER.log(Level.FINE, "Could not open further channel.", e); //$NON-NLS-1$
+				break;
+			}
+		}
+		final List<ChannelSftp> channels = batchChannels.subList(0,
+				Math.min(batchChannels.size(), channelCount - 1));
+		if (!channels.isEmpty() && batchExecutor == null) {
+			batchExecutor = Executors.newFixedThreadPool(MAX_CHANNELS - 1, runnable -> {
+				final Thread thread = new Thread(runnable, "SFTP Batch Channel"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		final List<Future<?>> futures = new ArrayList<>();
+		final RuntimeException failure;
+		try {
+			for (final ChannelSftp channel : channels) {
+				futures.add(batchExecutor.submit(() -> task.accept(channel)));
+			}
+			task.accept(sftpChannel);
+		} finally {
+			// An exception of this thread takes precedence over the failures of the others
+			failure = awaitAll(futures);
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Waits for all given tasks, even if interrupted, as the channels are reused
+	 * by the next batch.
+	 * 
+	 * @param futures the tasks to wait for
+	 * @return the exception of the failed tasks, {@code null} if all tasks
+	 *         succeeded
+	 */
+	private static RuntimeException awaitAll(final List<Future<?>> futures) {
+		boolean interrupted = false;
+		RuntimeException failure = null;
+		for (final Future<?> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = new IllegalStateException("Batch operation failed.", e.getCause()); //$NON-NLS-1$
+					} else {
+						failure.addSuppressed(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return failure;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void write(final String path, final byte[] content) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		connectIfNotConnected();
+		try (final InputStream is = new ByteArrayInputStream(content)) {
+			metrics.run(SftpOperation.PUT, content.length, () -> sftpChannel.put(is, path));
+		} catch (IOException | SftpException e) {
+			String message = String.format("Couldn't write remote=[%s].", path); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void append(final String path, final byte[] content) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		connectIfNotConnected();
+		try (final InputStream is = new ByteArrayInputStream(content)) {
+			metrics.run(SftpOperation.PUT, content.length, () -> sftpChannel.put(is, path, ChannelSftp.APPEND));
+		} catch (IOException | SftpException e) {
+			String message = String.format("Couldn't append to remote=[%s].", path); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void delete(final String path) throws MergeUnitQueueException {
+		LogUtil.entering(path);
+		connectIfNotConnected();
+		try {
+			metrics.run(SftpOperation.RM, () -> sftpChannel.rm(path));
+		} catch (SftpException e) {
+			String message = String.format("Couldn't delete file=[%s].", path); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void createFolder(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		connectIfNotConnected();
+		final String path = StringUtils.removeEnd(folder, "/"); //$NON-NLS-1$
+		try {
+			try {
+				metrics.call(SftpOperation.LS, () -> sftpChannel.ls(path));
+			} catch (SftpException e) {
+				createFolderWithParents(path);
+			}
+		} catch (SftpException e) {
+			String message = String.format("Couldn't create folder=[%s].", folder); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Creates the given folder and its missing parents, as SFTP creates only one
+	 * folder per request.
+	 * 
+	 * @param path the path of the folder without trailing separator
+	 * @throws SftpException if a folder could not be created
+	 */
+	private void createFolderWithParents(final String path) throws SftpException {
+		final int index = path.lastIndexOf('/');
+		if (index > 0) {
+			final String parent = path.substring(0, index);
+			try {
+				metrics.call(SftpOperation.STAT, () -> sftpChannel.stat(parent));
+			} catch (SftpException e) {
+				createFolderWithParents(parent);
+			}
+		}
+		metrics.run(SftpOperation.MKDIR, () -> sftpChannel.mkdir(path));
+	}
+
+	/**
+	 * Returns the modification time and the size of the folder. On POSIX servers
+	 * the modification time of a folder changes whenever an entry is added,
+	 * removed or renamed. As SFTP provides the time only in seconds, changes
+	 * within the same second as a previous call may not change the token.
+	 * 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized String getChangeToken(final String folder) throws MergeUnitQueueException {
+		LogUtil.entering(folder);
+		connectIfNotConnected();
+		try {
+			final SftpATTRS attrs = metrics.call(SftpOperation.STAT, () -> sftpChannel.stat(folder));
+			return LogUtil.exiting(attrs.getMTime() + ":" + attrs.getSize()); //$NON-NLS-1$
+		} catch (SftpException e) {
+			if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+				return LogUtil.exiting(""); //$NON-NLS-1$
+			}
+			String message = String.format("Couldn't stat folder=[%s].", folder); //$NON-NLS-1$
+			throw LogUtil.throwing(new MergeUnitQueueException(message, e));
+		}
+	}
+
+	private void connectIfNotConnected() throws MergeUnitQueueException {
+		LogUtil.entering();
+		if (sftpChannel == null || !sftpChannel.isConnected()) {
+			connect();
+		}
+		LogUtil.exiting();
+	}
+
+	private void connect() throws MergeUnitQueueException {
+		LogUtil.entering();
+
+		if (sftpChannel != null) {
+			LOGGER.fine("First close old connection."); //$NON-NLS-1$
+			close();
+			metrics.recordReconnect();
+		}
+
+		String host = configuration.getHost();
+		int port = configuration.getPort();
+		String user = configuration.getUser();
+		String password = configuration.getPassword();
+		String workingFolder = workingFolderSupplier.get();
+		String knownHosts = workingFolder + "known_hosts"; //$NON-NLS-1$
+
+		File fWorkingFolder = new File(workingFolder);
+
+		if (!fWorkingFolder.exists()) {
+			fWorkingFolder.mkdirs();
+		}
+
+		final long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			JSch jsch = new JSch();
+			jsch.setKnownHosts(knownHosts);
+
+			session = jsch.getSession(user, host, port);
+			session.setPassword(password);
+			// "interactive" version
+			session.setUserInfo(new SftpUserInfo(configuration, password));
+			session.connect();
+			LOGGER.fine("session is connected."); //$NON-NLS-1$
+
+			Channel channel = session.openChannel("sftp"); //$NON-NLS-1$
+			channel.connect();
+			LOGGER.fine("channel is connected."); //$NON-NLS-1$
+
+			sftpChannel = (ChannelSftp) channel;
+			LOGGER.info("sftpChannel is set."); //$NON-NLS-1$
+			failed = false;
+		} catch (JSchException e) {
+			close();
+			throw LogUtil.throwing(new MergeUnitQueueException("Couldn't connect to sftp server.", e)); //$NON-NLS-1$
+		} finally {
+			metrics.record(SftpOperation.CONNECT, System.nanoTime() - start, 0, failed);
+		}
+
+		LogUtil.exiting();
+	}
+
+	/**
+	 * Closes all open connections.
+	 */
+	@Override
+	public synchronized void close() {
+		LogUtil.entering();
+		if (batchExecutor != null) {
+			// No batch is running, as all operations are synchronized
+			batchExecutor.shutdown();
+			batchExecutor = null;
+		}
+		batchChannels.forEach(ChannelSftp::exit);
+		batchChannels.clear();
+		if (sftpChannel != null && sftpChannel.isConnected()) {
+			LOGGER.fine("Exiting channel."); //$NON-NLS-1$
+			sftpChannel.exit();
+			sftpChannel = null;
+		}
+		if (session != null && session.isConnected()) {
+			LOGGER.fine("Disconnecting session."); //$NON-NLS-1$
+			session.disconnect();
+			session = null;
+		}
+		LogUtil.exiting();
+	}
+
+	private static class SftpUserInfo implements UserInfo, UIKeyboardInteractive {
+
+		private final ISftpConfiguration configuration;
+		private String password;
+
+		private SftpUserInfo(ISftpConfiguration configuration, String password) {
+			this.configuration = configuration;
+			this.password = password;
+		}
+
+		@Override
+		public synchronized void showMessage(String message) {
+			LOGGER.info(message);
+		}
+
+		@Override
+		public synchronized boolean promptYesNo(String message) {
+			LOGGER.info(message);
+			// We always trust our connections
+			return true;
+		}
+
+		@Override
+		public synchronized boolean promptPassword(String message) {
+			LOGGER.info(message);
+			return false;
+		}
+
+		@Override
+		public synchronized boolean promptPassphrase(String message) {
+			LOGGER.info(message);
+			return false;
+		}
+
+		@Override
+		public synchronized String getPassword() {
+			return password;
+		}
+
+		@Override
+		public synchronized String getPassphrase() {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public synchronized String[] promptKeyboardInteractive(String destination, String name, String instruction,
+				String[] prompt, boolean[] echo) {
+			LogUtil.entering(destination, name, instruction, prompt, echo);
+			String[] retVal = new String[prompt.length];
+
+			if (destination.equals(getDestination())) {
+				for (int i = 0; i < prompt.length; i++) {
+					if (prompt[i].equals("Password: ")) { //$NON-NLS-1$
+						retVal[i] = password;
+					} else {
+						retVal[i] = null;
+					}
+				}
+			}
+
+			return LogUtil.exiting(retVal);
+		}
+
+		/**
+		 * @return the destination as given by JSch, i.e. {@code user@host} with the
+		 *         port appended if it is not the default port
+		 */
+		private String getDestination() {
+			final String destination = configuration.getUser() + '@' + configuration.getHost();
+			return configuration.getPort() == 22 ? destination : destination + ':' + configuration.getPort();
+		}
+	}
+
+}
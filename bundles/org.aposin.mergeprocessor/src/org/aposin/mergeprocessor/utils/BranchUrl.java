@@ -0,0 +1,208 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.utils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An SVN URL split into its repository root and its branch. The URL is parsed
+ * once and the instances are cached, so repeated lookups of the same URL, e.g.
+ * when sorting or labelling merge units, neither parse nor allocate again.
+ * <p>
+ * Additionally provides the parsing of branch segments in paths, which does not
+ * require regular expressions.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class BranchUrl {
+
+	private static final String KEYWORD_TRUNK = "/trunk"; //$NON-NLS-1$
+	private static final String KEYWORD_BRANCHES = "/branches/"; //$NON-NLS-1$
+	private static final String SEGMENT_TRUNK = "trunk"; //$NON-NLS-1$
+	private static final String SEGMENT_BRANCHES = "branches/"; //$NON-NLS-1$
+	private static final String BRANCH_NAME_TRUNK = "trunk"; //$NON-NLS-1$
+
+	/** The maximum number of cached URLs, which is far above the usual count. */
+	private static final int MAX_CACHE_SIZE = 4096;
+	private static final Map<String, BranchUrl> CACHE = new ConcurrentHashMap<>();
+
+	private final String url;
+	private final String repositoryRoot;
+	private final String branchName;
+
+	/**
+	 * @param url the URL to parse
+	 */
+	private BranchUrl(final String url) {
+		this.url = url;
+		final int posTrunk = url.indexOf(KEYWORD_TRUNK);
+		final int posBranches = url.indexOf(KEYWORD_BRANCHES);
+		if (posTrunk == -1 && posBranches == -1) {
+			// no expected branch name, the url is expected to be the root
+			repositoryRoot = url;
+			branchName = null;
+		} else if (posBranches == -1 || (posTrunk > -1 && posTrunk < posBranches)) {
+			repositoryRoot = url.substring(0, posTrunk);
+			branchName = BRANCH_NAME_TRUNK;
+		} else {
+			repositoryRoot = url.substring(0, posBranches);
+			final int start = posBranches + KEYWORD_BRANCHES.length();
+			final int end = url.indexOf('/', start + 1);
+			branchName = (end == -1 ? url.substring(start) : url.substring(start, end)).intern();
+		}
+	}
+
+	/**
+	 * Returns the parsed URL.
+	 * 
+	 * @param url the URL
+	 * @return the parsed URL
+	 */
+	public static BranchUrl of(final String url) {
+		Objects.requireNonNull(url);
+		BranchUrl branchUrl = CACHE.get(url);
+		if (branchUrl == null) {
+			if (CACHE.size() >= MAX_CACHE_SIZE) {
+				CACHE.clear();
+			}
+			branchUrl = new BranchUrl(url);
+			CACHE.put(url, branchUrl);
+		}
+		return branchUrl;
+	}
+
+	/**
+	 * @return the URL
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * @return the repository root of the URL. If the URL contains no branch it is
+	 *         expected that the URL is already the root.
+	 */
+	public String getRepositoryRoot() {
+		return repositoryRoot;
+	}
+
+	/**
+	 * @return the interned branch name, e.g. {@code trunk}, or {@code null} if the
+	 *         URL contains no branch
+	 */
+	public String getBranchName() {
+		return branchName;
+	}
+
+	/**
+	 * Removes the first branch segment, i.e. {@code branches/<name>} or
+	 * {@code trunk}, from the given path. This is equivalent to
+	 * {@code path.replaceFirst("branches/[^/]+|trunk", "")}.
+	 * 
+	 * @param path the path
+	 * @return the path without the branch segment
+	 */
+	public static String removeBranchSegment(final String path) {
+		return removeBranchSegment(path, 0);
+	}
+
+	/**
+	 * Removes the first branch segment, i.e. {@code branches/<name>} or
+	 * {@code trunk}, with the given number of characters in front of it from the
+	 * given path. For a prefix length of 4 this is equivalent to
+	 * {@code path.replaceFirst(".{4}(branches/[^/]+|trunk)", "")}.
+	 * 
+	 * @param path         the path
+	 * @param prefixLength the number of characters in front of the branch segment
+	 *                     to remove as well
+	 * @return the path without the prefix and the branch segment
+	 */
+	public static String removeBranchSegment(final String path, final int prefixLength) {
+		int from = prefixLength;
+		while (from < path.length()) {
+			final int posTrunk = path.indexOf(SEGMENT_TRUNK, from);
+			final int posBranches = path.indexOf(SEGMENT_BRANCHES, from);
+			if (posTrunk > -1 && (posBranches == -1 || posTrunk < posBranches)) {
+				return remove(path, posTrunk - prefixLength, posTrunk + SEGMENT_TRUNK.length());
+			} else if (posBranches == -1) {
+				break;
+			}
+			final int start = posBranches + SEGMENT_BRANCHES.length();
+			int end = start;
+			while (end < path.length() && path.charAt(end) != '/') {
+				end++;
+			}
+			if (end > start) {
+				return remove(path, posBranches - prefixLength, end);
+			}
+			// "branches/" without a name
+			from = posBranches + 1;
+		}
+		return path;
+	}
+
+	/**
+	 * Returns the last segment of the given branch, e.g. {@code master} for
+	 * {@code origin/master}. This is equivalent to the match of {@code /[^/]*$}
+	 * without the slash.
+	 * 
+	 * @param branch the branch with additional local or remote information
+	 * @return the last segment or {@code null} if the branch contains no slash
+	 */
+	public static String getLastSegment(final String branch) {
+		final int pos = branch.lastIndexOf('/');
+		return pos == -1 ? null : branch.substring(pos + 1);
+	}
+
+	private static String remove(final String path, final int start, final int end) {
+		return new StringBuilder(path.length() - end + start).append(path, 0, start).append(path, end, path.length())
+				.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return url.hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		return url.equals(((BranchUrl) obj).url);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return url;
+	}
+
+}
@@ -15,12 +15,8 @@
  */
 package org.aposin.mergeprocessor.utils;
 
-import java.util.Arrays;
-
 import org.apache.commons.lang3.ArrayUtils;
 
-import com.google.common.primitives.Bytes;
-
 /**
  * Utility class for dealing with byte arrays.
  * 
@@ -43,43 +39,47 @@ public class ByteArrayUtil {
 	 * @return
 	 */
 	public static byte[] replace(byte[] sequence, byte[] replacedSequence, byte[] replacingSequence) {
-		if (sequence == null) {
-			return null;
-		}
-		if (sequence.length == 0) {
-			return new byte[0];
-		}
-		final int startIndex = Bytes.indexOf(sequence, replacedSequence);
-		if (startIndex == -1) {
-			return Arrays.copyOf(sequence, sequence.length);
-		}
-		final int endIndex = startIndex + replacedSequence.length;
-		final byte[] sequenceWithoutReplacement = ArrayUtils.removeAll(sequence,
-				createIndexArray(startIndex, endIndex));
-		return ArrayUtils.insert(startIndex, sequenceWithoutReplacement, replacingSequence);
+		return replace(sequence, replacedSequence, replacingSequence, 1);
 	}
 
 	/**
-	 * <p>
-	 * Creates an integer array with all values between the start and the end value.
-	 * </p>
+	 * Replaces in {@code sequence} all occurrences of the specific
+	 * {@code replacedSequence} with {@code replacingSequence}.
 	 * 
-	 * <pre>
-	 * ByteArrayUtil.createIndexArray(0,3)       = {0, 1, 2}
-	 * ByteArrayUtil.createIndexArray(0,5)       = {0, 1, 2, 3, 4}
-	 * </pre>
+	 * @param sequence          the sequence where to replace
+	 * @param replacedSequence  the replaced sequence
+	 * @param replacingSequence the replacement sequence
+	 * @return the sequence with the replacements
+	 */
+	public static byte[] replaceAll(byte[] sequence, byte[] replacedSequence, byte[] replacingSequence) {
+		return replace(sequence, replacedSequence, replacingSequence, BytePatternReplacer.ALL);
+	}
+
+	/**
+	 * Replaces in {@code sequence} the first {@code maxReplacements} occurrences of
+	 * the specific {@code replacedSequence} with {@code replacingSequence} in
+	 * linear time. For replacing multiple sequences or repeated replacements with
+	 * the same sequences use a {@link BytePatternReplacer}.
 	 * 
-	 * @param start the start value
-	 * @param end   the end value
-	 * @return the integer array
+	 * @param sequence          the sequence where to replace
+	 * @param replacedSequence  the replaced sequence
+	 * @param replacingSequence the replacement sequence
+	 * @param maxReplacements   the maximum number of replacements
+	 * @return the sequence with the replacements
 	 */
-	private static int[] createIndexArray(int start, int end) {
-		int[] array = new int[end - start];
-		int nextArrayIndex = 0;
-		for (int i = start; i < end; i++) {
-			array[nextArrayIndex++] = i;
+	public static byte[] replace(byte[] sequence, byte[] replacedSequence, byte[] replacingSequence,
+			int maxReplacements) {
+		if (sequence == null) {
+			return null;
+		}
+		if (sequence.length == 0) {
+			return new byte[0];
+		}
+		if (replacedSequence.length == 0) {
+			// An empty sequence is found at the start
+			return ArrayUtils.addAll(replacingSequence, sequence);
 		}
-		return array;
+		return BytePatternReplacer.of(replacedSequence, replacingSequence).replace(sequence, maxReplacements);
 	}
 
 }
@@ -0,0 +1,309 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Replaces one or more byte patterns in linear time. The patterns are compiled
+ * once into an Aho-Corasick automaton, so the input is scanned exactly once,
+ * independent of the number and the length of the patterns. An instance is
+ * immutable and can be shared between threads.
+ * <p>
+ * Matches are replaced from left to right without overlapping. If several
+ * patterns match, the match ending first wins and for matches ending at the
+ * same position the longest pattern wins. For a single pattern this is the
+ * usual leftmost replacement.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public final class BytePatternReplacer {
+
+	/** Replace all occurrences. */
+	public static final int ALL = Integer.MAX_VALUE;
+
+	private static final int ALPHABET_SIZE = 256;
+	private static final int NO_PATTERN = -1;
+
+	private final byte[][] patterns;
+	private final byte[][] replacements;
+	/** The transitions of the automaton for each state and byte. */
+	private final int[][] transitions;
+	/** The index of the longest pattern ending in a state. */
+	private final int[] output;
+
+	/**
+	 * @param patterns     the patterns to replace, which must not be empty
+	 * @param replacements the replacement for the pattern with the same index
+	 */
+	public BytePatternReplacer(final List<byte[]> patterns, final List<byte[]> replacements) {
+		if (patterns.isEmpty()) {
+			throw new IllegalArgumentException("At least one pattern is required.");
+		}
+		if (patterns.size() != replacements.size()) {
+			throw new IllegalArgumentException("The number of patterns and replacements must be equal.");
+		}
+		this.patterns = new byte[patterns.size()][];
+		this.replacements = new byte[replacements.size()][];
+		for (int i = 0; i < patterns.size(); i++) {
+			this.patterns[i] = Objects.requireNonNull(patterns.get(i)).clone();
+			this.replacements[i] = Objects.requireNonNull(replacements.get(i)).clone();
+			if (this.patterns[i].length == 0) {
+				throw new IllegalArgumentException("The patterns must not be empty.");
+			}
+		}
+
+		// Build the trie
+		final List<int[]> trie = new ArrayList<>();
+		final List<Integer> terminal = new ArrayList<>();
+		trie.add(newState());
+		terminal.add(NO_PATTERN);
+		for (int i = 0; i < this.patterns.length; i++) {
+			int state = 0;
+			for (final byte b : this.patterns[i]) {
+				final int c = b & 0xFF;
+				if (trie.get(state)[c] < 0) {
+					trie.get(state)[c] = trie.size();
+					trie.add(newState());
+					terminal.add(NO_PATTERN);
+				}
+				state = trie.get(state)[c];
+			}
+			if (terminal.get(state) == NO_PATTERN) {
+				// On duplicated patterns the first one wins
+				terminal.set(state, i);
+			}
+		}
+
+		// Complete the transitions with the failure links in breadth first order
+		transitions = trie.toArray(new int[trie.size()][]);
+		output = new int[transitions.length];
+		final int[] failure = new int[transitions.length];
+		final Deque<Integer> queue = new ArrayDeque<>();
+		output[0] = NO_PATTERN;
+		for (int c = 0; c < ALPHABET_SIZE; c++) {
+			final int next = transitions[0][c];
+			if (next < 0) {
+				transitions[0][c] = 0;
+			} else {
+				failure[next] = 0;
+				queue.add(next);
+			}
+		}
+		while (!queue.isEmpty()) {
+			final int state = queue.poll();
+			// A pattern ending in the state itself is always the longest one
+			output[state] = terminal.get(state) != NO_PATTERN ? terminal.get(state) : output[failure[state]];
+			for (int c = 0; c < ALPHABET_SIZE; c++) {
+				final int next = transitions[state][c];
+				if (next < 0) {
+					transitions[state][c] = transitions[failure[state]][c];
+				} else {
+					failure[next] = transitions[failure[state]][c];
+					queue.add(next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a replacer for a single pattern.
+	 *
+	 * @param pattern     the pattern to replace, which must not be empty
+	 * @param replacement the replacement
+	 * @return the replacer
+	 */
+	public static BytePatternReplacer of(final byte[] pattern, final byte[] replacement) {
+		return new BytePatternReplacer(Arrays.asList(pattern), Arrays.asList(replacement));
+	}
+
+	private static int[] newState() {
+		final int[] state = new int[ALPHABET_SIZE];
+		Arrays.fill(state, -1);
+		return state;
+	}
+
+	/**
+	 * Replaces the occurrences of the patterns in the given source.
+	 *
+	 * @param source          the source
+	 * @param maxReplacements the maximum number of replacements, e.g. {@link #ALL}
+	 * @return a new array with the replaced content
+	 */
+	public byte[] replace(final byte[] source, final int maxReplacements) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(source.length);
+		try {
+			replace(ByteBuffer.wrap(source), Channels.newChannel(out), maxReplacements);
+		} catch (IOException e) {
+			// Cannot happen for a ByteArrayOutputStream
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Replaces the occurrences of the patterns in the remaining bytes of the
+	 * source and puts the result into the given target buffer. The position of the
+	 * source is moved to its limit.
+	 *
+	 * @param source          the source
+	 * @param target          the target buffer, which must have enough space for
+	 *                        the result
+	 * @param maxReplacements the maximum number of replacements, e.g. {@link #ALL}
+	 * @return the number of replacements
+	 * @throws java.nio.BufferOverflowException if the target buffer is too small
+	 */
+	public int replace(final ByteBuffer source, final ByteBuffer target, final int maxReplacements) {
+		try {
+			return replace(source, new WritableByteChannel() {
+
+				@Override
+				public boolean isOpen() {
+					return true;
+				}
+
+				@Override
+				public void close() {
+					// NOOP
+				}
+
+				@Override
+				public int write(ByteBuffer src) {
+					final int length = src.remaining();
+					target.put(src);
+					return length;
+				}
+			}, maxReplacements);
+		} catch (IOException e) {
+			// Cannot happen for a ByteBuffer
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Replaces the occurrences of the patterns in the remaining bytes of the
+	 * source and writes the result to the given channel. Unchanged ranges are
+	 * written as slices of the source, so they are not copied. The position of the
+	 * source is moved to its limit.
+	 *
+	 * @param source          the source
+	 * @param target          the channel to write to
+	 * @param maxReplacements the maximum number of replacements, e.g. {@link #ALL}
+	 * @return the number of replacements
+	 * @throws IOException if writing to the channel fails
+	 */
+	public int replace(final ByteBuffer source, final WritableByteChannel target, final int maxReplacements)
+			throws IOException {
+		final int start = source.position();
+		final int end = source.limit();
+		int written = start;
+		int replaced = 0;
+		int state = 0;
+		for (int i = start; i < end && replaced < maxReplacements; i++) {
+			state = transitions[state][source.get(i) & 0xFF];
+			final int pattern = output[state];
+			if (pattern != NO_PATTERN) {
+				final int matchStart = i + 1 - patterns[pattern].length;
+				writeRange(source, written, matchStart, target);
+				writeFully(ByteBuffer.wrap(replacements[pattern]), target);
+				written = i + 1;
+				replaced++;
+				state = 0;
+			}
+		}
+		writeRange(source, written, end, target);
+		source.position(end);
+		return replaced;
+	}
+
+	/**
+	 * Returns the position of the first occurrence of any pattern in the given
+	 * source.
+	 *
+	 * @param source the source
+	 * @return the position of the first match or {@code -1} if nothing matches
+	 */
+	public int indexOf(final byte[] source) {
+		int state = 0;
+		for (int i = 0; i < source.length; i++) {
+			state = transitions[state][source[i] & 0xFF];
+			final int pattern = output[state];
+			if (pattern != NO_PATTERN) {
+				return i + 1 - patterns[pattern].length;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the first occurrence of any pattern in the given
+	 * channel. The channel is read in chunks of the size of the given buffer until
+	 * a pattern matches, so matches across chunk boundaries are found as well.
+	 *
+	 * @param source the channel to read from
+	 * @param buffer the buffer used for reading, which gets cleared
+	 * @return the position of the first match relative to the position of the
+	 *         channel when calling this method or {@code -1} if nothing matches
+	 * @throws IOException if reading from the channel fails
+	 */
+	public long indexOf(final ReadableByteChannel source, final ByteBuffer buffer) throws IOException {
+		long position = 0;
+		int state = 0;
+		buffer.clear();
+		while (source.read(buffer) >= 0) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				state = transitions[state][buffer.get() & 0xFF];
+				position++;
+				final int pattern = output[state];
+				if (pattern != NO_PATTERN) {
+					return position - patterns[pattern].length;
+				}
+			}
+			buffer.clear();
+		}
+		return -1;
+	}
+
+	private static void writeRange(final ByteBuffer source, final int from, final int to,
+			final WritableByteChannel target) throws IOException {
+		if (from < to) {
+			final ByteBuffer slice = source.duplicate();
+			slice.limit(to).position(from);
+			writeFully(slice, target);
+		}
+	}
+
+	private static void writeFully(final ByteBuffer buffer, final WritableByteChannel target) throws IOException {
+		while (buffer.hasRemaining()) {
+			target.write(buffer);
+		}
+	}
+
+}
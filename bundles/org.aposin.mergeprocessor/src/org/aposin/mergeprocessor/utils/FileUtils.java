@@ -20,8 +20,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +49,11 @@ public class FileUtils {
 	 */
 	private static final int FILE_COPY_BUFFER_SIZE = (int) org.apache.commons.io.FileUtils.ONE_MB * 5;
 
+	/**
+	 * The buffer size for searching in files (64 KB)
+	 */
+	private static final int FILE_SEARCH_BUFFER_SIZE = (int) org.apache.commons.io.FileUtils.ONE_KB * 64;
+
 	/**
 	 * Copies the file of the source path to the file of the target path. The
 	 * progress is visualized in the given {@link IProgressMonitor}.
@@ -129,4 +142,119 @@ public class FileUtils {
 		}
 	}
 
+	/**
+	 * Replaces in the given file the first occurrence of {@code replacedSequence}
+	 * with {@code replacingSequence}. The file is streamed in chunks, so it is
+	 * never loaded completely into memory. If both sequences have the same length,
+	 * the replacement is written in place. Otherwise the file is rewritten once
+	 * into a temporary file, which gets the attributes of the original file and
+	 * replaces the original file afterwards.
+	 * <p>
+	 * Memory mapping is not used on purpose, as a mapped file cannot be replaced on
+	 * Windows until the mapping is garbage collected.
+	 * 
+	 * @param file              the file where to replace
+	 * @param replacedSequence  the replaced sequence
+	 * @param replacingSequence the replacement sequence
+	 * @return {@code true} if the sequence was found and replaced
+	 * @throws IOException
+	 */
+	public static boolean replaceFirst(final Path file, final byte[] replacedSequence, final byte[] replacingSequence)
+			throws IOException {
+		if (replacedSequence.length == 0) {
+			return false;
+		}
+		final long index = indexOf(file, replacedSequence);
+		if (index < 0) {
+			return false;
+		}
+		if (replacedSequence.length == replacingSequence.length) {
+			try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				writeFully(channel, ByteBuffer.wrap(replacingSequence), index);
+			}
+			return true;
+		}
+		final Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(),
+				".tmp");
+		try {
+			try (final FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+					final FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+				transferFully(in, 0, index, out);
+				out.write(ByteBuffer.wrap(replacingSequence));
+				final long tailStart = index + replacedSequence.length;
+				transferFully(in, tailStart, in.size() - tailStart, out);
+			}
+			copyAttributes(file, tempFile);
+			try {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the POSIX permissions, or the DOS attributes on file systems not
+	 * supporting POSIX, from the source to the target file. The read-only flag is
+	 * not copied, as a read-only target could not replace the source on Windows.
+	 * 
+	 * @param source the file to copy the attributes from
+	 * @param target the file to copy the attributes to
+	 * @throws IOException
+	 */
+	private static void copyAttributes(final Path source, final Path target) throws IOException {
+		final PosixFileAttributeView posixView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+		if (posixView != null) {
+			Files.setPosixFilePermissions(target, posixView.readAttributes().permissions());
+			return;
+		}
+		final DosFileAttributeView sourceDosView = Files.getFileAttributeView(source, DosFileAttributeView.class);
+		final DosFileAttributeView targetDosView = Files.getFileAttributeView(target, DosFileAttributeView.class);
+		if (sourceDosView != null && targetDosView != null) {
+			final DosFileAttributes attributes = sourceDosView.readAttributes();
+			targetDosView.setArchive(attributes.isArchive());
+			targetDosView.setHidden(attributes.isHidden());
+			targetDosView.setSystem(attributes.isSystem());
+		}
+	}
+
+	/**
+	 * Returns the position of the first occurrence of the given sequence in the
+	 * given file. The file is streamed and searched in linear time.
+	 * 
+	 * @param file     the file to search in
+	 * @param sequence the sequence to search, which must not be empty
+	 * @return the position of the first occurrence or {@code -1} if not found
+	 * @throws IOException
+	 */
+	static long indexOf(final Path file, final byte[] sequence) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return BytePatternReplacer.of(sequence, new byte[0]).indexOf(channel,
+					ByteBuffer.allocate(FILE_SEARCH_BUFFER_SIZE));
+		}
+	}
+
+	private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+			throws IOException {
+		long p = position;
+		while (buffer.hasRemaining()) {
+			p += channel.write(buffer, p);
+		}
+	}
+
+	private static void transferFully(final FileChannel in, final long position, final long count,
+			final FileChannel out) throws IOException {
+		long transferred = 0;
+		while (transferred < count) {
+			final long n = in.transferTo(position + transferred, count - transferred, out);
+			if (n <= 0) {
+				throw new IOException("Unexpected end of file while transferring the content.");
+			}
+			transferred += n;
+		}
+	}
+
 }
@@ -13,24 +13,33 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-/**
- * 
- */
 package org.aposin.mergeprocessor.utils;
 
+import java.lang.StackWalker.Option;
+import java.lang.StackWalker.StackFrame;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.commons.lang3.StringUtils;
-
 /**
- * Utility class providing convenience methods for logging.
+ * Utility class providing convenience methods for logging. The logger of the
+ * caller class is cached, and the level is checked before the calling method is
+ * identified, so tracing costs nearly nothing if it is disabled.
  * 
  * @author Stefan Weiser
  *
  */
 public final class LogUtil {
 
+	private static final StackWalker WALKER = StackWalker.getInstance(Option.RETAIN_CLASS_REFERENCE);
+
+	private static final ClassValue<Tracer> TRACERS = new ClassValue<>() {
+
+		@Override
+		protected Tracer computeValue(final Class<?> type) {
+			return new Tracer(type);
+		}
+	};
+
 	private LogUtil() {
 		// Utility class
 	}
@@ -42,8 +51,7 @@ public final class LogUtil {
 	 * @return the logger of the caller class
 	 */
 	public static Logger getLogger() {
-		final StackTraceElement stackTraceElement = getCause();
-		return Logger.getLogger(stackTraceElement.getClassName());
+		return TRACERS.get(WALKER.getCallerClass()).logger;
 	}
 
 	/**
@@ -55,9 +63,10 @@ public final class LogUtil {
 	 * @return the given exception
 	 */
 	public static <A extends Throwable> A throwing(final A exception) {
-		final StackTraceElement stackTraceElement = getCause();
-		Logger.getLogger(stackTraceElement.getClassName()).logp(Level.SEVERE, stackTraceElement.getClassName(),
-				stackTraceElement.getMethodName(), exception.getMessage(), exception);
+		final Tracer tracer = TRACERS.get(WALKER.getCallerClass());
+		if (tracer.logger.isLoggable(Level.SEVERE)) {
+			tracer.throwing(getCallerMethodName(), exception);
+		}
 		return exception;
 	}
 
@@ -69,9 +78,10 @@ public final class LogUtil {
 	 * @return the result parameter
 	 */
 	public static <A> A exiting(final A result) {
-		final StackTraceElement stackTraceElement = getCause();
-		Logger.getLogger(stackTraceElement.getClassName()).exiting(stackTraceElement.getClassName(),
-				stackTraceElement.getMethodName(), result);
+		final Tracer tracer = TRACERS.get(WALKER.getCallerClass());
+		if (tracer.isTracing()) {
+			tracer.exiting(getCallerMethodName(), result);
+		}
 		return result;
 	}
 
@@ -79,9 +89,10 @@ public final class LogUtil {
 	 * Log a method return.
 	 */
 	public static void exiting() {
-		final StackTraceElement stackTraceElement = getCause();
-		Logger.getLogger(stackTraceElement.getClassName()).exiting(stackTraceElement.getClassName(),
-				stackTraceElement.getMethodName());
+		final Tracer tracer = TRACERS.get(WALKER.getCallerClass());
+		if (tracer.isTracing()) {
+			tracer.exiting(getCallerMethodName());
+		}
 	}
 
 	/**
@@ -90,30 +101,103 @@ public final class LogUtil {
 	 * @param params the parameters of the method
 	 */
 	public static void entering(Object... params) {
-		final StackTraceElement stackTraceElement = getCause();
-		final Logger logger = Logger.getLogger(stackTraceElement.getClassName());
-		if (params.length == 0) {
-			logger.entering(stackTraceElement.getClassName(), stackTraceElement.getMethodName());
-		} else if (params.length == 1) {
-			logger.entering(stackTraceElement.getClassName(), stackTraceElement.getMethodName(), params[0]);
-		} else {
-			logger.entering(stackTraceElement.getClassName(), stackTraceElement.getMethodName(), params);
+		final Tracer tracer = TRACERS.get(WALKER.getCallerClass());
+		if (tracer.isTracing()) {
+			tracer.entering(getCallerMethodName(), params);
 		}
 	}
 
 	/**
-	 * Identifies the cause of the current thread stack.
+	 * Identifies the name of the method calling {@link LogUtil}. The stack is
+	 * walked lazily, so only the frames up to the caller are inspected.
 	 * 
-	 * @return the cause {@link StackTraceElement}
+	 * @return the name of the calling method
+	 */
+	private static String getCallerMethodName() {
+		return WALKER.walk(frames -> frames.filter(frame -> frame.getDeclaringClass() != LogUtil.class).findFirst())
+				.map(StackFrame::getMethodName).orElse(null);
+	}
+
+	/**
+	 * Logs method entries, returns and thrown exceptions for one class. The
+	 * method name is given by the caller, so no stack has to be walked.
 	 */
-	private static StackTraceElement getCause() {
-		for (final StackTraceElement element : Thread.currentThread().getStackTrace()) {
-			if (!StringUtils.equalsAny(element.getClassName(), Thread.class.getName(), LogUtil.class.getName())) {
-				return element;
+	private static final class Tracer {
+
+		private final String className;
+		private final Logger logger;
+
+		private Tracer(final Class<?> type) {
+			className = type.getName();
+			logger = Logger.getLogger(className);
+		}
+
+		/**
+		 * @return {@code true} if method entries and returns are logged
+		 */
+		public boolean isTracing() {
+			return logger.isLoggable(Level.FINER);
+		}
+
+		/**
+		 * Log a method entry.
+		 * 
+		 * @param methodName the name of the entered method
+		 * @param params     the parameters of the method
+		 */
+		public void entering(final String methodName, final Object... params) {
+			if (!isTracing()) {
+				return;
+			}
+			if (params == null || params.length == 0) {
+				logger.entering(className, methodName);
+			} else if (params.length == 1) {
+				logger.entering(className, methodName, params[0]);
+			} else {
+				logger.entering(className, methodName, params);
+			}
+		}
+
+		/**
+		 * Log a method return and return the return value.
+		 * 
+		 * @param methodName the name of the returning method
+		 * @param result     the object to return
+		 * @return the result parameter
+		 */
+		public <A> A exiting(final String methodName, final A result) {
+			if (isTracing()) {
+				logger.exiting(className, methodName, result);
+			}
+			return result;
+		}
+
+		/**
+		 * Log a method return.
+		 * 
+		 * @param methodName the name of the returning method
+		 */
+		public void exiting(final String methodName) {
+			if (isTracing()) {
+				logger.exiting(className, methodName);
 			}
 		}
-		// Only when initialized within LogUtil
-		return Thread.currentThread().getStackTrace()[1];
+
+		/**
+		 * Logs the given exception with with the level {@link Level#SEVERE} and
+		 * returns the given Exception again.
+		 * 
+		 * @param methodName the name of the method throwing the exception
+		 * @param exception  the exception to log and return
+		 * @return the given exception
+		 */
+		public <A extends Throwable> A throwing(final String methodName, final A exception) {
+			if (logger.isLoggable(Level.SEVERE)) {
+				logger.logp(Level.SEVERE, className, methodName, exception.getMessage(), exception);
+			}
+			return exception;
+		}
+
 	}
 
 }
@@ -23,16 +23,20 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import org.aposin.mergeprocessor.application.ApplicationUtil;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
 import org.aposin.mergeprocessor.exception.MergeProcessorUtilException;
-import org.aposin.mergeprocessor.exception.SftpUtilException;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
 import org.aposin.mergeprocessor.exception.SvnUtilException;
 import org.aposin.mergeprocessor.model.IMergeUnit;
 import org.aposin.mergeprocessor.model.MergeUnitStatus;
@@ -43,6 +47,7 @@ import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
 import org.aposin.mergeprocessor.model.svn.SVNMergeUnit;
 import org.aposin.mergeprocessor.model.svn.SVNMergeUtil;
 import org.aposin.mergeprocessor.model.svn.SvnMergeTask;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
 import org.aposin.mergeprocessor.view.MessageDialogScrollable;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.e4.ui.di.UISynchronize;
@@ -73,10 +78,29 @@ public final class MergeProcessorUtil {
 	 */
 	public static boolean merge(ProgressMonitorDialog pmd, IProgressMonitor monitor, IConfiguration configuration,
 			IMergeUnit mergeUnit) throws SvnClientException {
+		return merge(pmd, monitor, configuration, mergeUnit, Collections.emptyList());
+	}
+
+	/**
+	 * Performs all the necessary steps to process the merge defined in the
+	 * mergeUnit. GIT merge units may be merged in a batch together with pending
+	 * merge units for the same repository and target branch.
+	 * 
+	 * @param pmd               progress monitor
+	 * @param monitor
+	 * @param mergeUnit         the mergeUnit to process
+	 * @param pendingMergeUnits the merge units which may be merged in the same
+	 *                          batch
+	 * @return <code>true</code> if the user cancelled the merge. Otherwise
+	 *         <code>false</code>.
+	 * @throws SvnClientException
+	 */
+	public static boolean merge(ProgressMonitorDialog pmd, IProgressMonitor monitor, IConfiguration configuration,
+			IMergeUnit mergeUnit, Collection<? extends IMergeUnit> pendingMergeUnits) throws SvnClientException {
 		if (mergeUnit instanceof SVNMergeUnit) {
 			return SVNMergeUtil.merge(pmd, monitor, (SVNMergeUnit) mergeUnit);
 		} else if (mergeUnit instanceof GITMergeUnit) {
-			return GitMergeUtil.merge(pmd, monitor, configuration, (GITMergeUnit) mergeUnit);
+			return GitMergeUtil.merge(pmd, monitor, configuration, (GITMergeUnit) mergeUnit, pendingMergeUnits);
 		} else {
 			throw new UnsupportedVersionControlSystemSupportException();
 		}
@@ -96,7 +120,7 @@ public final class MergeProcessorUtil {
 			final Path workspaceLocation) throws SvnUtilException {
 		if (mergeUnit instanceof SVNMergeUnit) {
 			final SvnMergeTask task = new SvnMergeTask(monitor, commandConsumer, (SVNMergeUnit) mergeUnit,
-					workspaceLocation);
+					workspaceLocation, true);
 			task.merge();
 			return task.getWarnings();
 		} else {
@@ -105,34 +129,18 @@ public final class MergeProcessorUtil {
 	}
 
 	/**
-	 * @param includeDone    include MergeUnits from the "done" folder
-	 * @param includeIgnored include MergeUnits from the "done" folder with status
-	 *                       ignored
-	 * @return a {@link List} with all found {@link SVNMergeUnit}s.
+	 * @param folder the folder of the queue, e.g. the todo folder
+	 * @return a {@link List} with all found merge units of the given folder
 	 * @throws MergeProcessorUtilException
 	 */
-	public static List<IMergeUnit> getMergeUnits(boolean includeDone, boolean includeIgnored)
-			throws MergeProcessorUtilException {
-		LogUtil.entering(includeDone, includeIgnored);
-		List<IMergeUnit> list = new ArrayList<>();
-
+	public static List<IMergeUnit> getMergeUnits(String folder) throws MergeProcessorUtilException {
+		LogUtil.entering(folder);
 		try {
-			SftpUtil sftp = SftpUtil.getInstance();
-			list.addAll(sftp.getMergeUnitsTodo());
-			list.addAll(sftp.getMergeUnitsCanceled());
-			if (includeDone) {
-				list.addAll(sftp.getMergeUnitsDone());
-				list.addAll(sftp.getMergeUnitsManual());
-			}
-
-			if (includeIgnored) {
-				list.addAll(sftp.getMergeUnitsIgnored());
-			}
-		} catch (SftpUtilException e) {
+			return LogUtil.exiting(E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+					.getMergeUnits(folder));
+		} catch (MergeUnitQueueException e) {
 			throw LogUtil.throwing(new MergeProcessorUtilException("Couldn't get merge units from server.", e));
 		}
-
-		return LogUtil.exiting(list);
 	}
 
 	/**
@@ -148,10 +156,11 @@ public final class MergeProcessorUtil {
 
 		while (!cancel) {
 			try {
-				SftpUtil.getInstance().moveMergeUnitFromRemoteToCanceled(mergeUnit);
+				E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+						.moveMergeUnitFromRemoteToCanceled(mergeUnit);
 				mergeUnit.setStatus(MergeUnitStatus.CANCELLED);
 				break;
-			} catch (SftpUtilException e) {
+			} catch (MergeUnitQueueException e) {
 				String message = String.format("Caught exception while moving mergeUnit=[%s] to ignore.", mergeUnit); //$NON-NLS-1$
 				LOGGER.log(Level.WARNING, message, e);
 
@@ -177,28 +186,45 @@ public final class MergeProcessorUtil {
 	 * @param mergeUnit
 	 */
 	public static void ignore(IMergeUnit mergeUnit) {
-		LogUtil.entering(mergeUnit);
-		boolean cancel = false;
+		ignore(Collections.singletonList(mergeUnit));
+	}
 
-		while (!cancel) {
+	/**
+	 * Moves the given merge units from their current folders on the sftp server
+	 * to the ignored folder with one batch. The user may retry the merge units,
+	 * which could not be moved.
+	 * 
+	 * @param mergeUnits the merge units to ignore
+	 */
+	public static void ignore(Collection<? extends IMergeUnit> mergeUnits) {
+		LogUtil.entering(mergeUnits);
+		final MergeUnitQueueService queueService = E4CompatibilityUtil.getApplicationContext()
+				.get(MergeUnitQueueService.class);
+		Collection<? extends IMergeUnit> pendingMergeUnits = mergeUnits;
+		while (!pendingMergeUnits.isEmpty()) {
+			String errorMessage;
 			try {
-				SftpUtil.getInstance().moveMergeUnitFromRemoteToIgnore(mergeUnit);
-				mergeUnit.setStatus(MergeUnitStatus.IGNORED);
-				break;
-			} catch (SftpUtilException e) {
-				String message = String.format("Caught exception while moving mergeUnit=[%s] to ignore.", mergeUnit); //$NON-NLS-1$
-				LOGGER.log(Level.WARNING, message, e);
-
-				String messageScrollable = NLS.bind(Messages.MergeProcessorUtil_Ignore_Error_Message, e.getMessage());
-				if (bugUserToFixProblem(Messages.MergeProcessorUtil_Ignore_Error_Title, messageScrollable)) {
-					// user wants to retry
-					LOGGER.fine(String.format("User wants to retry ignore mergeUnit. mergeUnit=%s.", mergeUnit)); //$NON-NLS-1$
-					continue;
-				} else {
-					// user didn't say 'retry' so we cancel the whole merge...
-					LOGGER.fine(String.format("User cancelled ignore mergeUnit. mergeUnit=%s.", mergeUnit)); //$NON-NLS-1$
-					cancel = true;
+				final Map<IMergeUnit, MergeUnitQueueException> failures = queueService
+						.moveMergeUnits(pendingMergeUnits, MergeUnitStatus.IGNORED);
+				if (failures.isEmpty()) {
+					break;
 				}
+				errorMessage = failures.values().stream().map(Throwable::getMessage)
+						.collect(Collectors.joining(System.lineSeparator()));
+				pendingMergeUnits = new ArrayList<>(failures.keySet());
+			} catch (MergeUnitQueueException e) {
+				LOGGER.log(Level.WARNING, "Caught exception while moving mergeUnits to ignore.", e); //$NON-NLS-1$
+				errorMessage = e.getMessage();
+			}
+
+			String messageScrollable = NLS.bind(Messages.MergeProcessorUtil_Ignore_Error_Message, errorMessage);
+			if (bugUserToFixProblem(Messages.MergeProcessorUtil_Ignore_Error_Title, messageScrollable)) {
+				// user wants to retry
+				LOGGER.fine(String.format("User wants to retry ignore mergeUnits. mergeUnits=%s.", pendingMergeUnits)); //$NON-NLS-1$
+			} else {
+				// user didn't say 'retry' so we cancel the whole merge...
+				LOGGER.fine(String.format("User cancelled ignore mergeUnits. mergeUnits=%s.", pendingMergeUnits)); //$NON-NLS-1$
+				break;
 			}
 		}
 		LogUtil.exiting();
@@ -216,10 +242,11 @@ public final class MergeProcessorUtil {
 
 		while (!cancel) {
 			try {
-				SftpUtil.getInstance().moveMergeUnitFromRemoteToTodo(mergeUnit);
+				E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+						.moveMergeUnitFromRemoteToTodo(mergeUnit);
 				mergeUnit.setStatus(MergeUnitStatus.TODO);
 				break;
-			} catch (SftpUtilException e) {
+			} catch (MergeUnitQueueException e) {
 				String message = String.format("Caught exception while moving mergeUnit=[%s] to ignore.", mergeUnit); //$NON-NLS-1$
 				LOGGER.log(Level.WARNING, message, e);
 
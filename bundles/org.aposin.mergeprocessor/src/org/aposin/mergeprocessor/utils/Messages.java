@@ -48,18 +48,14 @@ public class Messages extends NLS {
 	public static String MergeProcessorUtil_CommitChanges_Commit_Error_Title;
 	public static String MergeProcessorUtil_CommitChanges_Conflicts_Error_Title;
 	public static String MergeProcessorUtil_CommitChanges_Update_Error_Title;
-	public static String MergeProcessorUtil_CopyLocalToDone_Error_Details;
-	public static String MergeProcessorUtil_CopyLocalToDone_Error_Message;
-	public static String MergeProcessorUtil_CopyRemoteToLocal_Error_Message;
-	public static String MergeProcessorUtil_CopyRemoteToLocal_Error_MessageScrollable;
-	public static String MergeProcessorUtil_DeleteLocal_Error_Message;
-	public static String MergeProcessorUtil_DeleteLocal_Error_Title;
 	public static String MergeProcessorUtil_Ignore_Error_Message;
 	public static String MergeProcessorUtil_Ignore_Error_Title;
 	public static String MergeProcessorUtil_MergeChangesIntoWorkingCopy_Error_Message_Prefix;
 	public static String MergeProcessorUtil_MergeChangesIntoWorkingCopy_Error_Title;
 	public static String MergeProcessorUtil_MergeProcessorUtil_CommitChanges_Conflicts_Error_Message;
 	public static String MergeProcessorUtil_MergeProcessorUtil_CommitChanges_Update_Error_Details;
+	public static String MergeProcessorUtil_MoveRemoteToDone_Error_Details;
+	public static String MergeProcessorUtil_MoveRemoteToDone_Error_Message;
 	public static String MergeProcessorUtil_Process_TaskName;
 	public static String MergeProcessorUtil_Unignore_Error_Message;
 	public static String MergeProcessorUtil_Unignore_Error_Title;
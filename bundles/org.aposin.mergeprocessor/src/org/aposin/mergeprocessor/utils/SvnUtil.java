@@ -60,10 +60,6 @@ public class SvnUtil {
 	private static final String PARAMETER_TORTOISESVN_REPOSTATUS = " /command:repostatus"; //$NON-NLS-1$
 	private static final String PARAMETER_TORTOISESVN_PATH = " /path:"; //$NON-NLS-1$
 
-	private static final String KEYWORD_TRUNK = "/trunk"; //$NON-NLS-1$
-	private static final String KEYWORD_BRANCHES = "/branches/"; //$NON-NLS-1$
-	private static final String BRANCH_NAME_TRUNK = "trunk"; //$NON-NLS-1$
-
 	protected static final String BRANCH_NAME_UNKNOWN = "UNKNOWN"; //$NON-NLS-1$
 	protected static final String COMMIT_MESSAGE_MERGE_CURRENT = "MP [%1$d:%2$d] %3$s -> %4$s\n"; //$NON-NLS-1$
 	protected static final String COMMIT_MESSAGE_MERGE_PREVIOUS = "r%1$s: [%2$s] (%3$tY-%3$tm-%3$td %3$tH:%3$tM:%3$tS) %4$s\n"; //$NON-NLS-1$
@@ -487,28 +483,7 @@ public class SvnUtil {
 		if (url == null || url.isEmpty()) {
 			return null;
 		}
-		final String retVal;
-		final int posTrunk = url.indexOf(KEYWORD_TRUNK);
-		final int posBranches = url.indexOf(KEYWORD_BRANCHES);
-		if (posTrunk == -1 && posBranches == -1) {
-			// no expected branch name, return null
-			retVal = null;
-		} else if (posTrunk > -1 && (posTrunk < posBranches || posBranches < 0)) {
-			// trunk
-			retVal = BRANCH_NAME_TRUNK;
-		} else if (posBranches > -1 && (posBranches < posTrunk || posTrunk < 0)) {
-			int start = posBranches + KEYWORD_BRANCHES.length();
-			int end = url.indexOf('/', start + 1); // $NON-NLS-1$
-
-			if (end == -1) {
-				retVal = url.substring(start);
-			} else {
-				retVal = url.substring(start, end);
-			}
-		} else {
-			retVal = null;
-		}
-		return LogUtil.exiting(retVal);
+		return LogUtil.exiting(BranchUrl.of(url).getBranchName());
 	}
 
 	/**
@@ -520,21 +495,7 @@ public class SvnUtil {
 	 */
 	public static String getRepositoryRootOfUrl(String url) {
 		LogUtil.entering(url);
-
-		String retVal = null;
-		int posTrunk = url.indexOf(KEYWORD_TRUNK);
-		int posBranches = url.indexOf(KEYWORD_BRANCHES);
-
-		if (posTrunk == -1 && posBranches == -1) {
-			// no expected branch name, return url
-			retVal = url;
-		} else if (posTrunk > -1 && (posTrunk < posBranches || posBranches < 0)) {
-			retVal = url.substring(0, posTrunk);
-		} else if (posBranches > -1 && (posBranches < posTrunk || posTrunk < 0)) {
-			retVal = url.substring(0, posBranches);
-		}
-
-		return LogUtil.exiting(retVal);
+		return LogUtil.exiting(BranchUrl.of(url).getRepositoryRoot());
 	}
 
 	/**
@@ -545,7 +506,9 @@ public class SvnUtil {
 	 * @throws Exception
 	 */
 	public static List<String> listDirectories(final String svnPath) throws Exception {
-		try (final ISvnClient client = E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class)) {
+		// The client is shared via the application context, so it must not be closed
+		final ISvnClient client = E4CompatibilityUtil.getApplicationContext().get(ISvnClient.class);
+		try {
 			return client.listDirectories(new URL(svnPath));
 		} catch (Exception e) {
 			throw LogUtil.throwing(e);
@@ -75,6 +75,7 @@ public class Messages extends NLS {
 	public static String View_ShowMergeScript_Error_Title;
 	public static String View_Status_LastRefresh;
 	public static String View_Status_Successfully_Started;
+	public static String StatusBar_SftpSummary;
 	public static String SvnCredentialsView_lblNewLabel_text;
 	public static String SvnCredentialsView_text_text;
 	public static String DirectorySelectionDialog_browse;
@@ -17,11 +17,17 @@ package org.aposin.mergeprocessor.view;
 
 import javax.annotation.PostConstruct;
 
+import org.aposin.mergeprocessor.metrics.SftpMetrics;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
+import org.eclipse.jface.action.ContributionItem;
 import org.eclipse.jface.action.IStatusLineManager;
+import org.eclipse.jface.action.StatusLineLayoutData;
 import org.eclipse.jface.action.StatusLineManager;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
 
 /**
  * Represents the status bar of the merge processor.
@@ -42,7 +48,48 @@ public class StatusBar {
 	@PostConstruct
 	public void createControl(final IEclipseContext context, @Optional final Composite composite) {
 		final StatusLineManager statusLine = new StatusLineManager();
+		statusLine.add(new SftpMetricsContributionItem());
 		statusLine.createControl(composite);
 		context.set(IStatusLineManager.class, statusLine);
 	}
+
+	/**
+	 * Shows a compact summary of the {@link SftpMetrics}, refreshed periodically.
+	 */
+	private static class SftpMetricsContributionItem extends ContributionItem {
+
+		private static final int REFRESH_INTERVAL_MILLIS = 5000;
+		private static final int WIDTH_HINT = 400;
+
+		private Label label;
+
+		private SftpMetricsContributionItem() {
+			super(SftpMetricsContributionItem.class.getName());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void fill(final Composite parent) {
+			label = new Label(parent, SWT.NONE);
+			final StatusLineLayoutData layoutData = new StatusLineLayoutData();
+			layoutData.widthHint = WIDTH_HINT;
+			label.setLayoutData(layoutData);
+			refresh();
+		}
+
+		private void refresh() {
+			if (label == null || label.isDisposed()) {
+				return;
+			}
+			final SftpMetrics metrics = SftpMetrics.getInstance();
+			label.setText(NLS.bind(Messages.StatusBar_SftpSummary,
+					new Object[] { metrics.getRequestCount(), metrics.getErrorCount(),
+							metrics.getRequestLatencyAtPercentile(90) / 1_000_000, metrics.getByteCount() / 1024,
+							metrics.getReconnects() }));
+			label.getDisplay().timerExec(REFRESH_INTERVAL_MILLIS, this::refresh);
+		}
+
+	}
 }
\ No newline at end of file
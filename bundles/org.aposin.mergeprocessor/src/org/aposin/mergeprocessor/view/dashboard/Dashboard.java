@@ -18,8 +18,13 @@ package org.aposin.mergeprocessor.view.dashboard;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -28,19 +33,23 @@ import javax.inject.Inject;
 import org.aposin.mergeprocessor.application.Activator;
 import org.aposin.mergeprocessor.configuration.Configuration;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
 import org.aposin.mergeprocessor.configuration.WorkbenchPreferencePage;
 import org.aposin.mergeprocessor.exception.MergeDataException;
 import org.aposin.mergeprocessor.exception.MergeProcessorUtilException;
-import org.aposin.mergeprocessor.exception.SftpUtilException;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
 import org.aposin.mergeprocessor.exception.SvnUtilException;
 import org.aposin.mergeprocessor.model.IMergeUnit;
 import org.aposin.mergeprocessor.model.MergeTask;
 import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.queue.IMergeUnitQueue;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueWatcher;
 import org.aposin.mergeprocessor.renaming.RenameQueryExecutor;
 import org.aposin.mergeprocessor.renaming.SvnPackageMergeUnitFactory;
+import org.aposin.mergeprocessor.utils.E4CompatibilityUtil;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.utils.MergeProcessorUtil;
-import org.aposin.mergeprocessor.utils.SftpUtil;
 import org.aposin.mergeprocessor.utils.SvnUtil;
 import org.aposin.mergeprocessor.view.Column;
 import org.aposin.mergeprocessor.view.MessageDialogScrollable;
@@ -63,6 +72,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
@@ -79,17 +89,29 @@ public class Dashboard implements IShellProvider {
 
 	private static IShellProvider pmd = null;
 
+	/** The time without further change of the queue until refreshing. */
+	private static final long QUEUE_CHANGE_DEBOUNCE_MILLIS = 1000;
+	/**
+	 * The number of timer intervals without detected change of the queue until
+	 * the merge units are refreshed anyway, in case a change was not detected.
+	 */
+	private static final int MAX_UNCHANGED_TIMER_INTERVALS = 10;
+
 	private final IStatusLineManager statusLineManager;
 	private final Shell shell;
 	private final IConfiguration configuration;
 	private final IPropertyChangeListener propertyChangeListener = this::handlePropertyChange;
 	private final List<IMergeUnit> mergeUnits = new ArrayList<>();
+	private final Map<String, List<IMergeUnit>> mergeUnitsByFolder = new HashMap<>();
+	private final Set<String> changedQueueFolders = new HashSet<>();
 	private final MergeUnitViewerComparator comparator = new MergeUnitViewerComparator();
 	private final SvnPackageMergeUnitFactory svnPackageMergeUnitFactory;
 	private final RenameQueryExecutor renameQueryExecutor = new RenameQueryExecutor();
 
 	private Runnable timer = null;
 	private boolean isTimerActive = false;
+	private MergeUnitQueueWatcher queueWatcher;
+	private int unchangedTimerIntervals = 0;
 	private DashboardView view;
 
 	@Inject
@@ -212,6 +234,7 @@ public class Dashboard implements IShellProvider {
 		}
 		activateRefreshTimer();
 		refresh();
+		startQueueWatcher();
 
 		LogUtil.exiting();
 	}
@@ -225,22 +248,64 @@ public class Dashboard implements IShellProvider {
 	}
 
 	/**
-	 * Removes the property change listener from the preference store.
+	 * Removes the property change listener from the preference store and stops
+	 * watching the merge unit queue.
 	 */
 	@PreDestroy
 	public void removePropertyChangeListener() {
 		Activator.getDefault().getPreferenceStore().removePropertyChangeListener(propertyChangeListener);
+		stopQueueWatcher();
+	}
+
+	/**
+	 * Stops watching the merge unit queue.
+	 */
+	private void stopQueueWatcher() {
+		if (queueWatcher != null) {
+			queueWatcher.close();
+			queueWatcher = null;
+		}
 	}
 
 	/**
-	 * Timer which refreshes the list of mergeUnits
+	 * Starts watching the status folders of the merge unit queue, so the timer
+	 * only needs to refresh the merge units if a folder has changed. Detected
+	 * changes refresh the merge units of the changed folders immediately.
+	 */
+	private void startQueueWatcher() {
+		final ISftpConfiguration sftpConfiguration = configuration.getSftpConfiguration();
+		final List<String> folders = Arrays.asList(sftpConfiguration.getTodoFolder(),
+				sftpConfiguration.getDoneFolder(), sftpConfiguration.getIgnoredFolder(),
+				sftpConfiguration.getCanceledFolder(), sftpConfiguration.getManualFolder());
+		final IMergeUnitQueue queue = E4CompatibilityUtil.getApplicationContext().get(IMergeUnitQueue.class);
+		final Display display = shell.getDisplay();
+		queueWatcher = new MergeUnitQueueWatcher(queue, folders, configuration::getRefreshInterval,
+				QUEUE_CHANGE_DEBOUNCE_MILLIS, changedFolders -> display.asyncExec(() -> {
+					LogUtil.getLogger().fine(() -> String.format("Merge unit queue changed in %s.", changedFolders)); //$NON-NLS-1$
+					changedQueueFolders.addAll(changedFolders);
+					if (isTimerActive && !shell.isDisposed()) {
+						downloadMergeUnitsFromServer(false, true);
+					}
+				}));
+	}
+
+	/**
+	 * Timer which refreshes the list of mergeUnits. The merge units of a folder
+	 * are only downloaded again if the {@link MergeUnitQueueWatcher} has detected
+	 * a change of the folder. All merge units are downloaded again after
+	 * {@link #MAX_UNCHANGED_TIMER_INTERVALS} intervals.
 	 */
 	private void activateRefreshTimer() {
 		isTimerActive = true;
 		if (timer == null) {
 			timer = () -> {
 				if (isTimerActive) {
-					Dashboard.this.refresh();
+					svnPackageMergeUnitFactory.checkAndCreateNewSvnPackageMergeUnit();
+					if (queueWatcher == null || ++unchangedTimerIntervals >= MAX_UNCHANGED_TIMER_INTERVALS) {
+						downloadMergeUnitsFromServer(false);
+					} else if (!changedQueueFolders.isEmpty()) {
+						downloadMergeUnitsFromServer(false, true);
+					}
 				}
 				// start a new timer
 				shell.getDisplay().timerExec(configuration.getRefreshInterval(), timer);
@@ -290,8 +355,18 @@ public class Dashboard implements IShellProvider {
 
 		final IMergeUnit[] mergeUnitsSelection = getSelectedMergeUnits();
 		Arrays.sort(mergeUnitsSelection);
+		final List<IMergeUnit> pendingMergeUnits = Arrays.asList(mergeUnitsSelection);
+		final Map<IMergeUnit, MergeUnitStatus> statusBeforeMerge = new HashMap<>();
 		for (final IMergeUnit mergeUnit : mergeUnitsSelection) {
-			new MergeTask(mergeUnit, configuration, this).merge();
+			statusBeforeMerge.put(mergeUnit, mergeUnit.getStatus());
+		}
+		for (final IMergeUnit mergeUnit : mergeUnitsSelection) {
+			if (mergeUnit.getStatus() == MergeUnitStatus.DONE
+					&& statusBeforeMerge.get(mergeUnit) != MergeUnitStatus.DONE) {
+				// Already merged in a batch with a previous merge unit
+				continue;
+			}
+			new MergeTask(mergeUnit, pendingMergeUnits, configuration, this).merge();
 		}
 
 		refresh();
@@ -311,8 +386,11 @@ public class Dashboard implements IShellProvider {
 		isTimerActive = false;
 
 		IMergeUnit[] selectedMergeUnits = getSelectedMergeUnits();
-		Arrays.stream(selectedMergeUnits).filter(mergeUnit -> mergeUnit.getStatus() != MergeUnitStatus.IGNORED)
-				.forEach(this::ignoreMergeUnit);
+		final List<IMergeUnit> mergeUnitsToIgnore = Arrays.stream(selectedMergeUnits)
+				.filter(mergeUnit -> mergeUnit.getStatus() != MergeUnitStatus.IGNORED)
+				.filter(this::confirmIgnore).collect(Collectors.toList());
+		// Move all merge units with one batch
+		MergeProcessorUtil.ignore(mergeUnitsToIgnore);
 		refresh();
 
 		// start timer calls
@@ -320,7 +398,14 @@ public class Dashboard implements IShellProvider {
 		LogUtil.exiting();
 	}
 
-	private void ignoreMergeUnit(IMergeUnit mergeUnit) {
+	/**
+	 * Asks the user to confirm ignoring the given merge unit, if it is already
+	 * done.
+	 * 
+	 * @param mergeUnit the merge unit to ignore
+	 * @return {@code true} if the merge unit should be ignored
+	 */
+	private boolean confirmIgnore(IMergeUnit mergeUnit) {
 		LogUtil.entering(mergeUnit);
 
 		MergeUnitStatus status = mergeUnit.getStatus();
@@ -337,24 +422,24 @@ public class Dashboard implements IShellProvider {
 				// user didn't say 'yes' so we skip it...
 				LogUtil.getLogger().fine(() -> String.format("User skipped mergeUnit=%s with status %s.", mergeUnit, //$NON-NLS-1$
 						mergeUnit.getStatus()));
-				return;
+				return LogUtil.exiting(false);
 			}
 		}
 
 		LogUtil.getLogger().fine(() -> String.format("Ignoring mergeUnit=%s", mergeUnit));
-		MergeProcessorUtil.ignore(mergeUnit);
-		LogUtil.exiting();
+		return LogUtil.exiting(true);
 	}
 
 	private void showMergeScript(IMergeUnit mergeUnit) {
 		LogUtil.entering(mergeUnit);
 		try {
-			String contentScript = SftpUtil.getInstance().getContent(mergeUnit);
+			String contentScript = E4CompatibilityUtil.getApplicationContext().get(MergeUnitQueueService.class)
+					.getContent(mergeUnit);
 			MergeScriptDialog msd = new MergeScriptDialog(view.getShell(), mergeUnit, contentScript,
 					renameQueryExecutor);
 			msd.open();
 			view.getTableViewer().update(mergeUnit, null);
-		} catch (SftpUtilException e) {
+		} catch (MergeUnitQueueException e) {
 			LogUtil.getLogger().log(Level.SEVERE, "Caught exception while receiving merge script content.", e); //$NON-NLS-1$
 			MessageDialogScrollable.openError(view.getShell(), Messages.View_ShowMergeScript_Error_Title,
 					Messages.View_ShowMergeScript_Error_Description, e.getMessage());
@@ -399,15 +484,72 @@ public class Dashboard implements IShellProvider {
 	}
 
 	/**
-	 * Refreshes the mergeUnits. If <code>isAutomatic</code> is <code>true</code>
+	 * @return the folders of the queue whose merge units are displayed
+	 */
+	private List<String> getDisplayedFolders() {
+		final ISftpConfiguration sftpConfiguration = configuration.getSftpConfiguration();
+		final List<String> folders = new ArrayList<>();
+		folders.add(sftpConfiguration.getTodoFolder());
+		folders.add(sftpConfiguration.getCanceledFolder());
+		if (configuration.isDisplayDone()) {
+			folders.add(sftpConfiguration.getDoneFolder());
+			folders.add(sftpConfiguration.getManualFolder());
+		}
+		if (configuration.isDisplayIgnored()) {
+			folders.add(sftpConfiguration.getIgnoredFolder());
+		}
+		return folders;
+	}
+
+	/**
+	 * Reads the merge units of the displayed folders. The merge units of folders
+	 * which have not changed are taken from the previous read.
+	 * 
+	 * @param changedFolders the folders to read again, {@code null} to read all
+	 *                       folders again
+	 * @return the merge units of all displayed folders
+	 * @throws MergeProcessorUtilException
+	 */
+	private List<IMergeUnit> readMergeUnits(final Set<String> changedFolders) throws MergeProcessorUtilException {
+		final List<String> folders = getDisplayedFolders();
+		mergeUnitsByFolder.keySet().retainAll(folders);
+		final List<IMergeUnit> mergeUnitsFound = new ArrayList<>();
+		for (final String folder : folders) {
+			List<IMergeUnit> folderMergeUnits = mergeUnitsByFolder.get(folder);
+			if (folderMergeUnits == null || changedFolders == null || changedFolders.contains(folder)) {
+				LogUtil.getLogger().fine(() -> String.format("Reading mergeUnits of folder=%s.", folder)); //$NON-NLS-1$
+				folderMergeUnits = MergeProcessorUtil.getMergeUnits(folder);
+				mergeUnitsByFolder.put(folder, folderMergeUnits);
+			}
+			mergeUnitsFound.addAll(folderMergeUnits);
+		}
+		return mergeUnitsFound;
+	}
+
+	/**
+	 * Refreshes all mergeUnits. If <code>isAutomatic</code> is <code>true</code>
 	 * and automatic merging is active this starts automatic merges.
 	 */
 	private void downloadMergeUnitsFromServer(boolean isAutomatic) {
-		LogUtil.entering(isAutomatic);
+		downloadMergeUnitsFromServer(isAutomatic, false);
+	}
+
+	/**
+	 * Refreshes the mergeUnits. If <code>onlyChangedFolders</code> is
+	 * <code>true</code> only the folders reported by the
+	 * {@link MergeUnitQueueWatcher} are read again. If <code>isAutomatic</code>
+	 * is <code>true</code> and automatic merging is active this starts automatic
+	 * merges.
+	 */
+	private void downloadMergeUnitsFromServer(boolean isAutomatic, boolean onlyChangedFolders) {
+		LogUtil.entering(isAutomatic, onlyChangedFolders);
 
 		// stop timer calls
 		boolean isTimerActivePrev = isTimerActive;
 		isTimerActive = false;
+		final Set<String> changedFolders = onlyChangedFolders ? new HashSet<>(changedQueueFolders) : null;
+		changedQueueFolders.clear();
+		unchangedTimerIntervals = 0;
 
 		try {
 			// remember selected mergeUnits
@@ -415,8 +557,7 @@ public class Dashboard implements IShellProvider {
 
 			LogUtil.getLogger().fine("Clearing mergeUnitGroup."); //$NON-NLS-1$
 
-			List<IMergeUnit> mergeUnitsFound = MergeProcessorUtil.getMergeUnits(configuration.isDisplayDone(),
-					configuration.isDisplayIgnored());
+			List<IMergeUnit> mergeUnitsFound = readMergeUnits(changedFolders);
 			if (mergeUnitsFound.isEmpty()) {
 				LogUtil.getLogger().fine("No mergeUnits found."); //$NON-NLS-1$
 				this.mergeUnits.clear();
@@ -448,10 +589,13 @@ public class Dashboard implements IShellProvider {
 					}
 				}
 			}
+			comparator.retainCache(mergeUnits);
 			view.getTableViewer().refresh();
 			selectMergeUnits(mergeUnitsSelected);
 		} catch (MergeProcessorUtilException e) {
 			LogUtil.getLogger().log(Level.SEVERE, "Caught exception while getting merge units.", e); //$NON-NLS-1$
+			// Read all folders again with the next refresh
+			mergeUnitsByFolder.clear();
 			MessageDialogScrollable dialog = new MessageDialogScrollable(shell,
 					Messages.View_RefreshMergeUnits_Error_Title, null,
 					Messages.View_RefreshMergeUnits_Error_Description,
@@ -485,7 +629,7 @@ public class Dashboard implements IShellProvider {
 		mergeUnits.stream().filter(mergeUnit -> mergeUnit.getStatus() == MergeUnitStatus.TODO).sorted().findFirst()
 				.ifPresent(mergeUnit -> {
 					LogUtil.getLogger().fine(String.format("Automatically merging MergeUnit=%s", mergeUnit)); //$NON-NLS-1$
-					new MergeTask(mergeUnit, configuration, Dashboard.this).merge();
+					new MergeTask(mergeUnit, new ArrayList<>(mergeUnits), configuration, Dashboard.this).merge();
 					LogUtil.getLogger().fine("Continuing automatic merging by refreshing."); //$NON-NLS-1$
 					refresh();
 				});
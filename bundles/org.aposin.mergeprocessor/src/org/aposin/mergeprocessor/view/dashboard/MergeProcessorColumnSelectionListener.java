@@ -15,14 +15,20 @@
  */
 package org.aposin.mergeprocessor.view.dashboard;
 
+import java.util.logging.Level;
+
 import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.view.Column;
 import org.eclipse.jface.util.Policy;
+import org.eclipse.jface.viewers.ColumnViewer;
+import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.TableViewerColumn;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 
@@ -64,7 +70,21 @@ class MergeProcessorColumnSelectionListener extends SelectionAdapter {
 			table.setSortColumn(column);
 			table.setSortDirection(SWT.DOWN);
 		}
-		viewerColumn.getViewer().refresh();
+		// Sort in the background, the refresh afterwards only arranges the elements
+		final ColumnViewer viewer = viewerColumn.getViewer();
+		final Object[] elements = ((IStructuredContentProvider) viewer.getContentProvider())
+				.getElements(viewer.getInput());
+		final Display display = table.getDisplay();
+		comparator.sortInBackground(elements, table.getSortDirection()).whenComplete((result, exception) -> {
+			if (exception != null) {
+				LogUtil.getLogger().log(Level.WARNING, "Sorting the merge units failed.", exception); //$NON-NLS-1$
+			}
+			display.asyncExec(() -> {
+				if (!table.isDisposed()) {
+					viewer.refresh();
+				}
+			});
+		});
 		configuration.setSortColumn(Column.valueForIndex(table.indexOf(column)));
 		configuration.setSortDirection(table.getSortDirection());
 	}
@@ -0,0 +1,284 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.view.dashboard;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.aposin.mergeprocessor.model.IMergeUnit;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.view.Column;
+
+/**
+ * Sorts {@link IMergeUnit IMergeUnits} by a {@link Column}. The sort key of each
+ * merge unit and column is computed once and cached, so sorting compares only
+ * numbers and already extracted strings. Revisions like {@code 9:12} are
+ * compared numerically. The keys are cached per instance, as the merge units
+ * are mutable. The sorter does not access any UI and may be used from any
+ * thread.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+final class MergeUnitSorter {
+
+	private static final Column[] COLUMNS = Column.sortedValues();
+	private static final SortKey[] STATUS_KEYS = new SortKey[MergeUnitStatus.values().length];
+	private static final SortKey NO_KEY = new SortKey(0, 0);
+
+	static {
+		for (final MergeUnitStatus status : MergeUnitStatus.values()) {
+			STATUS_KEYS[status.ordinal()] = new SortKey(status.ordinal(), 0);
+		}
+	}
+
+	private final Map<IMergeUnit, SortKey[]> cache = new IdentityHashMap<>();
+
+	/**
+	 * @param columnIndex the index of the column
+	 * @return the column for the given index
+	 */
+	static Column getColumn(final int columnIndex) {
+		return COLUMNS[columnIndex];
+	}
+
+	/**
+	 * Removes all cached sort keys, e.g. after the merge units have been reloaded.
+	 */
+	void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Removes the cached sort keys of all merge units, which are not contained in
+	 * the given ones.
+	 * 
+	 * @param mergeUnits the merge units to keep
+	 */
+	void retain(final Collection<? extends IMergeUnit> mergeUnits) {
+		final Set<IMergeUnit> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+		retained.addAll(mergeUnits);
+		synchronized (cache) {
+			cache.keySet().retainAll(retained);
+		}
+	}
+
+	/**
+	 * Compares the given merge units by the given column.
+	 * 
+	 * @param mergeUnit1 the first merge unit
+	 * @param mergeUnit2 the second merge unit
+	 * @param column     the column to compare
+	 * @return the comparison result in ascending order
+	 */
+	int compare(final IMergeUnit mergeUnit1, final IMergeUnit mergeUnit2, final Column column) {
+		return getSortKey(mergeUnit1, column).compareTo(getSortKey(mergeUnit2, column));
+	}
+
+	/**
+	 * Sorts the given merge units by the given column. The merge units themselves
+	 * are not moved, instead the sorted order of their indices is returned. The
+	 * sort is stable.
+	 * 
+	 * @param mergeUnits the merge units to sort
+	 * @param column     the column to sort by
+	 * @param ascending  {@code true} to sort ascending, {@code false} to sort
+	 *                   descending
+	 * @return the indices of the merge units in sorted order
+	 */
+	int[] sort(final IMergeUnit[] mergeUnits, final Column column, final boolean ascending) {
+		final SortKey[] keys = new SortKey[mergeUnits.length];
+		final int[] indices = new int[mergeUnits.length];
+		for (int i = 0; i < mergeUnits.length; i++) {
+			keys[i] = getSortKey(mergeUnits[i], column);
+			indices[i] = i;
+		}
+		mergeSort(indices, new int[indices.length], 0, indices.length, keys, ascending ? 1 : -1);
+		return indices;
+	}
+
+	/**
+	 * Sorts the range of the given indices by their keys, keeping the order of
+	 * equal keys.
+	 */
+	private static void mergeSort(final int[] indices, final int[] buffer, final int from, final int to,
+			final SortKey[] keys, final int direction) {
+		final int length = to - from;
+		if (length < 2) {
+			return;
+		}
+		if (length <= 16) {
+			// insertion sort for small ranges
+			for (int i = from + 1; i < to; i++) {
+				final int index = indices[i];
+				int j = i - 1;
+				while (j >= from && direction * keys[indices[j]].compareTo(keys[index]) > 0) {
+					indices[j + 1] = indices[j];
+					j--;
+				}
+				indices[j + 1] = index;
+			}
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		mergeSort(indices, buffer, from, middle, keys, direction);
+		mergeSort(indices, buffer, middle, to, keys, direction);
+		if (direction * keys[indices[middle - 1]].compareTo(keys[indices[middle]]) <= 0) {
+			// already in order
+			return;
+		}
+		System.arraycopy(indices, from, buffer, from, length);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < middle && direction * keys[buffer[left]].compareTo(keys[buffer[right]]) <= 0)) {
+				indices[i] = buffer[left++];
+			} else {
+				indices[i] = buffer[right++];
+			}
+		}
+	}
+
+	/**
+	 * Returns the sort key of the given merge unit for the given column. The
+	 * status is not cached, as it changes while merging.
+	 * 
+	 * @param mergeUnit the merge unit
+	 * @param column    the column
+	 * @return the sort key
+	 */
+	SortKey getSortKey(final IMergeUnit mergeUnit, final Column column) {
+		if (column == Column.COLUMN_STATUS) {
+			return STATUS_KEYS[mergeUnit.getStatus().ordinal()];
+		}
+		synchronized (cache) {
+			final SortKey[] keys = cache.computeIfAbsent(mergeUnit, unit -> new SortKey[COLUMNS.length]);
+			SortKey key = keys[column.ordinal()];
+			if (key == null) {
+				key = createSortKey(mergeUnit, column);
+				keys[column.ordinal()] = key;
+			}
+			return key;
+		}
+	}
+
+	private static SortKey createSortKey(final IMergeUnit mergeUnit, final Column column) {
+		switch (column) {
+		case COLUMN_HOST:
+			return new SortKey(mergeUnit.getHost());
+		case COLUMN_REPOSITORY:
+			return new SortKey(mergeUnit.getRepository());
+		case COLUMN_DATE:
+			final LocalDateTime date = mergeUnit.getDate();
+			return date == null ? new SortKey(null) : new SortKey(date.toEpochSecond(ZoneOffset.UTC), date.getNano());
+		case COLUMN_REVISIONS:
+			return createRevisionSortKey(mergeUnit.getRevisionInfo());
+		case COLUMN_BRANCH_SOURCE:
+			return new SortKey(mergeUnit.getBranchSource());
+		case COLUMN_BRANCH_TARGET:
+			return new SortKey(mergeUnit.getBranchTarget());
+		case COLUMN_MERGESCRIPT:
+			return new SortKey(mergeUnit.getFileName());
+		default:
+			return NO_KEY;
+		}
+	}
+
+	/**
+	 * Creates a numeric sort key for SVN revisions like {@code 9:12}. Other
+	 * revisions, e.g. GIT commit ids, are compared as text.
+	 * 
+	 * @param revisionInfo the revision info
+	 * @return the sort key
+	 */
+	private static SortKey createRevisionSortKey(final String revisionInfo) {
+		if (revisionInfo != null) {
+			final int separator = revisionInfo.indexOf(':');
+			if (separator > 0) {
+				try {
+					return new SortKey(Long.parseLong(revisionInfo.substring(0, separator)),
+							Long.parseLong(revisionInfo.substring(separator + 1)));
+				} catch (NumberFormatException e) {
+					// Not numeric, compare as text
+				}
+			}
+		}
+		return new SortKey(revisionInfo);
+	}
+
+	/**
+	 * A precomputed sort key, which is either numeric or a text. Numeric keys are
+	 * sorted before text keys and {@code null} texts before other texts.
+	 */
+	static final class SortKey implements Comparable<SortKey> {
+
+		private final boolean isNumeric;
+		private final long number1;
+		private final long number2;
+		private final String text;
+
+		/**
+		 * @param number1 the primary number
+		 * @param number2 the secondary number
+		 */
+		private SortKey(final long number1, final long number2) {
+			this.isNumeric = true;
+			this.number1 = number1;
+			this.number2 = number2;
+			this.text = null;
+		}
+
+		/**
+		 * @param text the text, may be {@code null}
+		 */
+		private SortKey(final String text) {
+			this.isNumeric = false;
+			this.number1 = 0;
+			this.number2 = 0;
+			this.text = text;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(final SortKey o) {
+			if (isNumeric != o.isNumeric) {
+				return isNumeric ? -1 : 1;
+			} else if (isNumeric) {
+				final int result = Long.compare(number1, o.number1);
+				return result != 0 ? result : Long.compare(number2, o.number2);
+			} else if (text == o.text) { // NOSONAR identical or both null
+				return 0;
+			} else if (text == null) {
+				return -1;
+			} else if (o.text == null) {
+				return 1;
+			} else {
+				return text.compareTo(o.text);
+			}
+		}
+
+	}
+
+}
@@ -16,6 +16,12 @@
 
 package org.aposin.mergeprocessor.view.dashboard;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 import org.aposin.mergeprocessor.model.IMergeUnit;
 import org.aposin.mergeprocessor.view.Column;
 import org.eclipse.jface.viewers.TableViewer;
@@ -24,11 +30,26 @@ import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.swt.SWT;
 
 /**
+ * Sorts the merge units of the dashboard by the selected column. The sort keys
+ * are cached by a {@link MergeUnitSorter}. The order can be computed in the
+ * background by {@link #sortInBackground(Object[], int)}, so the following
+ * refresh of the viewer only has to arrange the elements.
+ * 
  * @author Stefan Weiser
  */
 class MergeUnitViewerComparator extends ViewerComparator {
 
-	private int propertyIndex;
+	private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "Merge Unit Sorter"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final MergeUnitSorter sorter = new MergeUnitSorter();
+
+	private volatile int propertyIndex;
+	/** The order computed in the background, or {@code null} */
+	private volatile SortedOrder sortedOrder;
 
 	/**
 	 * 
@@ -38,16 +59,80 @@ class MergeUnitViewerComparator extends ViewerComparator {
 	}
 
 	/**
+	 * Sets the column to sort by and drops the order computed in the background.
+	 * 
 	 * @param column
 	 */
 	void setColumn(int column) {
 		this.propertyIndex = column;
+		sortedOrder = null;
 	}
 
 	int getColumn() {
 		return propertyIndex;
 	}
 
+	/**
+	 * Removes the cached sort keys of all merge units, which are not contained in
+	 * the given ones. Has to be called when the merge units are reloaded.
+	 * 
+	 * @param mergeUnits the merge units to keep
+	 */
+	void retainCache(final Collection<? extends IMergeUnit> mergeUnits) {
+		sorter.retain(mergeUnits);
+		sortedOrder = null;
+	}
+
+	/**
+	 * Computes the order of the given elements for the current column in the
+	 * background. When the returned future is completed, a refresh of the viewer
+	 * with the same elements and sort direction uses this order. An order by the
+	 * status is never reused, as the status changes while merging.
+	 * 
+	 * @param elements      the elements of the viewer
+	 * @param sortDirection the sort direction, {@link SWT#UP} or {@link SWT#DOWN}
+	 * @return the future completed when the order is computed
+	 */
+	CompletableFuture<Void> sortInBackground(final Object[] elements, final int sortDirection) {
+		final Object[] copy = elements.clone();
+		final int column = propertyIndex;
+		return CompletableFuture.runAsync(() -> {
+			final IMergeUnit[] mergeUnits = toMergeUnits(copy);
+			if (mergeUnits != null) {
+				final int[] order = sorter.sort(mergeUnits, MergeUnitSorter.getColumn(column), sortDirection == SWT.UP);
+				sortedOrder = new SortedOrder(copy, column, sortDirection, order);
+			}
+		}, EXECUTOR);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void sort(Viewer viewer, Object[] elements) {
+		final IMergeUnit[] mergeUnits = toMergeUnits(elements);
+		if (mergeUnits == null) {
+			super.sort(viewer, elements);
+			return;
+		}
+		final int sortDirection = getSortDirection(viewer);
+		final Column column = MergeUnitSorter.getColumn(propertyIndex);
+		final SortedOrder prepared = sortedOrder;
+		final int[] order;
+		if (column == Column.COLUMN_STATUS) {
+			// The status changes while merging, so a prepared order may be outdated
+			sortedOrder = null;
+			order = sorter.sort(mergeUnits, column, sortDirection == SWT.UP);
+		} else if (prepared != null && prepared.matches(elements, propertyIndex, sortDirection)) {
+			order = prepared.order;
+		} else {
+			order = sorter.sort(mergeUnits, column, sortDirection == SWT.UP);
+		}
+		for (int i = 0; i < order.length; i++) {
+			elements[i] = mergeUnits[order[i]];
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -56,45 +141,63 @@ class MergeUnitViewerComparator extends ViewerComparator {
 		if (e1.equals(e2)) {
 			return 0;
 		} else if (e1 instanceof IMergeUnit && e2 instanceof IMergeUnit) {
-			final int result;
-			final IMergeUnit mergeUnit1 = (IMergeUnit) e1;
-			final IMergeUnit mergeUnit2 = (IMergeUnit) e2;
-
-			final Column[] columns = Column.sortedValues();
-			switch (columns[propertyIndex]) {
-			case COLUMN_STATUS:
-				result = mergeUnit1.getStatus().compareTo(mergeUnit2.getStatus());
-				break;
-			case COLUMN_REPOSITORY:
-				result = mergeUnit1.getRepository().compareTo(mergeUnit2.getRepository());
-				break;
-			case COLUMN_DATE:
-				result = mergeUnit1.getDate().compareTo(mergeUnit2.getDate());
-				break;
-			case COLUMN_REVISIONS:
-				result = mergeUnit1.getRevisionInfo().compareTo(mergeUnit2.getRevisionInfo());
-				break;
-			case COLUMN_BRANCH_SOURCE:
-				result = mergeUnit1.getBranchSource().compareTo(mergeUnit2.getBranchSource());
-				break;
-			case COLUMN_BRANCH_TARGET:
-				result = mergeUnit1.getBranchTarget().compareTo(mergeUnit2.getBranchTarget());
-				break;
-			case COLUMN_MERGESCRIPT:
-				result = mergeUnit1.getFileName().compareTo(mergeUnit2.getFileName());
-				break;
-			default:
-				result = 0;
-				break;
-			}
-			if (viewer instanceof TableViewer) {
-				final int sortDirection = ((TableViewer) viewer).getTable().getSortDirection();
-				return sortDirection == SWT.UP ? result : result * -1;
-			} else {
-				return result;
-			}
+			final Column column = MergeUnitSorter.getColumn(propertyIndex);
+			final int result = sorter.compare((IMergeUnit) e1, (IMergeUnit) e2, column);
+			return getSortDirection(viewer) == SWT.UP ? result : result * -1;
 		} else {
 			return e1.toString().compareTo(e2.toString());
 		}
 	}
+
+	private static int getSortDirection(final Viewer viewer) {
+		if (viewer instanceof TableViewer) {
+			return ((TableViewer) viewer).getTable().getSortDirection();
+		} else {
+			return SWT.UP;
+		}
+	}
+
+	/**
+	 * @param elements the elements
+	 * @return the elements as merge units or {@code null} if any element is not
+	 *         a merge unit
+	 */
+	private static IMergeUnit[] toMergeUnits(final Object[] elements) {
+		final IMergeUnit[] mergeUnits = new IMergeUnit[elements.length];
+		for (int i = 0; i < elements.length; i++) {
+			if (!(elements[i] instanceof IMergeUnit)) {
+				return null;
+			}
+			mergeUnits[i] = (IMergeUnit) elements[i];
+		}
+		return mergeUnits;
+	}
+
+	/**
+	 * An order of elements computed in the background.
+	 */
+	private static final class SortedOrder {
+
+		private final Object[] elements;
+		private final int column;
+		private final int sortDirection;
+		private final int[] order;
+
+		private SortedOrder(final Object[] elements, final int column, final int sortDirection, final int[] order) {
+			this.elements = elements;
+			this.column = column;
+			this.sortDirection = sortDirection;
+			this.order = order;
+		}
+
+		/**
+		 * @return {@code true} if the order was computed for the given arguments
+		 */
+		private boolean matches(final Object[] elements, final int column, final int sortDirection) {
+			return this.column == column && this.sortDirection == sortDirection
+					&& Arrays.equals(this.elements, elements);
+		}
+
+	}
+
 }
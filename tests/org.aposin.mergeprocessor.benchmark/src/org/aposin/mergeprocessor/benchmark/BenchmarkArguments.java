@@ -0,0 +1,79 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line arguments of the form {@code name=value} for the main methods of
+ * the benchmark tools. Arguments which are not given are replaced by the
+ * default values of the tools.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+final class BenchmarkArguments {
+
+	private final Map<String, String> arguments = new HashMap<>();
+
+	/**
+	 * @param args the command line arguments
+	 * @throws IllegalArgumentException if an argument is not of the form
+	 *                                  {@code name=value}
+	 */
+	BenchmarkArguments(final String[] args) {
+		for (final String arg : args) {
+			final int separator = arg.indexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException(String.format("Argument '%s' is not of the form name=value", arg)); //$NON-NLS-1$
+			}
+			arguments.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+	}
+
+	/**
+	 * @param name         the name of the argument
+	 * @param defaultValue the value if the argument is not given
+	 * @return the value of the argument
+	 */
+	String getString(final String name, final String defaultValue) {
+		return arguments.getOrDefault(name, defaultValue);
+	}
+
+	/**
+	 * @param name         the name of the argument
+	 * @param defaultValue the value if the argument is not given
+	 * @return the value of the argument
+	 * @throws NumberFormatException if the value is not an integer
+	 */
+	int getInt(final String name, final int defaultValue) {
+		final String value = arguments.get(name);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+	/**
+	 * @param name         the name of the argument
+	 * @param defaultValue the value if the argument is not given
+	 * @return the value of the argument
+	 * @throws NumberFormatException if the value is not a number
+	 */
+	double getDouble(final String name, final double defaultValue) {
+		final String value = arguments.get(name);
+		return value == null ? defaultValue : Double.parseDouble(value);
+	}
+
+}
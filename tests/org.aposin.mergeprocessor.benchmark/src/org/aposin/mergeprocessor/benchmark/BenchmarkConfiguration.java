@@ -0,0 +1,395 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
+import org.aposin.mergeprocessor.model.git.GitCloneStrategy;
+import org.aposin.mergeprocessor.view.Column;
+import org.eclipse.swt.SWT;
+
+/**
+ * Implementation of {@link IConfiguration} for benchmarks. It provides only the
+ * values required by the parsers, the renaming service, the SFTP connection and
+ * the GIT repositories, all other values are defaults.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class BenchmarkConfiguration implements IConfiguration {
+
+	/** The host of the merge units. */
+	public static final String HOST = "localhost"; //$NON-NLS-1$
+	/** The folder of the merge units to do. */
+	public static final String TODO_FOLDER = "/merges/benchmark/todo/"; //$NON-NLS-1$
+	/** The folder of the merged merge units. */
+	public static final String DONE_FOLDER = "/merges/benchmark/done/"; //$NON-NLS-1$
+	/** The user and password to login on the sftp server. */
+	public static final String USER = "benchmark"; //$NON-NLS-1$
+
+	private String renameDatabaseUrl;
+	private final int sftpPort;
+	private final String gitRepositoryFolder;
+
+	/**
+	 * @param renameDatabaseUrl the JDBC URL of the renaming database
+	 */
+	public BenchmarkConfiguration(final String renameDatabaseUrl) {
+		this(renameDatabaseUrl, 22, null);
+	}
+
+	/**
+	 * @param renameDatabaseUrl   the JDBC URL of the renaming database
+	 * @param sftpPort            the port of the sftp server on {@link #HOST}
+	 * @param gitRepositoryFolder the folder of the local GIT repositories
+	 */
+	public BenchmarkConfiguration(final String renameDatabaseUrl, final int sftpPort,
+			final String gitRepositoryFolder) {
+		this.renameDatabaseUrl = renameDatabaseUrl;
+		this.sftpPort = sftpPort;
+		this.gitRepositoryFolder = gitRepositoryFolder;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ISftpConfiguration getSftpConfiguration() {
+		return new ISftpConfiguration() {
+
+			@Override
+			public String getTodoFolder() {
+				return TODO_FOLDER;
+			}
+
+			@Override
+			public String getDoneFolder() {
+				return DONE_FOLDER;
+			}
+
+			@Override
+			public String getIgnoredFolder() {
+				return "/merges/benchmark/ignored/"; //$NON-NLS-1$
+			}
+
+			@Override
+			public String getCanceledFolder() {
+				return "/merges/benchmark/canceled/"; //$NON-NLS-1$
+			}
+
+			@Override
+			public String getManualFolder() {
+				return "/merges/benchmark/manual/"; //$NON-NLS-1$
+			}
+
+			@Override
+			public String getHost() {
+				return HOST;
+			}
+
+			@Override
+			public int getPort() {
+				return sftpPort;
+			}
+
+			@Override
+			public String getUser() {
+				return USER;
+			}
+
+			@Override
+			public String getPassword() {
+				return USER;
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isAutomatic() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setAutomatic(boolean automatically) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isDisplayDone() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDisplayDone(boolean displayDone) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isDisplayIgnored() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setDisplayIgnored(boolean displayIgnored) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Column getSortColumn() {
+		return Column.COLUMN_DATE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSortColumn(Column column) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSortDirection() {
+		return SWT.UP;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSortDirection(int sortDirection) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getGitRepositoryFolder() {
+		return gitRepositoryFolder;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean autoCreateGitRepository() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitCloneStrategy getGitCloneStrategy() {
+		return GitCloneStrategy.FULL;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRenameDatabaseUrl() {
+		return renameDatabaseUrl;
+	}
+
+	/**
+	 * @param renameDatabaseUrl the JDBC URL of the renaming database
+	 */
+	public void setRenameDatabaseUrl(final String renameDatabaseUrl) {
+		this.renameDatabaseUrl = renameDatabaseUrl;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRenameDatabaseUser() {
+		return "sa"; //$NON-NLS-1$
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getRenameDatabasePassword() {
+		return ""; //$NON-NLS-1$
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasLocalH2RenameDatabase() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getLocalH2RenameDatabase() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getEclipseApplicationPath() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getEclipseApplicationParameters() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getLastEclipseWorkspacePath() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setLastEclipseWorkspacePath(Path path) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getLastRepositoryPath() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setLastRepositoryPath(Path path) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getUserPrefsPath() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Path> getVersionInfoPaths() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Path getUserWorkingFolder() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getUser() {
+		return USER;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRefreshInterval() {
+		return 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSvnUsername(String username) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getSvnUsername() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setSvnPassword(String password) {
+		// NOOP
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getSvnPassword() {
+		return null;
+	}
+
+}
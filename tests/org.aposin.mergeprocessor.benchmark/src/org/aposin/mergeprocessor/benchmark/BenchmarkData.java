@@ -0,0 +1,226 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Generates reproducible input data for the benchmarks, i.e. the content of
+ * SVN and GIT merge files and renaming databases.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class BenchmarkData {
+
+	/** The repository of the renaming database. */
+	public static final String REPOSITORY_URL = "https://svn-benchmark.local"; //$NON-NLS-1$
+	/** The version before all renamings of the renaming database. */
+	public static final String SOURCE_VERSION = "18.0.100"; //$NON-NLS-1$
+	/** The version after all renamings of the renaming database. */
+	public static final String TARGET_VERSION = "20.0.100"; //$NON-NLS-1$
+
+	private static final String[] SVN_ACTIONS = { "U   ", "A   ", "D   ", "UU  " }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	private static final String[] GIT_ACTIONS = { "M", "A", "D" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	private BenchmarkData() {
+		// Utility class containing only static methods
+	}
+
+	/**
+	 * @param repository the name of the repository
+	 * @param revision   the revision of the merge unit
+	 * @return the file name of an SVN merge file, e.g.
+	 *         {@code repo_r1234_2019-01-01_08-00-00_+0000.svnmerge}
+	 */
+	public static String createSvnFileName(final String repository, final long revision) {
+		return MergeQueueGenerator.formatSvnFileName(repository, revision,
+				MergeQueueGenerator.START_DATE.plusMinutes(revision));
+	}
+
+	/**
+	 * @param revision     the revision of the merge unit
+	 * @param changedFiles the number of changed files
+	 * @return the content of an SVN merge file in the format written by
+	 *         {@code mergetrigger_merge.pl}
+	 */
+	public static String createSvnFileContent(final long revision, final int changedFiles) {
+		return createSvnFileContent(REPOSITORY_URL, revision, changedFiles);
+	}
+
+	/**
+	 * @param repositoryUrl the URL of the SVN repository
+	 * @param revision      the revision of the merge unit
+	 * @param changedFiles  the number of changed files
+	 * @return the content of an SVN merge file in the format written by
+	 *         {@code mergetrigger_merge.pl}
+	 */
+	public static String createSvnFileContent(final String repositoryUrl, final long revision,
+			final int changedFiles) {
+		final Random random = new Random(revision);
+		final List<String> workingCopyFiles = new ArrayList<>(changedFiles);
+		for (int i = 0; i < changedFiles; i++) {
+			workingCopyFiles.add(SVN_ACTIONS[random.nextInt(SVN_ACTIONS.length)] + "branches/V18.0/" //$NON-NLS-1$
+					+ createArtifactPath(random.nextInt(changedFiles), i));
+		}
+		return MergeQueueGenerator.formatSvnMergeFile(repositoryUrl + "/branches/V18.0", repositoryUrl + "/trunk", //$NON-NLS-1$ //$NON-NLS-2$
+				revision - 1, revision, workingCopyFiles);
+	}
+
+	/**
+	 * @param index        the index of the merge unit
+	 * @param changedFiles the number of changed files
+	 * @return the content of a GIT merge file
+	 */
+	public static String createGitFileContent(final int index, final int changedFiles) {
+		final String commitId = String.format("%040x", new Random(index).nextLong() & Long.MAX_VALUE); //$NON-NLS-1$
+		return createGitFileContent(REPOSITORY_URL + "/benchmark.git", index, commitId, changedFiles); //$NON-NLS-1$
+	}
+
+	/**
+	 * @param repository   the URL of the GIT repository
+	 * @param index        the index of the merge unit
+	 * @param commitId     the id of the commit to merge
+	 * @param changedFiles the number of changed files
+	 * @return the content of a GIT merge file
+	 */
+	public static String createGitFileContent(final String repository, final int index, final String commitId,
+			final int changedFiles) {
+		final Random random = new Random(index);
+		final List<String> workingCopyFiles = new ArrayList<>(changedFiles);
+		for (int i = 0; i < changedFiles; i++) {
+			workingCopyFiles.add(GIT_ACTIONS[random.nextInt(GIT_ACTIONS.length)] + "  " //$NON-NLS-1$
+					+ createArtifactPath(random.nextInt(changedFiles), i));
+		}
+		return MergeQueueGenerator.formatGitMergeFile(repository, MergeQueueGenerator.START_DATE.plusMinutes(index),
+				commitId, "V18.0", "master", workingCopyFiles); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @param module the index of the module
+	 * @param file   the index of the file
+	 * @return a path of an artifact below the module
+	 */
+	public static String createArtifactPath(final int module, final int file) {
+		return String.format("platform/java/plugins/org.aposin.module%1$d/src/org/aposin/module%1$d/Class%2$d.java", //$NON-NLS-1$
+				module, file);
+	}
+
+	/**
+	 * @param module the index of the module
+	 * @return the path of the module renamed by the renaming database
+	 */
+	public static String createModulePath(final int module) {
+		return String.format("platform/java/plugins/org.aposin.module%d", module); //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates a file based H2 renaming database with the schema of the renaming
+	 * database. Each module is renamed twice between {@link #SOURCE_VERSION} and
+	 * {@link #TARGET_VERSION}, the first time as folder and the second time file by
+	 * file. Additionally each module has a link mapping.
+	 * 
+	 * @param folder         the folder where to create the database
+	 * @param modules        the number of renamed modules
+	 * @param filesPerModule the number of renamed files of each module
+	 * @return the JDBC URL of the database
+	 * @throws SQLException if the database could not be created
+	 */
+	public static String createRenameDatabase(final Path folder, final int modules, final int filesPerModule)
+			throws SQLException {
+		final String jdbcUrl = "jdbc:h2:file:" + folder.resolve("rename").toString(); //$NON-NLS-1$ //$NON-NLS-2$
+		try (final Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")) { //$NON-NLS-1$ //$NON-NLS-2$
+			RenameMappingGenerator.createTables(connection);
+			connection.setAutoCommit(false);
+			try (final PreparedStatement rename = connection.prepareStatement(
+					"INSERT INTO RENAME_MAPPING VALUES(default, ?, ?, ?, ?)"); //$NON-NLS-1$
+					final PreparedStatement link = connection
+							.prepareStatement("INSERT INTO LINK_MAPPING VALUES(default, ?, ?, ?, ?)")) { //$NON-NLS-1$
+				for (int module = 0; module < modules; module++) {
+					final String modulePath = createModulePath(module);
+					final String renamedModulePath = modulePath.replace("aposin", "opin"); //$NON-NLS-1$ //$NON-NLS-2$
+					addMapping(rename, modulePath, renamedModulePath, "18.5.100"); //$NON-NLS-1$
+					for (int file = 0; file < filesPerModule; file++) {
+						final String renamedFile = createArtifactPath(module, file).replaceFirst("aposin", "opin"); //$NON-NLS-1$ //$NON-NLS-2$
+						addMapping(rename, renamedFile, renamedFile.replace("Class", "Renamed"), "19.0.100"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					}
+					addMapping(link, modulePath, modulePath.replace("platform", "www"), "18.0.200"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					rename.executeBatch();
+					link.executeBatch();
+				}
+			}
+			connection.commit();
+		}
+		return jdbcUrl;
+	}
+
+	private static void addMapping(final PreparedStatement statement, final String name1, final String name2,
+			final String version) throws SQLException {
+		statement.setString(1, name1);
+		statement.setString(2, name2);
+		statement.setString(3, version);
+		statement.setString(4, REPOSITORY_URL);
+		statement.addBatch();
+	}
+
+	/**
+	 * @param count   the number of paths
+	 * @param modules the number of modules
+	 * @return paths of artifacts distributed over the modules, where every second
+	 *         module is renamed
+	 */
+	public static List<Path> createArtifactPaths(final int count, final int modules) {
+		final Random random = new Random(count);
+		final List<Path> paths = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			// Odd module indices are not contained in the database
+			final int module = random.nextInt(2 * modules);
+			final int moduleIndex = module % 2 == 0 ? module / 2 : modules + module;
+			paths.add(Paths.get(createArtifactPath(moduleIndex, random.nextInt(100))));
+		}
+		return paths;
+	}
+
+	/**
+	 * Deletes the given folder quietly.
+	 * 
+	 * @param folder the folder to delete
+	 */
+	public static void deleteFolder(final Path folder) {
+		FileUtils.deleteQuietly(folder.toFile());
+	}
+
+	/**
+	 * @return a new temporary folder
+	 * @throws IOException if the folder could not be created
+	 */
+	public static Path createTempFolder() throws IOException {
+		return Files.createTempDirectory("mergeprocessorBenchmark"); //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks. The arguments are the JMH command line options, e.g.
+ * a regular expression selecting the benchmarks. If no result file is given by
+ * {@code -rff}, the results are written as JSON into
+ * {@code target/benchmarks/jmh-<timestamp>.json}, so the results before and
+ * after an optimization can be compared.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class BenchmarkRunner {
+
+	private static final Path RESULT_FOLDER = Paths.get("target", "benchmarks"); //$NON-NLS-1$ //$NON-NLS-2$
+	private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"); //$NON-NLS-1$
+
+	private BenchmarkRunner() {
+		// Only the main method
+	}
+
+	/**
+	 * @param args the JMH command line options
+	 * @throws CommandLineOptionException if the options are invalid
+	 * @throws RunnerException            if a benchmark fails
+	 * @throws IOException                if the result folder could not be
+	 *                                    created
+	 */
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		final OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLineOptions);
+		if (!commandLineOptions.getResult().hasValue()) {
+			Files.createDirectories(RESULT_FOLDER);
+			final String fileName = "jmh-" + LocalDateTime.now().format(TIMESTAMP_FORMATTER) + ".json"; //$NON-NLS-1$ //$NON-NLS-2$
+			builder.result(RESULT_FOLDER.resolve(fileName).toString()).resultFormat(ResultFormatType.JSON);
+		}
+		final Options options = builder.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.aposin.mergeprocessor.utils.ByteArrayUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link ByteArrayUtil#replace(byte[], byte[], byte[])} on the
+ * content of a file, where a package name is renamed.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ByteArrayUtilBenchmark {
+
+	/** The size of the content in KB. */
+	@Param({ "1", "64", "1024" })
+	public int size;
+
+	private byte[] content;
+	private byte[] replaced;
+	private byte[] replacing;
+
+	@Setup
+	public void setUp() {
+		replaced = "org.aposin.framework".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+		replacing = "org.opin.framework".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+		final StringBuilder sb = new StringBuilder(size * 1024);
+		for (int line = 0; sb.length() < size * 1024; line++) {
+			if (line % 10 == 0) {
+				sb.append("import org.aposin.framework.logic.Class").append(line).append(";\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			} else {
+				sb.append("\t\tfinal String value").append(line).append(" = \"org.aposin.frame\";\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		content = sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] replace() {
+		return ByteArrayUtil.replace(content, replaced, replacing);
+	}
+
+}
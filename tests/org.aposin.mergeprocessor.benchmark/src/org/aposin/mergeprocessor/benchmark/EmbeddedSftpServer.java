@@ -0,0 +1,95 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.apache.sshd.common.config.keys.KeyUtils;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.subsystem.sftp.SftpSubsystemFactory;
+
+/**
+ * SFTP server running in the same JVM as stand-in for the server providing the
+ * merge units. The server listens on a free port of {@link BenchmarkConfiguration#HOST}
+ * and accepts only the user {@link BenchmarkConfiguration#USER}. The root of
+ * the SFTP file system is a local folder, so merge files can be created
+ * directly in the file system.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class EmbeddedSftpServer implements AutoCloseable {
+
+	private final Path root;
+	private final SshServer server;
+
+	/**
+	 * Starts the server.
+	 * 
+	 * @param folder the folder containing the root of the SFTP file system and the
+	 *               host key
+	 * @throws IOException if the server could not be started
+	 */
+	public EmbeddedSftpServer(final Path folder) throws IOException {
+		root = Files.createDirectories(folder.resolve("root")); //$NON-NLS-1$
+		final SimpleGeneratorHostKeyProvider keyProvider = new SimpleGeneratorHostKeyProvider(
+				folder.resolve("hostkey.ser")); //$NON-NLS-1$
+		// RSA is supported by all versions of JSch
+		keyProvider.setAlgorithm(KeyUtils.RSA_ALGORITHM);
+		server = SshServer.setUpDefaultServer();
+		server.setHost(BenchmarkConfiguration.HOST);
+		server.setPort(0);
+		server.setKeyPairProvider(keyProvider);
+		server.setPasswordAuthenticator((user, password, session) -> BenchmarkConfiguration.USER.equals(user)
+				&& BenchmarkConfiguration.USER.equals(password));
+		server.setFileSystemFactory(new VirtualFileSystemFactory(root));
+		server.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+		server.start();
+	}
+
+	/**
+	 * @return the port the server is listening on
+	 */
+	public int getPort() {
+		return server.getPort();
+	}
+
+	/**
+	 * Returns the local path of the given path on the SFTP server.
+	 * 
+	 * @param remotePath the absolute path on the SFTP server
+	 * @return the local path
+	 */
+	public Path getLocalPath(final String remotePath) {
+		return root.resolve(remotePath.substring(1));
+	}
+
+	/**
+	 * Stops the server immediately.
+	 * 
+	 * @throws IOException if the server could not be stopped
+	 */
+	@Override
+	public void close() throws IOException {
+		server.stop(true);
+	}
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.utils.RuntimeUtil;
+import org.aposin.mergeprocessor.utils.RuntimeUtil.CmdUtilException;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.transport.RefSpec;
+
+/**
+ * Factory creating local repositories as stand-ins for the SVN and GIT servers.
+ * The repositories are accessed by {@code file://} URLs, so no network is
+ * required.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class LocalRepositoryFactory {
+
+	/** The branch containing the commits to merge. */
+	public static final String SOURCE_BRANCH = "V18.0"; //$NON-NLS-1$
+	/** The branch where to merge the commits. */
+	public static final String TARGET_BRANCH = "master"; //$NON-NLS-1$
+
+	private LocalRepositoryFactory() {
+		// Factory class
+	}
+
+	/**
+	 * Creates an SVN repository with the layout {@code trunk} and
+	 * {@code branches/V18.0} by the command line tools {@code svnadmin} and
+	 * {@code svn}, in the same way as the {@code TempSvnRepositoryFactory} of the
+	 * tests. The branch contains the given number of revisions, each adding a new
+	 * file, so the revisions can be merged into {@code trunk} in any order without
+	 * conflicts.
+	 * 
+	 * @param folder  the folder where to create the repository
+	 * @param commits the number of revisions to create on the branch
+	 * @return the created repository
+	 * @throws CmdUtilException if the command line tools are not available
+	 * @throws IOException      if a file could not be written
+	 */
+	public static LocalSvnRepository createSvnRepository(final Path folder, final int commits)
+			throws CmdUtilException, IOException {
+		RuntimeUtil.exec("svnadmin create svn", folder); //$NON-NLS-1$
+		final String url = getUrl(folder.resolve("svn")); //$NON-NLS-1$
+		RuntimeUtil.exec(String.format("svn mkdir --parents -m Layout --username %s %s/trunk/src %s/branches/%s/src", //$NON-NLS-1$
+				BenchmarkConfiguration.USER, url, url, SOURCE_BRANCH));
+		// The layout is the first revision
+		long revision = 1;
+		final List<Long> revisions = new ArrayList<>(commits);
+		final List<String> files = new ArrayList<>(commits);
+		final Path workingCopy = folder.resolve("wc"); //$NON-NLS-1$
+		RuntimeUtil.exec(String.format("svn checkout %s/branches/%s %s", url, SOURCE_BRANCH, workingCopy), folder); //$NON-NLS-1$
+		for (int i = 0; i < commits; i++) {
+			final String fileName = String.format("src/File%d.txt", i); //$NON-NLS-1$
+			Files.write(workingCopy.resolve(fileName),
+					BenchmarkData.createArtifactPath(i, i).getBytes(StandardCharsets.UTF_8));
+			RuntimeUtil.exec("svn add " + fileName, workingCopy); //$NON-NLS-1$
+			RuntimeUtil.exec(String.format("svn commit -m Add_File%d --username %s", i, BenchmarkConfiguration.USER), //$NON-NLS-1$
+					workingCopy);
+			revisions.add(++revision);
+			files.add(fileName);
+		}
+		return new LocalSvnRepository(url, revisions, files);
+	}
+
+	/**
+	 * Creates a bare GIT repository. The branch {@link #SOURCE_BRANCH} contains the
+	 * given number of commits, each adding a new file, so the commits can be cherry
+	 * picked into {@link #TARGET_BRANCH} in any order without conflicts.
+	 * 
+	 * @param folder  the folder where to create the repository
+	 * @param commits the number of commits to create
+	 * @return the created repository
+	 * @throws GitAPIException if a GIT command fails
+	 * @throws IOException     if a file could not be written
+	 */
+	public static LocalGitRepository createGitRepository(final Path folder, final int commits)
+			throws GitAPIException, IOException {
+		final Path bare = folder.resolve("benchmark.git"); //$NON-NLS-1$
+		Git.init().setBare(true).setDirectory(bare.toFile()).call().close();
+		final String url = getUrl(bare);
+
+		final List<String> commitIds = new ArrayList<>(commits);
+		final Path seed = folder.resolve("seed"); //$NON-NLS-1$
+		try (final Git git = Git.init().setDirectory(seed.toFile()).call()) {
+			Files.write(seed.resolve("README.txt"), "Benchmark".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+			git.add().addFilepattern(".").call(); //$NON-NLS-1$
+			git.commit().setMessage("Initial commit").call(); //$NON-NLS-1$
+			git.checkout().setCreateBranch(true).setName(SOURCE_BRANCH).call();
+			Files.createDirectories(seed.resolve("src")); //$NON-NLS-1$
+			for (int i = 0; i < commits; i++) {
+				final String fileName = String.format("src/File%d.txt", i); //$NON-NLS-1$
+				Files.write(seed.resolve(fileName), BenchmarkData.createArtifactPath(i, i).getBytes(StandardCharsets.UTF_8));
+				git.add().addFilepattern(fileName).call();
+				commitIds.add(git.commit().setMessage("Add " + fileName).call().getName()); //$NON-NLS-1$
+			}
+			git.push().setRemote(url).setRefSpecs(new RefSpec("refs/heads/*:refs/heads/*")).call(); //$NON-NLS-1$
+		}
+		return new LocalGitRepository(url, commitIds);
+	}
+
+	/**
+	 * @param path the local path
+	 * @return the {@code file://} URL of the path without a trailing slash
+	 */
+	private static String getUrl(final Path path) {
+		return StringUtils.removeEnd(path.toUri().toString(), "/"); //$NON-NLS-1$
+	}
+
+	/**
+	 * A local SVN repository.
+	 * 
+	 * @author Stefan Weiser
+	 *
+	 */
+	public static final class LocalSvnRepository {
+
+		/** The URL of the repository root. */
+		public final String url;
+		/** The revisions on the branch {@link LocalRepositoryFactory#SOURCE_BRANCH}. */
+		public final List<Long> revisions;
+		/** The files added by the revisions, relative to the branch. */
+		public final List<String> files;
+
+		private LocalSvnRepository(final String url, final List<Long> revisions, final List<String> files) {
+			this.url = url;
+			this.revisions = Collections.unmodifiableList(revisions);
+			this.files = Collections.unmodifiableList(files);
+		}
+
+	}
+
+	/**
+	 * A local bare GIT repository.
+	 * 
+	 * @author Stefan Weiser
+	 *
+	 */
+	public static final class LocalGitRepository {
+
+		/** The URL of the repository, ending with {@code .git}. */
+		public final String url;
+		/** The ids of the commits on {@link LocalRepositoryFactory#SOURCE_BRANCH}. */
+		public final List<String> commitIds;
+
+		private LocalGitRepository(final String url, final List<String> commitIds) {
+			this.url = url;
+			this.commitIds = Collections.unmodifiableList(commitIds);
+		}
+
+	}
+
+}
@@ -0,0 +1,365 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.configuration.Configuration;
+import org.aposin.mergeprocessor.renaming.IFileSystemProvider;
+
+/**
+ * Generates merge files in the formats parsed by {@code SVNMergeUnitFactory}
+ * and {@code GITMergeUnitFactory}, e.g. to test the dashboard and the merge
+ * engine with a realistic number of merge units. The generated data is
+ * reproducible for the same seed and parameters.
+ * <ul>
+ * <li>Each merge unit changes between 1 and {@code maxChangedFiles} files.</li>
+ * <li>The given ratio of the SVN merge units changes files which are renamed in
+ * the target branch, as defined by the {@link RenameMappingGenerator}. All
+ * changed files of these merge units are written as {@code source>target}, as
+ * required for a file separated merge.</li>
+ * <li>The dates of the merge units are distributed randomly over the given
+ * spread, starting with {@link #START_DATE}, where the revisions increase with
+ * the date.</li>
+ * </ul>
+ * The main method writes the merge files and the matching renaming database
+ * into a local folder.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class MergeQueueGenerator {
+
+	/** The date of the first merge unit. */
+	public static final LocalDateTime START_DATE = LocalDateTime.of(2019, 1, 1, 8, 0);
+
+	private static final DateTimeFormatter SVN_FILE_DATE_FORMATTER = DateTimeFormatter
+			.ofPattern("yyyy-MM-dd_HH-mm-ss_Z"); //$NON-NLS-1$
+	private static final DateTimeFormatter GIT_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"); //$NON-NLS-1$
+	private static final String[] SVN_ACTIONS = { "U   ", "A   ", "D   ", "UU  " }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	private static final String[] GIT_ACTIONS = { "M", "A", "D" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final String SOURCE_BRANCH = "V18.0"; //$NON-NLS-1$
+	private static final String TARGET_BRANCH = "master"; //$NON-NLS-1$
+	/** The GIT branches are remote branches, as written by the merge trigger. */
+	private static final String GIT_REMOTE = "origin/"; //$NON-NLS-1$
+
+	private final Random random;
+	private final RenameMappingGenerator renameMappings;
+	private final int maxChangedFiles;
+	private final double renameRatio;
+	private final Duration dateSpread;
+
+	/**
+	 * @param seed            the seed of the random data
+	 * @param renameMappings  the generator of the renaming database, whose
+	 *                        repository is the repository of the SVN merge units
+	 * @param maxChangedFiles the maximum number of changed files of a merge unit
+	 * @param renameRatio     the ratio of SVN merge units with renamed files,
+	 *                        between {@code 0} and {@code 1}
+	 * @param dateSpread      the time span of the dates of the merge units
+	 */
+	public MergeQueueGenerator(final long seed, final RenameMappingGenerator renameMappings,
+			final int maxChangedFiles, final double renameRatio, final Duration dateSpread) {
+		this.random = new Random(seed);
+		this.renameMappings = renameMappings;
+		this.maxChangedFiles = Math.max(1, maxChangedFiles);
+		this.renameRatio = renameRatio;
+		this.dateSpread = dateSpread;
+	}
+
+	/**
+	 * Writes the merge files and the renaming database into a local folder. The
+	 * arguments are optional {@code name=value} pairs:
+	 * <ul>
+	 * <li>{@code folder}: the folder, by default {@code target/mergequeue}. The
+	 * merge files are written into the sub folder {@code todo}, the renaming
+	 * database into the sub folder {@code rename}.</li>
+	 * <li>{@code svnFiles}, {@code gitFiles}: the number of merge files, by
+	 * default 1000 and 100</li>
+	 * <li>{@code maxChangedFiles}: by default 20</li>
+	 * <li>{@code renameRatio}: by default 0.1</li>
+	 * <li>{@code dateSpreadDays}: by default 30</li>
+	 * <li>{@code modules}, {@code filesPerModule}, {@code chainDepth}: the
+	 * parameters of the renaming database, by default 100, 20 and 5</li>
+	 * <li>{@code seed}: by default 0</li>
+	 * </ul>
+	 * 
+	 * @param args optional {@code name=value} pairs
+	 * @throws IOException  if a merge file could not be written
+	 * @throws SQLException if the renaming database could not be created
+	 */
+	public static void main(final String[] args) throws IOException, SQLException {
+		final BenchmarkArguments arguments = new BenchmarkArguments(args);
+		final Path folder = Paths.get(arguments.getString("folder", "target/mergequeue")); //$NON-NLS-1$ //$NON-NLS-2$
+		final RenameMappingGenerator renameMappings = new RenameMappingGenerator(BenchmarkData.REPOSITORY_URL,
+				arguments.getInt("modules", 100), arguments.getInt("filesPerModule", 20), //$NON-NLS-1$ //$NON-NLS-2$
+				arguments.getInt("chainDepth", 5)); //$NON-NLS-1$
+		final MergeQueueGenerator generator = new MergeQueueGenerator(arguments.getInt("seed", 0), renameMappings, //$NON-NLS-1$
+				arguments.getInt("maxChangedFiles", 20), arguments.getDouble("renameRatio", 0.1), //$NON-NLS-1$ //$NON-NLS-2$
+				Duration.ofDays(arguments.getInt("dateSpreadDays", 30))); //$NON-NLS-1$
+		final Path todoFolder = Files.createDirectories(folder.resolve("todo")); //$NON-NLS-1$
+		final List<MergeFile> svnFiles = generator.createSvnMergeFiles("benchmark", arguments.getInt("svnFiles", 1000)); //$NON-NLS-1$ //$NON-NLS-2$
+		final List<MergeFile> gitFiles = generator.createGitMergeFiles(BenchmarkData.REPOSITORY_URL + "/benchmark.git", //$NON-NLS-1$
+				arguments.getInt("gitFiles", 100)); //$NON-NLS-1$
+		write(svnFiles, todoFolder);
+		write(gitFiles, todoFolder);
+		final String jdbcUrl = renameMappings.createDatabase(Files.createDirectories(folder.resolve("rename"))); //$NON-NLS-1$
+		System.out.println(String.format("Wrote %d SVN and %d GIT merge files to %s and the renaming database %s.", //$NON-NLS-1$
+				svnFiles.size(), gitFiles.size(), todoFolder.toAbsolutePath(), jdbcUrl));
+	}
+
+	/**
+	 * Creates SVN merge files for the repository of the renaming database.
+	 * 
+	 * @param repositoryName the name of the repository in the file names
+	 * @param count          the number of merge files
+	 * @return the merge files, sorted by revision
+	 */
+	public List<MergeFile> createSvnMergeFiles(final String repositoryName, final int count) {
+		final String repositoryUrl = renameMappings.getRepository();
+		final String sourceBranch = "branches/" + SOURCE_BRANCH + '/'; //$NON-NLS-1$
+		final String targetBranch = "trunk/"; //$NON-NLS-1$
+		final List<LocalDateTime> dates = createDates(count);
+		final List<MergeFile> mergeFiles = new ArrayList<>(count);
+		long revision = 1;
+		for (final LocalDateTime date : dates) {
+			final long revisionStart = revision;
+			revision += 1 + random.nextInt(3);
+			final int changedFiles = 1 + random.nextInt(maxChangedFiles);
+			final boolean renamed = renameMappings.getModules() > 0 && random.nextDouble() < renameRatio;
+			final List<String> workingCopyFiles = new ArrayList<>(changedFiles);
+			for (int i = 0; i < changedFiles; i++) {
+				final String action = SVN_ACTIONS[random.nextInt(SVN_ACTIONS.length)];
+				if (renamed) {
+					final int module = random.nextInt(renameMappings.getModules());
+					final int file = random.nextInt(Math.max(1, renameMappings.getFilesPerModule()));
+					workingCopyFiles.add(action + sourceBranch + BenchmarkData.createArtifactPath(module, file) + '>'
+							+ targetBranch + renameMappings.getRenamedPath(module, file));
+				} else {
+					// Modules after the renamed ones are not renamed
+					final int module = renameMappings.getModules() + random.nextInt(100);
+					workingCopyFiles.add(
+							action + sourceBranch + BenchmarkData.createArtifactPath(module, random.nextInt(100)));
+				}
+			}
+			mergeFiles.add(new MergeFile(formatSvnFileName(repositoryName, revision, date),
+					formatSvnMergeFile(repositoryUrl + "/branches/" + SOURCE_BRANCH, repositoryUrl + "/trunk", //$NON-NLS-1$ //$NON-NLS-2$
+							revisionStart, revision, workingCopyFiles)));
+		}
+		return mergeFiles;
+	}
+
+	/**
+	 * Creates an SVN merge file for each of the given revisions, which add the
+	 * given files to the source branch, e.g. of a repository created by the
+	 * {@link LocalRepositoryFactory}.
+	 * 
+	 * @param repositoryName the name of the repository in the file names
+	 * @param repositoryUrl  the URL of the repository root
+	 * @param revisions      the revisions to merge
+	 * @param files          the file added by each revision, relative to the
+	 *                       branch
+	 * @return the merge files, sorted by revision
+	 */
+	public List<MergeFile> createSvnMergeFiles(final String repositoryName, final String repositoryUrl,
+			final List<Long> revisions, final List<String> files) {
+		final String sourceBranch = "branches/" + SOURCE_BRANCH + '/'; //$NON-NLS-1$
+		final List<LocalDateTime> dates = createDates(revisions.size());
+		final List<MergeFile> mergeFiles = new ArrayList<>(revisions.size());
+		for (int i = 0; i < revisions.size(); i++) {
+			final long revision = revisions.get(i);
+			mergeFiles.add(new MergeFile(formatSvnFileName(repositoryName, revision, dates.get(i)),
+					formatSvnMergeFile(repositoryUrl + "/branches/" + SOURCE_BRANCH, repositoryUrl + "/trunk", //$NON-NLS-1$ //$NON-NLS-2$
+							revision - 1, revision, List.of("A   " + sourceBranch + files.get(i))))); //$NON-NLS-1$
+		}
+		return mergeFiles;
+	}
+
+	/**
+	 * Creates GIT merge files with random commit ids.
+	 * 
+	 * @param repositoryUrl the URL of the GIT repository
+	 * @param count         the number of merge files
+	 * @return the merge files, sorted by date
+	 */
+	public List<MergeFile> createGitMergeFiles(final String repositoryUrl, final int count) {
+		final List<String> commitIds = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			commitIds.add(String.format("%016x%016x%08x", random.nextLong(), random.nextLong(), random.nextInt())); //$NON-NLS-1$
+		}
+		return createGitMergeFiles(repositoryUrl, commitIds);
+	}
+
+	/**
+	 * Creates a GIT merge file for each of the given commits.
+	 * 
+	 * @param repositoryUrl the URL of the GIT repository
+	 * @param commitIds     the ids of the commits to merge
+	 * @return the merge files, sorted by date
+	 */
+	public List<MergeFile> createGitMergeFiles(final String repositoryUrl, final List<String> commitIds) {
+		final String repositoryName = StringUtils.substringAfterLast(StringUtils.removeEnd(repositoryUrl, ".git"), "/"); //$NON-NLS-1$ //$NON-NLS-2$
+		final List<LocalDateTime> dates = createDates(commitIds.size());
+		final List<MergeFile> mergeFiles = new ArrayList<>(commitIds.size());
+		for (int i = 0; i < commitIds.size(); i++) {
+			final String commitId = commitIds.get(i);
+			final int changedFiles = 1 + random.nextInt(maxChangedFiles);
+			final List<String> workingCopyFiles = new ArrayList<>(changedFiles);
+			for (int j = 0; j < changedFiles; j++) {
+				workingCopyFiles.add(GIT_ACTIONS[random.nextInt(GIT_ACTIONS.length)] + "  " //$NON-NLS-1$
+						+ BenchmarkData.createArtifactPath(random.nextInt(100), random.nextInt(100)));
+			}
+			mergeFiles.add(new MergeFile(
+					String.format("%s_%s%s", repositoryName, commitId.substring(0, Math.min(12, commitId.length())), //$NON-NLS-1$
+							Configuration.GIT_EXTENSION_FILE),
+					formatGitMergeFile(repositoryUrl, dates.get(i), commitId, GIT_REMOTE + SOURCE_BRANCH,
+							GIT_REMOTE + TARGET_BRANCH, workingCopyFiles)));
+		}
+		return mergeFiles;
+	}
+
+	/**
+	 * @param count the number of dates
+	 * @return random dates in the date spread, sorted ascending
+	 */
+	private List<LocalDateTime> createDates(final int count) {
+		final long spread = Math.max(1, dateSpread.getSeconds());
+		final long[] offsets = new long[count];
+		for (int i = 0; i < count; i++) {
+			offsets[i] = (long) (random.nextDouble() * spread);
+		}
+		Arrays.sort(offsets);
+		final List<LocalDateTime> dates = new ArrayList<>(count);
+		for (final long offset : offsets) {
+			dates.add(START_DATE.plusSeconds(offset));
+		}
+		return dates;
+	}
+
+	/**
+	 * Writes the given merge files into a local folder.
+	 * 
+	 * @param mergeFiles the merge files to write
+	 * @param folder     the folder where to write the merge files
+	 * @throws IOException if a merge file could not be written
+	 */
+	public static void write(final Collection<MergeFile> mergeFiles, final Path folder) throws IOException {
+		Files.createDirectories(folder);
+		for (final MergeFile mergeFile : mergeFiles) {
+			Files.write(folder.resolve(mergeFile.fileName), mergeFile.content.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Writes the given merge files by the given file system provider, e.g. to the
+	 * SFTP server.
+	 * 
+	 * @param mergeFiles the merge files to write
+	 * @param provider   the file system provider
+	 * @param folder     the folder where to write the merge files, ending with a
+	 *                   slash
+	 * @throws IOException if a merge file could not be written
+	 */
+	public static void write(final Collection<MergeFile> mergeFiles, final IFileSystemProvider provider,
+			final String folder) throws IOException {
+		for (final MergeFile mergeFile : mergeFiles) {
+			provider.write(folder + mergeFile.fileName, mergeFile.content);
+		}
+	}
+
+	/**
+	 * @param repositoryName the name of the repository
+	 * @param revision       the end revision of the merge unit
+	 * @param date           the date of the merge unit
+	 * @return the file name of an SVN merge file, e.g.
+	 *         {@code repo_r1234_2019-01-01_08-00-00_+0000.svnmerge}
+	 */
+	static String formatSvnFileName(final String repositoryName, final long revision, final LocalDateTime date) {
+		return String.format("%s_r%d_%s%s", repositoryName, revision, //$NON-NLS-1$
+				date.atOffset(ZoneOffset.UTC).format(SVN_FILE_DATE_FORMATTER), Configuration.SVN_EXTENSION_FILE);
+	}
+
+	/**
+	 * @return the content of an SVN merge file in the format written by
+	 *         {@code mergetrigger_merge.pl}
+	 */
+	static String formatSvnMergeFile(final String urlBranchSource, final String urlBranchTarget,
+			final long revisionStart, final long revisionEnd, final Collection<String> workingCopyFiles) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("# Created on host=[benchmark] by user[benchmark].\n"); //$NON-NLS-1$
+		sb.append("URL_BRANCH_SOURCE=").append(urlBranchSource).append('\n'); //$NON-NLS-1$
+		sb.append("URL_BRANCH_TARGET=").append(urlBranchTarget).append('\n'); //$NON-NLS-1$
+		sb.append("REVISION_START=").append(revisionStart).append('\n'); //$NON-NLS-1$
+		sb.append("REVISION_END=").append(revisionEnd).append('\n'); //$NON-NLS-1$
+		for (final String workingCopyFile : workingCopyFiles) {
+			sb.append("WORKING_COPY_FILE=").append(workingCopyFile).append('\n'); //$NON-NLS-1$
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @return the content of a GIT merge file
+	 */
+	static String formatGitMergeFile(final String repository, final LocalDateTime date, final String commitId,
+			final String sourceBranch, final String targetBranch, final Collection<String> workingCopyFiles) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("URL=").append(repository).append('\n'); //$NON-NLS-1$
+		sb.append("DATE=").append(date.format(GIT_DATE_FORMATTER)).append('\n'); //$NON-NLS-1$
+		sb.append("COMMID_ID=").append(commitId).append('\n'); //$NON-NLS-1$
+		sb.append("SOURCE_BRANCH=").append(sourceBranch).append('\n'); //$NON-NLS-1$
+		sb.append("TARGET_BRANCH=").append(targetBranch).append('\n'); //$NON-NLS-1$
+		for (final String workingCopyFile : workingCopyFiles) {
+			sb.append("WORKING_COPY_FILE=").append(workingCopyFile).append('\n'); //$NON-NLS-1$
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The name and the content of a generated merge file.
+	 * 
+	 * @author Stefan Weiser
+	 *
+	 */
+	public static final class MergeFile {
+
+		/** The file name of the merge file. */
+		public final String fileName;
+		/** The content of the merge file. */
+		public final String content;
+
+		private MergeFile(final String fileName, final String content) {
+			this.fileName = fileName;
+			this.content = content;
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.aposin.mergeprocessor.configuration.IConfiguration;
+import org.aposin.mergeprocessor.model.MergeUnitException;
+import org.aposin.mergeprocessor.model.git.GITMergeUnit;
+import org.aposin.mergeprocessor.model.git.GITMergeUnitFactory;
+import org.aposin.mergeprocessor.model.svn.SVNMergeUnit;
+import org.aposin.mergeprocessor.model.svn.SVNMergeUnitFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks parsing merge files by {@link SVNMergeUnitFactory} and
+ * {@link GITMergeUnitFactory}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeUnitFactoryBenchmark {
+
+	private static final long REVISION = 1234;
+
+	/** The number of changed files of a merge unit. */
+	@Param({ "10", "100", "1000" })
+	public int changedFiles;
+
+	private IConfiguration configuration;
+	private String svnFileName;
+	private String svnPath;
+	private byte[] svnContent;
+	private Path gitPath;
+	private byte[] gitContent;
+
+	@Setup
+	public void setUp() {
+		configuration = new BenchmarkConfiguration(null);
+		svnFileName = BenchmarkData.createSvnFileName("benchmark", REVISION); //$NON-NLS-1$
+		svnPath = BenchmarkConfiguration.TODO_FOLDER + svnFileName;
+		svnContent = BenchmarkData.createSvnFileContent(REVISION, changedFiles).getBytes(StandardCharsets.UTF_8);
+		gitPath = Paths.get(BenchmarkConfiguration.TODO_FOLDER, "benchmark_1234.gitmerge"); //$NON-NLS-1$
+		gitContent = BenchmarkData.createGitFileContent(1, changedFiles).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public SVNMergeUnit createSvnMergeUnit() throws MergeUnitException {
+		return SVNMergeUnitFactory.createMergeUnitFromPlainMergeFile(configuration, null, svnPath, svnFileName,
+				new ByteArrayInputStream(svnContent));
+	}
+
+	@Benchmark
+	public GITMergeUnit createGitMergeUnit() throws MergeUnitException {
+		return GITMergeUnitFactory.create(configuration, gitPath, new ByteArrayInputStream(gitContent));
+	}
+
+}
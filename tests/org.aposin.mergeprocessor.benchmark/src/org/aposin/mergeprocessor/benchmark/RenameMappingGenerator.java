@@ -0,0 +1,197 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Generates the tables {@code RENAME_MAPPING} and {@code LINK_MAPPING} of a
+ * renaming database with deep rename chains. The folder of each module is
+ * renamed {@code chainDepth} times, each time in a newer version between
+ * {@link BenchmarkData#SOURCE_VERSION} and {@link BenchmarkData#TARGET_VERSION}.
+ * Afterwards each file of the module is renamed, so the renaming service has to
+ * follow {@code chainDepth + 1} renamings to find the name of a file in the
+ * target version. The renamed module is linked to a module in another folder.
+ * <p>
+ * The paths match the paths written by the {@link MergeQueueGenerator}, which
+ * uses the generator to create merge units with renamed files.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class RenameMappingGenerator {
+
+	private static final String SOURCE_PATCH_VERSION = "18.0.%d"; //$NON-NLS-1$
+	private static final int FIRST_PATCH = 101;
+
+	private final String repository;
+	private final int modules;
+	private final int filesPerModule;
+	private final int chainDepth;
+
+	/**
+	 * @param repository     the URL of the repository of the renamings
+	 * @param modules        the number of renamed modules
+	 * @param filesPerModule the number of renamed files of each module
+	 * @param chainDepth     the number of renamings of each module folder
+	 */
+	public RenameMappingGenerator(final String repository, final int modules, final int filesPerModule,
+			final int chainDepth) {
+		this.repository = repository;
+		this.modules = modules;
+		this.filesPerModule = filesPerModule;
+		this.chainDepth = chainDepth;
+	}
+
+	/**
+	 * @return the URL of the repository of the renamings
+	 */
+	public String getRepository() {
+		return repository;
+	}
+
+	/**
+	 * @return the number of renamed modules
+	 */
+	public int getModules() {
+		return modules;
+	}
+
+	/**
+	 * @return the number of renamed files of each module
+	 */
+	public int getFilesPerModule() {
+		return filesPerModule;
+	}
+
+	/**
+	 * @param module the index of the module
+	 * @param file   the index of the file
+	 * @return the path of the file in the target version after all renamings
+	 */
+	public String getRenamedPath(final int module, final int file) {
+		return getRenamedFile(getModulePath(module, chainDepth), module, file);
+	}
+
+	/**
+	 * Creates the tables if they do not exist yet and inserts all mappings.
+	 * 
+	 * @param connection the connection to the renaming database
+	 * @throws SQLException if the mappings could not be inserted
+	 */
+	public void write(final Connection connection) throws SQLException {
+		createTables(connection);
+		final boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+		try (final PreparedStatement rename = connection
+				.prepareStatement("INSERT INTO RENAME_MAPPING VALUES(default, ?, ?, ?, ?)"); //$NON-NLS-1$
+				final PreparedStatement link = connection
+						.prepareStatement("INSERT INTO LINK_MAPPING VALUES(default, ?, ?, ?, ?)")) { //$NON-NLS-1$
+			for (int module = 0; module < modules; module++) {
+				for (int step = 1; step <= chainDepth; step++) {
+					addMapping(rename, getModulePath(module, step - 1), getModulePath(module, step), getVersion(step));
+				}
+				final String modulePath = getModulePath(module, chainDepth);
+				for (int file = 0; file < filesPerModule; file++) {
+					final String filePath = modulePath + getFileInModule(module, file);
+					addMapping(rename, filePath, getRenamedFile(modulePath, module, file), getVersion(chainDepth + 1));
+				}
+				addMapping(link, modulePath, modulePath.replace("platform", "www"), BenchmarkData.SOURCE_VERSION); //$NON-NLS-1$ //$NON-NLS-2$
+				rename.executeBatch();
+				link.executeBatch();
+			}
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	/**
+	 * Creates a file based H2 renaming database containing all mappings.
+	 * 
+	 * @param folder the folder where to create the database
+	 * @return the JDBC URL of the database
+	 * @throws SQLException if the database could not be created
+	 */
+	public String createDatabase(final Path folder) throws SQLException {
+		final String jdbcUrl = "jdbc:h2:file:" + folder.resolve("rename").toAbsolutePath().toString(); //$NON-NLS-1$ //$NON-NLS-2$
+		try (final Connection connection = DriverManager.getConnection(jdbcUrl, "sa", "")) { //$NON-NLS-1$ //$NON-NLS-2$
+			write(connection);
+		}
+		return jdbcUrl;
+	}
+
+	/**
+	 * Creates the tables of the renaming database with the same schema as the
+	 * productive database, if they do not exist yet.
+	 * 
+	 * @param connection the connection to the renaming database
+	 * @throws SQLException if the tables could not be created
+	 */
+	static void createTables(final Connection connection) throws SQLException {
+		try (final Statement statement = connection.createStatement()) {
+			statement.execute(
+					"CREATE TABLE IF NOT EXISTS RENAME_MAPPING (ID INT AUTO_INCREMENT PRIMARY KEY, OLD_NAME VARCHAR(255), NEW_NAME VARCHAR(255), VERSION VARCHAR(63), REPOSITORY VARCHAR(127))"); //$NON-NLS-1$
+			statement.execute(
+					"CREATE TABLE IF NOT EXISTS LINK_MAPPING (ID INT AUTO_INCREMENT PRIMARY KEY, NAME1 VARCHAR(255), NAME2 VARCHAR(255), VERSION VARCHAR(63), REPOSITORY VARCHAR(127))"); //$NON-NLS-1$
+		}
+	}
+
+	private void addMapping(final PreparedStatement statement, final String name1, final String name2,
+			final String version) throws SQLException {
+		statement.setString(1, name1);
+		statement.setString(2, name2);
+		statement.setString(3, version);
+		statement.setString(4, repository);
+		statement.addBatch();
+	}
+
+	/**
+	 * @param step the number of the renaming, starting with 1
+	 * @return the version of the renaming
+	 */
+	private static String getVersion(final int step) {
+		return String.format(SOURCE_PATCH_VERSION, FIRST_PATCH + step - 1);
+	}
+
+	/**
+	 * @param module the index of the module
+	 * @param step   the number of renamings of the module folder
+	 * @return the path of the module folder after the given number of renamings
+	 */
+	private static String getModulePath(final int module, final int step) {
+		final String modulePath = BenchmarkData.createModulePath(module);
+		return step == 0 ? modulePath : modulePath + ".r" + step; //$NON-NLS-1$
+	}
+
+	/**
+	 * @return the path of the file relative to the module folder, starting with a
+	 *         slash
+	 */
+	private static String getFileInModule(final int module, final int file) {
+		return BenchmarkData.createArtifactPath(module, file).substring(BenchmarkData.createModulePath(module).length());
+	}
+
+	private static String getRenamedFile(final String modulePath, final int module, final int file) {
+		return modulePath + getFileInModule(module, file).replace("/Class", "/Renamed"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aposin.mergeprocessor.renaming.RenamingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link RenamingService#getRenamedArtifacts(List)} against a
+ * generated H2 renaming database.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenamingServiceBenchmark {
+
+	private static final int FILES_PER_MODULE = 10;
+
+	/** The number of renamed modules in the database. */
+	@Param({ "100", "1000" })
+	public int modules;
+
+	/** The number of artifacts to rename. */
+	@Param({ "10", "1000" })
+	public int artifacts;
+
+	private Path folder;
+	private RenamingService service;
+	private List<Path> paths;
+
+	@Setup
+	public void setUp() throws IOException, SQLException {
+		folder = BenchmarkData.createTempFolder();
+		final String jdbcUrl = BenchmarkData.createRenameDatabase(folder, modules, FILES_PER_MODULE);
+		service = new RenamingService(new BenchmarkConfiguration(jdbcUrl), BenchmarkData.REPOSITORY_URL,
+				BenchmarkData.SOURCE_VERSION, BenchmarkData.TARGET_VERSION);
+		paths = BenchmarkData.createArtifactPaths(artifacts, modules);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		service.close();
+		BenchmarkData.deleteFolder(folder);
+	}
+
+	@Benchmark
+	public List<Path> getRenamedArtifacts() {
+		return service.getRenamedArtifacts(paths);
+	}
+
+}
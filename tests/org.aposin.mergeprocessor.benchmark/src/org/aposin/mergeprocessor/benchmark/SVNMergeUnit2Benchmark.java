@@ -0,0 +1,92 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.model.svn.SVNMergeUnit2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the getters of {@link SVNMergeUnit2}, which parse the content of
+ * the merge file on each call.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SVNMergeUnit2Benchmark {
+
+	private static final long REVISION = 1234;
+
+	/** The number of changed files of the merge unit. */
+	@Param({ "10", "1000" })
+	public int changedFiles;
+
+	private SVNMergeUnit2 mergeUnit;
+
+	@Setup
+	public void setUp() {
+		final String fileName = BenchmarkData.createSvnFileName("benchmark", REVISION); //$NON-NLS-1$
+		mergeUnit = new SVNMergeUnit2(Paths.get(BenchmarkConfiguration.TODO_FOLDER, fileName),
+				BenchmarkData.createSvnFileContent(REVISION, changedFiles), MergeUnitStatus.TODO);
+	}
+
+	@Benchmark
+	public LocalDateTime getDate() {
+		return mergeUnit.getDate();
+	}
+
+	@Benchmark
+	public String getRepository() {
+		return mergeUnit.getRepository();
+	}
+
+	@Benchmark
+	public long getRevisionEnd() {
+		return mergeUnit.getRevisionEnd();
+	}
+
+	@Benchmark
+	public String getUrlTarget() {
+		return mergeUnit.getUrlTarget();
+	}
+
+	@Benchmark
+	public List<String> getAffectedSourceFiles() {
+		return mergeUnit.getAffectedSourceFiles();
+	}
+
+}
@@ -0,0 +1,476 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.aposin.mergeprocessor.benchmark.LocalRepositoryFactory.LocalGitRepository;
+import org.aposin.mergeprocessor.benchmark.LocalRepositoryFactory.LocalSvnRepository;
+import org.aposin.mergeprocessor.benchmark.MergeQueueGenerator.MergeFile;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.metrics.LatencyHistogram;
+import org.aposin.mergeprocessor.metrics.SftpMetrics;
+import org.aposin.mergeprocessor.model.IMergeUnit;
+import org.aposin.mergeprocessor.model.MergeUnitException;
+import org.aposin.mergeprocessor.model.git.GITMergeUnit;
+import org.aposin.mergeprocessor.model.git.GitHeadlessMerge;
+import org.aposin.mergeprocessor.model.git.GitRepositoryManager;
+import org.aposin.mergeprocessor.model.svn.ISvnClient;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
+import org.aposin.mergeprocessor.model.svn.SVNMergeUnit;
+import org.aposin.mergeprocessor.model.svn.SvnClientJavaHl;
+import org.aposin.mergeprocessor.model.svn.SvnHeadlessMerge;
+import org.aposin.mergeprocessor.queue.IMergeUnitQueue;
+import org.aposin.mergeprocessor.queue.InMemoryMergeUnitQueue;
+import org.aposin.mergeprocessor.queue.LocalMergeUnitQueue;
+import org.aposin.mergeprocessor.queue.ManifestMergeUnitQueue;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueFileSystemProvider;
+import org.aposin.mergeprocessor.queue.MergeUnitQueueService;
+import org.aposin.mergeprocessor.queue.SftpMergeUnitQueue;
+import org.aposin.mergeprocessor.renaming.Version;
+import org.aposin.mergeprocessor.utils.RuntimeUtil.CmdUtilException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jgit.api.errors.GitAPIException;
+
+/**
+ * End-to-end throughput harness of the headless merge pipeline. It starts an
+ * {@link EmbeddedSftpServer} as stand-in for the server providing the merge
+ * units, creates a local SVN repository and a local bare GIT repository and
+ * generates the given number of {@code .svnmerge} and {@code .gitmerge} files
+ * by the {@link MergeQueueGenerator}.
+ * Everything runs locally, so the harness can run offline, e.g. on a build
+ * server.
+ * <p>
+ * The harness measures
+ * <ul>
+ * <li>the latency of refreshing the merge units to do by the
+ * {@link MergeUnitQueueService},
+ * i.e. listing, downloading and parsing all merge files,</li>
+ * <li>the heap retained by the refreshed merge units and the peak heap usage
+ * while refreshing,</li>
+ * <li>the GIT merges per minute, where the merge units are merged in batches by
+ * {@link GitHeadlessMerge#merge(GitRepositoryManager, List, IProgressMonitor)}
+ * and moved to the done folder,</li>
+ * <li>the SVN merges per minute, where each merge unit is merged and committed
+ * by
+ * {@link SvnHeadlessMerge#merge(SVNMergeUnit, Version, Version, ISvnClient, Path, IProgressMonitor)}
+ * and moved to the done folder. The SVN merge requires the command line tools
+ * and the native JavaHL library. If they are not available, the SVN merge units
+ * are only moved to the done folder,</li>
+ * <li>the SVN merge units moved to the done folder per minute.</li>
+ * </ul>
+ * The arguments are optional {@code name=value} pairs:
+ * <ul>
+ * <li>{@code svnUnits}, {@code gitUnits}: the number of merge units to generate,
+ * by default 1000 and 200</li>
+ * <li>{@code svnMerges}: the number of the SVN merge units which are merged, by
+ * default 20. The others have random revisions and are only moved.</li>
+ * <li>{@code changedFiles}: the maximum number of changed files per merge unit,
+ * by default 20</li>
+ * <li>{@code renameRatio}: the ratio of SVN merge units with renamed files, by
+ * default 0.1</li>
+ * <li>{@code seed}: the seed of the generated merge files, by default 0</li>
+ * <li>{@code queue}: the {@link IMergeUnitQueue} containing the merge files,
+ * {@code sftp} for the embedded SFTP server, {@code local} for the folder of
+ * the SFTP server on the local file system or {@code memory} for an in-memory
+ * queue, by default {@code sftp}</li>
+ * <li>{@code manifest}: {@code true} to keep a manifest in the status folders
+ * by the {@link ManifestMergeUnitQueue}, by default {@code false}. The first
+ * refresh reads the generated merge files and records them in the
+ * manifests.</li>
+ * <li>{@code refreshes}: the number of measured refreshes, by default 3</li>
+ * <li>{@code batchSize}: the number of merge units merged in one batch, by
+ * default 50</li>
+ * <li>{@code maxRefreshMillis}, {@code minMergesPerMinute}: thresholds for the
+ * 90th percentile of the refresh latency and the GIT and SVN merges per minute,
+ * by default 10000 and 60. If a threshold is violated, the harness fails, so
+ * throughput regressions break the build. A threshold of {@code 0} disables
+ * the check.</li>
+ * </ul>
+ * The results are written as JSON into
+ * {@code target/benchmarks/throughput-<timestamp>.json}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class ThroughputHarness {
+
+	private static final Logger LOGGER = Logger.getLogger(ThroughputHarness.class.getName());
+
+	private static final Path RESULT_FOLDER = Paths.get("target", "benchmarks"); //$NON-NLS-1$ //$NON-NLS-2$
+	private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"); //$NON-NLS-1$
+	private static final String SVN_REPOSITORY = "benchmark"; //$NON-NLS-1$
+	/** The repository name in the file names of the SVN merge units to merge. */
+	private static final String SVN_MERGE_REPOSITORY = "merge"; //$NON-NLS-1$
+
+	private final BenchmarkArguments arguments;
+	private final Path folder;
+	private final EmbeddedSftpServer server;
+	private final BenchmarkConfiguration configuration;
+	/** The queue where the generated merge files are written. */
+	private final IMergeUnitQueue generatorQueue;
+	private final MergeUnitQueueService queueService;
+	/** The SVN client, or {@code null} if JavaHL is not available. */
+	private final ISvnClient svnClient;
+	private final Map<String, Number> results = new LinkedHashMap<>();
+	/** The file names of the SVN merge units to merge. */
+	private final Set<String> svnMergeFiles = new HashSet<>();
+	private LocalSvnRepository svnRepository;
+
+	private ThroughputHarness(final BenchmarkArguments arguments, final Path folder,
+			final EmbeddedSftpServer server) {
+		this.arguments = arguments;
+		this.folder = folder;
+		this.server = server;
+		configuration = new BenchmarkConfiguration(null, server.getPort(), folder.resolve("git").toString()); //$NON-NLS-1$
+		IMergeUnitQueue queue;
+		IMergeUnitQueue writerQueue;
+		final String queueType = arguments.getString("queue", "sftp"); //$NON-NLS-1$ //$NON-NLS-2$
+		switch (queueType) {
+		case "sftp": //$NON-NLS-1$
+			queue = new SftpMergeUnitQueue(configuration.getSftpConfiguration(),
+					() -> folder.resolve("work").toString() + File.separator); //$NON-NLS-1$
+			writerQueue = new LocalMergeUnitQueue(server.getLocalPath("/")); //$NON-NLS-1$
+			break;
+		case "local": //$NON-NLS-1$
+			queue = new LocalMergeUnitQueue(server.getLocalPath("/")); //$NON-NLS-1$
+			writerQueue = queue;
+			break;
+		case "memory": //$NON-NLS-1$
+			queue = new InMemoryMergeUnitQueue();
+			writerQueue = queue;
+			break;
+		default:
+			throw new IllegalArgumentException(String.format("Unknown queue '%s'", queueType)); //$NON-NLS-1$
+		}
+		if (Boolean.parseBoolean(arguments.getString("manifest", "false"))) { //$NON-NLS-1$ //$NON-NLS-2$
+			queue = new ManifestMergeUnitQueue(queue);
+		}
+		generatorQueue = writerQueue;
+		svnClient = createSvnClient(configuration);
+		queueService = new MergeUnitQueueService(configuration, queue, () -> svnClient);
+	}
+
+	/**
+	 * @return the JavaHL SVN client, or {@code null} if the native library is not
+	 *         available
+	 */
+	private static ISvnClient createSvnClient(final BenchmarkConfiguration configuration) {
+		try {
+			return new SvnClientJavaHl(() -> new String[] { BenchmarkConfiguration.USER, BenchmarkConfiguration.USER },
+					configuration);
+		} catch (SvnClientException | LinkageError e) {
+			LOGGER.warning(() -> "JavaHL is not available, SVN merge units are not merged: " + e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	/**
+	 * @param args optional {@code name=value} pairs, see the class documentation
+	 * @throws Exception if the harness fails or a threshold is violated
+	 */
+	public static void main(final String[] args) throws Exception {
+		final BenchmarkArguments arguments = new BenchmarkArguments(args);
+		final Path folder = BenchmarkData.createTempFolder();
+		try (final EmbeddedSftpServer server = new EmbeddedSftpServer(folder.resolve("sftp"))) { //$NON-NLS-1$
+			new ThroughputHarness(arguments, folder, server).run();
+		} finally {
+			BenchmarkData.deleteFolder(folder);
+		}
+	}
+
+	private void run() throws Exception {
+		final int svnUnits = arguments.getInt("svnUnits", 1000); //$NON-NLS-1$
+		final int gitUnits = arguments.getInt("gitUnits", 200); //$NON-NLS-1$
+		results.put("svnUnits", svnUnits); //$NON-NLS-1$
+		results.put("gitUnits", gitUnits); //$NON-NLS-1$
+		try {
+			generateMergeFiles(svnUnits, gitUnits);
+			final List<IMergeUnit> mergeUnits = refresh();
+			final List<GITMergeUnit> gitMergeUnits = new ArrayList<>();
+			final List<SVNMergeUnit> svnMergeUnits = new ArrayList<>();
+			final List<IMergeUnit> svnMoveUnits = new ArrayList<>();
+			for (final IMergeUnit mergeUnit : mergeUnits) {
+				if (mergeUnit instanceof GITMergeUnit) {
+					gitMergeUnits.add((GITMergeUnit) mergeUnit);
+				} else if (svnMergeFiles.contains(mergeUnit.getFileName())) {
+					svnMergeUnits.add((SVNMergeUnit) mergeUnit);
+				} else {
+					svnMoveUnits.add(mergeUnit);
+				}
+			}
+			final int svnRefreshed = svnMergeUnits.size() + svnMoveUnits.size();
+			if (gitMergeUnits.size() != gitUnits || svnRefreshed != svnUnits) {
+				throw new IllegalStateException(String.format("Refreshed %d GIT and %d SVN merge units instead of %d and %d", //$NON-NLS-1$
+						gitMergeUnits.size(), svnRefreshed, gitUnits, svnUnits));
+			}
+			mergeGit(gitMergeUnits);
+			mergeSvn(svnMergeUnits);
+			moveSvn(svnMoveUnits);
+			final int remaining = queueService.getMergeUnitsTodo().size();
+			if (remaining > 0) {
+				throw new IllegalStateException(String.format("%d merge units are not merged", remaining)); //$NON-NLS-1$
+			}
+		} finally {
+			queueService.close();
+		}
+		System.out.println(SftpMetrics.getInstance().getSummary());
+		writeResults();
+		checkThresholds();
+	}
+
+	/**
+	 * Creates the repositories and the renaming database and writes the merge
+	 * files directly into the todo folder, bypassing the SFTP server.
+	 */
+	private void generateMergeFiles(final int svnUnits, final int gitUnits)
+			throws IOException, GitAPIException, MergeUnitQueueException, SQLException {
+		final long start = System.nanoTime();
+		generatorQueue.createFolder(BenchmarkConfiguration.TODO_FOLDER);
+		final MergeUnitQueueFileSystemProvider todoFolder = new MergeUnitQueueFileSystemProvider(generatorQueue);
+
+		final int svnMerges = svnClient == null ? 0 : Math.min(svnUnits, arguments.getInt("svnMerges", 20)); //$NON-NLS-1$
+		final Path svnFolder = Files.createDirectories(folder.resolve("svn")); //$NON-NLS-1$
+		String svnUrl;
+		try {
+			svnRepository = LocalRepositoryFactory.createSvnRepository(svnFolder, svnMerges);
+			svnUrl = svnRepository.url;
+		} catch (CmdUtilException e) {
+			// Parsing and moving of SVN merge units does not access the repository
+			LOGGER.warning(() -> "Could not create the SVN repository, SVN merge units are not merged: " //$NON-NLS-1$
+					+ e.getCause());
+			svnUrl = svnFolder.resolve("svn").toUri().toString(); //$NON-NLS-1$
+		}
+		final RenameMappingGenerator renameMappings = new RenameMappingGenerator(svnUrl, 100, 20, 5);
+		configuration.setRenameDatabaseUrl(
+				renameMappings.createDatabase(Files.createDirectories(folder.resolve("rename")))); //$NON-NLS-1$
+		final MergeQueueGenerator generator = new MergeQueueGenerator(arguments.getInt("seed", 0), //$NON-NLS-1$
+				renameMappings, arguments.getInt("changedFiles", 20), //$NON-NLS-1$
+				arguments.getDouble("renameRatio", 0.1), Duration.ofDays(30)); //$NON-NLS-1$
+		int svnRandomUnits = svnUnits;
+		if (svnRepository != null && svnMerges > 0) {
+			final List<MergeFile> mergeFiles = generator.createSvnMergeFiles(SVN_MERGE_REPOSITORY, svnRepository.url,
+					svnRepository.revisions, svnRepository.files);
+			mergeFiles.forEach(mergeFile -> svnMergeFiles.add(mergeFile.fileName));
+			MergeQueueGenerator.write(mergeFiles, todoFolder, BenchmarkConfiguration.TODO_FOLDER);
+			svnRandomUnits -= mergeFiles.size();
+		}
+		MergeQueueGenerator.write(generator.createSvnMergeFiles(SVN_REPOSITORY, svnRandomUnits), todoFolder,
+				BenchmarkConfiguration.TODO_FOLDER);
+
+		final LocalGitRepository gitRepository = LocalRepositoryFactory
+				.createGitRepository(Files.createDirectories(folder.resolve("gitServer")), gitUnits); //$NON-NLS-1$
+		MergeQueueGenerator.write(generator.createGitMergeFiles(gitRepository.url, gitRepository.commitIds),
+				todoFolder, BenchmarkConfiguration.TODO_FOLDER);
+		System.out.println(String.format("Generated %d SVN and %d GIT merge files in %d ms.", svnUnits, gitUnits, //$NON-NLS-1$
+				toMillis(System.nanoTime() - start)));
+	}
+
+	/**
+	 * Measures the refreshes of the merge units to do and the heap retained by the
+	 * merge units of the last refresh.
+	 * 
+	 * @return the merge units of the last refresh
+	 */
+	private List<IMergeUnit> refresh() throws MergeUnitQueueException {
+		final int refreshes = arguments.getInt("refreshes", 3); //$NON-NLS-1$
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final long heapBefore = getUsedHeapAfterGc();
+		ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+		List<IMergeUnit> mergeUnits = Collections.emptyList();
+		for (int i = 0; i < refreshes; i++) {
+			// Release the merge units of the previous refresh as the application does
+			mergeUnits = null;
+			final long start = System.nanoTime();
+			mergeUnits = queueService.getMergeUnitsTodo();
+			histogram.record(System.nanoTime() - start);
+		}
+		final long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+		final long retainedHeap = getUsedHeapAfterGc() - heapBefore;
+
+		results.put("refreshP50Millis", toMillis(histogram.getValueAtPercentile(50))); //$NON-NLS-1$
+		results.put("refreshP90Millis", toMillis(histogram.getValueAtPercentile(90))); //$NON-NLS-1$
+		results.put("refreshMaxMillis", toMillis(histogram.getMax())); //$NON-NLS-1$
+		results.put("retainedHeapBytes", retainedHeap); //$NON-NLS-1$
+		results.put("retainedHeapBytesPerMergeUnit", mergeUnits.isEmpty() ? 0 : retainedHeap / mergeUnits.size()); //$NON-NLS-1$
+		results.put("peakHeapBytes", peakHeap); //$NON-NLS-1$
+		System.out.println(String.format("Refreshed %d merge units %d times: p50 %d ms, p90 %d ms, max %d ms.", //$NON-NLS-1$
+				mergeUnits.size(), refreshes, results.get("refreshP50Millis"), results.get("refreshP90Millis"), //$NON-NLS-1$ //$NON-NLS-2$
+				results.get("refreshMaxMillis"))); //$NON-NLS-1$
+		System.out.println(String.format("Heap: %d KB retained by the merge units, peak %d MB.", //$NON-NLS-1$
+				retainedHeap / 1024, peakHeap / 1024 / 1024));
+		return mergeUnits;
+	}
+
+	/**
+	 * Merges the given GIT merge units in batches by
+	 * {@link GitHeadlessMerge#merge(GitRepositoryManager, List, IProgressMonitor)}.
+	 * The commits of a batch are cherry picked and committed one after the other
+	 * into the target branch and pushed once. Afterwards the merged units of the
+	 * batch are moved to the done folder.
+	 */
+	private void mergeGit(final List<GITMergeUnit> mergeUnits) throws MergeUnitException, MergeUnitQueueException {
+		if (mergeUnits.isEmpty()) {
+			return;
+		}
+		Collections.sort(mergeUnits);
+		final int batchSize = arguments.getInt("batchSize", 50); //$NON-NLS-1$
+		try (final GitRepositoryManager repositoryManager = new GitRepositoryManager(configuration, null)) {
+			final long start = System.nanoTime();
+			int from = 0;
+			while (from < mergeUnits.size()) {
+				final List<GITMergeUnit> batch = new ArrayList<>(
+						mergeUnits.subList(from, Math.min(mergeUnits.size(), from + batchSize)));
+				// Stops at the first conflicting merge unit, which is the first of the next batch
+				final List<GITMergeUnit> merged = GitHeadlessMerge.merge(repositoryManager, batch,
+						new NullProgressMonitor());
+				queueService.moveMergeUnitsFromRemoteToDone(merged);
+				from += merged.size();
+			}
+			final long nanos = System.nanoTime() - start;
+			results.put("gitMergesPerMinute", perMinute(mergeUnits.size(), nanos)); //$NON-NLS-1$
+			System.out.println(String.format(Locale.ROOT, "Merged %d GIT merge units in %d ms: %.1f merges per minute.", //$NON-NLS-1$
+					mergeUnits.size(), toMillis(nanos), results.get("gitMergesPerMinute"))); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Merges the given SVN merge units one after the other by
+	 * {@link SvnHeadlessMerge#merge(SVNMergeUnit, Version, Version, ISvnClient, Path, IProgressMonitor)}
+	 * into an empty working copy of the target branch and moves them to the done
+	 * folder in batches.
+	 */
+	private void mergeSvn(final List<SVNMergeUnit> mergeUnits)
+			throws IOException, SvnClientException, SvnUtilException, MergeUnitQueueException {
+		if (mergeUnits.isEmpty()) {
+			return;
+		}
+		Collections.sort(mergeUnits);
+		final int batchSize = arguments.getInt("batchSize", 50); //$NON-NLS-1$
+		final Path workingCopy = Files.createDirectories(folder.resolve("svnWorkingCopy")); //$NON-NLS-1$
+		svnClient.checkoutEmpty(workingCopy, new URL(svnRepository.url + "/trunk")); //$NON-NLS-1$
+		final Version sourceVersion = new Version(BenchmarkData.SOURCE_VERSION);
+		final Version targetVersion = new Version(BenchmarkData.TARGET_VERSION);
+		final long start = System.nanoTime();
+		for (int from = 0; from < mergeUnits.size(); from += batchSize) {
+			final List<SVNMergeUnit> batch = mergeUnits.subList(from, Math.min(mergeUnits.size(), from + batchSize));
+			for (final SVNMergeUnit mergeUnit : batch) {
+				SvnHeadlessMerge.merge(mergeUnit, sourceVersion, targetVersion, svnClient, workingCopy,
+						new NullProgressMonitor());
+			}
+			queueService.moveMergeUnitsFromRemoteToDone(batch);
+		}
+		final long nanos = System.nanoTime() - start;
+		results.put("svnMergesPerMinute", perMinute(mergeUnits.size(), nanos)); //$NON-NLS-1$
+		System.out.println(String.format(Locale.ROOT, "Merged %d SVN merge units in %d ms: %.1f merges per minute.", //$NON-NLS-1$
+				mergeUnits.size(), toMillis(nanos), results.get("svnMergesPerMinute"))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Moves the given SVN merge units to the done folder in batches.
+	 */
+	private void moveSvn(final List<IMergeUnit> mergeUnits) throws MergeUnitQueueException {
+		if (mergeUnits.isEmpty()) {
+			return;
+		}
+		final int batchSize = arguments.getInt("batchSize", 50); //$NON-NLS-1$
+		final long start = System.nanoTime();
+		for (int from = 0; from < mergeUnits.size(); from += batchSize) {
+			queueService.moveMergeUnitsFromRemoteToDone(
+					mergeUnits.subList(from, Math.min(mergeUnits.size(), from + batchSize)));
+		}
+		final long nanos = System.nanoTime() - start;
+		results.put("svnMovesPerMinute", perMinute(mergeUnits.size(), nanos)); //$NON-NLS-1$
+		System.out.println(String.format(Locale.ROOT, "Moved %d SVN merge units in %d ms: %.1f per minute.", //$NON-NLS-1$
+				mergeUnits.size(), toMillis(nanos), results.get("svnMovesPerMinute"))); //$NON-NLS-1$
+	}
+
+	private void writeResults() throws IOException {
+		final StringBuilder sb = new StringBuilder("{"); //$NON-NLS-1$
+		results.forEach((name, value) -> sb.append(sb.length() > 1 ? "," : "").append(System.lineSeparator()) //$NON-NLS-1$ //$NON-NLS-2$
+				.append("  \"").append(name).append("\": ").append(value)); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append(System.lineSeparator()).append('}').append(System.lineSeparator());
+		Files.createDirectories(RESULT_FOLDER);
+		final Path file = RESULT_FOLDER
+				.resolve("throughput-" + LocalDateTime.now().format(TIMESTAMP_FORMATTER) + ".json"); //$NON-NLS-1$ //$NON-NLS-2$
+		Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+		System.out.println("Results written to " + file.toAbsolutePath()); //$NON-NLS-1$
+	}
+
+	private void checkThresholds() {
+		final List<String> violations = new ArrayList<>();
+		final int maxRefreshMillis = arguments.getInt("maxRefreshMillis", 10000); //$NON-NLS-1$
+		final long refreshMillis = results.get("refreshP90Millis").longValue(); //$NON-NLS-1$
+		if (maxRefreshMillis > 0 && refreshMillis > maxRefreshMillis) {
+			violations.add(String.format("refresh p90 %d ms > %d ms", refreshMillis, maxRefreshMillis)); //$NON-NLS-1$
+		}
+		final int minMergesPerMinute = arguments.getInt("minMergesPerMinute", 60); //$NON-NLS-1$
+		for (final String vcs : List.of("GIT", "SVN")) { //$NON-NLS-1$ //$NON-NLS-2$
+			final Number mergesPerMinute = results.get(vcs.toLowerCase(Locale.ROOT) + "MergesPerMinute"); //$NON-NLS-1$
+			if (minMergesPerMinute > 0 && mergesPerMinute != null
+					&& mergesPerMinute.doubleValue() < minMergesPerMinute) {
+				violations.add(String.format(Locale.ROOT, "%.1f %s merges per minute < %d", //$NON-NLS-1$
+						mergesPerMinute.doubleValue(), vcs, minMergesPerMinute));
+			}
+		}
+		if (!violations.isEmpty()) {
+			throw new IllegalStateException("Throughput regression: " + String.join(", ", violations)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private static long getUsedHeapAfterGc() {
+		// Twice, so objects with finalizers are collected as well
+		System.gc();
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static long toMillis(final long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	private static double perMinute(final int count, final long nanos) {
+		return nanos == 0 ? 0 : count * (double) TimeUnit.MINUTES.toNanos(1) / nanos;
+	}
+
+}
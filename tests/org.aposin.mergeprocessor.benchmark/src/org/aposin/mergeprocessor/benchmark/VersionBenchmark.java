@@ -0,0 +1,74 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aposin.mergeprocessor.renaming.Version;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks parsing and comparing {@link Version}s.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionBenchmark {
+
+	/** Not final, so the parsing is not constant folded. */
+	private String versionString = "18.5.105.0.0"; //$NON-NLS-1$
+	private Version source;
+	private Version target;
+	private Version version;
+
+	@Setup
+	public void setUp() {
+		source = new Version(BenchmarkData.SOURCE_VERSION);
+		target = new Version(BenchmarkData.TARGET_VERSION);
+		version = new Version(versionString);
+	}
+
+	@Benchmark
+	public Version parse() {
+		return new Version(versionString);
+	}
+
+	@Benchmark
+	public int compareTo() {
+		return version.compareTo(target);
+	}
+
+	@Benchmark
+	public boolean isBetween() {
+		return version.isBetween(source, target);
+	}
+
+}
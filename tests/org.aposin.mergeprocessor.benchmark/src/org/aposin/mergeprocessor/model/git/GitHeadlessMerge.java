@@ -0,0 +1,54 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.git;
+
+import java.util.List;
+
+import org.aposin.mergeprocessor.model.MergeUnitException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Gives the throughput benchmark access to the package private headless GIT
+ * merge of {@link GitMergeUtil}. The benchmark fragment shares the package with
+ * the host bundle.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class GitHeadlessMerge {
+
+	private GitHeadlessMerge() {
+		// Utility class
+	}
+
+	/**
+	 * Merges the given batch of {@link GITMergeUnit GITMergeUnits} without any user
+	 * interaction.
+	 * 
+	 * @param repositoryManager the manager providing the local repository
+	 * @param batch             the merge units to merge, all for the same
+	 *                          repository and target branch
+	 * @param monitor           the progress monitor
+	 * @return the merged and pushed merge units, the others stay in TODO
+	 * @throws MergeUnitException if the merge failed or was canceled
+	 * @see GitMergeUtil#mergeHeadless(GitRepositoryManager, List, IProgressMonitor)
+	 */
+	public static List<GITMergeUnit> merge(final GitRepositoryManager repositoryManager,
+			final List<GITMergeUnit> batch, final IProgressMonitor monitor) throws MergeUnitException {
+		return GitMergeUtil.mergeHeadless(repositoryManager, batch, monitor);
+	}
+
+}
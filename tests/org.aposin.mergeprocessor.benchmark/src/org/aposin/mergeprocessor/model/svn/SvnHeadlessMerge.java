@@ -0,0 +1,60 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import java.nio.file.Path;
+
+import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.renaming.Version;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Gives the throughput benchmark access to the package private headless SVN
+ * merge of {@link SVNMergeUtil}. The benchmark fragment shares the package with
+ * the host bundle.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public final class SvnHeadlessMerge {
+
+	private SvnHeadlessMerge() {
+		// Utility class
+	}
+
+	/**
+	 * Merges the given {@link SVNMergeUnit} into the given working copy and commits
+	 * it without any user interaction.
+	 * 
+	 * @param mergeUnit     the merge unit to merge
+	 * @param sourceVersion the source version, otherwise provided by the
+	 *                      application context
+	 * @param targetVersion the target version, otherwise provided by the
+	 *                      application context
+	 * @param client        the SVN client to use
+	 * @param workingCopy   the working copy of the target branch
+	 * @param monitor       the progress monitor
+	 * @throws SvnUtilException if the merge failed or caused conflicts
+	 * @see SVNMergeUtil#mergeHeadless(SVNMergeUnit, ISvnClient, Path,
+	 *      IProgressMonitor)
+	 */
+	public static void merge(final SVNMergeUnit mergeUnit, final Version sourceVersion, final Version targetVersion,
+			final ISvnClient client, final Path workingCopy, final IProgressMonitor monitor) throws SvnUtilException {
+		mergeUnit.setVersions(sourceVersion, targetVersion);
+		SVNMergeUtil.mergeHeadless(mergeUnit, client, workingCopy, monitor);
+	}
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.view.dashboard;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.aposin.mergeprocessor.benchmark.BenchmarkConfiguration;
+import org.aposin.mergeprocessor.benchmark.BenchmarkData;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.model.svn.SVNMergeUnit2;
+import org.aposin.mergeprocessor.view.Column;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks sorting the merge units of the dashboard by
+ * {@link MergeUnitViewerComparator}, once with sort keys cached by previous
+ * sorts and once with a new comparator.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeUnitViewerComparatorBenchmark {
+
+	/** The number of merge units of the dashboard. */
+	@Param({ "100", "10000" })
+	public int mergeUnits;
+
+	/** The sorted column. */
+	@Param({ "COLUMN_DATE", "COLUMN_REVISIONS", "COLUMN_BRANCH_TARGET" })
+	public Column column;
+
+	private Object[] elements;
+	private int columnIndex;
+	private MergeUnitViewerComparator cachedComparator;
+
+	@Setup
+	public void setUp() {
+		elements = new Object[mergeUnits];
+		for (int i = 0; i < mergeUnits; i++) {
+			// Revisions in reverse order of the creation
+			final long revision = 100_000L - i * 7 % mergeUnits;
+			final String fileName = BenchmarkData.createSvnFileName("benchmark" + i % 10, revision); //$NON-NLS-1$
+			elements[i] = new SVNMergeUnit2(Paths.get(BenchmarkConfiguration.TODO_FOLDER, fileName),
+					BenchmarkData.createSvnFileContent(revision, 10), MergeUnitStatus.TODO);
+		}
+		columnIndex = Arrays.asList(Column.sortedValues()).indexOf(column);
+		cachedComparator = new MergeUnitViewerComparator();
+		cachedComparator.setColumn(columnIndex);
+		cachedComparator.sort(null, elements.clone());
+	}
+
+	@Benchmark
+	public Object[] sortCached() {
+		final Object[] sorted = elements.clone();
+		cachedComparator.sort(null, sorted);
+		return sorted;
+	}
+
+	@Benchmark
+	public Object[] sortUncached() {
+		final MergeUnitViewerComparator comparator = new MergeUnitViewerComparator();
+		comparator.setColumn(columnIndex);
+		final Object[] sorted = elements.clone();
+		comparator.sort(null, sorted);
+		return sorted;
+	}
+
+}
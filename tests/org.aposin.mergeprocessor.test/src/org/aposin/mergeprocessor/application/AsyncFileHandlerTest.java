@@ -0,0 +1,322 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.aposin.mergeprocessor.application.AsyncFileHandler.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AsyncFileHandler}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class AsyncFileHandlerTest {
+
+	private Path tempDir;
+	private AsyncFileHandler handler;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("asyncFileHandler");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		if (handler != null) {
+			handler.close();
+		}
+		FileUtils.deleteDirectory(tempDir.toFile());
+	}
+
+	private AsyncFileHandler createHandler(final int capacity, final OverflowPolicy overflowPolicy,
+			final long maxFileSize) {
+		handler = new AsyncFileHandler(tempDir, "test", capacity, overflowPolicy, maxFileSize, Duration.ZERO);
+		handler.setFormatter(new MessageFormatter());
+		return handler;
+	}
+
+	private List<String> readLines(final Path file) throws IOException {
+		return Files.readAllLines(file, StandardCharsets.UTF_8);
+	}
+
+	private List<Path> listFiles() throws IOException {
+		try (final Stream<Path> files = Files.list(tempDir)) {
+			return files.filter(file -> !file.getFileName().toString().startsWith(".")).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	public void testFlushWritesAllRecords() throws IOException {
+		createHandler(16, OverflowPolicy.BLOCK, 0);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		for (int i = 0; i < 100; i++) {
+			handler.publish(new LogRecord(Level.INFO, "Message " + i));
+		}
+		handler.flush();
+		final List<String> lines = readLines(tempDir.resolve("test.log"));
+		assertEquals(100, lines.size());
+		assertEquals("Message 0", lines.get(0));
+		assertEquals("Message 99", lines.get(99));
+	}
+
+	@Test
+	public void testCloseWritesAllRecords() throws IOException {
+		createHandler(1000, OverflowPolicy.BLOCK, 0);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		for (int i = 0; i < 500; i++) {
+			handler.publish(new LogRecord(Level.INFO, "Message " + i));
+		}
+		handler.close();
+		handler.publish(new LogRecord(Level.INFO, "After close"));
+		final List<String> lines = readLines(tempDir.resolve("test.log"));
+		assertEquals(500, lines.size());
+		assertEquals("Message 499", lines.get(499));
+	}
+
+	@Test
+	public void testFormatterOfSubclassIsUsedForFirstRecord() throws IOException {
+		handler = new AsyncFileHandler(tempDir, "test", 16, OverflowPolicy.BLOCK, 0, Duration.ZERO) {
+			{
+				setFormatter(new TailFormatter());
+			}
+		};
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		handler.publish(new LogRecord(Level.INFO, "Message"));
+		handler.flush();
+		assertEquals(List.of("Head", "Message"), readLines(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testCloseWithoutRecords() {
+		createHandler(16, OverflowPolicy.BLOCK, 0);
+		handler.flush();
+		handler.close();
+		assertFalse(Files.exists(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testRecordsBelowLevelAreIgnored() throws IOException {
+		createHandler(16, OverflowPolicy.BLOCK, 0);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		handler.setLevel(Level.INFO);
+		handler.publish(new LogRecord(Level.FINE, "Fine"));
+		handler.publish(new LogRecord(Level.INFO, "Info"));
+		handler.flush();
+		assertEquals(List.of("Info"), readLines(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testExistingFileIsContinued() throws IOException {
+		Files.write(tempDir.resolve("test.log"), List.of("Existing"), StandardCharsets.UTF_8);
+		createHandler(16, OverflowPolicy.BLOCK, 0);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		handler.publish(new LogRecord(Level.INFO, "New"));
+		handler.flush();
+		assertEquals(List.of("Existing", "New"), readLines(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testRotationBySize() throws IOException {
+		createHandler(16, OverflowPolicy.BLOCK, 10);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		for (int i = 0; i < 3; i++) {
+			handler.publish(new LogRecord(Level.INFO, "Message " + i));
+			handler.flush();
+		}
+		final List<Path> files = listFiles();
+		assertEquals(3, files.size());
+		assertEquals(List.of("Message 2"), readLines(tempDir.resolve("test.log")));
+		final List<String> archived = files.stream().filter(file -> !file.endsWith("test.log"))
+				.map(file -> file.getFileName().toString()).collect(Collectors.toList());
+		assertEquals(2, archived.size());
+		archived.forEach(name -> assertTrue(name.matches("test_\\d{4}-\\d{2}-\\d{2}_\\d{2}-\\d{2}-\\d{2}(_1)?\\.log"),
+				name));
+	}
+
+	@Test
+	public void testRotationByPersistedStart() throws IOException {
+		final Instant start = Instant.now().minus(Duration.ofDays(2));
+		Files.write(tempDir.resolve("test.log"), List.of("Existing"), StandardCharsets.UTF_8);
+		Files.writeString(tempDir.resolve(".test.start"), Long.toString(start.toEpochMilli()));
+		handler = new AsyncFileHandler(tempDir, "test", 16, OverflowPolicy.BLOCK, 0, Duration.ofDays(1));
+		handler.setFormatter(new TailFormatter());
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		handler.publish(new LogRecord(Level.INFO, "New"));
+		handler.close();
+		final String archiveName = "test_" + DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")
+				.withZone(ZoneId.systemDefault()).format(start) + ".log";
+		assertEquals(List.of("Existing", "Tail"), readLines(tempDir.resolve(archiveName)));
+		// The tail is only written when the file is rotated
+		assertEquals(List.of("Head", "New"), readLines(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testWriterSurvivesRuntimeException() throws IOException {
+		createHandler(16, OverflowPolicy.BLOCK, 0);
+		final FailingHeadFormatter formatter = new FailingHeadFormatter();
+		handler.setFormatter(formatter);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		final List<Exception> errors = new ArrayList<>();
+		handler.setErrorManager(new ErrorManager() {
+			@Override
+			public synchronized void error(String msg, Exception ex, int code) {
+				errors.add(ex);
+			}
+		});
+		handler.publish(new LogRecord(Level.INFO, "Lost"));
+		handler.flush();
+		assertEquals(1, errors.size());
+		handler.publish(new LogRecord(Level.INFO, "Written"));
+		handler.flush();
+		assertEquals(List.of("Written"), readLines(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testDiscardNewest() throws IOException, InterruptedException {
+		createHandler(2, OverflowPolicy.DISCARD_NEWEST, 0);
+		final BlockingFormatter formatter = new BlockingFormatter();
+		handler.setFormatter(formatter);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		handler.publish(new LogRecord(Level.INFO, "Message 0"));
+		// Wait until the writer blocks while formatting the first record
+		formatter.started.await();
+		for (int i = 1; i < 10; i++) {
+			handler.publish(new LogRecord(Level.INFO, "Message " + i));
+		}
+		formatter.release.countDown();
+		handler.flush();
+		handler.publish(new LogRecord(Level.INFO, "Message 10"));
+		handler.flush();
+		assertEquals(List.of("Message 0", "7 log records discarded because of a full buffer.", "Message 1",
+				"Message 2", "Message 10"), readLines(tempDir.resolve("test.log")));
+	}
+
+	@Test
+	public void testDiscardOldest() throws IOException, InterruptedException {
+		createHandler(2, OverflowPolicy.DISCARD_OLDEST, 0);
+		final BlockingFormatter formatter = new BlockingFormatter();
+		handler.setFormatter(formatter);
+		handler.setEncoding(StandardCharsets.UTF_8.name());
+		handler.publish(new LogRecord(Level.INFO, "Message 0"));
+		formatter.started.await();
+		for (int i = 1; i < 10; i++) {
+			handler.publish(new LogRecord(Level.INFO, "Message " + i));
+		}
+		formatter.release.countDown();
+		handler.flush();
+		handler.publish(new LogRecord(Level.INFO, "Message 10"));
+		handler.flush();
+		assertEquals(List.of("Message 0", "7 log records discarded because of a full buffer.", "Message 8",
+				"Message 9", "Message 10"), readLines(tempDir.resolve("test.log")));
+	}
+
+	/**
+	 * Formats only the message of a record.
+	 */
+	private static class MessageFormatter extends Formatter {
+
+		@Override
+		public String format(LogRecord record) {
+			return record.getMessage() + System.lineSeparator();
+		}
+
+	}
+
+	/**
+	 * Formatter with a head and a tail.
+	 */
+	private static class TailFormatter extends MessageFormatter {
+
+		@Override
+		public String getHead(Handler h) {
+			return "Head" + System.lineSeparator();
+		}
+
+		@Override
+		public String getTail(Handler h) {
+			return "Tail" + System.lineSeparator();
+		}
+
+	}
+
+	/**
+	 * Formatter failing on the first request of the head.
+	 */
+	private static class FailingHeadFormatter extends MessageFormatter {
+
+		private boolean failed;
+
+		@Override
+		public String getHead(Handler h) {
+			if (!failed) {
+				failed = true;
+				throw new IllegalStateException("Head failure");
+			}
+			return super.getHead(h);
+		}
+
+	}
+
+	/**
+	 * Formatter blocking on the first record until it is released.
+	 */
+	private static class BlockingFormatter extends MessageFormatter {
+
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public String format(LogRecord record) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.format(record);
+		}
+
+	}
+
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import org.aposin.mergeprocessor.configuration.ConfigurationException;
 import org.aposin.mergeprocessor.configuration.IConfiguration;
 import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
+import org.aposin.mergeprocessor.model.git.GitCloneStrategy;
 import org.aposin.mergeprocessor.utils.LogUtil;
 import org.aposin.mergeprocessor.view.Column;
 
@@ -48,6 +49,10 @@ public class JUnitConfiguration implements IConfiguration {
 	private String svnUsername;
 	private String svnPassword;
 
+	private String gitRepositoryFolder;
+
+	private GitCloneStrategy gitCloneStrategy = GitCloneStrategy.FULL;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -133,7 +138,14 @@ public class JUnitConfiguration implements IConfiguration {
 	 */
 	@Override
 	public String getGitRepositoryFolder() {
-		return null;
+		return gitRepositoryFolder;
+	}
+
+	/**
+	 * @param gitRepositoryFolder the folder containing the local GIT repositories
+	 */
+	public void setGitRepositoryFolder(String gitRepositoryFolder) {
+		this.gitRepositoryFolder = gitRepositoryFolder;
 	}
 
 	/**
@@ -144,6 +156,21 @@ public class JUnitConfiguration implements IConfiguration {
 		return true;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitCloneStrategy getGitCloneStrategy() {
+		return gitCloneStrategy;
+	}
+
+	/**
+	 * @param gitCloneStrategy the strategy how to clone GIT repositories
+	 */
+	public void setGitCloneStrategy(GitCloneStrategy gitCloneStrategy) {
+		this.gitCloneStrategy = gitCloneStrategy;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
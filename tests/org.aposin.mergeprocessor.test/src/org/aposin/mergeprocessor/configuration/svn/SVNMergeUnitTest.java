@@ -27,6 +27,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.aposin.mergeprocessor.configuration.git.MockMergeUnit;
 import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff;
 import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnLog;
 import org.aposin.mergeprocessor.model.svn.SVNMergeUnit;
@@ -189,6 +190,75 @@ public class SVNMergeUnitTest {
 		assertFalse(mergeUnit3.equals(mergeUnit));
 	}
 	
+	/**
+	 * Tests that {@link SVNMergeUnit#compareTo(org.aposin.mergeprocessor.model.IMergeUnit)}
+	 * orders the revisions numerically.
+	 */
+	@Test
+	public void testCompareToOrdersRevisionsNumerically() {
+		final LocalDateTime date = LocalDateTime.of(2020, 1, 1, 12, 0);
+		final SVNMergeUnit mergeUnit9 = new SVNMergeUnit("host", "repo", date, null, 9l, 9l,
+				"https://my.svn.repository.com/trunk", "https://my.svn.repository.com/branches/V1", null, 0l, null,
+				null, null, null, null, new SvnClientLogMock());
+		final SVNMergeUnit mergeUnit10 = new SVNMergeUnit("host", "repo", date, null, 10l, 10l,
+				"https://my.svn.repository.com/trunk", "https://my.svn.repository.com/branches/V1", null, 0l, null,
+				null, null, null, null, new SvnClientLogMock());
+		assertTrue(mergeUnit9.compareTo(mergeUnit10) < 0);
+		assertTrue(mergeUnit10.compareTo(mergeUnit9) > 0);
+		assertEquals(0, mergeUnit9.compareTo(mergeUnit9));
+		assertEquals("10:10", mergeUnit10.getRevisionInfo());
+	}
+
+	/**
+	 * Tests that {@link SVNMergeUnit#compareTo(org.aposin.mergeprocessor.model.IMergeUnit)}
+	 * does not fail on merge units without host and repository.
+	 */
+	@Test
+	public void testCompareToWithoutHostAndRepository() {
+		final SVNMergeUnit mergeUnit = new SVNMergeUnit(null, "repo", null, null, 1l, 2l,
+				"https://my.svn.repository.com/trunk", "https://my.svn.repository.com/branches/V1", null, 0l, null,
+				null, null, null, null, new SvnClientLogMock());
+		final SVNMergeUnit mergeUnit2 = new SVNMergeUnit("host", null, null, null, 1l, 2l,
+				"https://my.svn.repository.com/trunk", "https://my.svn.repository.com/branches/V1", null, 0l, null,
+				null, null, null, null, new SvnClientLogMock());
+		assertTrue(mergeUnit.compareTo(mergeUnit2) > 0);
+		assertTrue(mergeUnit2.compareTo(mergeUnit) < 0);
+	}
+
+	/**
+	 * Tests that {@link SVNMergeUnit#compareTo(org.aposin.mergeprocessor.model.IMergeUnit)}
+	 * orders the revisions of other merge unit types numerically as well.
+	 */
+	@Test
+	public void testCompareToOtherTypeOrdersRevisionsNumerically() {
+		final LocalDateTime date = LocalDateTime.of(2020, 1, 1, 12, 0);
+		final SVNMergeUnit mergeUnit9 = new SVNMergeUnit("host", "repo", date, null, 9l, 9l,
+				"https://my.svn.repository.com/trunk", "https://my.svn.repository.com/branches/V1", null, 0l, null,
+				null, null, null, null, new SvnClientLogMock());
+		assertTrue(mergeUnit9.compareTo(new OtherMergeUnit(date, "10:10")) < 0);
+		assertTrue(mergeUnit9.compareTo(new OtherMergeUnit(date, "8:10")) > 0);
+		assertTrue(mergeUnit9.compareTo(new OtherMergeUnit(date, "9:10")) < 0);
+		assertTrue(mergeUnit9.compareTo(new OtherMergeUnit(date, "1a2b3c")) < 0);
+	}
+
+	/**
+	 * Tests that the branch target is updated when the target URL changes.
+	 */
+	@Test
+	public void testSetBranchTarget() {
+		final SVNMergeUnit mergeUnit = new SVNMergeUnit(null, null, null, null, 1l, 2l,
+				"https://my.svn.repository.com/trunk", "https://my.svn.repository.com/branches/V1", null, 0l, null,
+				null, null, null, null, new SvnClientLogMock());
+		assertEquals("trunk", mergeUnit.getBranchSource());
+		assertEquals("V1", mergeUnit.getBranchTarget());
+		mergeUnit.setBranchTarget("V2");
+		assertEquals("V2", mergeUnit.getBranchTarget());
+		assertEquals("https://my.svn.repository.com/branches/V2", mergeUnit.getUrlTarget());
+		mergeUnit.setBranchTarget("trunk");
+		assertEquals("trunk", mergeUnit.getBranchTarget());
+		assertEquals("https://my.svn.repository.com/trunk", mergeUnit.getUrlTarget());
+	}
+
 	/**
 	 * Mocked version for logging.
 	 */
@@ -234,4 +304,39 @@ public class SVNMergeUnitTest {
 
 	}
 
+	/**
+	 * Merge unit of another type than {@link SVNMergeUnit}.
+	 */
+	private static class OtherMergeUnit extends MockMergeUnit {
+
+		private final LocalDateTime date;
+		private final String revisionInfo;
+
+		private OtherMergeUnit(final LocalDateTime date, final String revisionInfo) {
+			this.date = date;
+			this.revisionInfo = revisionInfo;
+		}
+
+		@Override
+		public LocalDateTime getDate() {
+			return date;
+		}
+
+		@Override
+		public String getRepository() {
+			return "repo";
+		}
+
+		@Override
+		public String getHost() {
+			return "host";
+		}
+
+		@Override
+		public String getRevisionInfo() {
+			return revisionInfo;
+		}
+
+	}
+
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmpty() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getMean());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 10; i++) {
+			histogram.record(i);
+		}
+		assertEquals(10, histogram.getCount());
+		assertEquals(55, histogram.getSum());
+		assertEquals(5.5, histogram.getMean());
+		assertEquals(1, histogram.getMin());
+		assertEquals(10, histogram.getMax());
+		assertEquals(5, histogram.getValueAtPercentile(50));
+		assertEquals(9, histogram.getValueAtPercentile(90));
+		assertEquals(10, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testRelativeErrorOfLargeValues() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 1000; i++) {
+			histogram.record(i * 1_000_000);
+		}
+		final long median = histogram.getValueAtPercentile(50);
+		assertTrue(median >= 500_000_000 && median <= 500_000_000L * 33 / 32, Long.toString(median));
+		final long p99 = histogram.getValueAtPercentile(99);
+		assertTrue(p99 >= 990_000_000 && p99 <= 990_000_000L * 33 / 32, Long.toString(p99));
+		assertEquals(1_000_000_000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testBucketBounds() {
+		for (final long value : new long[] { 0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE }) {
+			final int index = LatencyHistogram.getBucketIndex(value);
+			assertTrue(value <= LatencyHistogram.getBucketUpperBound(index), Long.toString(value));
+			if (index > 0) {
+				assertTrue(value > LatencyHistogram.getBucketUpperBound(index - 1), Long.toString(value));
+			}
+		}
+		assertEquals(Long.MAX_VALUE,
+				LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucketIndex(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void testNegativeValueAndReset() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		assertEquals(1, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		histogram.record(7);
+		assertEquals(7, histogram.getMin());
+	}
+
+}
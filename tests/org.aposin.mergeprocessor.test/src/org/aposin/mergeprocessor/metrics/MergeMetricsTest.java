@@ -0,0 +1,98 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.aposin.mergeprocessor.metrics.MergeMetrics.PhaseTimer;
+import org.aposin.mergeprocessor.model.VersionControlSystem;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MergeMetrics}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class MergeMetricsTest {
+
+	@Test
+	public void testPhasesAreTaggedAndOrdered() {
+		final MergeMetrics metrics = new MergeMetrics();
+		metrics.record(VersionControlSystem.SVN, "repoB", "copyRemoteToLocal", 2_000_000);
+		metrics.record(VersionControlSystem.SVN, "repoB", "commitChanges", 4_000_000);
+		metrics.record(VersionControlSystem.SVN, "repoA", "copyRemoteToLocal", 1_000_000);
+		metrics.record(VersionControlSystem.GIT, "repoA", "push", 3_000_000);
+		metrics.record(VersionControlSystem.SVN, "repoB", "copyRemoteToLocal", 4_000_000);
+
+		final List<PhaseStatistics> statistics = metrics.getPhaseStatistics();
+		assertEquals(4, statistics.size());
+		assertPhase(statistics.get(0), "SVN", "repoA", "copyRemoteToLocal", 1);
+		assertPhase(statistics.get(1), "SVN", "repoB", "copyRemoteToLocal", 2);
+		assertPhase(statistics.get(2), "SVN", "repoB", "commitChanges", 1);
+		assertPhase(statistics.get(3), "GIT", "repoA", "push", 1);
+		assertEquals(3.0, statistics.get(1).getMean());
+		assertEquals(4.0, statistics.get(1).getMax());
+	}
+
+	private static void assertPhase(final PhaseStatistics statistics, final String vcs, final String repository,
+			final String phase, final long count) {
+		assertEquals(vcs, statistics.getVersionControlSystem());
+		assertEquals(repository, statistics.getRepository());
+		assertEquals(phase, statistics.getPhase());
+		assertEquals(count, statistics.getCount());
+	}
+
+	@Test
+	public void testPhaseTimerRecordsOnce() {
+		final MergeMetrics metrics = new MergeMetrics();
+		final PhaseTimer timer = metrics.startPhase(VersionControlSystem.GIT, "repo", "fetch");
+		timer.close();
+		timer.close();
+		try (final PhaseTimer secondTimer = metrics.startPhase(VersionControlSystem.GIT, "repo", "fetch")) {
+			// Measure an empty phase
+		}
+		assertEquals(2, metrics.getPhaseStatistics().get(0).getCount());
+	}
+
+	@Test
+	public void testSummaryAndReset() {
+		final MergeMetrics metrics = new MergeMetrics();
+		metrics.record(VersionControlSystem.SVN, "repo", "commitChanges", 1_500_000);
+		final String summary = metrics.getSummary();
+		assertTrue(summary.contains("commitChanges"), summary);
+		assertTrue(summary.contains("1.5"), summary);
+		metrics.reset();
+		assertTrue(metrics.getPhaseStatistics().isEmpty());
+	}
+
+	@Test
+	public void testTimerRunningDuringResetIsRecorded() {
+		final MergeMetrics metrics = new MergeMetrics();
+		metrics.record(VersionControlSystem.SVN, "repo", "update", 1_000_000);
+		final PhaseTimer timer = metrics.startPhase(VersionControlSystem.SVN, "repo", "merge");
+		metrics.reset();
+		timer.close();
+		final List<PhaseStatistics> statistics = metrics.getPhaseStatistics();
+		assertEquals(1, statistics.size());
+		assertEquals("merge", statistics.get(0).getPhase());
+		assertEquals(1, statistics.get(0).getCount());
+	}
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SftpMetrics}.
+ *
+ * @author Stefan Weiser
+ *
+ */
+public class SftpMetricsTest {
+
+	private static SftpOperationStatistics getStatistics(final SftpMetrics metrics, final SftpOperation operation) {
+		return metrics.getOperationStatistics().stream()
+				.filter(statistics -> statistics.getOperation().equals(operation.name())).findFirst().get();
+	}
+
+	@Test
+	public void testCallAndRun() throws IOException {
+		final SftpMetrics metrics = new SftpMetrics();
+		assertEquals("result", metrics.call(SftpOperation.LS, () -> "result"));
+		metrics.run(SftpOperation.PUT, 100, () -> {
+			// Simulate a successful upload
+		});
+		assertThrows(IOException.class, () -> metrics.run(SftpOperation.RENAME, () -> {
+			throw new IOException();
+		}));
+
+		assertEquals(1, getStatistics(metrics, SftpOperation.LS).getCount());
+		assertEquals(100, getStatistics(metrics, SftpOperation.PUT).getBytes());
+		assertEquals(1, getStatistics(metrics, SftpOperation.RENAME).getErrors());
+		assertEquals(3, metrics.getRequestCount());
+		assertEquals(1, metrics.getErrorCount());
+		assertEquals(100, metrics.getByteCount());
+	}
+
+	@Test
+	public void testDownloadCountsBytesOnClose() throws IOException {
+		final SftpMetrics metrics = new SftpMetrics();
+		final InputStream in = metrics.download(() -> new ByteArrayInputStream(new byte[1000]));
+		assertEquals(1000, IOUtils.toByteArray(in).length);
+		assertEquals(0, metrics.getRequestCount());
+		in.close();
+		in.close();
+		final SftpOperationStatistics statistics = getStatistics(metrics, SftpOperation.GET);
+		assertEquals(1, statistics.getCount());
+		assertEquals(1000, statistics.getBytes());
+	}
+
+	@Test
+	public void testConnectsAreNoRequests() {
+		final SftpMetrics metrics = new SftpMetrics();
+		metrics.record(SftpOperation.CONNECT, 5_000_000, 0, false);
+		metrics.recordReconnect();
+		assertEquals(0, metrics.getRequestCount());
+		assertEquals(1, getStatistics(metrics, SftpOperation.CONNECT).getCount());
+		assertEquals(1, metrics.getReconnects());
+	}
+
+	@Test
+	public void testSummaryAndReset() {
+		final SftpMetrics metrics = new SftpMetrics();
+		metrics.record(SftpOperation.GET, 2_000_000, 2048, false);
+		final String summary = metrics.getSummary();
+		assertTrue(summary.contains("GET"), summary);
+		assertTrue(summary.contains("2048"), summary);
+		metrics.reset();
+		final List<SftpOperationStatistics> statistics = metrics.getOperationStatistics();
+		assertEquals(SftpOperation.values().length, statistics.size());
+		statistics.forEach(s -> assertEquals(0, s.getCount()));
+	}
+
+}
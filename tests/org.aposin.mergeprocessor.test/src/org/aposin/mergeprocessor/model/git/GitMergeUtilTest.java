@@ -0,0 +1,180 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.configuration.JUnitConfiguration;
+import org.aposin.mergeprocessor.model.MergeUnitException;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the batch merge of {@link GitMergeUtil} on local GIT repositories.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class GitMergeUtilTest {
+
+	private static final LocalDateTime DATE = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+	private Path tempDir;
+	private String remoteUrl;
+	private Git workingClone;
+	private JUnitConfiguration configuration;
+	private GitRepositoryManager manager;
+
+	@BeforeEach
+	public void setUp() throws IOException, GitAPIException {
+		tempDir = Files.createTempDirectory("gitMergeUtil");
+		final Path remote = tempDir.resolve("remote.git");
+		Git.init().setBare(true).setDirectory(remote.toFile()).call().close();
+		remoteUrl = StringUtils.removeEnd(remote.toUri().toString(), "/");
+
+		workingClone = Git.cloneRepository().setURI(remoteUrl).setDirectory(tempDir.resolve("work").toFile()).call();
+		commitFile(workingClone, "file.txt", "content");
+		workingClone.push().call();
+		workingClone.checkout().setCreateBranch(true).setName("V1.0").call();
+
+		configuration = new JUnitConfiguration();
+		configuration.setGitRepositoryFolder(tempDir.resolve("local").toString());
+		manager = new GitRepositoryManager(configuration, null);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		manager.close();
+		workingClone.close();
+		FileUtils.deleteDirectory(tempDir.toFile());
+	}
+
+	private static RevCommit commitFile(final Git git, final String fileName, final String content)
+			throws IOException, GitAPIException {
+		Files.write(git.getRepository().getWorkTree().toPath().resolve(fileName), content.getBytes());
+		git.add().addFilepattern(fileName).call();
+		return git.commit().setMessage("Change " + fileName).call();
+	}
+
+	private GITMergeUnit createMergeUnit(final RevCommit commit, final int minutes, final String branchTarget) {
+		final GITMergeUnit mergeUnit = new GITMergeUnit("host", remoteUrl, DATE.plusMinutes(minutes), commit.getName(),
+				"origin/V1.0", branchTarget, commit.getName() + ".gitmerge", Collections.emptyList(), configuration);
+		mergeUnit.setStatus(MergeUnitStatus.TODO);
+		return mergeUnit;
+	}
+
+	private GITMergeUnit createMergeUnit(final RevCommit commit, final int minutes) {
+		return createMergeUnit(commit, minutes, "origin/master");
+	}
+
+	/**
+	 * @return the files of the master branch in the remote repository
+	 */
+	private List<String> getRemoteFiles() throws GitAPIException, IOException {
+		workingClone.fetch().call();
+		workingClone.checkout().setName("master").call();
+		workingClone.reset().setRef("origin/master").setMode(ResetType.HARD).call();
+		final List<String> files = new ArrayList<>();
+		try (final Stream<Path> stream = Files.list(workingClone.getRepository().getWorkTree().toPath())) {
+			stream.map(path -> path.getFileName().toString()).filter(name -> !".git".equals(name)).sorted()
+					.forEach(files::add);
+		}
+		return files;
+	}
+
+	@Test
+	public void testGetBatch() throws IOException, GitAPIException {
+		final GITMergeUnit first = createMergeUnit(commitFile(workingClone, "a.txt", "a"), 1);
+		final GITMergeUnit later = createMergeUnit(commitFile(workingClone, "b.txt", "b"), 3);
+		final GITMergeUnit earlier = createMergeUnit(commitFile(workingClone, "c.txt", "c"), 0);
+		final GITMergeUnit done = createMergeUnit(commitFile(workingClone, "d.txt", "d"), 4);
+		done.setStatus(MergeUnitStatus.DONE);
+		final GITMergeUnit otherBranch = createMergeUnit(commitFile(workingClone, "e.txt", "e"), 5, "origin/V2.0");
+		final GITMergeUnit next = createMergeUnit(commitFile(workingClone, "f.txt", "f"), 2);
+		assertEquals(Arrays.asList(first, next, later),
+				GitMergeUtil.getBatch(first, Arrays.asList(later, earlier, done, otherBranch, next)));
+		assertEquals(Arrays.asList(first), GitMergeUtil.getBatch(first, Collections.emptyList()));
+	}
+
+	@Test
+	public void testMergeCleanBatch() throws IOException, GitAPIException, MergeUnitException {
+		final List<GITMergeUnit> batch = Arrays.asList( //
+				createMergeUnit(commitFile(workingClone, "a.txt", "a"), 0), //
+				createMergeUnit(commitFile(workingClone, "b.txt", "b"), 1), //
+				createMergeUnit(commitFile(workingClone, "c.txt", "c"), 2));
+		workingClone.push().add("V1.0").call();
+		final List<GITMergeUnit> merged = GitMergeUtil.mergeHeadless(manager, batch, new NullProgressMonitor());
+		assertEquals(batch, merged);
+		assertEquals(Arrays.asList("a.txt", "b.txt", "c.txt", "file.txt"), getRemoteFiles());
+	}
+
+	@Test
+	public void testMergeBatchStopsAtConflict() throws IOException, GitAPIException, MergeUnitException {
+		final GITMergeUnit clean = createMergeUnit(commitFile(workingClone, "a.txt", "a"), 0);
+		final GITMergeUnit conflicting = createMergeUnit(commitFile(workingClone, "file.txt", "source"), 1);
+		final GITMergeUnit following = createMergeUnit(commitFile(workingClone, "c.txt", "c"), 2);
+		workingClone.push().add("V1.0").call();
+		// Change the same file in the target branch
+		workingClone.checkout().setName("master").call();
+		commitFile(workingClone, "file.txt", "target");
+		workingClone.push().call();
+
+		final List<GITMergeUnit> merged = GitMergeUtil.mergeHeadless(manager,
+				Arrays.asList(clean, conflicting, following), new NullProgressMonitor());
+		assertEquals(Arrays.asList(clean), merged);
+		assertEquals(Arrays.asList("a.txt", "file.txt"), getRemoteFiles());
+		assertTrue(manager.getGit(remoteUrl).status().call().isClean());
+		// The units after the conflict are left for the next merge
+		assertEquals(MergeUnitStatus.TODO, conflicting.getStatus());
+		assertEquals(MergeUnitStatus.TODO, following.getStatus());
+		assertFalse(merged.contains(following));
+	}
+
+	@Test
+	public void testConflictOfFirstMergeUnitFailsHeadlessMerge() throws IOException, GitAPIException {
+		final GITMergeUnit conflicting = createMergeUnit(commitFile(workingClone, "file.txt", "source"), 0);
+		workingClone.push().add("V1.0").call();
+		workingClone.checkout().setName("master").call();
+		commitFile(workingClone, "file.txt", "target");
+		workingClone.push().call();
+
+		assertThrows(MergeUnitException.class, () -> GitMergeUtil.mergeHeadless(manager,
+				Collections.singletonList(conflicting), new NullProgressMonitor()));
+	}
+
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.aposin.mergeprocessor.configuration.JUnitConfiguration;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link GitRepositoryManager}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class GitRepositoryManagerTest {
+
+	private Path tempDir;
+	private String remoteUrl;
+	private Git workingClone;
+	private RevCommit initialCommit;
+	private JUnitConfiguration configuration;
+	private GitRepositoryManager manager;
+
+	@BeforeEach
+	public void setUp() throws IOException, GitAPIException {
+		tempDir = Files.createTempDirectory("gitRepositoryManager");
+		final Path remote = tempDir.resolve("remote.git");
+		Git.init().setBare(true).setDirectory(remote.toFile()).call().close();
+		remoteUrl = StringUtils.removeEnd(remote.toUri().toString(), "/");
+
+		workingClone = Git.cloneRepository().setURI(remoteUrl).setDirectory(tempDir.resolve("work").toFile()).call();
+		initialCommit = commitFile(workingClone, "file.txt", "content");
+		workingClone.push().call();
+		workingClone.branchCreate().setName("V1.0").call();
+		workingClone.push().add("V1.0").call();
+
+		configuration = new JUnitConfiguration();
+		configuration.setGitRepositoryFolder(tempDir.resolve("local").toString());
+		manager = new GitRepositoryManager(configuration, null);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		manager.close();
+		workingClone.close();
+		FileUtils.deleteDirectory(tempDir.toFile());
+	}
+
+	private static RevCommit commitFile(final Git git, final String fileName, final String content)
+			throws IOException, GitAPIException {
+		Files.write(git.getRepository().getWorkTree().toPath().resolve(fileName), content.getBytes());
+		git.add().addFilepattern(fileName).call();
+		return git.commit().setMessage("Change " + fileName).call();
+	}
+
+	private Git cloneLocal() throws GitAPIException {
+		final Git git = Git.cloneRepository().setURI(remoteUrl).setDirectory(manager.getLocalPath(remoteUrl).toFile())
+				.call();
+		manager.register(remoteUrl, git);
+		return git;
+	}
+
+	@Test
+	public void testGetLocalPath() {
+		assertEquals(tempDir.resolve("local").resolve("remote"), manager.getLocalPath(remoteUrl));
+		assertThrows(IllegalArgumentException.class, () -> manager.getLocalPath("remote"));
+	}
+
+	@Test
+	public void testGetRemoteBranchesOfNotClonedRepository() {
+		assertTrue(manager.getRemoteBranches(remoteUrl).isEmpty());
+		assertTrue(manager.getRemoteBranches("remote").isEmpty());
+	}
+
+	@Test
+	public void testGetGitOfNotClonedRepository() {
+		assertThrows(IOException.class, () -> manager.getGit(remoteUrl));
+	}
+
+	@Test
+	public void testGetGitReturnsSameInstance() throws GitAPIException, IOException {
+		final Git git = cloneLocal();
+		assertSame(git, manager.getGit(remoteUrl));
+		assertSame(git, manager.getGit(remoteUrl));
+	}
+
+	@Test
+	public void testGetGitOpensExistingClone() throws GitAPIException, IOException {
+		Git.cloneRepository().setURI(remoteUrl).setDirectory(manager.getLocalPath(remoteUrl).toFile()).call()
+				.close();
+		final Git git = manager.getGit(remoteUrl);
+		assertNotNull(git);
+		assertSame(git, manager.getGit(remoteUrl));
+	}
+
+	@Test
+	public void testGetRemoteBranches() throws GitAPIException {
+		cloneLocal();
+		assertEquals(Arrays.asList("remotes/origin/master", "remotes/origin/V1.0"),
+				manager.getRemoteBranches(remoteUrl));
+	}
+
+	@Test
+	public void testGetRemoteBranchesWithoutGitSuffix() throws GitAPIException {
+		cloneLocal();
+		final String urlWithoutSuffix = StringUtils.removeEnd(remoteUrl, ".git");
+		assertEquals(manager.getLocalPath(remoteUrl), manager.getLocalPath(urlWithoutSuffix));
+		assertEquals(manager.getLocalPath(remoteUrl), manager.getLocalPath(urlWithoutSuffix + '/'));
+		assertEquals(Arrays.asList("remotes/origin/master", "remotes/origin/V1.0"),
+				manager.getRemoteBranches(urlWithoutSuffix));
+	}
+
+	@Test
+	public void testRemoteBranchesAreCachedUntilFetch() throws GitAPIException, IOException {
+		cloneLocal();
+		manager.getRemoteBranches(remoteUrl);
+		workingClone.branchCreate().setName("V2.0").call();
+		workingClone.push().add("V2.0").call();
+		assertEquals(2, manager.getRemoteBranches(remoteUrl).size());
+
+		manager.fetch(remoteUrl);
+		assertEquals(Arrays.asList("remotes/origin/master", "remotes/origin/V2.0", "remotes/origin/V1.0"),
+				manager.getRemoteBranches(remoteUrl));
+	}
+
+	@Test
+	public void testGetCommit() throws GitAPIException, IOException {
+		cloneLocal();
+		assertEquals(initialCommit.getFullMessage(),
+				manager.getCommit(remoteUrl, initialCommit.getName()).getFullMessage());
+
+		final RevCommit newCommit = commitFile(workingClone, "file2.txt", "content");
+		workingClone.push().call();
+		assertNull(manager.getCommit(remoteUrl, newCommit.getName()));
+		manager.fetch(remoteUrl);
+		assertEquals(newCommit, manager.getCommit(remoteUrl, newCommit.getName()));
+	}
+
+	@Test
+	public void testCloneRepositoryFull() throws GitAPIException, IOException {
+		final Git git = manager.cloneRepository(remoteUrl, "V1.0");
+		assertSame(git, manager.getGit(remoteUrl));
+		assertEquals("V1.0", git.getRepository().getBranch());
+		assertEquals(Arrays.asList("remotes/origin/master", "remotes/origin/V1.0"),
+				manager.getRemoteBranches(remoteUrl));
+	}
+
+	@Test
+	public void testCloneRepositorySingleBranch() throws GitAPIException, IOException {
+		configuration.setGitCloneStrategy(GitCloneStrategy.SINGLE_BRANCH);
+		final Git git = manager.cloneRepository(remoteUrl, "master");
+		assertEquals("master", git.getRepository().getBranch());
+		assertEquals(Arrays.asList("remotes/origin/master"), manager.getRemoteBranches(remoteUrl));
+
+		// Later fetches keep the single branch
+		manager.fetch(remoteUrl);
+		assertEquals(Arrays.asList("remotes/origin/master"), manager.getRemoteBranches(remoteUrl));
+	}
+
+	@Test
+	public void testFetchBranchOfSingleBranchClone() throws GitAPIException, IOException {
+		configuration.setGitCloneStrategy(GitCloneStrategy.SINGLE_BRANCH);
+		manager.cloneRepository(remoteUrl, "master");
+		manager.fetchBranch(remoteUrl, "V1.0");
+		assertEquals(Arrays.asList("remotes/origin/master", "remotes/origin/V1.0"),
+				manager.getRemoteBranches(remoteUrl));
+
+		// The fetched branch is tracked from now on
+		workingClone.checkout().setName("V1.0").call();
+		final RevCommit newCommit = commitFile(workingClone, "file2.txt", "content");
+		workingClone.push().call();
+		manager.fetch(remoteUrl);
+		assertEquals(newCommit, manager.getCommit(remoteUrl, newCommit.getName()));
+	}
+
+	@Test
+	public void testFetchNotExistingBranch() throws GitAPIException, IOException {
+		configuration.setGitCloneStrategy(GitCloneStrategy.SINGLE_BRANCH);
+		manager.cloneRepository(remoteUrl, "master");
+		assertThrows(GitAPIException.class, () -> manager.fetchBranch(remoteUrl, "V9.9"));
+		manager.fetch(remoteUrl);
+		assertEquals(Arrays.asList("remotes/origin/master"), manager.getRemoteBranches(remoteUrl));
+	}
+
+	@Test
+	public void testGetCommitFetchesBranchOnDemand() throws GitAPIException, IOException {
+		configuration.setGitCloneStrategy(GitCloneStrategy.SINGLE_BRANCH);
+		manager.cloneRepository(remoteUrl, "master");
+		workingClone.checkout().setName("V1.0").call();
+		final RevCommit newCommit = commitFile(workingClone, "file2.txt", "content");
+		workingClone.push().call();
+
+		assertNull(manager.getCommit(remoteUrl, newCommit.getName()));
+		assertEquals(newCommit, manager.getCommit(remoteUrl, newCommit.getName(), "V1.0"));
+		assertEquals(Arrays.asList("remotes/origin/master", "remotes/origin/V1.0"),
+				manager.getRemoteBranches(remoteUrl));
+	}
+
+	@Test
+	public void testGetCommitFetchesAllBranchesOnDemand() throws GitAPIException, IOException {
+		configuration.setGitCloneStrategy(GitCloneStrategy.SINGLE_BRANCH);
+		manager.cloneRepository(remoteUrl, "master");
+		workingClone.checkout().setName("V1.0").call();
+		final RevCommit newCommit = commitFile(workingClone, "file2.txt", "content");
+		workingClone.push().call();
+
+		// The given branch is wrong, so all branches are fetched
+		assertEquals(newCommit, manager.getCommit(remoteUrl, newCommit.getName(), "V9.9"));
+		assertNull(manager.getCommit(remoteUrl, "0123456789012345678901234567890123456789", "master"));
+	}
+
+	@Test
+	public void testBackgroundFetch() throws Exception {
+		final JUnitConfiguration configuration = new JUnitConfiguration();
+		configuration.setGitRepositoryFolder(tempDir.resolve("local").toString());
+		try (final GitRepositoryManager backgroundManager = new GitRepositoryManager(configuration,
+				Duration.ofMillis(50))) {
+			Git.cloneRepository().setURI(remoteUrl).setDirectory(backgroundManager.getLocalPath(remoteUrl).toFile())
+					.call().close();
+			assertEquals(2, backgroundManager.getRemoteBranches(remoteUrl).size());
+			workingClone.branchCreate().setName("V2.0").call();
+			workingClone.push().add("V2.0").call();
+			final long end = System.currentTimeMillis() + 10_000;
+			while (backgroundManager.getRemoteBranches(remoteUrl).size() < 3 && System.currentTimeMillis() < end) {
+				Thread.sleep(50);
+			}
+			assertEquals(3, backgroundManager.getRemoteBranches(remoteUrl).size());
+		}
+	}
+
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SvnClientJavaHlPool}, using mocked clients.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class SvnClientJavaHlPoolTest {
+
+	private final AtomicInteger createdClients = new AtomicInteger();
+	private final AtomicInteger activeClients = new AtomicInteger();
+	private final AtomicInteger maxActiveClients = new AtomicInteger();
+	private volatile CountDownLatch release = new CountDownLatch(0);
+	private SvnClientJavaHlPool pool;
+
+	@AfterEach
+	public void tearDown() {
+		release.countDown();
+		if (pool != null) {
+			pool.close();
+		}
+	}
+
+	private SvnClientJavaHlPool createPool(final int maxSize, final long leaseTimeoutMillis) {
+		pool = new SvnClientJavaHlPool(snapshots -> new BlockingClient(createdClients.incrementAndGet()), maxSize,
+				leaseTimeoutMillis);
+		return pool;
+	}
+
+	@Test
+	public void testConcurrentLeasing() throws Exception {
+		createPool(2, TimeUnit.SECONDS.toMillis(10));
+		release = new CountDownLatch(1);
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<Long>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> pool.showRevision(null)));
+			}
+			// Wait until the maximum number of clients is busy
+			while (activeClients.get() < 2) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+			for (final Future<Long> result : results) {
+				assertTrue(result.get(10, TimeUnit.SECONDS) <= 2);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(2, maxActiveClients.get());
+		assertEquals(2, pool.getSize());
+		assertEquals(2, createdClients.get());
+	}
+
+	@Test
+	public void testLeaseTimesOut() throws Exception {
+		createPool(1, 100);
+		release = new CountDownLatch(1);
+		final Thread busy = new Thread(() -> {
+			try {
+				pool.showRevision(null);
+			} catch (SvnClientException e) {
+				// Not expected, the test fails on the assertions
+			}
+		});
+		busy.start();
+		while (activeClients.get() < 1) {
+			Thread.sleep(10);
+		}
+		assertThrows(SvnClientException.class, () -> pool.showRevision(null));
+		release.countDown();
+		busy.join();
+		assertEquals(1, pool.showRevision(null));
+	}
+
+	@Test
+	public void testPinnedClientsDoNotCountAgainstMaxSize() throws Exception {
+		createPool(4, 100);
+		final CountDownLatch pinned = new CountDownLatch(4);
+		final CountDownLatch finish = new CountDownLatch(1);
+		final List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			final Thread thread = new Thread(() -> {
+				final Consumer<String> listener = command -> {
+					// Not of interest
+				};
+				pool.addCommandLineListener(listener);
+				pinned.countDown();
+				try {
+					finish.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				pool.removeCommandLineListener(listener);
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		assertTrue(pinned.await(10, TimeUnit.SECONDS));
+		assertEquals(4, pool.getPinnedCount());
+		// All pinned threads are alive, but leasing still succeeds
+		pool.showRevision(null);
+		assertEquals(1, pool.getSize());
+
+		finish.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(0, pool.getPinnedCount());
+		// The unpinned clients are kept up to the maximum size
+		assertEquals(4, pool.getSize());
+		assertEquals(5, createdClients.get());
+	}
+
+	@Test
+	public void testPinnedClientsAreLimited() throws Exception {
+		createPool(1, 100);
+		final Consumer<String> listener = command -> {
+			// Not of interest
+		};
+		pool.addCommandLineListener(listener);
+		final Thread other = new Thread(() -> pool.addCommandLineListener(listener));
+		other.start();
+		other.join();
+		assertEquals(1, pool.getPinnedCount());
+		pool.removeCommandLineListener(listener);
+		assertEquals(0, pool.getPinnedCount());
+	}
+
+	@Test
+	public void testPinsOfTerminatedThreadsAreReleased() throws Exception {
+		createPool(1, 100);
+		final Thread thread = new Thread(() -> pool.addCommandLineListener(command -> {
+			// Never removed
+		}));
+		thread.start();
+		thread.join();
+		assertEquals(1, pool.getPinnedCount());
+
+		assertEquals(1, pool.showRevision(null));
+		assertEquals(0, pool.getPinnedCount());
+		assertEquals(1, createdClients.get());
+	}
+
+	@Test
+	public void testPinnedThreadUsesItsClient() throws Exception {
+		createPool(1, 100);
+		final Consumer<String> listener = command -> {
+			// Not of interest
+		};
+		pool.addCommandLineListener(listener);
+		assertEquals(1, pool.showRevision(null));
+		assertEquals(0, pool.getSize());
+		// Other threads lease another client
+		final AtomicInteger otherClient = new AtomicInteger();
+		final Thread other = new Thread(() -> {
+			try {
+				otherClient.set((int) pool.showRevision(null));
+			} catch (SvnClientException e) {
+				// The assertion fails
+			}
+		});
+		other.start();
+		other.join();
+		assertEquals(2, otherClient.get());
+		pool.removeCommandLineListener(listener);
+		assertEquals(0, pool.getPinnedCount());
+	}
+
+	/**
+	 * Client returning its id as revision, blocking until released.
+	 */
+	private class BlockingClient extends SvnClientMock {
+
+		private final int id;
+
+		private BlockingClient(final int id) {
+			this.id = id;
+		}
+
+		@Override
+		public long showRevision(final URL url) throws SvnClientException {
+			maxActiveClients.accumulateAndGet(activeClients.incrementAndGet(), Math::max);
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				activeClients.decrementAndGet();
+			}
+			return id;
+		}
+
+	}
+
+}
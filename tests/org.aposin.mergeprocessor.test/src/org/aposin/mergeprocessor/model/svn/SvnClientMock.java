@@ -17,17 +17,30 @@ package org.aposin.mergeprocessor.model.svn;
 
 import java.net.URL;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
 /**
- * Svn client implementation mocking the SVN behaviour.
+ * Svn client implementation mocking the SVN behaviour. Status snapshots are
+ * created from {@link #getModifiedPaths(Path)} and {@link #getConflicts(Path)}
+ * and get invalidated by updates, merges and commits.
  * 
  * @author Stefan Weiser
  *
  */
 public class SvnClientMock implements ISvnClient {
 
+	private final SvnStatusSnapshotRegistry snapshots = new SvnStatusSnapshotRegistry();
+
+	/**
+	 * @return the registry of the snapshots created by this client
+	 */
+	SvnStatusSnapshotRegistry getSnapshotRegistry() {
+		return snapshots;
+	}
+
 	@Override
 	public String cat(URL url) throws SvnClientException {
 		return null;
@@ -43,6 +56,31 @@ public class SvnClientMock implements ISvnClient {
 		return false;
 	}
 
+	/**
+	 * Returns the modified paths the status snapshots of the given path are
+	 * created with. Override to mock modifications.
+	 * 
+	 * @param path the local path where modifications may exist
+	 * @return the list of absolute paths having modifications
+	 * @throws SvnClientException
+	 */
+	public List<Path> getModifiedPaths(Path path) throws SvnClientException {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public SvnStatusSnapshot getStatusSnapshot(Path path) throws SvnClientException {
+		final SvnStatusSnapshot snapshot = new SvnStatusSnapshot(path);
+		snapshots.register(snapshot);
+		for (final Path modifiedPath : getModifiedPaths(path)) {
+			snapshot.addModification(modifiedPath);
+		}
+		for (final String conflict : getConflicts(path)) {
+			snapshot.addConflict(Paths.get(conflict), conflict, false);
+		}
+		return snapshot;
+	}
+
 	@Override
 	public long showRevision(URL url) throws SvnClientException {
 		return 0;
@@ -60,7 +98,8 @@ public class SvnClientMock implements ISvnClient {
 
 	@Override
 	public long[] updateEmpty(List<Path> paths) throws SvnClientException {
-		return null;
+		paths.forEach(snapshots::invalidate);
+		return new long[paths.size()];
 	}
 
 	@Override
@@ -71,22 +110,22 @@ public class SvnClientMock implements ISvnClient {
 	@Override
 	public void merge(Path path, URL url, long revision, boolean recursivly, boolean recordOnly)
 			throws SvnClientException {
-		//NOOP
+		snapshots.invalidate(path);
 	}
 
 	@Override
 	public void commit(Path path, String message) throws SvnClientException {
-		//NOOP
+		snapshots.invalidate(path);
 	}
 
 	@Override
 	public List<String> getConflicts(Path path) throws SvnClientException {
-		return null;
+		return Collections.emptyList();
 	}
 
 	@Override
 	public void update(Path path) throws SvnClientException {
-		//NOOP
+		snapshots.invalidate(path);
 	}
 
 	@Override
@@ -111,7 +150,7 @@ public class SvnClientMock implements ISvnClient {
 
 	@Override
 	public void close() {
-		//NOOP
+		snapshots.invalidateAll();
 	}
 
 }
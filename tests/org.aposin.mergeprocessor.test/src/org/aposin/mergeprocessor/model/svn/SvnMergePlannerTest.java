@@ -0,0 +1,142 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff.SvnDiffAction;
+import org.aposin.mergeprocessor.model.svn.SvnMergePlanner.FromToPathTuple;
+import org.aposin.mergeprocessor.model.svn.SvnMergePlanner.PathsToMerge;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SvnMergePlanner}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class SvnMergePlannerTest {
+
+	private static final String URL_SOURCE = "file:/repo/trunk";
+	private static final Function<SvnDiff, Path> CONVERTER = diff -> Paths
+			.get(diff.getUrl().toString().substring(URL_SOURCE.length() + 1));
+
+	private static SvnDiff diff(final SvnDiffAction action, final String path) throws MalformedURLException {
+		return new SvnDiff(action, new URL(URL_SOURCE + '/' + path));
+	}
+
+	@Test
+	public void testGetPathsToMerge() throws MalformedURLException, SvnUtilException {
+		final List<SvnDiff> diffs = Arrays.asList( //
+				diff(SvnDiffAction.MODIFIED, "a/b/c.txt"), //
+				diff(SvnDiffAction.ADDED, "a/d/e.txt"), //
+				diff(SvnDiffAction.DELETED, "f/g"), //
+				diff(SvnDiffAction.DELETED, "f/g/h.txt"), //
+				diff(SvnDiffAction.DELETED, "f/gh.txt"), //
+				diff(SvnDiffAction.PROPERTY_CHANGED, "a/b"));
+		final PathsToMerge pathsToMerge = SvnMergePlanner.getPathsToMerge(diffs, CONVERTER);
+		assertEquals(Arrays.asList(Paths.get("a/b/c.txt"), Paths.get("a/d"), Paths.get("f")),
+				pathsToMerge.getContentChanges());
+		assertEquals(Arrays.asList(Paths.get("a/b")), pathsToMerge.getPropertyChanges());
+	}
+
+	@Test
+	public void testGetPathsToMergeFiltersChildrenOfMergedPaths() throws MalformedURLException, SvnUtilException {
+		final List<SvnDiff> diffs = Arrays.asList( //
+				diff(SvnDiffAction.MODIFIED, "a/b/c.txt"), //
+				diff(SvnDiffAction.ADDED, "a/b/d.txt"));
+		final PathsToMerge pathsToMerge = SvnMergePlanner.getPathsToMerge(diffs, CONVERTER);
+		assertEquals(Arrays.asList(Paths.get("a/b")), pathsToMerge.getContentChanges());
+	}
+
+	@Test
+	public void testGetRecordMerges() {
+		final FromToPathTuple done = new FromToPathTuple(Paths.get("x/old/pkg/A.java"),
+				Paths.get("x/new/pkg/A.java"));
+		final List<FromToPathTuple> result = SvnMergePlanner.getRecordMerges(Arrays.asList(done, done),
+				Collections.emptyList());
+		assertEquals(Arrays.asList( //
+				new FromToPathTuple(Paths.get("x/old/pkg"), Paths.get("x/new/pkg")), //
+				new FromToPathTuple(Paths.get("x"), Paths.get("x"))), result);
+	}
+
+	@Test
+	public void testGetRecordMergesWithoutMergedPaths() {
+		final FromToPathTuple done = new FromToPathTuple(Paths.get("a/b/c.txt"), Paths.get("a/b/c.txt"));
+		final List<FromToPathTuple> result = SvnMergePlanner.getRecordMerges(Arrays.asList(done),
+				Arrays.asList(Paths.get("a")));
+		assertEquals(Arrays.asList(new FromToPathTuple(Paths.get("a/b"), Paths.get("a/b"))), result);
+	}
+
+	@Test
+	public void testGetGroupedMerges() throws MalformedURLException, SvnUtilException {
+		final PathsToMerge pathsToMerge = SvnMergePlanner.getPathsToMerge(Arrays.asList( //
+				diff(SvnDiffAction.MODIFIED, "a/b/c.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/b/d.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/e/f.txt")), CONVERTER);
+		final Map<Path, Path> renameMapping = new HashMap<>();
+		renameMapping.put(Paths.get("a/b/c.txt"), Paths.get("a/b/c.txt"));
+		renameMapping.put(Paths.get("a/b/d.txt"), Paths.get("a/b/d.txt"));
+		renameMapping.put(Paths.get("a/e/f.txt"), Paths.get("z/e/f.txt"));
+		final List<FromToPathTuple> merges = Arrays.asList( //
+				new FromToPathTuple(Paths.get("a/b/c.txt"), Paths.get("a/b/c.txt")), //
+				new FromToPathTuple(Paths.get("a/b/d.txt"), Paths.get("a/b/d.txt")), //
+				new FromToPathTuple(Paths.get("a/e/f.txt"), Paths.get("z/e/f.txt")));
+		final List<FromToPathTuple> result = SvnMergePlanner.getGroupedMerges(merges, pathsToMerge, renameMapping,
+				path -> true);
+		assertEquals(Arrays.asList( //
+				new FromToPathTuple(Paths.get("a/b"), Paths.get("a/b")), //
+				new FromToPathTuple(Paths.get("a/e"), Paths.get("z/e"))), result);
+	}
+
+	@Test
+	public void testGetGroupedMergesWithMissingChildTarget() throws MalformedURLException, SvnUtilException {
+		final PathsToMerge pathsToMerge = SvnMergePlanner.getPathsToMerge(Arrays.asList( //
+				diff(SvnDiffAction.MODIFIED, "a/b/c.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/b/d.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/e/f.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/e/g.txt")), CONVERTER);
+		final Map<Path, Path> renameMapping = new HashMap<>();
+		renameMapping.put(Paths.get("a/b/c.txt"), Paths.get("a/b/c.txt"));
+		renameMapping.put(Paths.get("a/b/d.txt"), Paths.get("a/b/d.txt"));
+		renameMapping.put(Paths.get("a/e/f.txt"), Paths.get("a/e/f.txt"));
+		renameMapping.put(Paths.get("a/e/g.txt"), Paths.get("a/e/g.txt"));
+		// a/b/d.txt does not exist in the target and is therefore no merge
+		final List<FromToPathTuple> merges = Arrays.asList( //
+				new FromToPathTuple(Paths.get("a/b/c.txt"), Paths.get("a/b/c.txt")), //
+				new FromToPathTuple(Paths.get("a/e/f.txt"), Paths.get("a/e/f.txt")), //
+				new FromToPathTuple(Paths.get("a/e/g.txt"), Paths.get("a/e/g.txt")));
+		final List<FromToPathTuple> result = SvnMergePlanner.getGroupedMerges(merges, pathsToMerge, renameMapping,
+				path -> !path.equals(Paths.get("a/b/d.txt")));
+		assertEquals(Arrays.asList( //
+				new FromToPathTuple(Paths.get("a/b/c.txt"), Paths.get("a/b/c.txt")), //
+				new FromToPathTuple(Paths.get("a/e"), Paths.get("a/e"))), result);
+	}
+
+}
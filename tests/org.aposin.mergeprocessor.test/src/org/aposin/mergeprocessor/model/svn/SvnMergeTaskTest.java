@@ -0,0 +1,175 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.aposin.mergeprocessor.configuration.JUnitConfiguration;
+import org.aposin.mergeprocessor.exception.SvnUtilException;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff;
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnDiff.SvnDiffAction;
+import org.aposin.mergeprocessor.renaming.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link SvnMergeTask}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class SvnMergeTaskTest {
+
+	private static final String URL_REPOSITORY = "file:/repo";
+	private static final String URL_SOURCE = URL_REPOSITORY + "/trunk";
+	private static final String URL_TARGET = URL_REPOSITORY + "/branches/V1";
+
+	@TempDir
+	Path repository;
+
+	/**
+	 * Tests that the batched merge does not merge a changed path, whose target is
+	 * missing, through its parent.
+	 */
+	@Test
+	public void testBatchedMergeDoesNotMergeMissingTargetThroughParent() throws IOException, SvnUtilException {
+		createFiles("a/b/c.txt", "a/e/f.txt", "a/e/g.txt");
+		final RecordingSvnClient client = new RecordingSvnClient(Arrays.asList( //
+				diff(SvnDiffAction.MODIFIED, "a/b/c.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/b/d.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/e/f.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/e/g.txt")));
+		final SvnMergeTask task = new SvnMergeTask(null, null, createMergeUnit(client), repository, true, client);
+		task.merge();
+
+		assertEquals(Arrays.asList(repository.resolve("a/b/c.txt"), repository.resolve("a/e")), client.merges);
+		assertTrue(task.getWarnings().contains("Path not found: " + Path.of("a/b/d.txt")));
+		assertEquals(0, client.getSnapshotRegistry().size());
+	}
+
+	/**
+	 * Tests that the batched merge groups all changes below the highest root, if
+	 * all targets exist.
+	 */
+	@Test
+	public void testBatchedMergeGroupsExistingTargets() throws IOException, SvnUtilException {
+		createFiles("a/b/c.txt", "a/b/d.txt");
+		final RecordingSvnClient client = new RecordingSvnClient(Arrays.asList( //
+				diff(SvnDiffAction.MODIFIED, "a/b/c.txt"), //
+				diff(SvnDiffAction.MODIFIED, "a/b/d.txt")));
+		final SvnMergeTask task = new SvnMergeTask(null, null, createMergeUnit(client), repository, true, client);
+		task.merge();
+
+		assertEquals(Arrays.asList(repository.resolve("a")), client.merges);
+		assertTrue(task.getWarnings().isEmpty());
+	}
+
+	private void createFiles(final String... paths) throws IOException {
+		for (final String path : paths) {
+			final Path file = repository.resolve(path);
+			Files.createDirectories(file.getParent());
+			Files.createFile(file);
+		}
+	}
+
+	private static SVNMergeUnit createMergeUnit(final ISvnClient client) {
+		final JUnitConfiguration configuration = new JUnitConfiguration();
+		// No renaming database available, so nothing is renamed
+		configuration.setRenameDatabaseUrl("jdbc:none:"); //$NON-NLS-1$
+		final SVNMergeUnit mergeUnit = new SVNMergeUnit(null, null, null, null, 1l, 2l, URL_SOURCE, URL_TARGET, null,
+				0l, null, null, null, null, configuration, client);
+		mergeUnit.setVersions(new Version("1.0"), new Version("2.0")); //$NON-NLS-1$ //$NON-NLS-2$
+		return mergeUnit;
+	}
+
+	private static SvnDiff diff(final SvnDiffAction action, final String path) throws MalformedURLException {
+		return new SvnDiff(action, new URL(URL_SOURCE + '/' + path));
+	}
+
+	/**
+	 * {@link SvnClientMock} recording the content merges and reporting all paths below
+	 * merged paths as modified.
+	 */
+	private static class RecordingSvnClient extends SvnClientMock {
+
+		private final List<SvnDiff> diffs;
+		private final List<Path> merges = new ArrayList<>();
+
+		private RecordingSvnClient(final List<SvnDiff> diffs) {
+			this.diffs = diffs;
+		}
+
+		@Override
+		public List<SvnDiff> diff(URL url, long fromRevision, long toRevision) throws SvnClientException {
+			return diffs;
+		}
+
+		@Override
+		public void merge(Path path, URL url, long revision, boolean recursivly, boolean recordOnly)
+				throws SvnClientException {
+			super.merge(path, url, revision, recursivly, recordOnly);
+			if (!recordOnly) {
+				merges.add(path);
+			}
+		}
+
+		@Override
+		public List<Path> getModifiedPaths(Path path) throws SvnClientException {
+			final List<Path> modifiedPaths = new ArrayList<>();
+			for (final Path merge : merges) {
+				try (final Stream<Path> stream = Files.walk(merge)) {
+					modifiedPaths.addAll(stream.collect(Collectors.toList()));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return modifiedPaths;
+		}
+
+		@Override
+		public URL getSvnUrl(Path path) throws SvnClientException {
+			return toUrl(URL_TARGET);
+		}
+
+		@Override
+		public URL getRepositoryUrl(Path path) throws SvnClientException {
+			return toUrl(URL_REPOSITORY);
+		}
+
+		private static URL toUrl(final String url) {
+			try {
+				return new URL(url);
+			} catch (MalformedURLException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.model.svn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.aposin.mergeprocessor.model.svn.ISvnClient.SvnClientException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SvnStatusSnapshot}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class SvnStatusSnapshotTest {
+
+	private static final Path ROOT = Paths.get("repo").toAbsolutePath();
+
+	@Test
+	public void testHasModificationsOnParents() {
+		final SvnStatusSnapshot snapshot = new SvnStatusSnapshot(ROOT);
+		snapshot.addModification(ROOT.resolve("a/b/c.txt"));
+		assertTrue(snapshot.hasModifications(ROOT));
+		assertTrue(snapshot.hasModifications(ROOT.resolve("a")));
+		assertTrue(snapshot.hasModifications(ROOT.resolve("a/b")));
+		assertTrue(snapshot.hasModifications(ROOT.resolve("a/b/c.txt")));
+		assertFalse(snapshot.hasModifications(ROOT.resolve("a/d")));
+		assertFalse(snapshot.hasModifications(ROOT.resolve("a/b-c")));
+	}
+
+	@Test
+	public void testGetConflicts() {
+		final SvnStatusSnapshot snapshot = new SvnStatusSnapshot(ROOT);
+		snapshot.addConflict(ROOT.resolve("a/b.txt"), "b.txt.working", false);
+		snapshot.addConflict(ROOT.resolve("c/d"), "d", true);
+		assertEquals(Arrays.asList("b.txt.working", "d"), snapshot.getConflicts(ROOT));
+		assertEquals(Arrays.asList("b.txt.working"), snapshot.getConflicts(ROOT.resolve("a")));
+		assertEquals(Collections.emptyList(), snapshot.getConflicts(ROOT.resolve("e")));
+		assertTrue(snapshot.hasConflicts(ROOT.resolve("a")));
+		assertFalse(snapshot.hasTreeConflicts(ROOT.resolve("a")));
+		assertTrue(snapshot.hasTreeConflicts(ROOT.resolve("c")));
+		assertTrue(snapshot.hasTreeConflicts(ROOT));
+	}
+
+	@Test
+	public void testPathNotCovered() {
+		final SvnStatusSnapshot snapshot = new SvnStatusSnapshot(ROOT.resolve("a"));
+		assertFalse(snapshot.covers(ROOT.resolve("b")));
+		assertThrows(IllegalArgumentException.class, () -> snapshot.hasModifications(ROOT.resolve("b")));
+	}
+
+	@Test
+	public void testInvalidationByRegistry() {
+		final SvnStatusSnapshotRegistry registry = new SvnStatusSnapshotRegistry();
+		final SvnStatusSnapshot snapshotA = new SvnStatusSnapshot(ROOT.resolve("a"));
+		final SvnStatusSnapshot snapshotB = new SvnStatusSnapshot(ROOT.resolve("b"));
+		registry.register(snapshotA);
+		registry.register(snapshotB);
+		registry.invalidate(ROOT.resolve("a/file.txt"));
+		assertFalse(snapshotA.isValid());
+		assertTrue(snapshotB.isValid());
+		registry.invalidate(ROOT);
+		assertFalse(snapshotB.isValid());
+	}
+
+	@Test
+	public void testQueriesOnInvalidSnapshot() {
+		final SvnStatusSnapshot snapshot = new SvnStatusSnapshot(ROOT);
+		snapshot.addModification(ROOT.resolve("a.txt"));
+		snapshot.invalidate();
+		assertThrows(IllegalStateException.class, () -> snapshot.hasModifications(ROOT));
+		assertThrows(IllegalStateException.class, () -> snapshot.hasConflicts(ROOT));
+		assertThrows(IllegalStateException.class, () -> snapshot.hasTreeConflicts(ROOT));
+		assertThrows(IllegalStateException.class, () -> snapshot.getConflicts(ROOT));
+	}
+
+	@Test
+	public void testEvictionFromRegistry() {
+		final SvnStatusSnapshotRegistry registry = new SvnStatusSnapshotRegistry();
+		final SvnStatusSnapshot snapshotA = new SvnStatusSnapshot(ROOT.resolve("a"));
+		final SvnStatusSnapshot snapshotB = new SvnStatusSnapshot(ROOT.resolve("b"));
+		registry.register(snapshotA);
+		registry.register(snapshotB);
+		registry.invalidate(ROOT.resolve("a"));
+		assertEquals(1, registry.size());
+		snapshotB.close();
+		assertFalse(snapshotB.isValid());
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	public void testSnapshotOfClientMock() throws SvnClientException {
+		final SvnClientMock client = new SvnClientMock() {
+
+			@Override
+			public List<Path> getModifiedPaths(Path path) throws SvnClientException {
+				return Collections.singletonList(ROOT.resolve("a/b.txt"));
+			}
+
+		};
+		try (final SvnStatusSnapshot snapshot = client.getStatusSnapshot(ROOT)) {
+			assertTrue(snapshot.hasModifications(ROOT.resolve("a")));
+			assertFalse(snapshot.hasConflicts(ROOT));
+			client.update(ROOT.resolve("a"));
+			assertFalse(snapshot.isValid());
+		}
+		assertEquals(0, client.getSnapshotRegistry().size());
+	}
+
+}
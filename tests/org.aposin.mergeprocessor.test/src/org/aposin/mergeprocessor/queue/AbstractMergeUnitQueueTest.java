@@ -0,0 +1,186 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the contract of {@link IMergeUnitQueue}, which is common to all
+ * implementations.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public abstract class AbstractMergeUnitQueueTest {
+
+	private static final String TODO = "/merges/user/todo/"; //$NON-NLS-1$
+	private static final String DONE = "/merges/user/done/"; //$NON-NLS-1$
+
+	/**
+	 * @return the queue to test
+	 */
+	protected abstract IMergeUnitQueue getQueue();
+
+	private static byte[] bytes(final String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testListCreatesMissingFolder() throws MergeUnitQueueException {
+		assertTrue(getQueue().list(TODO).isEmpty());
+		getQueue().write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(List.of("a.gitmerge"), getQueue().list(TODO)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testListIgnoresSubFolders() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO + "sub/"); //$NON-NLS-1$
+		getQueue().write(TODO + "sub/b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(List.of("a.gitmerge"), getQueue().list(TODO)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testListFilesKeepsModificationTimeOnMove() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().createFolder(DONE);
+		getQueue().write(TODO + "a.gitmerge", bytes("content")); //$NON-NLS-1$ //$NON-NLS-2$
+		final List<MergeUnitQueueFile> files = getQueue().listFiles(TODO);
+		assertEquals(1, files.size());
+		assertEquals("a.gitmerge", files.get(0).getName()); //$NON-NLS-1$
+		assertEquals(7, files.get(0).getSize());
+		getQueue().move(TODO + "a.gitmerge", DONE + "a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(files.get(0).getLastModified(), getQueue().listFiles(DONE).get(0).getLastModified());
+	}
+
+	@Test
+	public void testWriteAndRead() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().write(TODO + "a.gitmerge", bytes("first")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().write(TODO + "a.gitmerge", bytes("second")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("second"), getQueue().read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testReadMissingFile() {
+		assertThrows(MergeUnitQueueException.class, () -> getQueue().read(TODO + "missing.gitmerge")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testReadAll() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		final List<String> paths = new ArrayList<>();
+		for (int i = 20; i > 0; i--) {
+			getQueue().write(TODO + i + ".gitmerge", bytes(Integer.toString(i))); //$NON-NLS-1$
+			paths.add(TODO + i + ".gitmerge"); //$NON-NLS-1$
+		}
+		final Map<String, byte[]> contents = getQueue().readAll(paths);
+		assertEquals(paths, List.copyOf(contents.keySet()));
+		assertArrayEquals(bytes("7"), contents.get(TODO + "7.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		paths.add(TODO + "missing.gitmerge"); //$NON-NLS-1$
+		assertThrows(MergeUnitQueueException.class, () -> getQueue().readAll(paths));
+	}
+
+	@Test
+	public void testMove() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().createFolder(DONE);
+		getQueue().createFolder(DONE);
+		getQueue().move(TODO + "a.gitmerge", DONE + "a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(getQueue().list(TODO).isEmpty());
+		assertEquals(List.of("a.gitmerge"), getQueue().list(DONE)); //$NON-NLS-1$
+		assertArrayEquals(bytes("a"), getQueue().read(DONE + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testMoveMissingFile() throws MergeUnitQueueException {
+		getQueue().createFolder(DONE);
+		assertThrows(MergeUnitQueueException.class,
+				() -> getQueue().move(TODO + "missing.gitmerge", DONE + "missing.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testMoveDoesNotReplaceExistingTarget() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().createFolder(DONE);
+		getQueue().write(TODO + "a.gitmerge", bytes("new")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().write(DONE + "a.gitmerge", bytes("old")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertThrows(MergeUnitQueueException.class,
+				() -> getQueue().move(TODO + "a.gitmerge", DONE + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("new"), getQueue().read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("old"), getQueue().read(DONE + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testMoveAll() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().createFolder(DONE);
+		final Map<String, String> moves = new LinkedHashMap<>();
+		for (int i = 0; i < 20; i++) {
+			getQueue().write(TODO + i + ".gitmerge", bytes(Integer.toString(i))); //$NON-NLS-1$
+			moves.put(TODO + i + ".gitmerge", DONE + i + ".gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		moves.put(TODO + "missing.gitmerge", DONE + "missing.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		final Map<String, MergeUnitQueueException> failures = getQueue().moveAll(moves);
+		assertEquals(List.of(TODO + "missing.gitmerge"), List.copyOf(failures.keySet())); //$NON-NLS-1$
+		assertTrue(getQueue().list(TODO).isEmpty());
+		assertEquals(20, getQueue().list(DONE).size());
+		assertArrayEquals(bytes("7"), getQueue().read(DONE + "7.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testCopy() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().createFolder(DONE);
+		getQueue().write(TODO + "a.gitmerge", bytes("new")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().write(DONE + "a.gitmerge", bytes("old")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().copy(TODO + "a.gitmerge", DONE + "a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("new"), getQueue().read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("new"), getQueue().read(DONE + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testDelete() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().delete(TODO + "a.gitmerge"); //$NON-NLS-1$
+		assertTrue(getQueue().list(TODO).isEmpty());
+		assertThrows(MergeUnitQueueException.class, () -> getQueue().delete(TODO + "a.gitmerge")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testAppend() throws MergeUnitQueueException {
+		getQueue().createFolder(TODO);
+		getQueue().append(TODO + "a.log", bytes("first")); //$NON-NLS-1$ //$NON-NLS-2$
+		getQueue().append(TODO + "a.log", bytes("second")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("firstsecond"), getQueue().read(TODO + "a.log")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link InMemoryMergeUnitQueue}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class InMemoryMergeUnitQueueTest extends AbstractMergeUnitQueueTest {
+
+	private InMemoryMergeUnitQueue queue;
+
+	@BeforeEach
+	public void setUp() {
+		queue = new InMemoryMergeUnitQueue();
+	}
+
+	@Override
+	protected IMergeUnitQueue getQueue() {
+		return queue;
+	}
+
+	@Test
+	public void testWriteIntoMissingFolder() {
+		assertThrows(MergeUnitQueueException.class,
+				() -> queue.write("/missing/a.gitmerge", "a".getBytes(StandardCharsets.UTF_8))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testChangeToken() throws MergeUnitQueueException {
+		queue.createFolder("/todo/"); //$NON-NLS-1$
+		queue.createFolder("/done/"); //$NON-NLS-1$
+		final String todoToken = queue.getChangeToken("/todo/"); //$NON-NLS-1$
+		final String doneToken = queue.getChangeToken("/done/"); //$NON-NLS-1$
+		queue.write("/todo/a.gitmerge", "a".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotEquals(todoToken, queue.getChangeToken("/todo/")); //$NON-NLS-1$
+		assertEquals(doneToken, queue.getChangeToken("/done/")); //$NON-NLS-1$
+		final String movedToken = queue.getChangeToken("/todo/"); //$NON-NLS-1$
+		queue.move("/todo/a.gitmerge", "/done/a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotEquals(movedToken, queue.getChangeToken("/todo/")); //$NON-NLS-1$
+		assertNotEquals(doneToken, queue.getChangeToken("/done/")); //$NON-NLS-1$
+	}
+
+}
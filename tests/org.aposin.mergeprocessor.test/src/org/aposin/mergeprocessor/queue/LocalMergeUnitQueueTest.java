@@ -0,0 +1,104 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link LocalMergeUnitQueue}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class LocalMergeUnitQueueTest extends AbstractMergeUnitQueueTest {
+
+	private Path tempDir;
+	private LocalMergeUnitQueue queue;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("localMergeUnitQueue"); //$NON-NLS-1$
+		queue = new LocalMergeUnitQueue(tempDir);
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(tempDir.toFile());
+	}
+
+	@Override
+	protected IMergeUnitQueue getQueue() {
+		return queue;
+	}
+
+	@Test
+	public void testWriteReplacesFileWithoutTemporaryFile() throws MergeUnitQueueException, IOException {
+		queue.createFolder("/todo/"); //$NON-NLS-1$
+		queue.write("/todo/a.gitmerge", "old".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.write("/todo/a.gitmerge", "new".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("new", Files.readString(tempDir.resolve("todo/a.gitmerge"))); //$NON-NLS-1$ //$NON-NLS-2$
+		try (final Stream<Path> files = Files.list(tempDir.resolve("todo"))) { //$NON-NLS-1$
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	public void testWriteKeepsPermissions() throws MergeUnitQueueException, IOException {
+		final Path file = tempDir.resolve("todo/a.gitmerge"); //$NON-NLS-1$
+		assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null);
+		queue.createFolder("/todo/"); //$NON-NLS-1$
+		queue.write("/todo/a.gitmerge", "old".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(Files.getPosixFilePermissions(file).contains(PosixFilePermission.OWNER_EXECUTE));
+		final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-rw-r--"); //$NON-NLS-1$
+		Files.setPosixFilePermissions(file, permissions);
+		queue.write("/todo/a.gitmerge", "new".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(permissions, Files.getPosixFilePermissions(file));
+	}
+
+	@Test
+	public void testListIgnoresHiddenFiles() throws MergeUnitQueueException, IOException {
+		Files.createDirectories(tempDir.resolve("todo")); //$NON-NLS-1$
+		Files.writeString(tempDir.resolve("todo/.a.gitmerge.tmp"), "partial"); //$NON-NLS-1$ //$NON-NLS-2$
+		Files.writeString(tempDir.resolve("todo/b.gitmerge"), "b"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(List.of("b.gitmerge"), queue.list("/todo/")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testGetLocalPath() {
+		assertEquals(tempDir.resolve("merges/user/todo/a.gitmerge"), //$NON-NLS-1$
+				queue.getLocalPath("/merges/user/todo/a.gitmerge")); //$NON-NLS-1$
+	}
+
+}
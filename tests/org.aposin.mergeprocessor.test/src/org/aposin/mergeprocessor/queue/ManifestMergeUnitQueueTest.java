@@ -0,0 +1,272 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ManifestMergeUnitQueue}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class ManifestMergeUnitQueueTest extends AbstractMergeUnitQueueTest {
+
+	private static final String TODO = "/merges/user/todo/"; //$NON-NLS-1$
+	private static final String DONE = "/merges/user/done/"; //$NON-NLS-1$
+	private static final String MANIFEST = TODO + MergeUnitQueueManifest.FILE_NAME;
+
+	private CountingQueue storage;
+	private ManifestMergeUnitQueue queue;
+
+	@BeforeEach
+	public void setUp() throws MergeUnitQueueException {
+		storage = new CountingQueue();
+		storage.createFolder(TODO);
+		storage.createFolder(DONE);
+		queue = new ManifestMergeUnitQueue(storage);
+	}
+
+	@Override
+	protected IMergeUnitQueue getQueue() {
+		return queue;
+	}
+
+	private static byte[] bytes(final String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private Set<String> getManifestFileNames(final String folder) throws MergeUnitQueueException {
+		return new MergeUnitQueueManifest(storage.read(folder + MergeUnitQueueManifest.FILE_NAME)).getContents()
+				.keySet();
+	}
+
+	/**
+	 * Writes the file and records it in the manifest by listing and reading it.
+	 */
+	private void writeRecorded(final String path, final byte[] content) throws MergeUnitQueueException {
+		queue.write(path, content);
+		queue.list(path.substring(0, path.lastIndexOf('/') + 1));
+		queue.read(path);
+	}
+
+	@Test
+	public void testListedFilesAreReadFromManifest() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		writeRecorded(TODO + "b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final ManifestMergeUnitQueue client = new ManifestMergeUnitQueue(storage);
+		assertEquals(List.of("a.gitmerge", "b.gitmerge"), client.list(TODO)); //$NON-NLS-1$ //$NON-NLS-2$
+		storage.reads = 0;
+		assertArrayEquals(bytes("a"), client.read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("b"), client.read(TODO + "b.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(0, storage.reads);
+
+		// Further reads, e.g. to merge, fetch the file itself
+		assertArrayEquals(bytes("a"), client.read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(1, storage.reads);
+	}
+
+	@Test
+	public void testUnrecordedFileIsAppendedAfterRead() throws MergeUnitQueueException {
+		storage.write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(List.of("a.gitmerge"), queue.list(TODO)); //$NON-NLS-1$
+		assertFalse(storage.getPaths().contains(MANIFEST));
+		assertArrayEquals(bytes("a"), queue.read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of("a.gitmerge"), getManifestFileNames(TODO)); //$NON-NLS-1$
+		assertFalse(storage.getPaths().contains(MANIFEST + ManifestMergeUnitQueue.LOCK_EXTENSION));
+	}
+
+	@Test
+	public void testWrittenFileIsAppendedAfterListAndRead() throws MergeUnitQueueException {
+		queue.write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(storage.getPaths().contains(MANIFEST));
+		writeRecorded(TODO + "b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of("b.gitmerge"), getManifestFileNames(TODO)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testReplacedFileIsReadFromQueue() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		// Replaced by a client without manifest, with the same size
+		storage.write(TODO + "a.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final ManifestMergeUnitQueue client = new ManifestMergeUnitQueue(storage);
+		assertEquals(List.of("a.gitmerge"), client.list(TODO)); //$NON-NLS-1$
+		storage.reads = 0;
+		assertArrayEquals(bytes("b"), client.read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(1, storage.reads);
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(storage.read(MANIFEST));
+		assertArrayEquals(bytes("b"), manifest.getContents().get("a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(storage.listFiles(TODO).get(1).getLastModified(), manifest.getLastModified("a.gitmerge")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testReadAllServesManifestAndAppendsUnrecordedFiles() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		storage.write(TODO + "b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+		storage.write(TODO + "c.gitmerge", bytes("c")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final ManifestMergeUnitQueue client = new ManifestMergeUnitQueue(storage);
+		assertEquals(List.of("a.gitmerge", "b.gitmerge", "c.gitmerge"), client.list(TODO)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		storage.reads = 0;
+		final Map<String, byte[]> contents = client
+				.readAll(List.of(TODO + "c.gitmerge", TODO + "a.gitmerge", TODO + "b.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(List.of(TODO + "c.gitmerge", TODO + "a.gitmerge", TODO + "b.gitmerge"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				List.copyOf(contents.keySet()));
+		assertArrayEquals(bytes("a"), contents.get(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("c"), contents.get(TODO + "c.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, storage.reads);
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(storage.read(MANIFEST));
+		assertEquals(3, manifest.getRecordCount());
+		assertEquals(Set.of("a.gitmerge", "b.gitmerge", "c.gitmerge"), manifest.getContents().keySet()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testMoveIsAppendedToTargetManifest() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.move(TODO + "a.gitmerge", DONE + "a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of("a.gitmerge"), getManifestFileNames(DONE)); //$NON-NLS-1$
+
+		final ManifestMergeUnitQueue client = new ManifestMergeUnitQueue(storage);
+		assertEquals(List.of(), client.list(TODO));
+		assertEquals(List.of("a.gitmerge"), client.list(DONE)); //$NON-NLS-1$
+		storage.reads = 0;
+		assertArrayEquals(bytes("a"), client.read(DONE + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(0, storage.reads);
+	}
+
+	@Test
+	public void testMoveAllIsAppendedToTargetManifest() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		writeRecorded(TODO + "b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.createFolder(DONE);
+		final Map<String, String> moves = new LinkedHashMap<>();
+		moves.put(TODO + "a.gitmerge", DONE + "a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		moves.put(TODO + "missing.gitmerge", DONE + "missing.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		moves.put(TODO + "b.gitmerge", DONE + "b.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of(TODO + "missing.gitmerge"), queue.moveAll(moves).keySet()); //$NON-NLS-1$
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(
+				storage.read(DONE + MergeUnitQueueManifest.FILE_NAME));
+		assertEquals(2, manifest.getRecordCount());
+		assertArrayEquals(bytes("b"), manifest.getContents().get("b.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testWrittenFileIsNotAppendedOnMove() throws MergeUnitQueueException {
+		queue.write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.move(TODO + "a.gitmerge", DONE + "a.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(storage.getPaths().contains(DONE + MergeUnitQueueManifest.FILE_NAME));
+	}
+
+	@Test
+	public void testManifestIsCompacted() throws MergeUnitQueueException {
+		for (int i = 0; i < 100; i++) {
+			storage.append(MANIFEST, MergeUnitQueueManifest.encode(i + ".gitmerge", 1L, bytes("content"))); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		storage.write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		final long lastModified = storage.listFiles(TODO).get(1).getLastModified();
+		storage.append(MANIFEST, MergeUnitQueueManifest.encode("a.gitmerge", lastModified, bytes("a"))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(101, new MergeUnitQueueManifest(storage.read(MANIFEST)).getRecordCount());
+
+		assertEquals(List.of("a.gitmerge"), queue.list(TODO)); //$NON-NLS-1$
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(storage.read(MANIFEST));
+		assertEquals(1, manifest.getRecordCount());
+		assertArrayEquals(bytes("a"), manifest.getContents().get("a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(List.of(MergeUnitQueueManifest.FILE_NAME, "a.gitmerge"), storage.list(TODO)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCorruptManifestIsRepaired() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		writeRecorded(TODO + "b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+		storage.append(MANIFEST, bytes("garbage")); //$NON-NLS-1$
+		storage.write(TODO + "c.gitmerge", bytes("c")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final ManifestMergeUnitQueue client = new ManifestMergeUnitQueue(storage);
+		assertEquals(List.of("a.gitmerge", "b.gitmerge", "c.gitmerge"), client.list(TODO)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertArrayEquals(bytes("c"), client.read(TODO + "c.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(storage.read(MANIFEST));
+		assertFalse(manifest.isCorrupt());
+		assertEquals(Set.of("a.gitmerge", "b.gitmerge", "c.gitmerge"), manifest.getContents().keySet()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testLockedManifestIsNotUpdated() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		storage.append(MANIFEST, bytes("garbage")); //$NON-NLS-1$
+		final String lock = MANIFEST + ManifestMergeUnitQueue.LOCK_EXTENSION;
+		storage.write(lock, bytes(Long.toString(System.currentTimeMillis())));
+		storage.write(TODO + "b.gitmerge", bytes("b")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final ManifestMergeUnitQueue client = new ManifestMergeUnitQueue(storage);
+		assertEquals(List.of("a.gitmerge", "b.gitmerge"), client.list(TODO)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("b"), client.read(TODO + "b.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(storage.read(MANIFEST));
+		assertTrue(manifest.isCorrupt());
+		assertEquals(Set.of("a.gitmerge"), manifest.getContents().keySet()); //$NON-NLS-1$
+		assertEquals(List.of(MANIFEST, lock, TODO + "a.gitmerge", TODO + "b.gitmerge"), storage.getPaths()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testExpiredLockIsBroken() throws MergeUnitQueueException {
+		final String lock = MANIFEST + ManifestMergeUnitQueue.LOCK_EXTENSION;
+		storage.write(lock,
+				bytes(Long.toString(System.currentTimeMillis() - ManifestMergeUnitQueue.LOCK_TIMEOUT - 1000)));
+		storage.write(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertEquals(List.of("a.gitmerge"), queue.list(TODO)); //$NON-NLS-1$
+		assertArrayEquals(bytes("a"), queue.read(TODO + "a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of("a.gitmerge"), getManifestFileNames(TODO)); //$NON-NLS-1$
+		assertEquals(List.of(MANIFEST, TODO + "a.gitmerge"), storage.getPaths()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testHiddenFilesAreNotListed() throws MergeUnitQueueException {
+		writeRecorded(TODO + "a.gitmerge", bytes("a")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(storage.list(TODO).contains(MergeUnitQueueManifest.FILE_NAME));
+		assertEquals(List.of("a.gitmerge"), queue.list(TODO)); //$NON-NLS-1$
+	}
+
+	/**
+	 * In-memory queue counting the reads of files.
+	 */
+	private static class CountingQueue extends InMemoryMergeUnitQueue {
+
+		private int reads;
+
+		@Override
+		public byte[] read(final String path) throws MergeUnitQueueException {
+			reads++;
+			return super.read(path);
+		}
+
+	}
+
+}
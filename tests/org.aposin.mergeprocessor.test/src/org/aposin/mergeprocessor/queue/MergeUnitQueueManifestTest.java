@@ -0,0 +1,100 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MergeUnitQueueManifest}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class MergeUnitQueueManifestTest {
+
+	private static byte[] bytes(final String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] concat(final byte[]... arrays) {
+		byte[] result = new byte[0];
+		for (final byte[] array : arrays) {
+			final int length = result.length;
+			result = Arrays.copyOf(result, length + array.length);
+			System.arraycopy(array, 0, result, length, array.length);
+		}
+		return result;
+	}
+
+	@Test
+	public void testEmpty() {
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(new byte[0]);
+		assertTrue(manifest.getContents().isEmpty());
+		assertEquals(0, manifest.getRecordCount());
+		assertFalse(manifest.isCorrupt());
+	}
+
+	@Test
+	public void testLaterRecordReplacesEarlierOne() {
+		final byte[] data = concat(MergeUnitQueueManifest.encode("a.gitmerge", 1L, bytes("first\nline")), //$NON-NLS-1$ //$NON-NLS-2$
+				MergeUnitQueueManifest.encode("b b.svnmerge", 1L, bytes("")), //$NON-NLS-1$ //$NON-NLS-2$
+				MergeUnitQueueManifest.encode("a.gitmerge", 1L, bytes("second"))); //$NON-NLS-1$ //$NON-NLS-2$
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(data);
+		assertEquals(Set.of("a.gitmerge", "b b.svnmerge"), manifest.getContents().keySet()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(bytes("second"), manifest.getContents().get("a.gitmerge")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertArrayEquals(new byte[0], manifest.getContents().get("b b.svnmerge")); //$NON-NLS-1$
+		assertEquals(3, manifest.getRecordCount());
+		assertFalse(manifest.isCorrupt());
+	}
+
+	@Test
+	public void testLastModified() {
+		final byte[] data = concat(MergeUnitQueueManifest.encode("a.gitmerge", 1000L, bytes("first")), //$NON-NLS-1$ //$NON-NLS-2$
+				MergeUnitQueueManifest.encode("a.gitmerge", 2000L, bytes("second"))); //$NON-NLS-1$ //$NON-NLS-2$
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(data);
+		assertEquals(2000L, manifest.getLastModified("a.gitmerge")); //$NON-NLS-1$
+		assertEquals(MergeUnitQueueFile.UNKNOWN, manifest.getLastModified("b.gitmerge")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testTruncatedRecord() {
+		final byte[] record = MergeUnitQueueManifest.encode("b.gitmerge", 1L, bytes("content")); //$NON-NLS-1$ //$NON-NLS-2$
+		final byte[] data = concat(MergeUnitQueueManifest.encode("a.gitmerge", 1L, bytes("a")), //$NON-NLS-1$ //$NON-NLS-2$
+				Arrays.copyOf(record, record.length - 3));
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(data);
+		assertEquals(Set.of("a.gitmerge"), manifest.getContents().keySet()); //$NON-NLS-1$
+		assertTrue(manifest.isCorrupt());
+	}
+
+	@Test
+	public void testChecksumMismatch() {
+		final byte[] data = MergeUnitQueueManifest.encode("a.gitmerge", 1L, bytes("content")); //$NON-NLS-1$ //$NON-NLS-2$
+		data[data.length - 2] = 'X';
+		final MergeUnitQueueManifest manifest = new MergeUnitQueueManifest(data);
+		assertTrue(manifest.getContents().isEmpty());
+		assertTrue(manifest.isCorrupt());
+	}
+
+}
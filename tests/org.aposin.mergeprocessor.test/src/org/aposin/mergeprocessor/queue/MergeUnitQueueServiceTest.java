@@ -0,0 +1,224 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
+import org.aposin.mergeprocessor.configuration.JUnitConfiguration;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.aposin.mergeprocessor.model.IMergeUnit;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MergeUnitQueueService} on an {@link InMemoryMergeUnitQueue}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class MergeUnitQueueServiceTest {
+
+	private static final String TODO = "/merges/user/todo/"; //$NON-NLS-1$
+	private static final String DONE = "/merges/user/done/"; //$NON-NLS-1$
+	private static final String IGNORED = "/merges/user/ignored/"; //$NON-NLS-1$
+
+	private InMemoryMergeUnitQueue queue;
+	private MergeUnitQueueService service;
+
+	@BeforeEach
+	public void setUp() throws MergeUnitQueueException {
+		queue = new InMemoryMergeUnitQueue();
+		service = new MergeUnitQueueService(new TestConfiguration(), queue, () -> null);
+		queue.createFolder(TODO);
+		writeGitMergeFile("repo_1.gitmerge", "1111111111111111111111111111111111111111"); //$NON-NLS-1$ //$NON-NLS-2$
+		writeGitMergeFile("repo_2.gitmerge", "2222222222222222222222222222222222222222"); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.write(TODO + "readme.txt", "no merge file".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private void writeGitMergeFile(final String fileName, final String commitId) throws MergeUnitQueueException {
+		final String content = "URL=https://git.local/repo.git\n" //$NON-NLS-1$
+				+ "DATE=2019-01-01 08:00:00\n" //$NON-NLS-1$
+				+ "COMMID_ID=" + commitId + '\n' //$NON-NLS-1$
+				+ "SOURCE_BRANCH=V18.0\n" //$NON-NLS-1$
+				+ "TARGET_BRANCH=master\n" //$NON-NLS-1$
+				+ "WORKING_COPY_FILE=M  src/File.java\n"; //$NON-NLS-1$
+		queue.write(TODO + fileName, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testGetMergeUnitsTodo() throws MergeUnitQueueException {
+		final List<IMergeUnit> mergeUnits = service.getMergeUnitsTodo();
+		assertEquals(2, mergeUnits.size());
+		for (final IMergeUnit mergeUnit : mergeUnits) {
+			assertEquals(MergeUnitStatus.TODO, mergeUnit.getStatus());
+			assertEquals(TODO + mergeUnit.getFileName(), mergeUnit.getRemotePath());
+		}
+		assertTrue(service.getMergeUnitsDone().isEmpty());
+	}
+
+	@Test
+	public void testMoveMergeUnitsFromRemoteToDone() throws MergeUnitQueueException {
+		final List<IMergeUnit> mergeUnits = service.getMergeUnitsTodo();
+		service.moveMergeUnitsFromRemoteToDone(mergeUnits);
+		for (final IMergeUnit mergeUnit : mergeUnits) {
+			assertEquals(MergeUnitStatus.DONE, mergeUnit.getStatus());
+			assertEquals(DONE + mergeUnit.getFileName(), mergeUnit.getRemotePath());
+		}
+		assertTrue(service.getMergeUnitsTodo().isEmpty());
+		assertEquals(List.of(DONE + "repo_1.gitmerge", DONE + "repo_2.gitmerge", TODO + "readme.txt"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				queue.getPaths());
+	}
+
+	@Test
+	public void testMoveToIgnoreAndBackToTodo() throws MergeUnitQueueException {
+		final IMergeUnit mergeUnit = service.getMergeUnitsTodo().get(0);
+		service.moveMergeUnitFromRemoteToIgnore(mergeUnit);
+		assertEquals(MergeUnitStatus.IGNORED, mergeUnit.getStatus());
+		assertEquals(IGNORED + mergeUnit.getFileName(), mergeUnit.getRemotePath());
+		assertEquals(1, service.getMergeUnitsIgnored().size());
+
+		service.moveMergeUnitFromRemoteToTodo(mergeUnit);
+		assertEquals(MergeUnitStatus.TODO, mergeUnit.getStatus());
+		assertEquals(2, service.getMergeUnitsTodo().size());
+		assertTrue(service.getMergeUnitsIgnored().isEmpty());
+	}
+
+	@Test
+	public void testGetContent() throws MergeUnitQueueException {
+		final IMergeUnit mergeUnit = service.getMergeUnitsTodo().get(0);
+		assertTrue(service.getContent(mergeUnit).contains("COMMID_ID=1111111111111111111111111111111111111111")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testMoveMissingMergeUnit() throws MergeUnitQueueException {
+		final IMergeUnit mergeUnit = service.getMergeUnitsTodo().get(0);
+		service.deleteRemoteMergeUnit(mergeUnit.getRemotePath());
+		assertThrows(MergeUnitQueueException.class, () -> service.moveMergeUnitFromRemoteToDone(mergeUnit));
+		assertEquals(MergeUnitStatus.TODO, mergeUnit.getStatus());
+	}
+
+	@Test
+	public void testMoveMergeUnitsReportsFailures() throws MergeUnitQueueException {
+		final List<IMergeUnit> mergeUnits = service.getMergeUnitsTodo();
+		final IMergeUnit missing = mergeUnits.get(0);
+		service.deleteRemoteMergeUnit(missing.getRemotePath());
+		final Map<IMergeUnit, MergeUnitQueueException> failures = service.moveMergeUnits(mergeUnits,
+				MergeUnitStatus.IGNORED);
+		assertEquals(Set.of(missing), failures.keySet());
+		assertEquals(MergeUnitStatus.TODO, missing.getStatus());
+		final IMergeUnit moved = mergeUnits.get(1);
+		assertEquals(MergeUnitStatus.IGNORED, moved.getStatus());
+		assertEquals(IGNORED + moved.getFileName(), moved.getRemotePath());
+		assertEquals(1, service.getMergeUnitsIgnored().size());
+	}
+
+	@Test
+	public void testMoveMergedMergeUnitToDone() throws MergeUnitQueueException {
+		final IMergeUnit mergeUnit = service.getMergeUnitsTodo().get(0);
+		assertTrue(service.moveMergedMergeUnitsToDone(List.of(mergeUnit)).isEmpty());
+		assertEquals(MergeUnitStatus.DONE, mergeUnit.getStatus());
+		assertEquals(DONE + "repo_1.gitmerge", mergeUnit.getRemotePath()); //$NON-NLS-1$
+		assertEquals(List.of(DONE + "repo_1.gitmerge", TODO + "readme.txt", TODO + "repo_2.gitmerge"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				queue.getPaths());
+	}
+
+	@Test
+	public void testMoveMergedMergeUnitToDoneCopiesIfMoveFails() throws MergeUnitQueueException {
+		queue = new InMemoryMergeUnitQueue() {
+			@Override
+			public synchronized void move(final String source, final String target) throws MergeUnitQueueException {
+				if (getPaths().contains(target)) {
+					throw new MergeUnitQueueException("Target exists."); //$NON-NLS-1$
+				}
+				super.move(source, target);
+			}
+		};
+		service = new MergeUnitQueueService(new TestConfiguration(), queue, () -> null);
+		queue.createFolder(TODO);
+		queue.createFolder(DONE);
+		writeGitMergeFile("repo_1.gitmerge", "1111111111111111111111111111111111111111"); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.write(DONE + "repo_1.gitmerge", "outdated".getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$ //$NON-NLS-2$
+
+		final IMergeUnit mergeUnit = service.getMergeUnitsTodo().get(0);
+		assertTrue(service.moveMergedMergeUnitsToDone(List.of(mergeUnit)).isEmpty());
+		assertEquals(MergeUnitStatus.DONE, mergeUnit.getStatus());
+		assertEquals(List.of(DONE + "repo_1.gitmerge"), queue.getPaths()); //$NON-NLS-1$
+		assertTrue(service.getContent(mergeUnit).contains("COMMID_ID=1111111111111111111111111111111111111111")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Configuration with the status folders of an SFTP server.
+	 */
+	private static class TestConfiguration extends JUnitConfiguration {
+
+		@Override
+		public ISftpConfiguration getSftpConfiguration() {
+			return new ISftpConfiguration() {
+
+				@Override
+				public String getTodoFolder() {
+					return TODO;
+				}
+
+				@Override
+				public String getDoneFolder() {
+					return DONE;
+				}
+
+				@Override
+				public String getIgnoredFolder() {
+					return IGNORED;
+				}
+
+				@Override
+				public String getCanceledFolder() {
+					return "/merges/user/canceled/"; //$NON-NLS-1$
+				}
+
+				@Override
+				public String getManualFolder() {
+					return "/merges/user/manual/"; //$NON-NLS-1$
+				}
+
+				@Override
+				public String getHost() {
+					return "localhost"; //$NON-NLS-1$
+				}
+
+				@Override
+				public String getUser() {
+					return "user"; //$NON-NLS-1$
+				}
+
+				@Override
+				public String getPassword() {
+					return "password"; //$NON-NLS-1$
+				}
+			};
+		}
+
+	}
+
+}
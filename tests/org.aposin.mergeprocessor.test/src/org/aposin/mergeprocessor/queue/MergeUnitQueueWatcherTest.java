@@ -0,0 +1,183 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MergeUnitQueueWatcher}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class MergeUnitQueueWatcherTest {
+
+	private static final String TODO = "/merges/user/todo/"; //$NON-NLS-1$
+	private static final String DONE = "/merges/user/done/"; //$NON-NLS-1$
+	private static final long POLL_INTERVAL_MILLIS = 20;
+	private static final long DEBOUNCE_MILLIS = 100;
+	private static final long TIMEOUT_MILLIS = 10000;
+
+	private final BlockingQueue<Set<String>> notifications = new LinkedBlockingQueue<>();
+	private Path tempDir;
+	private MergeUnitQueueWatcher watcher;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("mergeUnitQueueWatcher"); //$NON-NLS-1$
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		if (watcher != null) {
+			watcher.close();
+		}
+		FileUtils.deleteDirectory(tempDir.toFile());
+	}
+
+	private void watch(final IMergeUnitQueue queue) {
+		watcher = new MergeUnitQueueWatcher(queue, List.of(TODO, DONE), () -> POLL_INTERVAL_MILLIS, DEBOUNCE_MILLIS,
+				notifications::add);
+	}
+
+	private static byte[] bytes(final String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testPolledChangesAreDebounced() throws MergeUnitQueueException, InterruptedException {
+		final InMemoryMergeUnitQueue queue = new InMemoryMergeUnitQueue();
+		queue.createFolder(TODO);
+		queue.createFolder(DONE);
+		watch(queue);
+		// Wait for the initial change tokens
+		assertNull(notifications.poll(3 * DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+		for (int i = 0; i < 5; i++) {
+			queue.write(TODO + i + ".gitmerge", bytes("content")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		assertEquals(Set.of(TODO), notifications.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertNull(notifications.poll(3 * DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+
+		queue.move(TODO + "0.gitmerge", DONE + "0.gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of(TODO, DONE), notifications.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testFolderWithoutChangeTokenIsAlwaysChanged() throws InterruptedException {
+		final InMemoryMergeUnitQueue queue = new InMemoryMergeUnitQueue() {
+
+			@Override
+			public String getChangeToken(final String folder) {
+				return null;
+			}
+
+		};
+		watch(queue);
+		assertEquals(Set.of(TODO, DONE), notifications.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testFirstPollOnWatcherThread() throws InterruptedException {
+		final BlockingQueue<Thread> pollingThreads = new LinkedBlockingQueue<>();
+		final InMemoryMergeUnitQueue queue = new InMemoryMergeUnitQueue() {
+
+			@Override
+			public String getChangeToken(final String folder) throws MergeUnitQueueException {
+				pollingThreads.add(Thread.currentThread());
+				return super.getChangeToken(folder);
+			}
+
+		};
+		watch(queue);
+		final Thread pollingThread = pollingThreads.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		assertNotNull(pollingThread);
+		assertNotEquals(Thread.currentThread(), pollingThread);
+	}
+
+	@Test
+	public void testWatchedLocalChanges() throws MergeUnitQueueException, InterruptedException {
+		final LocalMergeUnitQueue queue = new LocalMergeUnitQueue(tempDir);
+		watch(queue);
+		assertNull(notifications.poll(3 * DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+		queue.write(DONE + "a.gitmerge", bytes("content")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Set.of(DONE), notifications.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testNoNotificationAfterClose() throws MergeUnitQueueException, InterruptedException {
+		final InMemoryMergeUnitQueue queue = new InMemoryMergeUnitQueue();
+		queue.createFolder(TODO);
+		watch(queue);
+		watcher.close();
+		queue.write(TODO + "a.gitmerge", bytes("content")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(notifications.poll(3 * DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testCloseDoesNotInterruptPoll() throws InterruptedException {
+		final CountDownLatch polling = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final BlockingQueue<Boolean> interrupted = new LinkedBlockingQueue<>();
+		final InMemoryMergeUnitQueue queue = new InMemoryMergeUnitQueue() {
+
+			@Override
+			public String getChangeToken(final String folder) throws MergeUnitQueueException {
+				polling.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				interrupted.add(Thread.currentThread().isInterrupted());
+				return super.getChangeToken(folder);
+			}
+
+		};
+		watch(queue);
+		assertTrue(polling.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		final Thread closingThread = new Thread(watcher::close);
+		closingThread.start();
+		Thread.sleep(DEBOUNCE_MILLIS);
+		release.countDown();
+		closingThread.join(TIMEOUT_MILLIS);
+		assertFalse(closingThread.isAlive());
+		assertEquals(Boolean.FALSE, interrupted.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		assertNull(notifications.poll());
+	}
+
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.sshd.common.config.keys.KeyUtils;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.session.ServerSession;
+import org.apache.sshd.server.subsystem.sftp.FileHandle;
+import org.apache.sshd.server.subsystem.sftp.SftpEventListener;
+import org.apache.sshd.server.subsystem.sftp.SftpSubsystemFactory;
+import org.aposin.mergeprocessor.configuration.ISftpConfiguration;
+import org.aposin.mergeprocessor.exception.MergeUnitQueueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SftpMergeUnitQueue} against an SFTP server running in the
+ * same JVM.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class SftpMergeUnitQueueTest extends AbstractMergeUnitQueueTest {
+
+	private static final String HOST = "localhost"; //$NON-NLS-1$
+	private static final String USER = "mergeprocessor"; //$NON-NLS-1$
+	private static final String TODO = "/merges/user/todo/"; //$NON-NLS-1$
+	private static final String DONE = "/merges/user/done/"; //$NON-NLS-1$
+
+	private final AtomicInteger openedChannels = new AtomicInteger();
+	private final List<Long> writeOffsets = new CopyOnWriteArrayList<>();
+	private Path tempDir;
+	private SshServer server;
+	private SftpMergeUnitQueue queue;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("sftpMergeUnitQueue"); //$NON-NLS-1$
+		final SimpleGeneratorHostKeyProvider keyProvider = new SimpleGeneratorHostKeyProvider(
+				tempDir.resolve("hostkey.ser")); //$NON-NLS-1$
+		// RSA is supported by all versions of JSch
+		keyProvider.setAlgorithm(KeyUtils.RSA_ALGORITHM);
+		final SftpSubsystemFactory sftpSubsystemFactory = new SftpSubsystemFactory();
+		sftpSubsystemFactory.addSftpEventListener(new SftpEventListener() {
+
+			@Override
+			public void initialized(final ServerSession session, final int version) {
+				openedChannels.incrementAndGet();
+			}
+
+			@Override
+			public void writing(final ServerSession session, final String remoteHandle, final FileHandle localHandle,
+					final long offset, final byte[] data, final int dataOffset, final int dataLen) {
+				writeOffsets.add(offset);
+			}
+
+		});
+		server = SshServer.setUpDefaultServer();
+		server.setHost(HOST);
+		server.setPort(0);
+		server.setKeyPairProvider(keyProvider);
+		server.setPasswordAuthenticator(
+				(user, password, session) -> USER.equals(user) && USER.equals(password));
+		server.setFileSystemFactory(new VirtualFileSystemFactory(Files.createDirectories(tempDir.resolve("root")))); //$NON-NLS-1$
+		server.setSubsystemFactories(List.of(sftpSubsystemFactory));
+		server.start();
+		queue = new SftpMergeUnitQueue(new TestSftpConfiguration(server.getPort()),
+				() -> tempDir.resolve("work").toString() + File.separator); //$NON-NLS-1$
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		queue.close();
+		server.stop(true);
+		FileUtils.deleteDirectory(tempDir.toFile());
+	}
+
+	@Override
+	protected IMergeUnitQueue getQueue() {
+		return queue;
+	}
+
+	private static byte[] bytes(final String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testAppendWritesAtOffset() throws MergeUnitQueueException {
+		queue.createFolder(TODO);
+		queue.append(TODO + "a.log", bytes("first")); //$NON-NLS-1$ //$NON-NLS-2$
+		queue.append(TODO + "a.log", bytes("second")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(List.of(0L, 5L), writeOffsets);
+	}
+
+	@Test
+	public void testBatchesUseAndReuseSeveralChannels() throws MergeUnitQueueException {
+		queue.createFolder(TODO);
+		queue.createFolder(DONE);
+		final List<String> paths = new ArrayList<>();
+		final Map<String, String> moves = new LinkedHashMap<>();
+		for (int i = 0; i < 40; i++) {
+			queue.write(TODO + i + ".gitmerge", bytes(Integer.toString(i))); //$NON-NLS-1$
+			paths.add(TODO + i + ".gitmerge"); //$NON-NLS-1$
+			moves.put(TODO + i + ".gitmerge", DONE + i + ".gitmerge"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		assertEquals(1, openedChannels.get());
+
+		assertEquals(40, queue.readAll(paths).size());
+		final int channels = openedChannels.get();
+		assertTrue(channels > 1);
+
+		assertTrue(queue.moveAll(moves).isEmpty());
+		assertEquals(channels, openedChannels.get());
+		assertEquals(40, queue.list(DONE).size());
+	}
+
+	@Test
+	public void testBatchAfterClose() throws MergeUnitQueueException {
+		queue.createFolder(TODO);
+		final List<String> paths = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			queue.write(TODO + i + ".gitmerge", bytes(Integer.toString(i))); //$NON-NLS-1$
+			paths.add(TODO + i + ".gitmerge"); //$NON-NLS-1$
+		}
+		assertEquals(20, queue.readAll(paths).size());
+		queue.close();
+		assertEquals(20, queue.readAll(paths).size());
+	}
+
+	/**
+	 * Configuration of the SFTP server running in the same JVM.
+	 */
+	private static class TestSftpConfiguration implements ISftpConfiguration {
+
+		private final int port;
+
+		private TestSftpConfiguration(final int port) {
+			this.port = port;
+		}
+
+		@Override
+		public String getTodoFolder() {
+			return TODO;
+		}
+
+		@Override
+		public String getDoneFolder() {
+			return DONE;
+		}
+
+		@Override
+		public String getIgnoredFolder() {
+			return "/merges/user/ignored/"; //$NON-NLS-1$
+		}
+
+		@Override
+		public String getCanceledFolder() {
+			return "/merges/user/canceled/"; //$NON-NLS-1$
+		}
+
+		@Override
+		public String getManualFolder() {
+			return "/merges/user/manual/"; //$NON-NLS-1$
+		}
+
+		@Override
+		public String getHost() {
+			return HOST;
+		}
+
+		@Override
+		public int getPort() {
+			return port;
+		}
+
+		@Override
+		public String getUser() {
+			return USER;
+		}
+
+		@Override
+		public String getPassword() {
+			return USER;
+		}
+
+	}
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BranchUrl}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class BranchUrlTest {
+
+	@Test
+	public void testTrunk() {
+		final BranchUrl url = BranchUrl.of("https://svn.aposin.org/svn/aposin/trunk/src/Test.java");
+		assertEquals("trunk", url.getBranchName());
+		assertEquals("https://svn.aposin.org/svn/aposin", url.getRepositoryRoot());
+	}
+
+	@Test
+	public void testBranch() {
+		final BranchUrl url = BranchUrl.of("https://svn.aposin.org/svn/aposin/branches/ABS_175/src");
+		assertEquals("ABS_175", url.getBranchName());
+		assertEquals("https://svn.aposin.org/svn/aposin", url.getRepositoryRoot());
+	}
+
+	@Test
+	public void testBranchWithTrunkFolder() {
+		final BranchUrl url = BranchUrl.of("https://svn.aposin.org/svn/aposin/branches/abc/trunk");
+		assertEquals("abc", url.getBranchName());
+		assertEquals("https://svn.aposin.org/svn/aposin", url.getRepositoryRoot());
+	}
+
+	@Test
+	public void testRoot() {
+		final BranchUrl url = BranchUrl.of("https://svn.aposin.org/svn/aposin");
+		assertNull(url.getBranchName());
+		assertEquals("https://svn.aposin.org/svn/aposin", url.getRepositoryRoot());
+	}
+
+	@Test
+	public void testInstancesAndBranchNamesAreShared() {
+		final BranchUrl url = BranchUrl.of("https://svn.aposin.org/svn/aposin/branches/V1.0");
+		assertSame(url, BranchUrl.of("https://svn.aposin.org/svn/aposin/branches/V1.0"));
+		assertSame(url.getBranchName(), BranchUrl.of("https://svn.aposin.org/svn/other/branches/V1.0").getBranchName());
+	}
+
+	@Test
+	public void testRemoveBranchSegmentEqualsRegex() {
+		final String[] paths = { "/branches/V1.0/src/Test.java", "/trunk/src/Test.java", "/src/Test.java",
+				"/branches//trunk/Test.java", "/branches/", "/project/branches/V1.0", "trunk", "" };
+		for (final String path : paths) {
+			assertEquals(path.replaceFirst("branches/[^/]+|trunk", ""), BranchUrl.removeBranchSegment(path), path);
+		}
+	}
+
+	@Test
+	public void testRemoveBranchSegmentWithPrefixEqualsRegex() {
+		final String[] paths = { "A   /branches/V1.0/src/Test.java", "M   /trunk/src/Test.java", "D   /src/Test.java",
+				"A  trunk", "trunk/branches/V1.0", "A", "" };
+		for (final String path : paths) {
+			assertEquals(path.replaceFirst(".{4}(branches/[^/]+|trunk)", ""), BranchUrl.removeBranchSegment(path, 4),
+					path);
+		}
+	}
+
+	@Test
+	public void testGetLastSegment() {
+		assertEquals("master", BranchUrl.getLastSegment("origin/master"));
+		assertEquals("V1.0", BranchUrl.getLastSegment("remotes/origin/V1.0"));
+		assertEquals("", BranchUrl.getLastSegment("origin/"));
+		assertNull(BranchUrl.getLastSegment("master"));
+	}
+
+}
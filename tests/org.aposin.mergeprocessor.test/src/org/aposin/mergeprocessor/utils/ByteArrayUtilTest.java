@@ -80,4 +80,18 @@ public class ByteArrayUtilTest {
 		assertArrayEquals(expected, ByteArrayUtil.replace(sequence, replacedSequence, replacingSequence));
 	}
 
+	@Test
+	public void testReplaceAll() {
+		final byte[] sequence = "abcdefabcabc".getBytes();
+		final byte[] expected = "1def11".getBytes();
+		assertArrayEquals(expected, ByteArrayUtil.replaceAll(sequence, "abc".getBytes(), "1".getBytes()));
+	}
+
+	@Test
+	public void testReplaceFirstN() {
+		final byte[] sequence = "abcdefabcabc".getBytes();
+		final byte[] expected = "1def1abc".getBytes();
+		assertArrayEquals(expected, ByteArrayUtil.replace(sequence, "abc".getBytes(), "1".getBytes(), 2));
+	}
+
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BytePatternReplacer}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class BytePatternReplacerTest {
+
+	@Test
+	public void testReplaceAll() {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("abc".getBytes(), "12".getBytes());
+		assertArrayEquals("12d12e12".getBytes(), replacer.replace("abcdabceabc".getBytes(), BytePatternReplacer.ALL));
+	}
+
+	@Test
+	public void testReplaceFirstN() {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("abc".getBytes(), "12".getBytes());
+		assertArrayEquals("12d12eabc".getBytes(), replacer.replace("abcdabceabc".getBytes(), 2));
+	}
+
+	@Test
+	public void testReplaceWithoutOverlapping() {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("aa".getBytes(), "b".getBytes());
+		assertArrayEquals("bba".getBytes(), replacer.replace("aaaaa".getBytes(), BytePatternReplacer.ALL));
+	}
+
+	@Test
+	public void testReplaceWithPartialMatches() {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("aab".getBytes(), "X".getBytes());
+		assertArrayEquals("aX-aaX".getBytes(), replacer.replace("aaab-aaaab".getBytes(), BytePatternReplacer.ALL));
+	}
+
+	@Test
+	public void testReplaceMultiplePatterns() {
+		final BytePatternReplacer replacer = new BytePatternReplacer(
+				Arrays.asList("he".getBytes(), "she".getBytes(), "hers".getBytes()),
+				Arrays.asList("1".getBytes(), "2".getBytes(), "3".getBytes()));
+		// "she" ends first, "he" and "hers" in "hers" -> "he" ends first
+		assertArrayEquals("2 1rs 1".getBytes(), replacer.replace("she hers he".getBytes(), BytePatternReplacer.ALL));
+	}
+
+	@Test
+	public void testReplaceLongestPatternEndingAtSamePosition() {
+		final BytePatternReplacer replacer = new BytePatternReplacer(Arrays.asList("c".getBytes(), "abc".getBytes()),
+				Arrays.asList("1".getBytes(), "2".getBytes()));
+		assertArrayEquals("x2x1".getBytes(), replacer.replace("xabcxc".getBytes(), BytePatternReplacer.ALL));
+	}
+
+	@Test
+	public void testReplaceIntoByteBuffer() {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("abc".getBytes(), "12345".getBytes());
+		final ByteBuffer source = ByteBuffer.wrap("xxabcxx".getBytes());
+		final ByteBuffer target = ByteBuffer.allocate(20);
+		assertEquals(1, replacer.replace(source, target, BytePatternReplacer.ALL));
+		assertEquals(0, source.remaining());
+		target.flip();
+		final byte[] result = new byte[target.remaining()];
+		target.get(result);
+		assertArrayEquals("xx12345xx".getBytes(), result);
+	}
+
+	@Test
+	public void testReplaceIntoTooSmallByteBuffer() {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("abc".getBytes(), "12345".getBytes());
+		final ByteBuffer target = ByteBuffer.allocate(7);
+		assertThrows(BufferOverflowException.class,
+				() -> replacer.replace(ByteBuffer.wrap("xxabcxx".getBytes()), target, BytePatternReplacer.ALL));
+	}
+
+	@Test
+	public void testReplaceIntoChannel() throws IOException {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("abc".getBytes(), new byte[0]);
+		final ByteBuffer source = ByteBuffer.wrap("--abc--abc--".getBytes());
+		source.position(2);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertEquals(2, replacer.replace(source, Channels.newChannel(out), BytePatternReplacer.ALL));
+		assertArrayEquals("----".getBytes(), out.toByteArray());
+	}
+
+	@Test
+	public void testReplaceBinaryPattern() {
+		final byte[] pattern = { (byte) 0xFF, 0x00, (byte) 0x80 };
+		final byte[] source = { 0x01, (byte) 0xFF, (byte) 0xFF, 0x00, (byte) 0x80, 0x02 };
+		final BytePatternReplacer replacer = BytePatternReplacer.of(pattern, new byte[] { 0x7F });
+		assertArrayEquals(new byte[] { 0x01, (byte) 0xFF, 0x7F, 0x02 }, replacer.replace(source, 1));
+	}
+
+	@Test
+	public void testIndexOf() {
+		final BytePatternReplacer replacer = new BytePatternReplacer(Arrays.asList("de".getBytes(), "xyz".getBytes()),
+				Arrays.asList(new byte[0], new byte[0]));
+		assertEquals(3, replacer.indexOf("abcdefxyz".getBytes()));
+		assertEquals(-1, replacer.indexOf("abcdfe".getBytes()));
+	}
+
+	@Test
+	public void testIndexOfChannelAcrossBufferBoundary() throws IOException {
+		final BytePatternReplacer replacer = BytePatternReplacer.of("aab".getBytes(), new byte[0]);
+		final ByteBuffer buffer = ByteBuffer.allocate(4);
+		assertEquals(3, replacer.indexOf(Channels.newChannel(new ByteArrayInputStream("aaaaab".getBytes())), buffer));
+		assertEquals(-1, replacer.indexOf(Channels.newChannel(new ByteArrayInputStream("aaaaaa".getBytes())), buffer));
+	}
+
+	@Test
+	public void testEmptyPattern() {
+		assertThrows(IllegalArgumentException.class, () -> BytePatternReplacer.of(new byte[0], new byte[0]));
+		assertThrows(IllegalArgumentException.class,
+				() -> new BytePatternReplacer(Collections.emptyList(), Collections.emptyList()));
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link FileUtils#replaceFirst(Path, byte[], byte[])}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class FileUtilsReplaceTest {
+
+	private Path file;
+
+	@BeforeEach
+	public void before() throws IOException {
+		file = Files.createTempFile("tempFileToReplace", ".java");
+	}
+
+	@AfterEach
+	public void after() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testReplaceWithSameLength() throws IOException {
+		Files.write(file, "package a.b.c;\nclass A {}\n".getBytes());
+		assertTrue(FileUtils.replaceFirst(file, "package a.b.c".getBytes(), "package x.y.z".getBytes()));
+		assertArrayEquals("package x.y.z;\nclass A {}\n".getBytes(), Files.readAllBytes(file));
+	}
+
+	@Test
+	public void testReplaceWithDifferentLength() throws IOException {
+		Files.write(file, "package a.b.c;\nclass A {}\n".getBytes());
+		assertTrue(FileUtils.replaceFirst(file, "package a.b.c".getBytes(), "package org.x".getBytes()));
+		assertTrue(FileUtils.replaceFirst(file, "package org.x".getBytes(), "package de".getBytes()));
+		assertArrayEquals("package de;\nclass A {}\n".getBytes(), Files.readAllBytes(file));
+	}
+
+	@Test
+	public void testReplaceWithDifferentLengthKeepsPermissions() throws IOException {
+		assumeTrue(Files.getFileAttributeView(file, PosixFileAttributeView.class) != null);
+		Files.write(file, "#!/bin/sh\necho a\n".getBytes());
+		final Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+		Files.setPosixFilePermissions(file, permissions);
+		assertTrue(FileUtils.replaceFirst(file, "echo a".getBytes(), "echo abc".getBytes()));
+		assertArrayEquals("#!/bin/sh\necho abc\n".getBytes(), Files.readAllBytes(file));
+		assertEquals(permissions, Files.getPosixFilePermissions(file));
+	}
+
+	@Test
+	public void testReplaceOnlyFirstOccurrence() throws IOException {
+		Files.write(file, "abcabc".getBytes());
+		assertTrue(FileUtils.replaceFirst(file, "abc".getBytes(), "1234".getBytes()));
+		assertArrayEquals("1234abc".getBytes(), Files.readAllBytes(file));
+	}
+
+	@Test
+	public void testReplaceNotExistingSequence() throws IOException {
+		Files.write(file, "abcdef".getBytes());
+		assertFalse(FileUtils.replaceFirst(file, "xyz".getBytes(), "123".getBytes()));
+		assertArrayEquals("abcdef".getBytes(), Files.readAllBytes(file));
+	}
+
+	@Test
+	public void testReplaceAcrossBufferBoundary() throws IOException {
+		final byte[] content = new byte[200_000];
+		Arrays.fill(content, (byte) 'a');
+		final int index = 64 * 1024 - 2;
+		System.arraycopy("aab".getBytes(), 0, content, index, 3);
+		Files.write(file, content);
+		assertTrue(FileUtils.replaceFirst(file, "aab".getBytes(), "c".getBytes()));
+		final byte[] result = Files.readAllBytes(file);
+		assertEquals(content.length - 2, result.length);
+		assertEquals((byte) 'c', result[index]);
+	}
+
+}
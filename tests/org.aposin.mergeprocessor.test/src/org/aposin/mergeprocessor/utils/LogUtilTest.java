@@ -122,6 +122,24 @@ public class LogUtilTest {
 		assertArrayEquals(new Object[] { "Test1", "Test2", "Test3" }, handler.record.getParameters());
 	}
 
+	@Test
+	public void testGetLogger() {
+		assertSame(LOGGER_OF_LOGCAUSER, LogCauser.getLoggerInLogCauser());
+	}
+
+	@Test
+	public void testNothingLoggedIfTracingDisabled() {
+		LOGGER_OF_LOGCAUSER.setLevel(Level.INFO);
+		try {
+			LogCauser.enteringInLogCauser("Test");
+			LogCauser.exitingInLogCauser();
+			assertEquals("String", LogCauser.exitingInLogCauser("String"));
+			assertNull(handler.record);
+		} finally {
+			LOGGER_OF_LOGCAUSER.setLevel(Level.ALL);
+		}
+	}
+
 	/**
 	 * Class causing log entries.
 	 * 
@@ -130,6 +148,10 @@ public class LogUtilTest {
 	 */
 	private static class LogCauser {
 
+		private static Logger getLoggerInLogCauser() {
+			return LogUtil.getLogger();
+		}
+
 		private static Exception throwingInLogCauser() {
 			return LogUtil.throwing(new Exception());
 		}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2019 Association for the promotion of open-source insurance software and for the establishment of open interface standards in the insurance industry (Verein zur Förderung quelloffener Versicherungssoftware und Etablierung offener Schnittstellenstandards in der Versicherungsbranche)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aposin.mergeprocessor.view.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.aposin.mergeprocessor.configuration.git.MockMergeUnit;
+import org.aposin.mergeprocessor.model.IMergeUnit;
+import org.aposin.mergeprocessor.model.MergeUnitStatus;
+import org.aposin.mergeprocessor.view.Column;
+import org.eclipse.swt.SWT;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MergeUnitSorter}.
+ * 
+ * @author Stefan Weiser
+ *
+ */
+public class MergeUnitSorterTest {
+
+	@Test
+	public void testSortRevisionsNumerically() {
+		final IMergeUnit[] mergeUnits = { new SortMergeUnit("10:12"), new SortMergeUnit("9:12"),
+				new SortMergeUnit("9:10"), new SortMergeUnit("100:101") };
+		final MergeUnitSorter sorter = new MergeUnitSorter();
+		assertArrayEquals(new int[] { 2, 1, 0, 3 }, sorter.sort(mergeUnits, Column.COLUMN_REVISIONS, true));
+		assertArrayEquals(new int[] { 3, 0, 1, 2 }, sorter.sort(mergeUnits, Column.COLUMN_REVISIONS, false));
+	}
+
+	@Test
+	public void testSortGitRevisionsAfterSvnRevisions() {
+		final IMergeUnit[] mergeUnits = { new SortMergeUnit("b1f3"), new SortMergeUnit("9:12"),
+				new SortMergeUnit("a2c4"), new SortMergeUnit(null) };
+		final MergeUnitSorter sorter = new MergeUnitSorter();
+		assertArrayEquals(new int[] { 1, 3, 2, 0 }, sorter.sort(mergeUnits, Column.COLUMN_REVISIONS, true));
+	}
+
+	@Test
+	public void testSortIsStable() {
+		final IMergeUnit[] mergeUnits = new IMergeUnit[100];
+		for (int i = 0; i < mergeUnits.length; i++) {
+			mergeUnits[i] = new SortMergeUnit(i % 3 + ":0");
+		}
+		final int[] order = new MergeUnitSorter().sort(mergeUnits, Column.COLUMN_REVISIONS, false);
+		for (int i = 1; i < order.length; i++) {
+			final int previous = order[i - 1] % 3;
+			final int current = order[i] % 3;
+			assertTrue(previous > current || (previous == current && order[i - 1] < order[i]));
+		}
+	}
+
+	@Test
+	public void testSortEqualsComparatorOnRandomInput() {
+		final Random random = new Random(42);
+		final IMergeUnit[] mergeUnits = new IMergeUnit[5000];
+		for (int i = 0; i < mergeUnits.length; i++) {
+			final SortMergeUnit mergeUnit = new SortMergeUnit(random.nextInt(1000) + ":" + random.nextInt(1000));
+			mergeUnit.date = LocalDateTime.of(2020, 1, 1, 0, 0).plusSeconds(random.nextInt(100_000));
+			mergeUnits[i] = mergeUnit;
+		}
+		final MergeUnitSorter sorter = new MergeUnitSorter();
+		for (final Column column : Arrays.asList(Column.COLUMN_DATE, Column.COLUMN_REVISIONS)) {
+			final IMergeUnit[] expected = mergeUnits.clone();
+			final Comparator<IMergeUnit> comparator = (m1, m2) -> sorter.compare(m1, m2, column);
+			Arrays.sort(expected, comparator);
+			final int[] order = sorter.sort(mergeUnits, column, true);
+			for (int i = 0; i < order.length; i++) {
+				assertEquals(expected[i], mergeUnits[order[i]]);
+			}
+		}
+	}
+
+	@Test
+	public void testSortKeysAreCached() {
+		final SortMergeUnit mergeUnit = new SortMergeUnit("1:2");
+		final IMergeUnit[] mergeUnits = { mergeUnit, new SortMergeUnit("3:4") };
+		final MergeUnitSorter sorter = new MergeUnitSorter();
+		sorter.sort(mergeUnits, Column.COLUMN_REVISIONS, true);
+		sorter.sort(mergeUnits, Column.COLUMN_REVISIONS, false);
+		assertEquals(1, mergeUnit.revisionInfoCalls);
+
+		sorter.retain(Arrays.asList(mergeUnits[1]));
+		sorter.sort(mergeUnits, Column.COLUMN_REVISIONS, true);
+		assertEquals(2, mergeUnit.revisionInfoCalls);
+	}
+
+	@Test
+	public void testSortByStatusIsNotCached() {
+		final SortMergeUnit mergeUnit1 = new SortMergeUnit("1:2");
+		final SortMergeUnit mergeUnit2 = new SortMergeUnit("3:4");
+		mergeUnit1.status = MergeUnitStatus.DONE;
+		final IMergeUnit[] mergeUnits = { mergeUnit1, mergeUnit2 };
+		final MergeUnitSorter sorter = new MergeUnitSorter();
+		assertArrayEquals(new int[] { 1, 0 }, sorter.sort(mergeUnits, Column.COLUMN_STATUS, true));
+		mergeUnit1.status = MergeUnitStatus.TODO;
+		mergeUnit2.status = MergeUnitStatus.DONE;
+		assertArrayEquals(new int[] { 0, 1 }, sorter.sort(mergeUnits, Column.COLUMN_STATUS, true));
+	}
+
+	@Test
+	public void testComparatorDoesNotReuseOrderByStatus() throws Exception {
+		final SortMergeUnit mergeUnit1 = new SortMergeUnit("1:2");
+		final SortMergeUnit mergeUnit2 = new SortMergeUnit("3:4");
+		mergeUnit1.status = MergeUnitStatus.DONE;
+		final Object[] elements = { mergeUnit1, mergeUnit2 };
+		final MergeUnitViewerComparator comparator = new MergeUnitViewerComparator();
+		comparator.setColumn(Arrays.asList(Column.sortedValues()).indexOf(Column.COLUMN_STATUS));
+		comparator.sortInBackground(elements, SWT.UP).get();
+		// The status changes after the order was computed in the background
+		mergeUnit1.status = MergeUnitStatus.TODO;
+		mergeUnit2.status = MergeUnitStatus.DONE;
+		comparator.sort(null, elements);
+		assertArrayEquals(new Object[] { mergeUnit1, mergeUnit2 }, elements);
+	}
+
+	/**
+	 * Merge unit providing the values to sort.
+	 */
+	private static class SortMergeUnit extends MockMergeUnit {
+
+		private final String revisionInfo;
+		private MergeUnitStatus status = MergeUnitStatus.TODO;
+		private LocalDateTime date;
+		private int revisionInfoCalls;
+
+		private SortMergeUnit(final String revisionInfo) {
+			this.revisionInfo = revisionInfo;
+		}
+
+		@Override
+		public String getRevisionInfo() {
+			revisionInfoCalls++;
+			return revisionInfo;
+		}
+
+		@Override
+		public MergeUnitStatus getStatus() {
+			return status;
+		}
+
+		@Override
+		public LocalDateTime getDate() {
+			return date;
+		}
+
+	}
+
+}